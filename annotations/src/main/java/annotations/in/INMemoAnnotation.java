@@ -0,0 +1,59 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Nick Battle.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package annotations.in;
+
+import com.fujitsu.vdmj.in.annotations.INAnnotation;
+import com.fujitsu.vdmj.in.expressions.INExpressionList;
+import com.fujitsu.vdmj.in.expressions.INIntegerLiteralExpression;
+import com.fujitsu.vdmj.tc.lex.TCIdentifierToken;
+import com.fujitsu.vdmj.values.FunctionCache;
+import com.fujitsu.vdmj.values.FunctionValue;
+
+/**
+ * Cache the results of a function, so that calls with the same arguments do
+ * not evaluate the body again. The optional argument is the maximum number of
+ * results held, after which the least recently used is discarded.
+ */
+public class INMemoAnnotation extends INAnnotation
+{
+	public INMemoAnnotation(TCIdentifierToken name, INExpressionList args)
+	{
+		super(name, args);
+	}
+
+	@Override
+	public void inFunctionValue(FunctionValue func)
+	{
+		int size = FunctionCache.DEFAULT_SIZE;
+
+		if (!args.isEmpty())
+		{
+			INIntegerLiteralExpression arg = (INIntegerLiteralExpression)args.get(0);
+			size = (int)arg.value.value;
+		}
+
+		func.cache = new FunctionCache(func.name, size);
+	}
+}
@@ -40,7 +40,7 @@ public class CountVisitor extends ValueVisitor<Long, Object>
 	{
 		long count = 0;
 		
-		for (Value v: node.values)
+		for (Value v: node.seqValue(null))
 		{
 			count += v.apply(this, arg);
 		}
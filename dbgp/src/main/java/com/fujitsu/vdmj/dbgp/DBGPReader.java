@@ -580,7 +580,7 @@ public class DBGPReader extends DebugLink
 	
 	public static synchronized DBGPReader getInstance()
 	{
-		String name = Thread.currentThread().getName();
+		String name = SchedulableThread.currentName();
 		DBGPReader reader = threadInstances.get(name);
 		
 		if (name.equals("MainThread") || name.equals("CTMainThread"))
@@ -706,7 +706,7 @@ public class DBGPReader extends DebugLink
 		sb.append("idekey=\"" + ideKey + "\" ");
 		sb.append("session=\"" + sessionId + "\" ");
 		sb.append("thread=\"");
-		sb.append(Thread.currentThread().getId());
+		sb.append(SchedulableThread.currentId());
 
 		if (cpu != null)
 		{
@@ -862,9 +862,9 @@ public class DBGPReader extends DebugLink
 		StringBuilder body = new StringBuilder();
 		body.append("<internal ");
 
-		if (Thread.currentThread() instanceof SchedulableThread)
+		if (SchedulableThread.current() != null)
 		{
-			SchedulableThread th = (SchedulableThread)Thread.currentThread();
+			SchedulableThread th = SchedulableThread.current();
 
 			body.append("threadId=\"");
 			body.append(th.getId());
@@ -881,8 +881,8 @@ public class DBGPReader extends DebugLink
 		}
 		else	// The init thread?
 		{
-			body.append("threadId=\"" + Thread.currentThread().getId() + "\" ");
-			body.append("threadName=\"" + Thread.currentThread().getName() +"\" ");
+			body.append("threadId=\"" + SchedulableThread.currentId() + "\" ");
+			body.append("threadName=\"" + SchedulableThread.currentName() +"\" ");
 			body.append("threadState=\"RUNNING\" ");
 		}
 
@@ -1029,14 +1029,14 @@ public class DBGPReader extends DebugLink
 		
 		if (value instanceof SetValue)
 		{
-			results.addAll(((SetValue)value).values);
+			results.addAll(((SetValue)value).setValue(null));
 		}
 		else if (value instanceof SeqValue)
 		{
 			SeqValue seq = (SeqValue)value;
-			boolean string = !seq.values.isEmpty();		// So it's [] and not ""
+			boolean string = !seq.seqValue(null).isEmpty();		// So it's [] and not ""
 			
-			for (Value e: seq.values)
+			for (Value e: seq.seqValue(null))
 			{
 				if (!(e instanceof CharacterValue))
 				{
@@ -1051,12 +1051,12 @@ public class DBGPReader extends DebugLink
 			}
 			else
 			{
-				results.addAll(seq.values);
+				results.addAll(seq.seqValue(null));
 			}
 		}
 		else if (value instanceof MapValue)
 		{
-			ValueMap map = ((MapValue)value).values;
+			ValueMap map = ((MapValue)value).mapValue(null);
 			
 			for (Value dom: map.keySet())
 			{
@@ -1078,14 +1078,14 @@ public class DBGPReader extends DebugLink
 		
 		if (value instanceof SetValue)
 		{
-			return ((SetValue)value).values.size();
+			return ((SetValue)value).setValue(null).size();
 		}
 		else if (value instanceof SeqValue)
 		{
 			SeqValue seq = (SeqValue)value;
-			boolean string = !seq.values.isEmpty();		// So it's [] and not ""
+			boolean string = !seq.seqValue(null).isEmpty();		// So it's [] and not ""
 			
-			for (Value e: seq.values)
+			for (Value e: seq.seqValue(null))
 			{
 				if (!(e instanceof CharacterValue))
 				{
@@ -1100,12 +1100,12 @@ public class DBGPReader extends DebugLink
 			}
 			else
 			{
-				return ((SeqValue)value).values.size();
+				return ((SeqValue)value).length();
 			}
 		}
 		else if (value instanceof MapValue)
 		{
-			return ((MapValue)value).values.size();
+			return ((MapValue)value).mapValue(null).size();
 		}
 		else
 		{
@@ -1247,9 +1247,9 @@ public class DBGPReader extends DebugLink
 		}
 		finally
 		{
-			threadInstances.remove(Thread.currentThread().getName());
+			threadInstances.remove(SchedulableThread.currentName());
 			
-			if (!(Thread.currentThread() instanceof MainThread))	// Don't close main link to client
+			if (!(SchedulableThread.current() instanceof MainThread))	// Don't close main link to client
 			{
 				try
 				{
@@ -2644,7 +2644,7 @@ public class DBGPReader extends DebugLink
 
 		OutputStream out = new ByteArrayOutputStream();
 		ConsolePrintWriter pw = new ConsolePrintWriter(out);
-		pw.println("Stopped [" + Thread.currentThread().getName() + "] " + breakpoint.location);
+		pw.println("Stopped [" + SchedulableThread.currentName() + "] " + breakpoint.location);
 		breakContext.printStackTrace(pw, true);
 		pw.close();
 		cdataResponse(out.toString());
@@ -2856,8 +2856,8 @@ public class DBGPReader extends DebugLink
 		try
 		{
 			String[] parts = c.data.split("\\s+");
-			int startTest = Integer.parseInt(parts[1]);
-			int endTest = Integer.parseInt(parts[2]);
+			long startTest = Long.parseLong(parts[1]);
+			long endTest = Long.parseLong(parts[2]);
 			boolean debug = Boolean.parseBoolean(parts[3]);
 
 			ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -2947,13 +2947,13 @@ public class DBGPReader extends DebugLink
 
 		if (breakpoint.location.startLine == 0)
 		{
-			cdataResponse("Stopped [" + Thread.currentThread().getName() + "] Thread has not started");
+			cdataResponse("Stopped [" + SchedulableThread.currentName() + "] Thread has not started");
 		}
 		else
 		{
     		OutputStream out = new ByteArrayOutputStream();
     		PrintWriter pw = new PrintWriter(out);
-    		pw.println("Stopped [" + Thread.currentThread().getName() + "] " + breakpoint.location);
+    		pw.println("Stopped [" + SchedulableThread.currentName() + "] " + breakpoint.location);
     		pw.println(interpreter.getSourceLine(
     			breakpoint.location.file, breakpoint.location.startLine, ":  "));
     		pw.close();
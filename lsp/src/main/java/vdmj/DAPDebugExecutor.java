@@ -65,6 +65,7 @@ import com.fujitsu.vdmj.values.SeqValue;
 import com.fujitsu.vdmj.values.SetValue;
 import com.fujitsu.vdmj.values.TupleValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueMap;
 
 import json.JSONArray;
 import json.JSONObject;
@@ -422,7 +423,7 @@ public class DAPDebugExecutor implements DebugExecutor
 			SetValue s = (SetValue)var;
 			int i = 1;
 			
-			for (Value value: s.values)
+			for (Value value: s.setValue(null))
 			{
 				variables.add(new JSONObject(
 						"name", "{" + i++ + "}",
@@ -436,7 +437,7 @@ public class DAPDebugExecutor implements DebugExecutor
 			SeqValue s = (SeqValue)var;
 			int i = 1;
 			
-			for (Value value: s.values)
+			for (Value value: s.seqValue(null))
 			{
 				variables.add(new JSONObject(
 						"name", "[" + i++ + "]",
@@ -469,14 +470,14 @@ public class DAPDebugExecutor implements DebugExecutor
 		}
 		else if (var instanceof MapValue)
 		{
-			MapValue m = (MapValue)var;
+			ValueMap m = ((MapValue)var).mapValue(null);
 			
-			for (Value key: m.values.keySet())
+			for (Value key: m.keySet())
 			{
 				variables.add(new JSONObject(
 					"name", key.toString(),
-					"value", m.values.get(key).toString(),
-					"variablesReference", valueToReference(m.values.get(key)))
+					"value", m.get(key).toString(),
+					"variablesReference", valueToReference(m.get(key)))
 				);
 			}
 		}
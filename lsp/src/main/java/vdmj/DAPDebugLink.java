@@ -85,9 +85,9 @@ public class DAPDebugLink extends ConsoleDebugLink
 		
 		try
 		{
-			Log.printf("New thread %s(%d)", Thread.currentThread().getName(), Thread.currentThread().getId());
+			Log.printf("New thread %s(%d)", SchedulableThread.currentName(), SchedulableThread.currentId());
 			server.writeMessage(new DAPResponse("thread",
-				new JSONObject("reason", "started", "threadId", Thread.currentThread().getId())));
+				new JSONObject("reason", "started", "threadId", SchedulableThread.currentId())));
 		}
 		catch (IOException e)
 		{
@@ -103,7 +103,7 @@ public class DAPDebugLink extends ConsoleDebugLink
 			return;
 		}
 		
-		SchedulableThread thread = (SchedulableThread) Thread.currentThread();
+		SchedulableThread thread = SchedulableThread.current();
 		Breakpoint bp = getBreakpoint(thread);
 		String reason = null;
 		boolean focusHint = true;
@@ -150,7 +150,7 @@ public class DAPDebugLink extends ConsoleDebugLink
 			server.writeMessage(new DAPResponse("stopped",
 					new JSONObject(
 							"reason", reason,
-							"threadId", Thread.currentThread().getId(),
+							"threadId", SchedulableThread.currentId(),
 							"preserveFocusHint", focusHint,
 							"text", text,
 							"allThreadsStopped", SchedulableThread.getThreadCount() == 1)));
@@ -168,7 +168,7 @@ public class DAPDebugLink extends ConsoleDebugLink
 			{
 				server.writeMessage(new DAPResponse("continued",
 						new JSONObject(
-							"threadId", Thread.currentThread().getId(),
+							"threadId", SchedulableThread.currentId(),
 							"allThreadsContinued", true)));
 			}
 			catch (IOException e)
@@ -207,9 +207,9 @@ public class DAPDebugLink extends ConsoleDebugLink
 		
 		try
 		{
-			Log.printf("End thread %s(%d)", Thread.currentThread().getName(), Thread.currentThread().getId());
+			Log.printf("End thread %s(%d)", SchedulableThread.currentName(), SchedulableThread.currentId());
 			server.writeMessage(new DAPResponse("thread",
-				new JSONObject("reason", "exited", "threadId", Thread.currentThread().getId())));
+				new JSONObject("reason", "exited", "threadId", SchedulableThread.currentId())));
 		}
 		catch (IOException e)
 		{
@@ -315,7 +315,7 @@ public class DAPDebugReader extends Thread implements TraceCallback
 		if (tp.condition == null)
 		{
 			String s = "Reached trace point " + tp.location + "\n";
-			server.stdout(Thread.currentThread().getName() + ": " + s);
+			server.stdout(SchedulableThread.currentName() + ": " + s);
 		}
 		else
 		{
@@ -331,7 +331,7 @@ public class DAPDebugReader extends Thread implements TraceCallback
 			}
 			
 			String s = tp.trace + " = " + result + " at trace point " + tp.location + "\n";
-			server.stdout(Thread.currentThread().getName() + ": " + s);
+			server.stdout(SchedulableThread.currentName() + ": " + s);
 		}
 	}
 }
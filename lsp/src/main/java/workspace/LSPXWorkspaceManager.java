@@ -180,7 +180,7 @@ public class LSPXWorkspaceManager
 	
 			DAPWorkspaceManager.getInstance().refreshInterpreter();
 			TCNameToken tracename = Utils.stringToName(name);
-			int count = ct.generate(tracename);
+			long count = ct.generate(tracename);
 			return new RPCMessageList(request, new JSONObject("numberOfTests", count));
 		}
 		catch (LSPException e)
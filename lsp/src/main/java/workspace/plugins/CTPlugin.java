@@ -55,11 +55,11 @@ abstract public class CTPlugin extends AnalysisPlugin
 	protected TraceIterator traceIterator = null;
 	protected INClassDefinition traceClassDef = null;
 	protected Context traceContext = null;
-	protected int traceCount = 0;
+	protected long traceCount = 0;
 	protected TCNameToken traceName = null;
 	protected TraceFilter traceFilter = null;
 	
-	protected int testNumber = 0;
+	protected long testNumber = 0;
 	protected TraceExecutor traceExecutor = null;
 	protected boolean traceRunning = false;
 	
@@ -103,7 +103,7 @@ abstract public class CTPlugin extends AnalysisPlugin
 
 	abstract public <T> T getCT();
 	
-	public int generate(TCNameToken tracename) throws LSPException
+	public long generate(TCNameToken tracename) throws LSPException
 	{
 		Interpreter interpreter = DAPWorkspaceManager.getInstance().getInterpreter();
 		interpreter.init();
@@ -159,7 +159,7 @@ abstract public class CTPlugin extends AnalysisPlugin
 		
 		if (endTest == null)		// To the end of the tests, if not specified
 		{
-			endTest = (long) traceCount;
+			endTest = traceCount;
 		}
 		
 		if (startTest == null || startTest == 1)
@@ -173,16 +173,10 @@ abstract public class CTPlugin extends AnalysisPlugin
 			traceFilter = new TraceFilter(traceCount, 1.0F, TraceReductionType.NONE, 0);
 		}
 
-		traceIterator.reset();
-		testNumber = startTest.intValue();
+		testNumber = startTest;
 		traceRunning = true;
 
-		for (int i=1; i < startTest && traceIterator.hasMoreTests(); i++)
-		{
-			traceIterator.getNextTest();	// Skip first N-1 tests
-		}
-		
-		if (traceIterator.hasMoreTests())
+		if (testNumber <= endTest)
 		{
 			traceExecutor = new TraceExecutor(request, progressToken, workDoneToken, startTest, endTest);
 			traceExecutor.start();
@@ -203,18 +197,17 @@ abstract public class CTPlugin extends AnalysisPlugin
 			generate(tracename);
 		}
 		
-		traceIterator.reset();
-
-		for (int i=1; i < testNumber && traceIterator.hasMoreTests(); i++)
+		if (testNumber < 1 || testNumber > traceCount)
 		{
-			traceIterator.getNextTest();	// Skip first N-1 tests
+			throw new LSPException(RPCErrors.ContentModified,
+					"Trace " + traceName + " only has " + traceCount + " tests");
 		}
 
-		CallSequence test = traceIterator.getNextTest();
+		CallSequence test = traceIterator.getTest(testNumber - 1);
 		String callString = test.getCallString(traceContext);
 		Interpreter interpreter = DAPWorkspaceManager.getInstance().getInterpreter();
 
-		interpreter.init();
+		interpreter.traceTestInit();
 		List<Object> result = interpreter.runOneTrace(traceClassDef, test, true);
 
 		return new JSONObject(
@@ -259,7 +252,7 @@ abstract public class CTPlugin extends AnalysisPlugin
 			
 			try
 			{
-				while (traceIterator.hasMoreTests() && testNumber <= endTest)
+				while (testNumber <= endTest)
 				{
 					JSONArray batch = runBatch(BATCH_SIZE, endTest);
 					
@@ -369,9 +362,15 @@ abstract public class CTPlugin extends AnalysisPlugin
 			
 			Log.printf("Starting batch at test number %d...", testNumber);
 		
-			while (traceIterator.hasMoreTests() && batchSize > 0 && testNumber <= endTest)
+			while (batchSize > 0 && testNumber <= endTest)
 			{
-				CallSequence test = traceIterator.getNextTest();
+				if (traceFilter.isRemoved(testNumber))
+				{
+					testNumber++;
+					continue;		// Random reduction, without creating the test
+				}
+
+				CallSequence test = traceIterator.getTest(testNumber - 1);
 				
 				if (traceFilter.isRemoved(test, testNumber))
 				{
@@ -390,7 +389,7 @@ abstract public class CTPlugin extends AnalysisPlugin
 					}
 					else
 					{
-		    			interpreter.init();	// Initialize completely between every run...
+		    			interpreter.traceTestInit();	// Initialize completely between every run...
 		    			List<Object> result = interpreter.runOneTrace(traceClassDef, test, false);
 		    			traceFilter.update(result, test, testNumber);
 		
@@ -46,6 +46,7 @@ import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.CharacterValue;
 import com.fujitsu.vdmj.values.NilValue;
 import com.fujitsu.vdmj.values.SeqValue;
+import com.fujitsu.vdmj.values.StringSeqValue;
 import com.fujitsu.vdmj.values.TupleValue;
 import com.fujitsu.vdmj.values.Value;
 import com.fujitsu.vdmj.values.ValueList;
@@ -163,7 +164,7 @@ public class IO implements Serializable
 
 	public static Value ferror()
 	{
-		return new SeqValue(lastError);
+		return new StringSeqValue(lastError);
 	}
 
 	// We need this because the toString of the Value converts special
@@ -174,11 +175,15 @@ public class IO implements Serializable
 		StringBuilder s = new StringBuilder();
 		val = val.deref();
 
-		if (val instanceof SeqValue)
+		if (val instanceof StringSeqValue)
+		{
+			return ((StringSeqValue)val).chars();
+		}
+		else if (val instanceof SeqValue)
 		{
 			SeqValue sv = (SeqValue)val;
 
-			for (Value v: sv.values)
+			for (Value v: sv.seqValue(null))
 			{
 				v = v.deref();
 
@@ -40,6 +40,7 @@ import com.fujitsu.vdmj.values.CharacterValue;
 import com.fujitsu.vdmj.values.NilValue;
 import com.fujitsu.vdmj.values.ObjectValue;
 import com.fujitsu.vdmj.values.SeqValue;
+import com.fujitsu.vdmj.values.StringSeqValue;
 import com.fujitsu.vdmj.values.TupleValue;
 import com.fujitsu.vdmj.values.Value;
 import com.fujitsu.vdmj.values.ValueList;
@@ -57,7 +58,7 @@ public class VDMUtil
 
 	public static Value val2seq_of_char(Value arg)
 	{
-		return new SeqValue(arg.toString());
+		return new StringSeqValue(arg.toString());
 	}
 
 	public static Value seq_of_char2val_(Value arg)
@@ -68,11 +69,18 @@ public class VDMUtil
 		{
 			SeqValue seq = (SeqValue) arg;
 			StringBuilder expression = new StringBuilder();
-			
-			for (Value v: seq.values)
+
+			if (seq instanceof StringSeqValue)
+			{
+				expression.append(((StringSeqValue) seq).chars());
+			}
+			else
 			{
-				CharacterValue ch = (CharacterValue) v;
-				expression.append(ch.unicode);
+				for (Value v: seq.seqValue(null))
+				{
+					CharacterValue ch = (CharacterValue) v;
+					expression.append(ch.unicode);
+				}
 			}
 			
 			LexTokenReader ltr = new LexTokenReader(expression.toString(), Dialect.VDM_PP);
@@ -106,7 +114,7 @@ public class VDMUtil
 		if (a instanceof ObjectValue)
 		{
 			ObjectValue obj = (ObjectValue)a;
-			return new SeqValue(obj.type.name.getName());
+			return new StringSeqValue(obj.type.name.getName());
 		}
 		else
 		{
@@ -544,7 +544,7 @@ abstract public class VDMJ
 		System.err.println("-exceptions: raise pre/post/inv violations as <RuntimeError>");
 		System.err.println("-measures: disable recursive measure checking");
 		System.err.println("-annotations: enable annotation processing");
-		System.err.println("-log <filename>: enable real-time event logging");
+		System.err.println("-log <filename>: enable real-time event logging (binary if *.rtbin)");
 		System.err.println("-remote <class>: enable remote control");
 		System.err.println("-verbose: display detailed startup information");
 
@@ -25,8 +25,6 @@ package com.fujitsu.vdmj;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 
@@ -230,8 +228,7 @@ public class VDMPP extends VDMJ
 		{
     		try
     		{
-    			PrintWriter p = new PrintWriter(new FileOutputStream(logfile, false));
-    			RTLogger.setLogfile(p);
+    			RTLogger.openLogfile(new File(logfile));
     			println("RT events now logged to " + logfile);
     		}
     		catch (FileNotFoundException e)
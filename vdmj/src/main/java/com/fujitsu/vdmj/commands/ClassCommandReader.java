@@ -23,9 +23,8 @@
 
 package com.fujitsu.vdmj.commands;
 
+import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.PrintWriter;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -184,8 +183,7 @@ public class ClassCommandReader extends CommandReader
 		{
 			try
 			{
-				PrintWriter p = new PrintWriter(new FileOutputStream(parts[1], false));
-				RTLogger.setLogfile(p);
+				RTLogger.openLogfile(new File(parts[1]));
 				println("RT events now logged to " + parts[1]);
 			}
 			catch (FileNotFoundException e)
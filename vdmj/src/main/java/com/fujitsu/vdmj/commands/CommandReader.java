@@ -23,12 +23,15 @@
 
 package com.fujitsu.vdmj.commands;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Constructor;
@@ -43,6 +46,8 @@ import java.util.regex.Pattern;
 import com.fujitsu.vdmj.ExitStatus;
 import com.fujitsu.vdmj.Settings;
 import com.fujitsu.vdmj.VDMJ;
+import com.fujitsu.vdmj.config.Properties;
+import com.fujitsu.vdmj.lex.BinaryCoverage;
 import com.fujitsu.vdmj.lex.Dialect;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.debug.ConsoleDebugReader;
@@ -57,9 +62,12 @@ import com.fujitsu.vdmj.runtime.ContextException;
 import com.fujitsu.vdmj.runtime.DebuggerException;
 import com.fujitsu.vdmj.runtime.Interpreter;
 import com.fujitsu.vdmj.runtime.SourceFile;
+import com.fujitsu.vdmj.scheduler.Lock;
 import com.fujitsu.vdmj.syntax.ParserException;
 import com.fujitsu.vdmj.traces.TraceReductionType;
 import com.fujitsu.vdmj.values.BooleanValue;
+import com.fujitsu.vdmj.values.FunctionCache;
+import com.fujitsu.vdmj.values.HashStatistics;
 import com.fujitsu.vdmj.values.Value;
 
 /**
@@ -452,6 +460,30 @@ abstract public class CommandReader
    			long after = System.currentTimeMillis();
 			println("Executed in " + (double)(after-before)/1000 + " secs. ");
 
+			if (Properties.diags_hashcodes)
+			{
+				println(HashStatistics.report());
+				HashStatistics.reset();
+			}
+
+			if (Properties.diags_guards)
+			{
+				println("Guard wake-ups avoided: " + Lock.getAvoidedWakeups());
+				Lock.resetAvoidedWakeups();
+			}
+
+			if (Properties.diags_function_cache)
+			{
+				String report = FunctionCache.report();
+
+				if (!report.isEmpty())
+				{
+					println(report);
+				}
+
+				FunctionCache.resetStatistics();
+			}
+
 			if (RTLogger.getLogSize() > 0)
 			{
 				println("Dumped RT events");
@@ -550,14 +582,14 @@ abstract public class CommandReader
 	protected boolean doRuntrace(String line, boolean debug)
 	{
 		String[] parts = line.split("\\s+");
-		int startTest = 0;
-		int endTest = 0;
+		long startTest = 0;
+		long endTest = 0;
 
 		if (parts.length == 3)
 		{
 			try
 			{
-				startTest = Integer.parseInt(parts[2]);
+				startTest = Long.parseLong(parts[2]);
 				endTest = startTest;
 			}
 			catch (NumberFormatException e)
@@ -570,8 +602,8 @@ abstract public class CommandReader
 		{
 			try
 			{
-				startTest = Integer.parseInt(parts[2]);
-				endTest = parts[3].equalsIgnoreCase("end") ? 0 : Integer.parseInt(parts[3]);
+				startTest = Long.parseLong(parts[2]);
+				endTest = parts[3].equalsIgnoreCase("end") ? 0 : Long.parseLong(parts[3]);
 			}
 			catch (NumberFormatException e)
 			{
@@ -988,7 +1020,13 @@ abstract public class CommandReader
 
 			if (parts.length == 3 && parts[1].equals("write"))
 			{
-				writeCoverage(new File(parts[2]));
+				writeCoverage(new File(parts[2]), false);
+				return true;
+			}
+
+			if (parts.length == 4 && parts[1].equals("write") && parts[3].equals("binary"))
+			{
+				writeCoverage(new File(parts[2]), true);
 				return true;
 			}
 
@@ -1021,7 +1059,7 @@ abstract public class CommandReader
 		}
 		catch (Exception e)
 		{
-			println("Usage: coverage clear|write <dir>|merge <dir>|<filenames>");
+			println("Usage: coverage clear|write <dir> [binary]|merge <dir>|<filenames>");
 		}
 
 		return true;
@@ -1523,7 +1561,7 @@ abstract public class CommandReader
 		println("trace <function/operation> [<exp>] - create a tracepoint");
 		println("remove <breakpoint#> - remove a trace/breakpoint");
 		println("list - list breakpoints");
-		println("coverage clear|write <dir>|merge <dir>|<filenames> - handle line coverage");
+		println("coverage clear|write <dir> [binary]|merge <dir>|<filenames> - handle line coverage");
 		println("latex|latexdoc [<files>] - generate LaTeX line coverage files");
 		println("word [<files>] - generate Word HTML line coverage files");
 		println("files - list files in the current specification");
@@ -1567,17 +1605,28 @@ abstract public class CommandReader
 		return n + " " + (n != 1 ? s + pl : s);
 	}
 
-	private void writeCoverage(File dir)
+	private void writeCoverage(File dir, boolean binary)
 		throws IOException
     {
     	for (File f: interpreter.getSourceFiles())
     	{
     		SourceFile source = interpreter.getSourceFile(f);
 
-    		File cov = new File(dir.getPath() + File.separator + f.getName() + ".cov");
-    		PrintWriter pw = new PrintWriter(cov);
-    		source.writeCoverage(pw);
-    		pw.close();
+    		if (binary)
+    		{
+    			File cov = new File(dir.getPath() + File.separator + f.getName() + BinaryCoverage.EXTENSION);
+    			OutputStream out = new BufferedOutputStream(new FileOutputStream(cov));
+    			source.writeCoverage(out);
+    			out.close();
+    		}
+    		else
+    		{
+    			File cov = new File(dir.getPath() + File.separator + f.getName() + ".cov");
+    			PrintWriter pw = new PrintWriter(cov);
+    			source.writeCoverage(pw);
+    			pw.close();
+    		}
+
     		println("Written coverage for " + f);
     	}
     }
@@ -1587,7 +1636,13 @@ abstract public class CommandReader
     {
     	for (File f: interpreter.getSourceFiles())
     	{
-    		File cov = new File(dir.getPath() + File.separator + f.getName() + ".cov");
+    		File cov = new File(dir.getPath() + File.separator + f.getName() + BinaryCoverage.EXTENSION);
+
+    		if (!cov.exists())
+    		{
+    			cov = new File(dir.getPath() + File.separator + f.getName() + ".cov");
+    		}
+
     		LexLocation.mergeHits(f, cov);
     		println("Merged coverage for " + f);
     	}
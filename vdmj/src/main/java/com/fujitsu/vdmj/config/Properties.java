@@ -38,6 +38,9 @@ public class Properties extends ConfigBase
 	/** The maximum number of expansions for "+" and "*" trace patterns. */
 	public static int traces_max_repeats = 5;
 
+	/** The number of JVMs running trace tests in parallel, or zero for none. */
+	public static int traces_workers = 0;
+
 	/** The default duration for RT statements. */
 	public static int rt_duration_default = 2;
 
@@ -50,6 +53,9 @@ public class Properties extends ConfigBase
 	/** The timeslice variation (+/- jitter ticks) */
 	public static int scheduler_jitter = 0;
 
+	/** The Java threads that run async, periodic and object threads: platform, pooled or virtual */
+	public static String scheduler_threads = "platform";
+
 	/** Enable transactional variable updates. */
 	public static boolean rt_duration_transactions = false;
 
@@ -65,6 +71,27 @@ public class Properties extends ConfigBase
 	/** Enable extra RT log diagnostics for timesteps. */
 	public static boolean diags_timestep = false;
 
+	/** Count cached hashCode hits on structured values. */
+	public static boolean diags_hashcodes = false;
+
+	/** The result cache size for every function, or zero for none (see @Memo). */
+	public static int in_function_cache = 0;
+
+	/** Report function result cache hits and misses. */
+	public static boolean diags_function_cache = false;
+
+	/** The threads used to evaluate quantifiers and comprehensions, or zero for none. */
+	public static int in_parallel_threads = 0;
+
+	/** The minimum number of bindings that are evaluated in parallel. */
+	public static int in_parallel_minimum = 100;
+
+	/** Initialize independent module values in parallel, using in.parallel.threads. */
+	public static boolean in_parallel_init = false;
+
+	/** Evaluate without coverage or stepping, only checking for cancellation occasionally. */
+	public static boolean in_fast_mode = false;
+
 	/**
 	 * When the class is initialized, we call the ConfigBase init method, which
 	 * uses the properties file passed to update the static fields above.
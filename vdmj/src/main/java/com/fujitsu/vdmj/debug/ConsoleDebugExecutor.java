@@ -34,6 +34,7 @@ import com.fujitsu.vdmj.messages.InternalException;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ContextException;
 import com.fujitsu.vdmj.runtime.Interpreter;
+import com.fujitsu.vdmj.scheduler.SchedulableThread;
 import com.fujitsu.vdmj.syntax.ParserException;
 
 /**
@@ -209,7 +210,7 @@ public class ConsoleDebugExecutor implements DebugExecutor
 	private DebugCommand doStack()
 	{
 		StringBuilder sb = new StringBuilder(); 
-		sb.append("Stopped [" + Thread.currentThread().getName() + "] " + breakloc);
+		sb.append("Stopped [" + SchedulableThread.currentName() + "] " + breakloc);
 		sb.append("\n");
 		
 		StringWriter sw = new StringWriter();
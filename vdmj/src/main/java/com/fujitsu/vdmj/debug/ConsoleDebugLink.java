@@ -283,7 +283,7 @@ public class ConsoleDebugLink extends DebugLink
 			return;
 		}
 		
-		SchedulableThread thread = (SchedulableThread)Thread.currentThread();
+		SchedulableThread thread = SchedulableThread.current();
 		
 		synchronized(stopped)
 		{
@@ -311,7 +311,7 @@ public class ConsoleDebugLink extends DebugLink
 		if (location == null)	// Stopped before it started!
 		{
 			// Create a location from the class type
-			SchedulableThread th = (SchedulableThread) Thread.currentThread();
+			SchedulableThread th = SchedulableThread.current();
 			ObjectValue obj = th.getObject();
 			location = obj.type.location;
 		}
@@ -373,7 +373,7 @@ public class ConsoleDebugLink extends DebugLink
 	{
 		if (debugging && !suspendBreaks)
 		{
-			SchedulableThread thread = (SchedulableThread)Thread.currentThread();
+			SchedulableThread thread = SchedulableThread.current();
 			breakpoints.put(thread, bp);
 			stopped(ctxt, bp.location, null);
 			
@@ -259,7 +259,7 @@ public class ConsoleDebugReader extends Thread implements TraceCallback
 		if (tp.condition == null)
 		{
 			String s = "Reached trace point [" + tp.number + "]";
-			Console.out.println(Thread.currentThread().getName() + ": " + s);
+			Console.out.println(SchedulableThread.currentName() + ": " + s);
 		}
 		else
 		{
@@ -275,7 +275,7 @@ public class ConsoleDebugReader extends Thread implements TraceCallback
 			}
 			
 			String s = tp.trace + " = " + result + " at trace point [" + tp.number + "]";
-			Console.out.println(Thread.currentThread().getName() + ": " + s);
+			Console.out.println(SchedulableThread.currentName() + ": " + s);
 		}
 	}
 }
@@ -34,6 +34,7 @@ import com.fujitsu.vdmj.in.expressions.INExpressionList;
 import com.fujitsu.vdmj.in.statements.INStatement;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.tc.lex.TCIdentifierToken;
+import com.fujitsu.vdmj.values.FunctionValue;
 import com.fujitsu.vdmj.values.Value;
 
 public abstract class INAnnotation
@@ -116,4 +117,12 @@ public abstract class INAnnotation
 	{
 		// Do nothing
 	}
+
+	/**
+	 * Called when a FunctionValue is created for an annotated function definition.
+	 */
+	public void inFunctionValue(FunctionValue func)
+	{
+		// Do nothing
+	}
 }
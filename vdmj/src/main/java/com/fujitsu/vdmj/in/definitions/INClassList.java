@@ -25,6 +25,7 @@ package com.fujitsu.vdmj.in.definitions;
 
 import java.io.File;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import com.fujitsu.vdmj.in.INMappedList;
@@ -38,6 +39,7 @@ import com.fujitsu.vdmj.scheduler.InitThread;
 import com.fujitsu.vdmj.scheduler.ResourceScheduler;
 import com.fujitsu.vdmj.tc.definitions.TCClassDefinition;
 import com.fujitsu.vdmj.tc.definitions.TCClassList;
+import com.fujitsu.vdmj.tc.lex.TCNameSet;
 import com.fujitsu.vdmj.tc.lex.TCNameToken;
 import com.fujitsu.vdmj.values.TransactionValue;
 
@@ -113,10 +115,18 @@ public class INClassList extends INMappedList<TCClassDefinition, INClassDefiniti
 	}
 
 	public void initialize(StateContext globalContext)
+	{
+		initialize(globalContext, null);
+	}
+
+	/**
+	 * Initialize using the dependencies found by the type checker, if not null.
+	 */
+	public void initialize(StateContext globalContext, Map<TCNameToken, TCNameSet> dependencies)
 	{
 		try
 		{
-			InitThread initThread = new InitThread(this, globalContext);
+			InitThread initThread = new InitThread(this, globalContext, dependencies);
 			initThread.start();
 			initThread.join();
 			
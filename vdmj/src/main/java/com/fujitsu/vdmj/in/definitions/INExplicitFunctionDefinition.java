@@ -29,8 +29,10 @@ import java.util.Map;
 import com.fujitsu.vdmj.Settings;
 import com.fujitsu.vdmj.in.annotations.INAnnotationList;
 import com.fujitsu.vdmj.in.definitions.visitors.INDefinitionVisitor;
+import com.fujitsu.vdmj.in.expressions.INApplyExpression;
 import com.fujitsu.vdmj.in.expressions.INExpression;
 import com.fujitsu.vdmj.in.expressions.INSubclassResponsibilityExpression;
+import com.fujitsu.vdmj.in.expressions.visitors.INTailCallFinder;
 import com.fujitsu.vdmj.in.patterns.INPatternList;
 import com.fujitsu.vdmj.in.patterns.INPatternListList;
 import com.fujitsu.vdmj.in.types.INInstantiate;
@@ -95,6 +97,16 @@ public class INExplicitFunctionDefinition extends INDefinition
 		this.classdef = classdef;
 
 		type.instantiated = (typeParams == null) ? null : false;
+
+		if (body != null && typeParams == null && !isCurried)
+		{
+			// Self calls in tail positions are evaluated as a loop by FunctionValue
+
+			for (INExpression call: body.apply(new INTailCallFinder(), name))
+			{
+				((INApplyExpression)call).tailcall = true;
+			}
+		}
 	}
 
 	@Override
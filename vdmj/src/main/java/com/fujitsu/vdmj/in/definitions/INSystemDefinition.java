@@ -29,6 +29,7 @@ import com.fujitsu.vdmj.in.INNode;
 import com.fujitsu.vdmj.in.definitions.visitors.INDefinitionVisitor;
 import com.fujitsu.vdmj.mapper.ClassMapper;
 import com.fujitsu.vdmj.messages.RTLogger;
+import com.fujitsu.vdmj.messages.rtlog.RTEventKind;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ContextException;
 import com.fujitsu.vdmj.runtime.RootContext;
@@ -88,11 +89,9 @@ public class INSystemDefinition extends INClassDefinition
 						cpudefs.add(d);
 						cpudef = (TCCPUClassDefinition)ct.classdef;
 
-	    				RTLogger.log(
-	    					"CPUdecl -> id: " + (cpuNumber++) +
-	    					" expl: " + !(ivd.expType instanceof TCUndefinedType) +
-	    					" sys: \"" + name.getName() + "\"" +
-	    					" name: \"" + d.name.getName() + "\"");
+	    				RTLogger.log(RTEventKind.CPU_DECL,
+	    					cpuNumber++, !(ivd.expType instanceof TCUndefinedType),
+	    					name.getName(), d.name.getName());
 					}
 				}
 			}
@@ -27,8 +27,8 @@ import com.fujitsu.vdmj.ast.lex.LexToken;
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INAndExpression extends INBooleanBinaryExpression
 {
@@ -69,7 +69,7 @@ public class INAndExpression extends INBooleanBinaryExpression
 				return rv;
 			}
 
-			return new BooleanValue(false);
+			return ValueFactory.mkBool(false);
 		}
 		catch (ValueException e)
 		{
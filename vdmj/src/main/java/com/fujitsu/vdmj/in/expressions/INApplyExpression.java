@@ -34,6 +34,7 @@ import com.fujitsu.vdmj.values.FunctionValue;
 import com.fujitsu.vdmj.values.MapValue;
 import com.fujitsu.vdmj.values.OperationValue;
 import com.fujitsu.vdmj.values.SeqValue;
+import com.fujitsu.vdmj.values.TailCallValue;
 import com.fujitsu.vdmj.values.Value;
 import com.fujitsu.vdmj.values.ValueList;
 
@@ -45,6 +46,9 @@ public class INApplyExpression extends INExpression
 	public final INExpressionList args;
 	public final TCType type;
 
+	/** Set if this is a self call in the tail position of a function body */
+	public boolean tailcall = false;
+
 	public INApplyExpression(INExpression root, INExpressionList args, TCType type)
 	{
 		super(root);
@@ -71,7 +75,7 @@ public class INApplyExpression extends INExpression
 	public Value eval(Context ctxt)
 	{
 		breakpoint.check(location, ctxt);
-		location.hits--;	// This is counted below when root is evaluated
+		breakpoint.uncount();	// This is counted below when root is evaluated
 		boolean endstop = breakpoint.catchReturn(ctxt);
 
     	try
@@ -88,6 +92,13 @@ public class INApplyExpression extends INExpression
         		}
 
            		FunctionValue fv = object.functionValue(ctxt);
+
+           		if (tailcall && !endstop)
+           		{
+           			// Evaluated by the FunctionValue that is evaluating this body
+           			return new TailCallValue(fv, argvals, location);
+           		}
+
            		Value rv = fv.eval(location, argvals, ctxt);
            		
            		if (endstop && !breakpoint.isContinue(ctxt))
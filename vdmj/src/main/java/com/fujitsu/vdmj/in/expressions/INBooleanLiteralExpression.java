@@ -26,8 +26,8 @@ package com.fujitsu.vdmj.in.expressions;
 import com.fujitsu.vdmj.ast.lex.LexBooleanToken;
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.runtime.Context;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INBooleanLiteralExpression extends INExpression
 {
@@ -51,7 +51,7 @@ public class INBooleanLiteralExpression extends INExpression
 	public Value eval(Context ctxt)
 	{
 		breakpoint.check(location, ctxt);
-		return new BooleanValue(value.value);
+		return ValueFactory.mkBool(value.value);
 	}
 
 	@Override
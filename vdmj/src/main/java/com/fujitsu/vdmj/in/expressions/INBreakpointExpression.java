@@ -27,8 +27,8 @@ import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.runtime.Breakpoint;
 import com.fujitsu.vdmj.runtime.BreakpointCondition;
 import com.fujitsu.vdmj.runtime.Context;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INBreakpointExpression extends INExpression
 {
@@ -76,7 +76,7 @@ public class INBreakpointExpression extends INExpression
 				break;
 		}
 
-		return new BooleanValue(rv);
+		return ValueFactory.mkBool(rv);
 	}
 
 	@Override
@@ -29,8 +29,9 @@ import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ContextException;
 import com.fujitsu.vdmj.runtime.ExceptionHandler;
 import com.fujitsu.vdmj.runtime.ValueException;
-import com.fujitsu.vdmj.values.NaturalValue;
+import com.fujitsu.vdmj.values.RangeSetValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INCardinalityExpression extends INUnaryExpression
 {
@@ -54,7 +55,15 @@ public class INCardinalityExpression extends INUnaryExpression
 
 		try
 		{
-			return new NaturalValue(exp.eval(ctxt).setValue(ctxt).size());
+			Value set = exp.eval(ctxt);
+			Value deref = set.deref();
+
+			if (deref instanceof RangeSetValue)
+			{
+				return ValueFactory.mkNat(((RangeSetValue)deref).card());
+			}
+
+			return ValueFactory.mkNat(set.setValue(ctxt).size());
 		}
 		catch (ValueException e)
 		{
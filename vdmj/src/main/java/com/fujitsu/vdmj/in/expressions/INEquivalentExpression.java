@@ -27,9 +27,9 @@ import com.fujitsu.vdmj.ast.lex.LexToken;
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.UndefinedValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INEquivalentExpression extends INBooleanBinaryExpression
 {
@@ -56,7 +56,7 @@ public class INEquivalentExpression extends INBooleanBinaryExpression
 				return new UndefinedValue();
 			}
 
-			return new BooleanValue(lv.boolValue(ctxt) == rv.boolValue(ctxt));
+			return ValueFactory.mkBool(lv.boolValue(ctxt) == rv.boolValue(ctxt));
         }
         catch (ValueException e)
         {
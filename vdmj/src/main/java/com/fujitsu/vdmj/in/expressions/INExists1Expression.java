@@ -29,8 +29,8 @@ import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.PatternMatchException;
 import com.fujitsu.vdmj.runtime.ValueException;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 import com.fujitsu.vdmj.values.ValueList;
 
 public class INExists1Expression extends INExpression
@@ -79,7 +79,7 @@ public class INExists1Expression extends INExpression
 				{
 					if (alreadyFound)
 					{
-						return new BooleanValue(false);
+						return ValueFactory.mkBool(false);
 					}
 
 					alreadyFound = true;
@@ -95,7 +95,7 @@ public class INExists1Expression extends INExpression
 			}
 		}
 
-		return new BooleanValue(alreadyFound);
+		return ValueFactory.mkBool(alreadyFound);
 	}
 
 	@Override
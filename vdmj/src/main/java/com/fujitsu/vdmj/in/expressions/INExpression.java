@@ -25,12 +25,15 @@ package com.fujitsu.vdmj.in.expressions;
 
 import java.io.Serializable;
 
+import com.fujitsu.vdmj.config.Properties;
 import com.fujitsu.vdmj.in.INNode;
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionFinder;
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionUpdatableFinder;
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.in.expressions.visitors.INHistoryExpressionFinder;
 import com.fujitsu.vdmj.in.expressions.visitors.INOldNamesFinder;
+import com.fujitsu.vdmj.in.expressions.visitors.INOperationCallFinder;
+import com.fujitsu.vdmj.in.expressions.visitors.INUnsignalledFinder;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Breakpoint;
 import com.fujitsu.vdmj.runtime.Context;
@@ -57,8 +60,12 @@ public abstract class INExpression extends INNode implements Serializable
 	public INExpression(LexLocation location)
 	{
 		super(location);
-		this.breakpoint = new Breakpoint(location);
-		location.executable(true);
+		this.breakpoint = Breakpoint.create(location);
+
+		if (!Properties.in_fast_mode)
+		{
+			location.executable(true);		// No coverage in fast mode
+		}
 	}
 
 	/**
@@ -159,6 +166,26 @@ public abstract class INExpression extends INNode implements Serializable
 		return this.apply(new INHistoryExpressionFinder(), null);
 	}
 
+	/**
+	 * Return a list of sub-expressions that may call operations, create objects
+	 * or read history counters. This is used to decide whether an expression can
+	 * be evaluated in parallel.
+	 */
+	public final INExpressionList getOperationCalls()
+	{
+		return this.apply(new INOperationCallFinder(), null);
+	}
+
+	/**
+	 * Return a list of sub-expressions that may read values whose changes are not
+	 * signalled to a guard. This is used to decide whether the inputs of a permission
+	 * guard are known.
+	 */
+	public final INExpressionList getUnsignalled()
+	{
+		return this.apply(new INUnsignalledFinder(), null);
+	}
+
 	/**
 	 * Implemented by all expressions to allow visitor processing.
 	 */
@@ -29,6 +29,8 @@ import com.fujitsu.vdmj.runtime.ExceptionHandler;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.tc.lex.TCIdentifierToken;
 import com.fujitsu.vdmj.tc.lex.TCNameToken;
+import com.fujitsu.vdmj.tc.types.TCField;
+import com.fujitsu.vdmj.tc.types.TCRecordType;
 import com.fujitsu.vdmj.tc.types.TCType;
 import com.fujitsu.vdmj.values.FieldMap;
 import com.fujitsu.vdmj.values.ObjectValue;
@@ -41,14 +43,41 @@ public class INFieldExpression extends INExpression
 	public final INExpression object;
 	public final TCIdentifierToken field;
 	public final TCNameToken memberName;
+	public final int fieldIndex;
 
-	public INFieldExpression(INExpression object, TCIdentifierToken field, TCNameToken memberName)
+	public INFieldExpression(INExpression object, TCIdentifierToken field, TCNameToken memberName, TCType root)
 	{
 		super(object);
 		this.object = object;
 		this.field = field;
 		this.field.getLocation().executable(true);
 		this.memberName = memberName;
+		this.fieldIndex = fieldIndex(root, field);
+	}
+
+	/**
+	 * The position of the field in the record, if the object is known to be a
+	 * single record type, else -1. Unions of records (or anything else) look up
+	 * the field by name at runtime.
+	 */
+	private static int fieldIndex(TCType root, TCIdentifierToken field)
+	{
+		if (root instanceof TCRecordType)
+		{
+			int index = 0;
+
+			for (TCField f: ((TCRecordType)root).fields)
+			{
+				if (f.tag.equals(field.getName()))
+				{
+					return index;
+				}
+
+				index++;
+			}
+		}
+
+		return -1;
 	}
 
 	@Override
@@ -91,7 +120,7 @@ public class INFieldExpression extends INExpression
 			RecordValue rv = v.recordValue(ctxt);
 	   		objtype = rv.type;
 			FieldMap fields = rv.fieldmap;
-     		r = fields.get(field.getName());
+     		r = fields.get(field.getName(), fieldIndex);
 		}
 
 		if (r == null)
@@ -29,14 +29,15 @@ import com.fujitsu.vdmj.in.patterns.INMultipleBindList;
 import com.fujitsu.vdmj.in.patterns.INPattern;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
+import com.fujitsu.vdmj.runtime.ParallelEvaluator;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.util.Utils;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.NameValuePair;
 import com.fujitsu.vdmj.values.NameValuePairList;
 import com.fujitsu.vdmj.values.Quantifier;
 import com.fujitsu.vdmj.values.QuantifierList;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 import com.fujitsu.vdmj.values.ValueList;
 
 public class INForAllExpression extends INExpression
@@ -44,12 +45,16 @@ public class INForAllExpression extends INExpression
 	private static final long serialVersionUID = 1L;
 	public final INMultipleBindList bindList;
 	public final INExpression predicate;
+	private final boolean parallel;
+	private final INQuantifierFilter filter;
 
 	public INForAllExpression(LexLocation location,	INMultipleBindList bindList, INExpression predicate)
 	{
 		super(location);
 		this.bindList = bindList;
 		this.predicate = predicate;
+		this.parallel = predicate.getOperationCalls().isEmpty();
+		this.filter = INQuantifierFilter.forAll(location, bindList, predicate);
 	}
 
 	@Override
@@ -78,43 +83,30 @@ public class INForAllExpression extends INExpression
 				}
 			}
 
+			filter.addTo(quantifiers, ctxt);
 			quantifiers.init(ctxt, false);
 
-			while (quantifiers.hasNext())
+			if (parallel && ParallelEvaluator.isEnabled(ctxt))
 			{
-				Context evalContext = new Context(location, "forall", ctxt);
-				NameValuePairList nvpl = quantifiers.next();
-				boolean matches = true;
-
-				for (NameValuePair nvp: nvpl)
+				for (Boolean result: ParallelEvaluator.evaluate(quantifiers, ctxt, this::evalBinding, r -> !r))
 				{
-					Value v = evalContext.get(nvp.name);
-
-					if (v == null)
-					{
-						evalContext.put(nvp.name, nvp.value);
-					}
-					else
+					if (result != null && !result)
 					{
-						if (!v.equals(nvp.value))
-						{
-							matches = false;
-							break;	// This quantifier set does not match
-						}
+						return ValueFactory.mkBool(false);
 					}
 				}
-
-				try
+			}
+			else
+			{
+				while (quantifiers.hasNext())
 				{
-					if (matches && !predicate.eval(evalContext).boolValue(ctxt))
+					Boolean result = evalBinding(quantifiers.next(), ctxt);
+
+					if (result != null && !result)
 					{
-						return new BooleanValue(false);
+						return ValueFactory.mkBool(false);
 					}
 				}
-				catch (ValueException e)
-				{
-					predicate.abort(e);
-				}
 			}
 		}
 	    catch (ValueException e)
@@ -122,9 +114,45 @@ public class INForAllExpression extends INExpression
 	    	return abort(e);
 	    }
 
-		return new BooleanValue(true);
+		return ValueFactory.mkBool(true);
 	}
 
+	/**
+	 * Evaluate the predicate for one binding, or return null if the binding does not
+	 * match (the same name bound to different values).
+	 */
+	private Boolean evalBinding(NameValuePairList nvpl, Context ctxt)
+	{
+		Context evalContext = new Context(location, "forall", ctxt);
+
+		for (NameValuePair nvp: nvpl)
+		{
+			Value v = evalContext.get(nvp.name);
+
+			if (v == null)
+			{
+				evalContext.put(nvp.name, nvp.value);
+			}
+			else
+			{
+				if (!v.equals(nvp.value))
+				{
+					return null;	// This quantifier set does not match
+				}
+			}
+		}
+
+		try
+		{
+			return predicate.eval(evalContext).boolValue(ctxt);
+		}
+		catch (ValueException e)
+		{
+			predicate.abort(e);
+			return null;
+		}
+	}
+
 	@Override
 	public <R, S> R apply(INExpressionVisitor<R, S> visitor, S arg)
 	{
@@ -26,8 +26,8 @@ package com.fujitsu.vdmj.in.expressions;
 import com.fujitsu.vdmj.ast.lex.LexToken;
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.runtime.Context;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INGreaterEqualExpression extends INNumericBinaryExpression
 {
@@ -53,7 +53,7 @@ public class INGreaterEqualExpression extends INNumericBinaryExpression
 			
 			if (cmp != Integer.MIN_VALUE)	// Indicates comparable
 			{
-				return new BooleanValue(cmp >= 0);
+				return ValueFactory.mkBool(cmp >= 0);
 			}
 		}
 
@@ -27,6 +27,7 @@ import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
+import com.fujitsu.vdmj.values.SeqValue;
 import com.fujitsu.vdmj.values.Value;
 import com.fujitsu.vdmj.values.ValueList;
 
@@ -52,7 +53,21 @@ public class INHeadExpression extends INUnaryExpression
 
 		try
 		{
-    		ValueList seq = exp.eval(ctxt).seqValue(ctxt);
+    		Value value = exp.eval(ctxt);
+
+    		if (value.deref() instanceof SeqValue)
+    		{
+    			SeqValue sv = (SeqValue)value.deref();
+
+    			if (sv.length() == 0)
+    			{
+    				abort(4010, "Cannot take head of empty sequence", ctxt);
+    			}
+
+    			return sv.elementAt(0);
+    		}
+
+    		ValueList seq = value.seqValue(ctxt);
 
     		if (seq.isEmpty())
     		{
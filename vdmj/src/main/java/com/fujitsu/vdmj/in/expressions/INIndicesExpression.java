@@ -27,9 +27,9 @@ import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
-import com.fujitsu.vdmj.values.NaturalOneValue;
 import com.fujitsu.vdmj.values.SetValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 import com.fujitsu.vdmj.values.ValueList;
 import com.fujitsu.vdmj.values.ValueSet;
 
@@ -60,7 +60,7 @@ public class INIndicesExpression extends INUnaryExpression
 
     		for (int i=1; i<= seq.size(); i++)
     		{
-    			result.addNoCheck(new NaturalOneValue(i));
+    			result.addNoCheck(ValueFactory.mkNat1(i));
     		}
 
     		return new SetValue(result);
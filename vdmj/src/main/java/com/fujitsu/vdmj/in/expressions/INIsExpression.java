@@ -31,9 +31,9 @@ import com.fujitsu.vdmj.runtime.ContextException;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.tc.lex.TCNameToken;
 import com.fujitsu.vdmj.tc.types.TCType;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.RecordValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INIsExpression extends INExpression
 {
@@ -76,20 +76,20 @@ public class INIsExpression extends INExpression
     				{
     					// NB. we skip the DTC enabled check here
     					v.convertValueTo(typedef.getType(), ctxt);
-    					return new BooleanValue(true);
+    					return ValueFactory.mkBool(true);
     				}
     			}
     			else if (v.isType(RecordValue.class))
     			{
     				RecordValue rv = v.recordValue(ctxt);
-    				return new BooleanValue(rv.type.name.equals(typename));
+    				return ValueFactory.mkBool(rv.type.name.equals(typename));
     			}
     		}
     		else
     		{
     			// NB. we skip the DTC enabled check here
    				v.convertValueTo(basictype, ctxt);
-   				return new BooleanValue(true);
+   				return ValueFactory.mkBool(true);
     		}
 		}
 		catch (ContextException ex)
@@ -104,7 +104,7 @@ public class INIsExpression extends INExpression
 			// return false...
 		}
 
-		return new BooleanValue(false);
+		return ValueFactory.mkBool(false);
 	}
 
 	@Override
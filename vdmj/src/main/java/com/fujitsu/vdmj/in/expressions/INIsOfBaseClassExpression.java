@@ -28,9 +28,9 @@ import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.tc.lex.TCNameToken;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.ObjectValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INIsOfBaseClassExpression extends INExpression
 {
@@ -58,11 +58,11 @@ public class INIsOfBaseClassExpression extends INExpression
 
 			if (!(v instanceof ObjectValue))
 			{
-				return new BooleanValue(false);
+				return ValueFactory.mkBool(false);
 			}
 
 			ObjectValue ov = v.objectValue(ctxt);
-			return new BooleanValue(search(ov));
+			return ValueFactory.mkBool(search(ov));
 		}
 		catch (ValueException e)
 		{
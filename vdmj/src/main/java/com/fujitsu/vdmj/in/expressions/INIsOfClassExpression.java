@@ -28,9 +28,9 @@ import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.tc.lex.TCNameToken;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.ObjectValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INIsOfClassExpression extends INExpression
 {
@@ -57,11 +57,11 @@ public class INIsOfClassExpression extends INExpression
 
 			if (!(v instanceof ObjectValue))
 			{
-				return new BooleanValue(false);
+				return ValueFactory.mkBool(false);
 			}
 
 			ObjectValue ov = v.objectValue(ctxt);
-			return new BooleanValue(isOfClass(ov, classname.getName()));
+			return ValueFactory.mkBool(isOfClass(ov, classname.getName()));
 		}
 		catch (ValueException e)
 		{
@@ -28,8 +28,9 @@ import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ContextException;
 import com.fujitsu.vdmj.runtime.ValueException;
-import com.fujitsu.vdmj.values.NaturalValue;
+import com.fujitsu.vdmj.values.SeqValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INLenExpression extends INUnaryExpression
 {
@@ -53,7 +54,14 @@ public class INLenExpression extends INUnaryExpression
 
 		try
 		{
-			return new NaturalValue(exp.eval(ctxt).seqValue(ctxt).size());
+			Value value = exp.eval(ctxt);
+
+			if (value.deref() instanceof SeqValue)
+			{
+				return ValueFactory.mkNat(((SeqValue)value.deref()).length());
+			}
+
+			return ValueFactory.mkNat(value.seqValue(ctxt).size());
 		}
         catch (ValueException e)
         {
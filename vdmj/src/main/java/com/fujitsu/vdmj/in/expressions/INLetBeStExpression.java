@@ -44,6 +44,7 @@ public class INLetBeStExpression extends INExpression
 	public final INExpression suchThat;
 	public final INExpression value;
 	public final INMultiBindListDefinition def;
+	private final INQuantifierFilter filter;
 
 	public INLetBeStExpression(LexLocation location,
 				INMultipleBind bind, INExpression suchThat, INExpression value,
@@ -54,6 +55,7 @@ public class INLetBeStExpression extends INExpression
 		this.suchThat = suchThat;
 		this.value = value;
 		this.def = def;
+		this.filter = new INQuantifierFilter(location, "let be st expression", def.bindings, suchThat);
 	}
 
 	@Override
@@ -83,6 +85,7 @@ public class INLetBeStExpression extends INExpression
 				}
 			}
 
+			filter.addTo(quantifiers, ctxt);
 			quantifiers.init(ctxt, true);
 
 			while (quantifiers.hasNext())
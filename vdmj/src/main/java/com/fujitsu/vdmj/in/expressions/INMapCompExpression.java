@@ -29,6 +29,7 @@ import com.fujitsu.vdmj.in.patterns.INMultipleBindList;
 import com.fujitsu.vdmj.in.patterns.INPattern;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
+import com.fujitsu.vdmj.runtime.ParallelEvaluator;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.util.Utils;
 import com.fujitsu.vdmj.values.MapValue;
@@ -46,6 +47,8 @@ public class INMapCompExpression extends INMapExpression
 	public final INMapletExpression first;
 	public final INMultipleBindList bindings;
 	public final INExpression predicate;
+	private final boolean parallel;
+	private final INQuantifierFilter filter;
 
 	public INMapCompExpression(LexLocation start, INMapletExpression first, INMultipleBindList bindings,
 		INExpression predicate)
@@ -54,6 +57,10 @@ public class INMapCompExpression extends INMapExpression
 		this.first = first;
 		this.bindings = bindings;
 		this.predicate = predicate;
+		this.parallel = first.left.getOperationCalls().isEmpty() &&
+			first.right.getOperationCalls().isEmpty() &&
+			(predicate == null || predicate.getOperationCalls().isEmpty());
+		this.filter = new INQuantifierFilter(location, "map comprehension", bindings, predicate);
 	}
 
 	@Override
@@ -84,54 +91,30 @@ public class INMapCompExpression extends INMapExpression
 				}
 			}
 
+			filter.addTo(quantifiers, ctxt);
 			quantifiers.init(ctxt, false);
 
-			while (quantifiers.hasNext())
+			if (parallel && ParallelEvaluator.isEnabled(ctxt))
 			{
-				Context evalContext = new Context(location, "map comprehension", ctxt);
-				NameValuePairList nvpl = quantifiers.next();
-				boolean matches = true;
-
-				for (NameValuePair nvp: nvpl)
+				for (Value[] maplet: ParallelEvaluator.evaluate(quantifiers, ctxt, this::evalBinding, null))
 				{
-					Value v = evalContext.get(nvp.name);
-
-					if (v == null)
+					if (maplet != null)
 					{
-						evalContext.put(nvp.name, nvp.value);
-					}
-					else
-					{
-						if (!v.equals(nvp.value))
-						{
-							matches = false;
-							break;	// This quantifier set does not match
-						}
+						addMaplet(map, maplet, ctxt);
 					}
 				}
-
-				try
+			}
+			else
+			{
+				while (quantifiers.hasNext())
 				{
-					if (matches &&
-						(predicate == null ||
-						 predicate.eval(evalContext).boolValue(ctxt)))
-					{
-						Value dom = first.left.eval(evalContext);
-						Value rng = first.right.eval(evalContext);
-						first.location.hit();
+					Value[] maplet = evalBinding(quantifiers.next(), ctxt);
 
-						Value old = map.put(dom, rng);
-
-						if (old != null && !old.equals(rng))
-						{
-							abort(4016, "Duplicate map keys have different values: " + dom, ctxt);
-						}
+					if (maplet != null)
+					{
+						addMaplet(map, maplet, ctxt);
 					}
 				}
-				catch (ValueException e)
-				{
-					predicate.abort(e);
-				}
 			}
 		}
 	    catch (ValueException e)
@@ -142,6 +125,59 @@ public class INMapCompExpression extends INMapExpression
 		return new MapValue(map);
 	}
 
+	/**
+	 * Evaluate the domain and range values for one binding, or return null if the
+	 * binding does not match or the predicate is false.
+	 */
+	private Value[] evalBinding(NameValuePairList nvpl, Context ctxt)
+	{
+		Context evalContext = new Context(location, "map comprehension", ctxt);
+
+		for (NameValuePair nvp: nvpl)
+		{
+			Value v = evalContext.get(nvp.name);
+
+			if (v == null)
+			{
+				evalContext.put(nvp.name, nvp.value);
+			}
+			else
+			{
+				if (!v.equals(nvp.value))
+				{
+					return null;	// This quantifier set does not match
+				}
+			}
+		}
+
+		try
+		{
+			if (predicate == null || predicate.eval(evalContext).boolValue(ctxt))
+			{
+				Value dom = first.left.eval(evalContext);
+				Value rng = first.right.eval(evalContext);
+				return new Value[] { dom, rng };
+			}
+		}
+		catch (ValueException e)
+		{
+			predicate.abort(e);
+		}
+
+		return null;
+	}
+
+	private void addMaplet(ValueMap map, Value[] maplet, Context ctxt)
+	{
+		first.location.hit();
+		Value old = map.put(maplet[0], maplet[1]);
+
+		if (old != null && !old.equals(maplet[1]))
+		{
+			abort(4016, "Duplicate map keys have different values: " + maplet[0], ctxt);
+		}
+	}
+
 	@Override
 	public <R, S> R apply(INExpressionVisitor<R, S> visitor, S arg)
 	{
@@ -29,7 +29,7 @@ import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.values.MapValue;
 import com.fujitsu.vdmj.values.Value;
-import com.fujitsu.vdmj.values.ValueMap;
+import com.fujitsu.vdmj.values.SharedMapValue;
 
 public class INMapUnionExpression extends INBinaryExpression
 {
@@ -46,34 +46,30 @@ public class INMapUnionExpression extends INBinaryExpression
 		// breakpoint.check(location, ctxt);
 		location.hit();		// Mark as covered
 
-		ValueMap lm = null;
-		ValueMap rm = null;
-
 		try
 		{
-			lm = left.eval(ctxt).mapValue(ctxt);
-			rm = right.eval(ctxt).mapValue(ctxt);
+			MapValue lm = mapOf(left.eval(ctxt), ctxt);
+			MapValue rm = mapOf(right.eval(ctxt), ctxt);
+			return SharedMapValue.union(lm, rm, ctxt);
 		}
 		catch (ValueException e)
 		{
 			return abort(e);
 		}
+	}
 
-		ValueMap result = new ValueMap();
-		result.putAll(lm);
+	private MapValue mapOf(Value value, Context ctxt) throws ValueException
+	{
+		Value v = value.deref();
 
-		for (Value k: rm.keySet())
+		if (v instanceof MapValue)
 		{
-			Value rng = rm.get(k);
-			Value old = result.put(k, rng);
-
-			if (old != null && !old.equals(rng))
-			{
-				abort(4021, "Duplicate map keys have different values: " + k, ctxt);
-			}
+			return (MapValue)v;
+		}
+		else
+		{
+			return new MapValue(v.mapValue(ctxt));	// Fails if not a map
 		}
-
-		return new MapValue(result);
 	}
 
 	@Override
@@ -26,8 +26,8 @@ package com.fujitsu.vdmj.in.expressions;
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
-import com.fujitsu.vdmj.values.NilValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INNilExpression extends INExpression
 {
@@ -49,7 +49,7 @@ public class INNilExpression extends INExpression
 	{
 		breakpoint.check(location, ctxt);
 
-		return new NilValue();
+		return ValueFactory.mkNil();
 	}
 
 	@Override
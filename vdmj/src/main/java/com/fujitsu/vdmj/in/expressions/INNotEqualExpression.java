@@ -26,8 +26,8 @@ package com.fujitsu.vdmj.in.expressions;
 import com.fujitsu.vdmj.ast.lex.LexToken;
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.runtime.Context;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INNotEqualExpression extends INBinaryExpression
 {
@@ -47,7 +47,7 @@ public class INNotEqualExpression extends INBinaryExpression
 		Value lv = left.eval(ctxt);
 		Value rv = right.eval(ctxt);
 
-		return new BooleanValue(!lv.equals(rv));
+		return ValueFactory.mkBool(!lv.equals(rv));
 	}
 
 	@Override
@@ -27,8 +27,8 @@ import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INNotExpression extends INUnaryExpression
 {
@@ -53,7 +53,7 @@ public class INNotExpression extends INUnaryExpression
 		try
 		{
 			Value v = exp.eval(ctxt);
-			return v.isUndefined() ? v : new BooleanValue(!v.boolValue(ctxt));
+			return v.isUndefined() ? v : ValueFactory.mkBool(!v.boolValue(ctxt));
 		}
 		catch (ValueException e)
 		{
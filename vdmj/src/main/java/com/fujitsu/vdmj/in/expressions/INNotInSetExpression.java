@@ -27,8 +27,9 @@ import com.fujitsu.vdmj.ast.lex.LexToken;
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
-import com.fujitsu.vdmj.values.BooleanValue;
+import com.fujitsu.vdmj.values.RangeSetValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INNotInSetExpression extends INBinaryExpression
 {
@@ -50,7 +51,14 @@ public class INNotInSetExpression extends INBinaryExpression
 
 		try
 		{
-			return new BooleanValue(!set.setValue(ctxt).contains(elem));
+			Value deref = set.deref();
+
+			if (deref instanceof RangeSetValue)
+			{
+				return ValueFactory.mkBool(!((RangeSetValue)deref).contains(elem));
+			}
+
+			return ValueFactory.mkBool(!set.setValue(ctxt).contains(elem));
 		}
 		catch (ValueException e)
 		{
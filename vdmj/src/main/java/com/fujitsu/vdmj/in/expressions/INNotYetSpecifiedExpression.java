@@ -34,6 +34,7 @@ import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.messages.InternalException;
 import com.fujitsu.vdmj.runtime.ClassInterpreter;
 import com.fujitsu.vdmj.runtime.Context;
+import com.fujitsu.vdmj.runtime.ContextException;
 import com.fujitsu.vdmj.runtime.Interpreter;
 import com.fujitsu.vdmj.runtime.ModuleInterpreter;
 import com.fujitsu.vdmj.runtime.RootContext;
@@ -67,6 +68,14 @@ public class INNotYetSpecifiedExpression extends INExpression
 	{
 		breakpoint.check(location, ctxt);
 
+		if (ctxt.threadState.isSpeculative())
+		{
+			// Native methods may not be pure, so this is repeated later (see ThreadState)
+
+			ctxt.threadState.setImpure();
+			throw new ContextException(4176, "Native method called speculatively", location, ctxt);
+		}
+
 		if (location.module.equals("VDMUtil") ||
 			location.module.equals("DEFAULT"))
 		{
@@ -27,8 +27,8 @@ import com.fujitsu.vdmj.ast.lex.LexToken;
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INOrExpression extends INBooleanBinaryExpression
 {
@@ -67,7 +67,7 @@ public class INOrExpression extends INBooleanBinaryExpression
 
 				if (lb || rb)
 				{
-					return new BooleanValue(true);
+					return ValueFactory.mkBool(true);
 				}
 				else
 				{
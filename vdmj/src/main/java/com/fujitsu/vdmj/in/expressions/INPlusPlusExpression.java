@@ -29,6 +29,7 @@ import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.values.MapValue;
 import com.fujitsu.vdmj.values.SeqValue;
+import com.fujitsu.vdmj.values.SharedMapValue;
 import com.fujitsu.vdmj.values.Value;
 import com.fujitsu.vdmj.values.ValueList;
 import com.fujitsu.vdmj.values.ValueMap;
@@ -55,15 +56,7 @@ public class INPlusPlusExpression extends INBinaryExpression
 
     		if (lv instanceof MapValue)
     		{
-    			ValueMap lm = new ValueMap(lv.mapValue(ctxt));
-    			ValueMap rm = rv.mapValue(ctxt);
-
-    			for (Value k: rm.keySet())
-    			{
-					lm.put(k, rm.get(k));
-				}
-
-    			return new MapValue(lm);
+    			return SharedMapValue.override((MapValue)lv, rv.mapValue(ctxt));
     		}
     		else
     		{
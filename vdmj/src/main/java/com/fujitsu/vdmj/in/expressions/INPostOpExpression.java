@@ -34,12 +34,12 @@ import com.fujitsu.vdmj.runtime.ObjectContext;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.tc.lex.TCNameToken;
 import com.fujitsu.vdmj.tc.types.TCField;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.FunctionValue;
 import com.fujitsu.vdmj.values.ObjectValue;
 import com.fujitsu.vdmj.values.OperationValue;
 import com.fujitsu.vdmj.values.RecordValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 import com.fujitsu.vdmj.values.ValueMap;
 
 public class INPostOpExpression extends INExpression
@@ -81,16 +81,20 @@ public class INPostOpExpression extends INExpression
     		{
     			RecordValue sigma = ctxt.lookup(state.name).recordValue(ctxt);
 
+    			int index = 0;
+
     			for (TCField field: state.fields)
     			{
-    				ctxt.put(field.tagname, sigma.fieldmap.get(field.tag));
+    				ctxt.put(field.tagname, sigma.fieldmap.get(field.tag, index++));
     			}
 
     			RecordValue oldsigma = ctxt.lookup(state.name.getOldName()).recordValue(ctxt);
 
+    			index = 0;
+
     			for (TCField field: state.fields)
     			{
-    				ctxt.put(field.tagname.getOldName(), oldsigma.fieldmap.get(field.tag));
+    				ctxt.put(field.tagname.getOldName(), oldsigma.fieldmap.get(field.tag, index++));
     			}
     		}
     		else if (ctxt instanceof ObjectContext)
@@ -160,7 +164,7 @@ public class INPostOpExpression extends INExpression
     			}
     		}
 
-    		return new BooleanValue(result);
+    		return ValueFactory.mkBool(result);
 		}
 		catch (ValueException e)
 		{
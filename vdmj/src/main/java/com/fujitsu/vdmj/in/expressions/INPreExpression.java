@@ -31,11 +31,11 @@ import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.tc.types.TCType;
 import com.fujitsu.vdmj.util.Utils;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.CompFunctionValue;
 import com.fujitsu.vdmj.values.FunctionValue;
 import com.fujitsu.vdmj.values.IterFunctionValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 import com.fujitsu.vdmj.values.ValueList;
 
 public class INPreExpression extends INExpression
@@ -90,7 +90,7 @@ public class INPreExpression extends INExpression
 
 			if (pref == null)
 			{
-				return new BooleanValue(true);
+				return ValueFactory.mkBool(true);
 			}
 
 			if (pref.type.parameters.size() <= args.size())
@@ -116,7 +116,7 @@ public class INPreExpression extends INExpression
 			// else true, below.
 		}
 
-		return new BooleanValue(true);
+		return ValueFactory.mkBool(true);
 	}
 
 	@Override
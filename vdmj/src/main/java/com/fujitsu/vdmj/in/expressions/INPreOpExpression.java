@@ -32,10 +32,10 @@ import com.fujitsu.vdmj.runtime.ObjectContext;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.tc.lex.TCNameToken;
 import com.fujitsu.vdmj.tc.types.TCField;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.ObjectValue;
 import com.fujitsu.vdmj.values.RecordValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INPreOpExpression extends INExpression
 {
@@ -73,9 +73,11 @@ public class INPreOpExpression extends INExpression
     			{
     				RecordValue sigma = ctxt.lookup(state.name).recordValue(ctxt);
 
+    				int index = 0;
+
     				for (TCField field: state.fields)
     				{
-    					ctxt.put(field.tagname, sigma.fieldmap.get(field.tag));
+    					ctxt.put(field.tagname, sigma.fieldmap.get(field.tag, index++));
     				}
     			}
     			catch (ValueException e)
@@ -109,7 +111,7 @@ public class INPreOpExpression extends INExpression
     			}
     		}
 
-    		return new BooleanValue(result);
+    		return ValueFactory.mkBool(result);
     	}
     	catch (ValueException e)
     	{
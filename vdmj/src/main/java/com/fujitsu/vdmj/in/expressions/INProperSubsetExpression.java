@@ -27,8 +27,10 @@ import com.fujitsu.vdmj.ast.lex.LexToken;
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
-import com.fujitsu.vdmj.values.BooleanValue;
+import com.fujitsu.vdmj.values.RangeSetValue;
+import com.fujitsu.vdmj.values.SetValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 import com.fujitsu.vdmj.values.ValueSet;
 
 public class INProperSubsetExpression extends INBinaryExpression
@@ -48,10 +50,23 @@ public class INProperSubsetExpression extends INBinaryExpression
 
 		try
 		{
-    		ValueSet set1 = left.eval(ctxt).setValue(ctxt);
-    		ValueSet set2 = right.eval(ctxt).setValue(ctxt);
+    		Value lv = left.eval(ctxt);
+    		Value rv = right.eval(ctxt);
 
-    		return new BooleanValue(set1.size() < set2.size() && set2.containsAll(set1));
+    		if (rv.deref() instanceof RangeSetValue && lv.deref() instanceof SetValue)
+    		{
+    			RangeSetValue range = (RangeSetValue)rv.deref();
+    			SetValue set = (SetValue)lv.deref();
+    			long size = (set instanceof RangeSetValue) ?
+    				((RangeSetValue)set).card() : set.setValue(ctxt).size();
+
+    			return ValueFactory.mkBool(size < range.card() && range.containsAll(set));
+    		}
+
+    		ValueSet set1 = lv.setValue(ctxt);
+    		ValueSet set2 = rv.setValue(ctxt);
+
+    		return ValueFactory.mkBool(set1.size() < set2.size() && set2.containsAll(set1));
 		}
 		catch (ValueException e)
 		{
@@ -0,0 +1,257 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.in.expressions;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Vector;
+
+import com.fujitsu.vdmj.in.expressions.visitors.INVariableNamesFinder;
+import com.fujitsu.vdmj.in.patterns.INMultipleBind;
+import com.fujitsu.vdmj.in.patterns.INMultipleBindList;
+import com.fujitsu.vdmj.in.patterns.INPattern;
+import com.fujitsu.vdmj.lex.LexLocation;
+import com.fujitsu.vdmj.runtime.Context;
+import com.fujitsu.vdmj.runtime.Interpreter;
+import com.fujitsu.vdmj.runtime.ThreadState;
+import com.fujitsu.vdmj.tc.lex.TCNameList;
+import com.fujitsu.vdmj.tc.lex.TCNameToken;
+import com.fujitsu.vdmj.values.NameValuePairList;
+import com.fujitsu.vdmj.values.QuantifierList;
+
+/**
+ * The leading conjuncts of a predicate that only depend on the names bound by
+ * some of the quantifiers of a multiple bind. These are added to the
+ * QuantifierList, so that bindings for which a conjunct is false are skipped
+ * without evaluating the whole predicate for every combination of values.
+ * 
+ * Only leading conjuncts are used, because "and" is evaluated left to right,
+ * and only those that cannot call operations. A conjunct that fails when it is
+ * tested on its own does not prune anything, so that the error is raised when
+ * the whole predicate is evaluated, as usual. Nor do any conjuncts after it,
+ * because the error must be raised even if a later conjunct is false.
+ * 
+ * Filters of one quantifier are tested for all of its values, in order, when
+ * the QuantifierList is initialized, so a failure is known before any later
+ * filter is used. Filters of several quantifiers are tested as the values
+ * change, so only the first of those is used, as the last filter.
+ * 
+ * The predicate is evaluated again for the bindings that are not pruned, so
+ * the tests do not count coverage, are not used while debugging, and do not
+ * call native methods (see ThreadState.isSpeculative).
+ */
+public class INQuantifierFilter implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+	private final LexLocation location;
+	private final String title;
+	private final List<INExpression> conjuncts = new Vector<INExpression>();
+	private final List<int[]> quantifiers = new Vector<int[]>();
+
+	/**
+	 * Filter bindings for which the predicate is false, as for exists, comprehensions
+	 * and let-be-st expressions. The predicate may be null.
+	 */
+	public INQuantifierFilter(LexLocation location, String title,
+		INMultipleBindList bindings, INExpression predicate)
+	{
+		this.location = location;
+		this.title = title;
+
+		List<TCNameList> bound = new Vector<TCNameList>();
+		TCNameList all = new TCNameList();
+
+		for (INMultipleBind mb: bindings)
+		{
+			for (INPattern p: mb.plist)
+			{
+				TCNameList names = p.getVariableNames();
+
+				for (TCNameToken name: names)
+				{
+					if (all.contains(name))
+					{
+						return;		// Bindings must be matched, so no filters
+					}
+
+					all.add(name);
+				}
+
+				bound.add(names);
+			}
+		}
+
+		if (predicate == null || bound.size() < 2)
+		{
+			return;		// Nothing to prune
+		}
+
+		for (INExpression conjunct: getConjuncts(predicate))
+		{
+			if (!conjunct.getOperationCalls().isEmpty())
+			{
+				break;
+			}
+
+			TCNameList used = conjunct.apply(new INVariableNamesFinder(), null);
+			List<Integer> uses = new Vector<Integer>();
+
+			for (int q=0; q<bound.size(); q++)
+			{
+				for (TCNameToken name: bound.get(q))
+				{
+					if (used.contains(name))
+					{
+						uses.add(q);
+						break;
+					}
+				}
+			}
+
+			// The first quantifier varies fastest, so a conjunct that uses it can only
+			// prune anything if it uses no other quantifier.
+
+			if (uses.isEmpty() || (uses.get(0) == 0 && uses.size() > 1))
+			{
+				break;
+			}
+
+			int[] indexes = new int[uses.size()];
+
+			for (int i=0; i<indexes.length; i++)
+			{
+				indexes[i] = uses.get(i);
+			}
+
+			conjuncts.add(conjunct);
+			quantifiers.add(indexes);
+
+			if (indexes.length > 1)
+			{
+				break;		// Tested lazily, so must be last
+			}
+		}
+	}
+
+	/**
+	 * Filter bindings for which a forall predicate is true because it is an
+	 * implication whose antecedent is false.
+	 */
+	public static INQuantifierFilter forAll(LexLocation location,
+		INMultipleBindList bindings, INExpression predicate)
+	{
+		if (predicate instanceof INImpliesExpression)
+		{
+			INImpliesExpression implies = (INImpliesExpression)predicate;
+			return new INQuantifierFilter(location, "forall", bindings, implies.left);
+		}
+		else
+		{
+			return new INQuantifierFilter(location, "forall", bindings, null);
+		}
+	}
+
+	private static List<INExpression> getConjuncts(INExpression exp)
+	{
+		List<INExpression> list = new Vector<INExpression>();
+
+		if (exp instanceof INAndExpression)
+		{
+			INAndExpression and = (INAndExpression)exp;
+			list.addAll(getConjuncts(and.left));
+			list.addAll(getConjuncts(and.right));
+		}
+		else
+		{
+			list.add(exp);
+		}
+
+		return list;
+	}
+
+	public boolean isEmpty()
+	{
+		return conjuncts.isEmpty();
+	}
+
+	/**
+	 * Add the filters to a QuantifierList, which must have been created with one
+	 * Quantifier for each pattern of the bindings passed to the constructor. This is
+	 * called before the QuantifierList is initialized.
+	 */
+	public void addTo(QuantifierList list, Context ctxt)
+	{
+		if (conjuncts.isEmpty() || !isEnabled(ctxt))
+		{
+			return;
+		}
+
+		int[] enabled = { conjuncts.size() };	// Filters before this index are used
+
+		for (int i=0; i<conjuncts.size(); i++)
+		{
+			int index = i;
+			list.addFilter(quantifiers.get(i), nvpl -> test(index, enabled, nvpl, ctxt));
+		}
+	}
+
+	private boolean isEnabled(Context ctxt)
+	{
+		Interpreter interpreter = Interpreter.getInstance();
+
+		return !ctxt.threadState.isStepping() &&
+			(interpreter == null || interpreter.getBreakpoints().isEmpty());
+	}
+
+	private boolean test(int index, int[] enabled, NameValuePairList nvpl, Context ctxt)
+	{
+		if (index >= enabled[0])
+		{
+			return true;
+		}
+
+		ThreadState state = ctxt.threadState;
+		LexLocation.suspendCounting();
+		state.setSpeculative(true);
+
+		try
+		{
+			Context evalContext = new Context(location, title, ctxt);
+			evalContext.putList(nvpl);
+			return conjuncts.get(index).eval(evalContext).boolValue(ctxt);
+		}
+		catch (Exception e)
+		{
+			enabled[0] = index + 1;		// Later conjuncts may not be reached
+			return true;	// Raised again when the predicate is evaluated
+		}
+		finally
+		{
+			state.setSpeculative(false);
+			LexLocation.resumeCounting();
+		}
+	}
+
+}
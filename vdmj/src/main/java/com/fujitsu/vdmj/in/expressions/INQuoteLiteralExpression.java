@@ -27,8 +27,8 @@ import com.fujitsu.vdmj.ast.lex.LexQuoteToken;
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
-import com.fujitsu.vdmj.values.QuoteValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INQuoteLiteralExpression extends INExpression
 {
@@ -51,7 +51,7 @@ public class INQuoteLiteralExpression extends INExpression
 	public Value eval(Context ctxt)
 	{
 		breakpoint.check(location, ctxt);
-		return new QuoteValue(type.value);
+		return ValueFactory.mkQuote(type.value);
 	}
 
 	@Override
@@ -29,9 +29,9 @@ import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.tc.types.TCType;
 import com.fujitsu.vdmj.tc.types.TCTypeList;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.ObjectValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INSameBaseClassExpression extends INExpression
 {
@@ -60,7 +60,7 @@ public class INSameBaseClassExpression extends INExpression
 			if (!l.isType(ObjectValue.class) ||
 				!r.isType(ObjectValue.class))
 			{
-				return new BooleanValue(false);
+				return ValueFactory.mkBool(false);
 			}
 
 			ObjectValue lv = l.objectValue(ctxt);
@@ -73,11 +73,11 @@ public class INSameBaseClassExpression extends INExpression
 			{
 				if (rbases.contains(ltype))
 				{
-					return new BooleanValue(true);
+					return ValueFactory.mkBool(true);
 				}
 			}
 
-			return new BooleanValue(false);
+			return ValueFactory.mkBool(false);
 		}
 		catch (ValueException e)
 		{
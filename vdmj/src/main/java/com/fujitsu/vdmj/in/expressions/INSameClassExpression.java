@@ -27,9 +27,9 @@ import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.ObjectValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INSameClassExpression extends INExpression
 {
@@ -58,13 +58,13 @@ public class INSameClassExpression extends INExpression
 			if (!l.isType(ObjectValue.class) ||
 				!r.isType(ObjectValue.class))
 			{
-				return new BooleanValue(false);
+				return ValueFactory.mkBool(false);
 			}
 
 			ObjectValue lv = l.objectValue(ctxt);
 			ObjectValue rv = r.objectValue(ctxt);
 
-			return new BooleanValue(lv.type.equals(rv.type));
+			return ValueFactory.mkBool(lv.type.equals(rv.type));
 		}
 		catch (ValueException e)
 		{
@@ -24,15 +24,21 @@
 package com.fujitsu.vdmj.in.expressions;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Vector;
 
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.in.patterns.INBind;
+import com.fujitsu.vdmj.in.patterns.INIdentifierPattern;
 import com.fujitsu.vdmj.in.patterns.INSetBind;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ContextException;
+import com.fujitsu.vdmj.runtime.ParallelEvaluator;
 import com.fujitsu.vdmj.runtime.PatternMatchException;
 import com.fujitsu.vdmj.runtime.ValueException;
+import com.fujitsu.vdmj.tc.lex.TCNameToken;
+import com.fujitsu.vdmj.values.NameValuePair;
 import com.fujitsu.vdmj.values.NameValuePairList;
 import com.fujitsu.vdmj.values.NaturalValue;
 import com.fujitsu.vdmj.values.SeqValue;
@@ -47,6 +53,7 @@ public class INSeqCompExpression extends INSeqExpression
 	public final INExpression first;
 	public final INBind bind;
 	public final INExpression predicate;
+	private final boolean parallel;
 
 	public INSeqCompExpression(LexLocation start,
 		INExpression first, INBind bind, INExpression predicate)
@@ -55,6 +62,8 @@ public class INSeqCompExpression extends INSeqExpression
 		this.first = first;
 		this.bind = bind;
 		this.predicate = predicate;
+		this.parallel = first.getOperationCalls().isEmpty() &&
+			(predicate == null || predicate.getOperationCalls().isEmpty());
 	}
 
 	@Override
@@ -95,36 +104,49 @@ public class INSeqCompExpression extends INSeqExpression
 		ValueMap map = new ValueMap();	// Map bind values to output values
 		int count = 0;
 
+		if (parallel && bind.pattern instanceof INIdentifierPattern && ParallelEvaluator.isEnabled(ctxt))
+		{
+			// Each value binds a distinct sortOn, so the results can be evaluated in any order
+
+			TCNameToken name = ((INIdentifierPattern)bind.pattern).name;
+			List<Value> outs = new Vector<Value>(allValues.size());
+
+			ParallelEvaluator.evaluate(allValues, ctxt,
+				(val, c) -> evalSetMember(new NameValuePairList(new NameValuePair(name, val)), val, c), null, outs);
+
+			for (int i=0; i<outs.size(); i++)
+			{
+				if (outs.get(i) != null)
+				{
+					seq.add(allValues.get(i));
+					map.put(allValues.get(i), outs.get(i));
+				}
+			}
+
+			allValues = new ValueList();	// Skip the serial evaluation
+		}
+
 		for (Value val: allValues)
 		{
 			try
 			{
-				Context evalContext = new Context(location, "seq comprehension", ctxt);
 				NameValuePairList nvpl = bind.pattern.getNamedValues(val, ctxt);
 				Value sortOn = nvpl.isEmpty() ? new NaturalValue(count++) : nvpl.get(0).value;
 
 				if (map.get(sortOn) == null)
 				{
-    				if (nvpl.size() > 1 || !sortOn.isOrdered())
+    				if (nvpl.size() > 1)
     				{
     					abort(4029, "Sequence comprehension binding must be one ordered value", ctxt);
     				}
 
-    				evalContext.putList(nvpl);
-
-    				try
-					{
-						if (predicate == null || predicate.eval(evalContext).boolValue(ctxt))
-						{
-							Value out = first.eval(evalContext);
-							seq.add(sortOn);
-							map.put(sortOn, out);
-						}
-					}
-					catch (ValueException e)
-					{
-						predicate.abort(e);
-					}
+    				Value out = evalSetMember(nvpl, sortOn, ctxt);
+
+    				if (out != null)
+    				{
+						seq.add(sortOn);
+						map.put(sortOn, out);
+    				}
 				}
 			}
 			catch (PatternMatchException e)
@@ -152,35 +174,96 @@ public class INSeqCompExpression extends INSeqExpression
 		return new SeqValue(sorted);
 	}
 
-	private Value evalSeqBind(ValueList allValues, Context ctxt)
+	/**
+	 * Evaluate the output value for one set bind value, or return null if the
+	 * predicate is false.
+	 */
+	private Value evalSetMember(NameValuePairList nvpl, Value sortOn, Context ctxt)
 	{
-		ValueList seq = new ValueList();	// INBind variable values
+		if (!sortOn.isOrdered())
+		{
+			abort(4029, "Sequence comprehension binding must be one ordered value", ctxt);
+		}
 
-		for (Value val: allValues)
+		try
 		{
-			try
+			Context evalContext = new Context(location, "seq comprehension", ctxt);
+			evalContext.putList(nvpl);
+
+			if (predicate == null || predicate.eval(evalContext).boolValue(ctxt))
 			{
-				Context evalContext = new Context(location, "seq comprehension", ctxt);
-				NameValuePairList nvpl = bind.pattern.getNamedValues(val, ctxt);
+				return first.eval(evalContext);
+			}
+		}
+		catch (ValueException e)
+		{
+			predicate.abort(e);
+		}
 
-				evalContext.putList(nvpl);
+		return null;
+	}
 
-				if (predicate == null || predicate.eval(evalContext).boolValue(ctxt))
+	private Value evalSeqBind(ValueList allValues, Context ctxt)
+	{
+		ValueList seq = new ValueList();	// INBind variable values
+
+		if (parallel && ParallelEvaluator.isEnabled(ctxt))
+		{
+			List<Value> outs = new Vector<Value>(allValues.size());
+			ParallelEvaluator.evaluate(allValues, ctxt, this::evalSeqMember, null, outs);
+
+			for (Value out: outs)
+			{
+				if (out != null)
 				{
-					seq.add(first.eval(evalContext));
+					seq.add(out);
 				}
 			}
-			catch (ValueException e)
+		}
+		else
+		{
+			for (Value val: allValues)
 			{
-				abort(e);
+				Value out = evalSeqMember(val, ctxt);
+
+				if (out != null)
+				{
+					seq.add(out);
+				}
 			}
-			catch (PatternMatchException e)
+		}
+
+		return new SeqValue(seq);
+	}
+
+	/**
+	 * Evaluate the output value for one seq bind value, or return null if the
+	 * value does not match the pattern or the predicate is false.
+	 */
+	private Value evalSeqMember(Value val, Context ctxt)
+	{
+		try
+		{
+			Context evalContext = new Context(location, "seq comprehension", ctxt);
+			NameValuePairList nvpl = bind.pattern.getNamedValues(val, ctxt);
+
+			evalContext.putList(nvpl);
+
+			if (predicate == null || predicate.eval(evalContext).boolValue(ctxt))
 			{
-				// Ignore mismatches
+				return first.eval(evalContext);
 			}
 		}
+		catch (ValueException e)
+		{
+			abort(e);
+		}
+		catch (PatternMatchException e)
+		{
+			// Ignore mismatches
+		}
 
-		return new SeqValue(seq);
+		return null;
 	}
 
 	@Override
@@ -28,6 +28,8 @@ import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.values.SeqValue;
+import com.fujitsu.vdmj.values.SliceSeqValue;
+import com.fujitsu.vdmj.values.StringSeqValue;
 import com.fujitsu.vdmj.values.Value;
 import com.fujitsu.vdmj.values.ValueList;
 
@@ -51,6 +53,15 @@ public class INSeqConcatExpression extends INBinaryExpression
     		Value lv = left.eval(ctxt);
     		Value rv = right.eval(ctxt);
 
+    		if (lv.deref() instanceof StringSeqValue && rv.deref() instanceof StringSeqValue)
+    		{
+    			return ((StringSeqValue)lv.deref()).concat((StringSeqValue)rv.deref());
+    		}
+    		else if (lv.deref() instanceof SeqValue && rv.deref() instanceof SeqValue)
+    		{
+    			return SliceSeqValue.concat((SeqValue)lv.deref(), (SeqValue)rv.deref());
+    		}
+
     		ValueList result = new ValueList();
     		result.addAll(lv.seqValue(ctxt));
     		result.addAll(rv.seqValue(ctxt));
@@ -29,6 +29,7 @@ import com.fujitsu.vdmj.in.patterns.INMultipleBindList;
 import com.fujitsu.vdmj.in.patterns.INPattern;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
+import com.fujitsu.vdmj.runtime.ParallelEvaluator;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.util.Utils;
 import com.fujitsu.vdmj.values.NameValuePair;
@@ -46,6 +47,8 @@ public class INSetCompExpression extends INSetExpression
 	public final INExpression first;
 	public final INMultipleBindList bindings;
 	public final INExpression predicate;
+	private final boolean parallel;
+	private final INQuantifierFilter filter;
 
 	public INSetCompExpression(LexLocation start,
 		INExpression first, INMultipleBindList bindings, INExpression predicate)
@@ -54,6 +57,9 @@ public class INSetCompExpression extends INSetExpression
 		this.first = first;
 		this.bindings = bindings;
 		this.predicate = predicate;
+		this.parallel = first.getOperationCalls().isEmpty() &&
+			(predicate == null || predicate.getOperationCalls().isEmpty());
+		this.filter = new INQuantifierFilter(location, "set comprehension", bindings, predicate);
 	}
 
 	@Override
@@ -84,45 +90,30 @@ public class INSetCompExpression extends INSetExpression
 				}
 			}
 
+			filter.addTo(quantifiers, ctxt);
 			quantifiers.init(ctxt, false);
 
-			while (quantifiers.hasNext())
+			if (parallel && ParallelEvaluator.isEnabled(ctxt))
 			{
-				Context evalContext = new Context(location, "set comprehension", ctxt);
-				NameValuePairList nvpl = quantifiers.next();
-				boolean matches = true;
-
-				for (NameValuePair nvp: nvpl)
+				for (Value member: ParallelEvaluator.evaluate(quantifiers, ctxt, this::evalBinding, null))
 				{
-					Value v = evalContext.get(nvp.name);
-
-					if (v == null)
+					if (member != null)
 					{
-						evalContext.put(nvp.name, nvp.value);
-					}
-					else
-					{
-						if (!v.equals(nvp.value))
-						{
-							matches = false;
-							break;	// This quantifier set does not match
-						}
+						set.add(member);
 					}
 				}
-
-				try
+			}
+			else
+			{
+				while (quantifiers.hasNext())
 				{
-					if (matches &&
-						(predicate == null ||
-						 predicate.eval(evalContext).boolValue(ctxt)))
+					Value member = evalBinding(quantifiers.next(), ctxt);
+
+					if (member != null)
 					{
-						set.add(first.eval(evalContext));
+						set.add(member);
 					}
 				}
-				catch (ValueException e)
-				{
-					predicate.abort(e);
-				}
 			}
 
 			return new SetValue(set);
@@ -133,6 +124,46 @@ public class INSetCompExpression extends INSetExpression
 		}
 	}
 
+	/**
+	 * Evaluate the member for one binding, or return null if the binding does not
+	 * match or the predicate is false.
+	 */
+	private Value evalBinding(NameValuePairList nvpl, Context ctxt)
+	{
+		Context evalContext = new Context(location, "set comprehension", ctxt);
+
+		for (NameValuePair nvp: nvpl)
+		{
+			Value v = evalContext.get(nvp.name);
+
+			if (v == null)
+			{
+				evalContext.put(nvp.name, nvp.value);
+			}
+			else
+			{
+				if (!v.equals(nvp.value))
+				{
+					return null;	// This quantifier set does not match
+				}
+			}
+		}
+
+		try
+		{
+			if (predicate == null || predicate.eval(evalContext).boolValue(ctxt))
+			{
+				return first.eval(evalContext);
+			}
+		}
+		catch (ValueException e)
+		{
+			predicate.abort(e);
+		}
+
+		return null;
+	}
+
 	@Override
 	public <R, S> R apply(INExpressionVisitor<R, S> visitor, S arg)
 	{
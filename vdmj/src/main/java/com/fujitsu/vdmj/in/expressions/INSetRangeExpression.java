@@ -27,10 +27,8 @@ import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
-import com.fujitsu.vdmj.values.IntegerValue;
-import com.fujitsu.vdmj.values.SetValue;
+import com.fujitsu.vdmj.values.RangeSetValue;
 import com.fujitsu.vdmj.values.Value;
-import com.fujitsu.vdmj.values.ValueSet;
 
 public class INSetRangeExpression extends INSetExpression
 {
@@ -60,14 +58,7 @@ public class INSetRangeExpression extends INSetExpression
 		{
     		long from = (long)Math.ceil(first.eval(ctxt).realValue(ctxt));
     		long to = (long)Math.floor(last.eval(ctxt).realValue(ctxt));
-    		ValueSet set = new ValueSet();
-
-    		for (long i=from; i<= to; i++)
-    		{
-    			set.addNoCheck(new IntegerValue(i));
-    		}
-
-    		return new SetValue(set);
+    		return new RangeSetValue(from, to);		// Members created on demand
 		}
 		catch (ValueException e)
 		{
@@ -48,8 +48,7 @@ public class INSetUnionExpression extends INBinaryExpression
 
 		try
 		{
-    		ValueSet result = new ValueSet();
-    		result.addAll(left.eval(ctxt).setValue(ctxt));
+    		ValueSet result = new ValueSet(left.eval(ctxt).setValue(ctxt));
     		result.addAll(right.eval(ctxt).setValue(ctxt));
     		return new SetValue(result);
 		}
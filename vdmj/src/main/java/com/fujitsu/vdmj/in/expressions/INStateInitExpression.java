@@ -29,10 +29,10 @@ import com.fujitsu.vdmj.in.patterns.INIdentifierPattern;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.FunctionValue;
 import com.fujitsu.vdmj.values.RecordValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INStateInitExpression extends INExpression
 {
@@ -66,7 +66,7 @@ public class INStateInitExpression extends INExpression
 				return invariant.eval(location, rv, ctxt);
 			}
 
-			return new BooleanValue(true);
+			return ValueFactory.mkBool(true);
 		}
 		catch (ValueException e)
 		{
@@ -26,7 +26,7 @@ package com.fujitsu.vdmj.in.expressions;
 import com.fujitsu.vdmj.ast.lex.LexStringToken;
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.runtime.Context;
-import com.fujitsu.vdmj.values.SeqValue;
+import com.fujitsu.vdmj.values.StringSeqValue;
 import com.fujitsu.vdmj.values.Value;
 
 public class INStringLiteralExpression extends INExpression
@@ -50,7 +50,7 @@ public class INStringLiteralExpression extends INExpression
 	public Value eval(Context ctxt)
 	{
 		breakpoint.check(location, ctxt);
-		return new SeqValue(value);
+		return new StringSeqValue(value.value);
 	}
 
 	@Override
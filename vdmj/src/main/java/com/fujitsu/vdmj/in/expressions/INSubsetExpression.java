@@ -27,8 +27,10 @@ import com.fujitsu.vdmj.ast.lex.LexToken;
 import com.fujitsu.vdmj.in.expressions.visitors.INExpressionVisitor;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
-import com.fujitsu.vdmj.values.BooleanValue;
+import com.fujitsu.vdmj.values.RangeSetValue;
+import com.fujitsu.vdmj.values.SetValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 import com.fujitsu.vdmj.values.ValueSet;
 
 public class INSubsetExpression extends INBinaryExpression
@@ -48,10 +50,19 @@ public class INSubsetExpression extends INBinaryExpression
 
 		try
 		{
-    		ValueSet set1 = left.eval(ctxt).setValue(ctxt);
-    		ValueSet set2 = right.eval(ctxt).setValue(ctxt);
+    		Value lv = left.eval(ctxt);
+    		Value rv = right.eval(ctxt);
 
-    		return new BooleanValue(set2.containsAll(set1));
+    		if (rv.deref() instanceof RangeSetValue && lv.deref() instanceof SetValue)
+    		{
+    			RangeSetValue range = (RangeSetValue)rv.deref();
+    			return ValueFactory.mkBool(range.containsAll((SetValue)lv.deref()));
+    		}
+
+    		ValueSet set1 = lv.setValue(ctxt);
+    		ValueSet set2 = rv.setValue(ctxt);
+
+    		return ValueFactory.mkBool(set2.containsAll(set1));
 		}
 		catch (ValueException e)
 		{
@@ -28,6 +28,8 @@ import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.values.SeqValue;
+import com.fujitsu.vdmj.values.SliceSeqValue;
+import com.fujitsu.vdmj.values.StringSeqValue;
 import com.fujitsu.vdmj.values.Value;
 import com.fujitsu.vdmj.values.ValueList;
 
@@ -55,7 +57,26 @@ public class INTailExpression extends INUnaryExpression
 
 		try
 		{
-			seq = new ValueList(exp.eval(ctxt).seqValue(ctxt));
+			Value value = exp.eval(ctxt);
+
+			if (value.deref() instanceof SeqValue)
+			{
+				SeqValue sv = (SeqValue)value.deref();
+
+				if (sv.length() == 0)
+				{
+					abort(4033, "Tail sequence is empty", ctxt);
+				}
+
+				if (sv instanceof StringSeqValue)
+				{
+					return ((StringSeqValue)sv).tail();
+				}
+
+				return SliceSeqValue.tail(sv);
+			}
+
+			seq = new ValueList(value.seqValue(ctxt));
 		}
 		catch (ValueException e)
 		{
@@ -34,6 +34,12 @@ public class INVariableExpression extends INExpression
 
 	public final TCNameToken name;
 
+	// Where the name was last found, and how many times it has been resolved
+	private transient Context.Slot slot = null;
+	private transient int resolved = 0;
+
+	private static final int MAX_RESOLVES = 4;	// Globals, members etc. are never in slots
+
 	public INVariableExpression(TCNameToken name)
 	{
 		super(name.getLocation());
@@ -50,7 +56,27 @@ public class INVariableExpression extends INExpression
 	public Value eval(Context ctxt)
 	{
 		breakpoint.check(location, ctxt);
-		return ctxt.lookup(name);
+		Context.Slot s = slot;
+
+		if (s != null)
+		{
+			Value v = ctxt.getSlot(s);
+
+			if (v != null)
+			{
+				return v;
+			}
+		}
+
+		Value v = ctxt.lookup(name);
+
+		if (resolved < MAX_RESOLVES)
+		{
+			resolved++;
+			slot = ctxt.resolve(name);
+		}
+
+		return v;
 	}
 
 	@Override
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.in.expressions.visitors;
+
+import com.fujitsu.vdmj.in.INVisitorSet;
+import com.fujitsu.vdmj.in.expressions.INApplyExpression;
+import com.fujitsu.vdmj.in.expressions.INExpression;
+import com.fujitsu.vdmj.in.expressions.INExpressionList;
+import com.fujitsu.vdmj.in.expressions.INHistoryExpression;
+import com.fujitsu.vdmj.in.expressions.INNewExpression;
+
+/**
+ * Find the sub-expressions that may call operations, create objects or read
+ * history counters. Expressions without these are pure, and can be evaluated
+ * in parallel (see ParallelEvaluator). Functions that reach native methods are
+ * only found when they are called, and are then evaluated serially.
+ */
+public class INOperationCallFinder extends INLeafExpressionVisitor<INExpression, INExpressionList, Object>
+{
+	public INOperationCallFinder()
+	{
+		super(false);
+		visitorSet = new INVisitorSet<INExpression, INExpressionList, Object>() {};
+	}
+
+	@Override
+	protected INExpressionList newCollection()
+	{
+		return new INExpressionList();
+	}
+
+	@Override
+	public INExpressionList caseExpression(INExpression node, Object arg)
+	{
+		return newCollection();
+	}
+
+	@Override
+	public INExpressionList caseApplyExpression(INApplyExpression node, Object arg)
+	{
+		INExpressionList result = super.caseApplyExpression(node, arg);
+
+		if (node.type == null || node.type.isOperation(node.location))
+		{
+			result.add(node);
+		}
+
+		return result;
+	}
+
+	@Override
+	public INExpressionList caseNewExpression(INNewExpression node, Object arg)
+	{
+		INExpressionList result = newCollection();
+		result.add(node);
+		return result;
+	}
+
+	@Override
+	public INExpressionList caseHistoryExpression(INHistoryExpression node, Object arg)
+	{
+		INExpressionList result = newCollection();
+		result.add(node);
+		return result;
+	}
+}
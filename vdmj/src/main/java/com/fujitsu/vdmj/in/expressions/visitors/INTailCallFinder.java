@@ -0,0 +1,112 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.in.expressions.visitors;
+
+import com.fujitsu.vdmj.in.expressions.INApplyExpression;
+import com.fujitsu.vdmj.in.expressions.INCaseAlternative;
+import com.fujitsu.vdmj.in.expressions.INCasesExpression;
+import com.fujitsu.vdmj.in.expressions.INElseIfExpression;
+import com.fujitsu.vdmj.in.expressions.INExpression;
+import com.fujitsu.vdmj.in.expressions.INExpressionList;
+import com.fujitsu.vdmj.in.expressions.INIfExpression;
+import com.fujitsu.vdmj.in.expressions.INLetDefExpression;
+import com.fujitsu.vdmj.in.expressions.INVariableExpression;
+import com.fujitsu.vdmj.tc.lex.TCNameToken;
+
+/**
+ * Find the applications of a function that are in the tail position of its
+ * body, and so return their value directly. Only if/elseif/cases alternatives
+ * and the body of let/def expressions are searched.
+ */
+public class INTailCallFinder extends INExpressionVisitor<INExpressionList, TCNameToken>
+{
+	@Override
+	public INExpressionList caseExpression(INExpression node, TCNameToken fname)
+	{
+		return new INExpressionList();
+	}
+
+	@Override
+	public INExpressionList caseApplyExpression(INApplyExpression node, TCNameToken fname)
+	{
+		INExpressionList result = new INExpressionList();
+
+		if (node.root instanceof INVariableExpression)
+		{
+			INVariableExpression var = (INVariableExpression)node.root;
+
+			if (var.name.getName().equals(fname.getName()))	// Checked at runtime too
+			{
+				result.add(node);
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public INExpressionList caseIfExpression(INIfExpression node, TCNameToken fname)
+	{
+		INExpressionList result = node.thenExp.apply(this, fname);
+
+		for (INElseIfExpression elseif: node.elseList)
+		{
+			result.addAll(elseif.apply(this, fname));
+		}
+
+		result.addAll(node.elseExp.apply(this, fname));
+		return result;
+	}
+
+	@Override
+	public INExpressionList caseElseIfExpression(INElseIfExpression node, TCNameToken fname)
+	{
+		return node.thenExp.apply(this, fname);
+	}
+
+	@Override
+	public INExpressionList caseCasesExpression(INCasesExpression node, TCNameToken fname)
+	{
+		INExpressionList result = new INExpressionList();
+
+		for (INCaseAlternative alt: node.cases)
+		{
+			result.addAll(alt.result.apply(this, fname));
+		}
+
+		if (node.others != null)
+		{
+			result.addAll(node.others.apply(this, fname));
+		}
+
+		return result;
+	}
+
+	@Override
+	public INExpressionList caseLetDefExpression(INLetDefExpression node, TCNameToken fname)
+	{
+		return node.expression.apply(this, fname);
+	}
+}
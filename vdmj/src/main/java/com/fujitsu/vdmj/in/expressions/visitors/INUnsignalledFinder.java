@@ -0,0 +1,101 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.in.expressions.visitors;
+
+import com.fujitsu.vdmj.in.INVisitorSet;
+import com.fujitsu.vdmj.in.expressions.INApplyExpression;
+import com.fujitsu.vdmj.in.expressions.INExpression;
+import com.fujitsu.vdmj.in.expressions.INExpressionList;
+import com.fujitsu.vdmj.in.expressions.INFieldExpression;
+import com.fujitsu.vdmj.in.expressions.INNewExpression;
+import com.fujitsu.vdmj.in.expressions.INTimeExpression;
+
+/**
+ * Find the sub-expressions of a permission guard that may read values which are
+ * not signalled to the guard's lock when they change. These are calls to functions
+ * or operations, new objects, object fields (which may be re-bound, or not exist
+ * when the guard is prepared) and the RT time. A guard without these only reads
+ * the variables found by getValues and history counters, which are signalled.
+ */
+public class INUnsignalledFinder extends INLeafExpressionVisitor<INExpression, INExpressionList, Object>
+{
+	public INUnsignalledFinder()
+	{
+		super(false);
+		visitorSet = new INVisitorSet<INExpression, INExpressionList, Object>() {};
+	}
+
+	@Override
+	protected INExpressionList newCollection()
+	{
+		return new INExpressionList();
+	}
+
+	@Override
+	public INExpressionList caseExpression(INExpression node, Object arg)
+	{
+		return newCollection();
+	}
+
+	@Override
+	public INExpressionList caseApplyExpression(INApplyExpression node, Object arg)
+	{
+		INExpressionList result = super.caseApplyExpression(node, arg);
+
+		if (node.type == null ||
+			node.type.isFunction(node.location) ||
+			node.type.isOperation(node.location) ||
+			!(node.type.isMap(node.location) || node.type.isSeq(node.location)))
+		{
+			result.add(node);
+		}
+
+		return result;
+	}
+
+	@Override
+	public INExpressionList caseFieldExpression(INFieldExpression node, Object arg)
+	{
+		INExpressionList result = super.caseFieldExpression(node, arg);
+		result.add(node);
+		return result;
+	}
+
+	@Override
+	public INExpressionList caseNewExpression(INNewExpression node, Object arg)
+	{
+		INExpressionList result = newCollection();
+		result.add(node);
+		return result;
+	}
+
+	@Override
+	public INExpressionList caseTimeExpression(INTimeExpression node, Object arg)
+	{
+		INExpressionList result = newCollection();
+		result.add(node);
+		return result;
+	}
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.in.expressions.visitors;
+
+import com.fujitsu.vdmj.in.INVisitorSet;
+import com.fujitsu.vdmj.in.definitions.INDefinition;
+import com.fujitsu.vdmj.in.definitions.INExplicitFunctionDefinition;
+import com.fujitsu.vdmj.in.definitions.INImplicitFunctionDefinition;
+import com.fujitsu.vdmj.in.expressions.INExpression;
+import com.fujitsu.vdmj.in.expressions.INLetDefExpression;
+import com.fujitsu.vdmj.in.expressions.INVariableExpression;
+import com.fujitsu.vdmj.tc.lex.TCNameList;
+import com.fujitsu.vdmj.tc.lex.TCNameToken;
+
+/**
+ * Find the names of all variables used by an expression, including those used
+ * in the bodies of local function definitions. This is used to decide which
+ * bound names a predicate depends on (see INQuantifierFilter).
+ */
+public class INVariableNamesFinder extends INLeafExpressionVisitor<TCNameToken, TCNameList, Object>
+{
+	public INVariableNamesFinder()
+	{
+		super(false);
+		visitorSet = new INVisitorSet<TCNameToken, TCNameList, Object>() {};
+	}
+
+	@Override
+	protected TCNameList newCollection()
+	{
+		return new TCNameList();
+	}
+
+	@Override
+	public TCNameList caseExpression(INExpression node, Object arg)
+	{
+		return newCollection();
+	}
+
+	@Override
+	public TCNameList caseVariableExpression(INVariableExpression node, Object arg)
+	{
+		return new TCNameList(node.name);
+	}
+
+	@Override
+	public TCNameList caseLetDefExpression(INLetDefExpression node, Object arg)
+	{
+		TCNameList all = super.caseLetDefExpression(node, arg);
+
+		for (INDefinition def: node.localDefs)
+		{
+			if (def instanceof INExplicitFunctionDefinition)
+			{
+				INExplicitFunctionDefinition fdef = (INExplicitFunctionDefinition)def;
+				all.addAll(visit(fdef.body, arg));
+				all.addAll(visit(fdef.precondition, arg));
+				all.addAll(visit(fdef.postcondition, arg));
+			}
+			else if (def instanceof INImplicitFunctionDefinition)
+			{
+				INImplicitFunctionDefinition fdef = (INImplicitFunctionDefinition)def;
+				all.addAll(visit(fdef.body, arg));
+				all.addAll(visit(fdef.precondition, arg));
+				all.addAll(visit(fdef.postcondition, arg));
+			}
+		}
+
+		return all;
+	}
+
+	private TCNameList visit(INExpression exp, Object arg)
+	{
+		return exp == null ? newCollection() : exp.apply(this, arg);
+	}
+}
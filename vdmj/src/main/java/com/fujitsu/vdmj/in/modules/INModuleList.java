@@ -25,6 +25,7 @@ package com.fujitsu.vdmj.in.modules;
 
 import java.io.File;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import com.fujitsu.vdmj.in.INMappedList;
@@ -38,6 +39,7 @@ import com.fujitsu.vdmj.runtime.RootContext;
 import com.fujitsu.vdmj.runtime.StateContext;
 import com.fujitsu.vdmj.scheduler.InitThread;
 import com.fujitsu.vdmj.tc.lex.TCIdentifierToken;
+import com.fujitsu.vdmj.tc.lex.TCNameSet;
 import com.fujitsu.vdmj.tc.lex.TCNameToken;
 import com.fujitsu.vdmj.tc.modules.TCModule;
 import com.fujitsu.vdmj.tc.modules.TCModuleList;
@@ -137,10 +139,18 @@ public class INModuleList extends INMappedList<TCModule, INModule>
 	}
 
 	public void initialize(RootContext ctxt)
+	{
+		initialize(ctxt, null);
+	}
+
+	/**
+	 * Initialize using the dependencies found by the type checker, if not null.
+	 */
+	public void initialize(RootContext ctxt, Map<TCNameToken, TCNameSet> dependencies)
 	{
 		try
 		{
-			InitThread initThread = new InitThread(this, ctxt);
+			InitThread initThread = new InitThread(this, ctxt, dependencies);
 			initThread.start();
 			initThread.join();
 			
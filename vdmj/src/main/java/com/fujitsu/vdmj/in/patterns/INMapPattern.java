@@ -73,7 +73,18 @@ public class INMapPattern extends INPattern
 	}
 
 	@Override
-	public List<NameValuePairList> getAllNamedValues(Value expval, Context ctxt)
+	public List<NameValuePairList> getAllNamedValues(Value expval, Context ctxt) throws PatternMatchException
+	{
+		return matchValues(expval, ctxt, false);
+	}
+
+	@Override
+	protected NameValuePairList getFirstNamedValues(Value expval, Context ctxt) throws PatternMatchException
+	{
+		return matchValues(expval, ctxt, true).get(0);
+	}
+
+	private List<NameValuePairList> matchValues(Value expval, Context ctxt, boolean firstOnly)
 		throws PatternMatchException
 	{
 		ValueMap values = null;
@@ -98,16 +109,17 @@ public class INMapPattern extends INPattern
 		// are not constrained however, the initial ordering will be
 		// fine.
 
-		List<Map<Value, Value>> allMaps;
+		Iterator<Map<Value, Value>> allMaps;
 
 		if (isConstrained())
 		{
-			allMaps = values.permutedMaps();
+			allMaps = values.permutations();
 		}
 		else
 		{
-			allMaps = new Vector<Map<Value, Value>>();
-			allMaps.add(values);
+			List<Map<Value, Value>> one = new Vector<Map<Value, Value>>();
+			one.add(values);
+			allMaps = one.iterator();
 		}
 
 		List<NameValuePairList> finalResults = new Vector<NameValuePairList>();
@@ -119,8 +131,9 @@ public class INMapPattern extends INPattern
 			return finalResults;
 		}
 
-		for (Map<Value, Value> mapPerm: allMaps)
+		while (allMaps.hasNext() && !(firstOnly && !finalResults.isEmpty()))
 		{
+			Map<Value, Value> mapPerm = allMaps.next();
 			Iterator<Entry<Value, Value>> iter = mapPerm.entrySet().iterator();
 
 			List<List<NameValuePairList>> nvplists = new Vector<List<NameValuePairList>>();
@@ -131,7 +144,7 @@ public class INMapPattern extends INPattern
 			{
 				for (INMapletPattern p: maplets)
 				{
-					List<NameValuePairList> pnvps = p.getAllNamedValues(iter.next(), ctxt);
+					List<NameValuePairList> pnvps = p.getNamedValueLists(iter.next(), ctxt, firstOnly);
 					nvplists.add(pnvps);
 					counts[i++] = pnvps.size();
 				}
@@ -71,6 +71,18 @@ public class INMapUnionPattern extends INPattern
 
 	@Override
 	public List<NameValuePairList> getAllNamedValues(Value expval, Context ctxt) throws PatternMatchException
+	{
+		return matchValues(expval, ctxt, false);
+	}
+
+	@Override
+	protected NameValuePairList getFirstNamedValues(Value expval, Context ctxt) throws PatternMatchException
+	{
+		return matchValues(expval, ctxt, true).get(0);
+	}
+
+	private List<NameValuePairList> matchValues(Value expval, Context ctxt, boolean firstOnly)
+		throws PatternMatchException
 	{
 		ValueMap values = null;
 
@@ -154,17 +166,7 @@ public class INMapUnionPattern extends INPattern
 		// are not constrained however, the initial ordering will be
 		// fine.
 
-		List<Map<Value, Value>> allMaps;
-
-		if (isConstrained())
-		{
-			allMaps = values.permutedMaps();
-		}
-		else
-		{
-			allMaps = new Vector<Map<Value, Value>>();
-			allMaps.add(values);
-		}
+		boolean permute = isConstrained();
 
 		// Now loop through the various splits and attempt to match the l/r
 		// sub-patterns to the split map value.
@@ -173,8 +175,27 @@ public class INMapUnionPattern extends INPattern
 
 		for (Integer lsize: leftSizes)
 		{
-			for (Map<Value, Value> setPerm: allMaps)
+			if (firstOnly && !finalResults.isEmpty())
+			{
+				break;
+			}
+
+			Iterator<Map<Value, Value>> allMaps;
+
+			if (permute)
+			{
+				allMaps = values.permutations();
+			}
+			else
+			{
+				List<Map<Value, Value>> one = new Vector<Map<Value, Value>>();
+				one.add(values);
+				allMaps = one.iterator();
+			}
+
+			while (allMaps.hasNext() && !(firstOnly && !finalResults.isEmpty()))
 			{
+				Map<Value, Value> setPerm = allMaps.next();
 				Iterator<Entry<Value, Value>> iter = setPerm.entrySet().iterator();
 				ValueMap first = new ValueMap();
 
@@ -198,11 +219,11 @@ public class INMapUnionPattern extends INPattern
 
 				try
 				{
-					List<NameValuePairList> lnvps = left.getAllNamedValues(new MapValue(first), ctxt);
+					List<NameValuePairList> lnvps = left.getNamedValueLists(new MapValue(first), ctxt, firstOnly);
 					nvplists.add(lnvps);
 					counts[0] = lnvps.size();
 
-					List<NameValuePairList> rnvps = right.getAllNamedValues(new MapValue(second), ctxt);
+					List<NameValuePairList> rnvps = right.getNamedValueLists(new MapValue(second), ctxt, firstOnly);
 					nvplists.add(rnvps);
 					counts[1] = rnvps.size();
 				}
@@ -65,8 +65,14 @@ public class INMapletPattern extends INNode
 	public List<NameValuePairList> getAllNamedValues(Entry<Value, Value> maplet, Context ctxt)
 		throws PatternMatchException
 	{
-		List<NameValuePairList> flist = from.getAllNamedValues(maplet.getKey(), ctxt);
-		List<NameValuePairList> tlist = to.getAllNamedValues(maplet.getValue(), ctxt);
+		return getNamedValueLists(maplet, ctxt, false);
+	}
+
+	public List<NameValuePairList> getNamedValueLists(Entry<Value, Value> maplet, Context ctxt, boolean first)
+		throws PatternMatchException
+	{
+		List<NameValuePairList> flist = from.getNamedValueLists(maplet.getKey(), ctxt, first);
+		List<NameValuePairList> tlist = to.getNamedValueLists(maplet.getValue(), ctxt, first);
 		List<NameValuePairList> results = new Vector<NameValuePairList>();
 
 		for (NameValuePairList f: flist)
@@ -27,6 +27,7 @@ import com.fujitsu.vdmj.in.expressions.INExpression;
 import com.fujitsu.vdmj.in.patterns.visitors.INMultipleBindVisitor;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
+import com.fujitsu.vdmj.values.RangeSetValue;
 import com.fujitsu.vdmj.values.SetValue;
 import com.fujitsu.vdmj.values.Value;
 import com.fujitsu.vdmj.values.ValueList;
@@ -54,8 +55,15 @@ public class INMultipleSetBind extends INMultipleBind
 	{
 		try
 		{
+			Value setval = set.eval(ctxt);
+
+			if (setval.deref() instanceof RangeSetValue)
+			{
+				return ((RangeSetValue)setval.deref()).valueList();	// Sorted, with no sets
+			}
+
 			ValueList vl = new ValueList();
-			ValueSet vs = set.eval(ctxt).setValue(ctxt);
+			ValueSet vs = setval.setValue(ctxt);
 			vs.sort();
 
 			for (Value v: vs)
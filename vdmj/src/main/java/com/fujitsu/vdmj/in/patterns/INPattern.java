@@ -25,6 +25,7 @@ package com.fujitsu.vdmj.in.patterns;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Vector;
 
 import com.fujitsu.vdmj.in.INNode;
 import com.fujitsu.vdmj.in.patterns.visitors.INFindIdentifiersVisitor;
@@ -76,6 +77,7 @@ public abstract class INPattern extends INNode implements Serializable
 		// elsewhere in the pattern.
 
 		int count = ids.size();
+		boolean distinct = true;
 
 		for (int i=0; i<count; i++)
 		{
@@ -87,13 +89,48 @@ public abstract class INPattern extends INNode implements Serializable
 				{
 					ids.get(i).setConstrained(true);
 					ids.get(j).setConstrained(true);
+					distinct = false;
 				}
 			}
 		}
 
+		if (distinct)
+		{
+			return getFirstNamedValues(expval, ctxt);
+		}
+
 		List<NameValuePairList> all = getAllNamedValues(expval, ctxt);
 		return all.get(0);		// loose choice here!
 	}
+
+	/**
+	 * Get the first name/value pair list that getAllNamedValues would return. This is
+	 * only used when the pattern has no repeated names, so that patterns with
+	 * sub-patterns can take the first match of each, and patterns that permute sets
+	 * or maps can stop at the first permutation that matches.
+	 */
+	protected NameValuePairList getFirstNamedValues(Value expval, Context ctxt) throws PatternMatchException
+	{
+		return getAllNamedValues(expval, ctxt).get(0);
+	}
+
+	/**
+	 * Get all of the name/value pair lists for a value, or a list of just the first.
+	 */
+	protected List<NameValuePairList> getNamedValueLists(Value expval, Context ctxt, boolean first)
+		throws PatternMatchException
+	{
+		if (first)
+		{
+			List<NameValuePairList> list = new Vector<NameValuePairList>(1);
+			list.add(getFirstNamedValues(expval, ctxt));
+			return list;
+		}
+		else
+		{
+			return getAllNamedValues(expval, ctxt);
+		}
+	}
 	
 	/**
 	 * Get the type(s) that can possibly match this pattern.
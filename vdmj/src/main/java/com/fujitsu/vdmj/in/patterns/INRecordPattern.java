@@ -67,6 +67,18 @@ public class INRecordPattern extends INPattern
 	
 	@Override
 	public List<NameValuePairList> getAllNamedValues(Value expval, Context ctxt) throws PatternMatchException
+	{
+		return matchValues(expval, ctxt, false);
+	}
+
+	@Override
+	protected NameValuePairList getFirstNamedValues(Value expval, Context ctxt) throws PatternMatchException
+	{
+		return matchValues(expval, ctxt, true).get(0);
+	}
+
+	private List<NameValuePairList> matchValues(Value expval, Context ctxt, boolean firstOnly)
+		throws PatternMatchException
 	{
 		FieldMap fields = null;
 		RecordValue exprec = null;
@@ -100,7 +112,7 @@ public class INRecordPattern extends INPattern
 
 		for (INPattern p: plist)
 		{
-			List<NameValuePairList> pnvps = p.getAllNamedValues(iter.next().value, ctxt);
+			List<NameValuePairList> pnvps = p.getNamedValueLists(iter.next().value, ctxt, firstOnly);
 			nvplists.add(pnvps);
 			counts[i++] = pnvps.size();
 		}
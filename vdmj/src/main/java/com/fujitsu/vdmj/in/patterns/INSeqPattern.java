@@ -63,6 +63,18 @@ public class INSeqPattern extends INPattern
 
 	@Override
 	public List<NameValuePairList> getAllNamedValues(Value expval, Context ctxt) throws PatternMatchException
+	{
+		return matchValues(expval, ctxt, false);
+	}
+
+	@Override
+	protected NameValuePairList getFirstNamedValues(Value expval, Context ctxt) throws PatternMatchException
+	{
+		return matchValues(expval, ctxt, true).get(0);
+	}
+
+	private List<NameValuePairList> matchValues(Value expval, Context ctxt, boolean firstOnly)
+		throws PatternMatchException
 	{
 		ValueList values = null;
 
@@ -88,7 +100,7 @@ public class INSeqPattern extends INPattern
 
 		for (INPattern p: plist)
 		{
-			List<NameValuePairList> pnvps = p.getAllNamedValues(iter.next(), ctxt);
+			List<NameValuePairList> pnvps = p.getNamedValueLists(iter.next(), ctxt, firstOnly);
 			nvplists.add(pnvps);
 			counts[i++] = pnvps.size();
 		}
@@ -27,6 +27,7 @@ import com.fujitsu.vdmj.in.expressions.INExpression;
 import com.fujitsu.vdmj.in.patterns.visitors.INBindVisitor;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
+import com.fujitsu.vdmj.values.RangeSetValue;
 import com.fujitsu.vdmj.values.SetValue;
 import com.fujitsu.vdmj.values.Value;
 import com.fujitsu.vdmj.values.ValueList;
@@ -62,8 +63,15 @@ public class INSetBind extends INBind
 	@Override
 	public ValueList getBindValues(Context ctxt, boolean permuted) throws ValueException
 	{
+		Value setval = set.eval(ctxt);
+
+		if (setval.deref() instanceof RangeSetValue)
+		{
+			return ((RangeSetValue)setval.deref()).valueList();	// Sorted, with no sets
+		}
+
 		ValueList results = new ValueList();
-		ValueSet elements = set.eval(ctxt).setValue(ctxt);
+		ValueSet elements = setval.setValue(ctxt);
 		elements.sort();
 
 		for (Value e: elements)
@@ -64,6 +64,18 @@ public class INSetPattern extends INPattern
 
 	@Override
 	public List<NameValuePairList> getAllNamedValues(Value expval, Context ctxt) throws PatternMatchException
+	{
+		return matchValues(expval, ctxt, false);
+	}
+
+	@Override
+	protected NameValuePairList getFirstNamedValues(Value expval, Context ctxt) throws PatternMatchException
+	{
+		return matchValues(expval, ctxt, true).get(0);
+	}
+
+	private List<NameValuePairList> matchValues(Value expval, Context ctxt, boolean firstOnly)
+		throws PatternMatchException
 	{
 		ValueSet values = null;
 
@@ -87,16 +99,17 @@ public class INSetPattern extends INPattern
 		// are not constrained however, the initial ordering will be
 		// fine.
 
-		List<ValueSet> allSets;
+		Iterator<ValueSet> allSets;
 
 		if (isConstrained())
 		{
-			allSets = values.permutedSets();
+			allSets = values.permutations();
 		}
 		else
 		{
-			allSets = new Vector<ValueSet>();
-			allSets.add(values);
+			List<ValueSet> one = new Vector<ValueSet>();
+			one.add(values);
+			allSets = one.iterator();
 		}
 
 		List<NameValuePairList> finalResults = new Vector<NameValuePairList>();
@@ -108,8 +121,9 @@ public class INSetPattern extends INPattern
 			return finalResults;
 		}
 
-		for (ValueSet setPerm: allSets)
+		while (allSets.hasNext() && !(firstOnly && !finalResults.isEmpty()))
 		{
+			ValueSet setPerm = allSets.next();
 			Iterator<Value> iter = setPerm.iterator();
 
 			List<List<NameValuePairList>> nvplists = new Vector<List<NameValuePairList>>();
@@ -120,7 +134,7 @@ public class INSetPattern extends INPattern
 			{
 				for (INPattern p: plist)
 				{
-					List<NameValuePairList> pnvps = p.getAllNamedValues(iter.next(), ctxt);
+					List<NameValuePairList> pnvps = p.getNamedValueLists(iter.next(), ctxt, firstOnly);
 					nvplists.add(pnvps);
 					counts[i++] = pnvps.size();
 				}
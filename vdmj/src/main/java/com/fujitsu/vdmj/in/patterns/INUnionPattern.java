@@ -69,6 +69,18 @@ public class INUnionPattern extends INPattern
 
 	@Override
 	public List<NameValuePairList> getAllNamedValues(Value expval, Context ctxt) throws PatternMatchException
+	{
+		return matchValues(expval, ctxt, false);
+	}
+
+	@Override
+	protected NameValuePairList getFirstNamedValues(Value expval, Context ctxt) throws PatternMatchException
+	{
+		return matchValues(expval, ctxt, true).get(0);
+	}
+
+	private List<NameValuePairList> matchValues(Value expval, Context ctxt, boolean firstOnly)
+		throws PatternMatchException
 	{
 		ValueSet values = null;
 
@@ -153,17 +165,7 @@ public class INUnionPattern extends INPattern
 		// are not constrained however, the initial ordering will be
 		// fine.
 
-		List<ValueSet> allSets;
-
-		if (isConstrained())
-		{
-			allSets = values.permutedSets();
-		}
-		else
-		{
-			allSets = new Vector<ValueSet>();
-			allSets.add(values);
-		}
+		boolean permute = isConstrained();
 
 		// Now loop through the various splits and attempt to match the l/r
 		// sub-patterns to the split set value.
@@ -172,8 +174,27 @@ public class INUnionPattern extends INPattern
 
 		for (Integer lsize: leftSizes)
 		{
-			for (ValueSet setPerm: allSets)
+			if (firstOnly && !finalResults.isEmpty())
+			{
+				break;
+			}
+
+			Iterator<ValueSet> allSets;
+
+			if (permute)
+			{
+				allSets = values.permutations();
+			}
+			else
+			{
+				List<ValueSet> one = new Vector<ValueSet>();
+				one.add(values);
+				allSets = one.iterator();
+			}
+
+			while (allSets.hasNext() && !(firstOnly && !finalResults.isEmpty()))
 			{
+				ValueSet setPerm = allSets.next();
 				Iterator<Value> iter = setPerm.iterator();
 				ValueSet first = new ValueSet();
 
@@ -195,11 +216,11 @@ public class INUnionPattern extends INPattern
 
 				try
 				{
-					List<NameValuePairList> lnvps = left.getAllNamedValues(new SetValue(first), ctxt);
+					List<NameValuePairList> lnvps = left.getNamedValueLists(new SetValue(first), ctxt, firstOnly);
 					nvplists.add(lnvps);
 					counts[0] = lnvps.size();
 
-					List<NameValuePairList> rnvps = right.getAllNamedValues(new SetValue(second), ctxt);
+					List<NameValuePairList> rnvps = right.getNamedValueLists(new SetValue(second), ctxt, firstOnly);
 					nvplists.add(rnvps);
 					counts[1] = rnvps.size();
 				}
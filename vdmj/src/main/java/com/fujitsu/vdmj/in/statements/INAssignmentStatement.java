@@ -30,8 +30,10 @@ import com.fujitsu.vdmj.in.statements.visitors.INStatementVisitor;
 import com.fujitsu.vdmj.lex.Dialect;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.messages.RTLogger;
+import com.fujitsu.vdmj.messages.rtlog.RTEventKind;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
+import com.fujitsu.vdmj.scheduler.SchedulableThread;
 import com.fujitsu.vdmj.tc.types.TCType;
 import com.fujitsu.vdmj.values.ObjectValue;
 import com.fujitsu.vdmj.values.Value;
@@ -87,19 +89,14 @@ public class INAssignmentStatement extends INStatement
 
 			if (self == null)
 			{
-    			RTLogger.log(
-    				"InstVarChange -> instnm: \"" + target.toString() + "\"" +
-    				" val: \"" + noquotes + "\"" +
-    				" objref: nil" +
-    				" id: " + Thread.currentThread().getId());
+    			RTLogger.log(RTEventKind.INST_VAR_CHANGE,
+    				target.toString(), noquotes, null, SchedulableThread.currentId());
 			}
 			else
 			{
-    			RTLogger.log(
-    				"InstVarChange -> instnm: \"" + target.toString() + "\"" +
-    				" val: \"" + noquotes + "\"" +
-    				" objref: " + self.objectReference +
-    				" id: " + Thread.currentThread().getId());
+    			RTLogger.log(RTEventKind.INST_VAR_CHANGE,
+    				target.toString(), noquotes, self.objectReference,
+    				SchedulableThread.currentId());
 			}
 		}
 
@@ -30,8 +30,8 @@ import com.fujitsu.vdmj.in.statements.visitors.INStatementVisitor;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.tc.lex.TCNameToken;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 public class INClassInvariantStatement extends INStatement
 {
@@ -58,7 +58,7 @@ public class INClassInvariantStatement extends INStatement
 			{
 				if (!invdef.expression.eval(ctxt).boolValue(ctxt))
 				{
-					return new BooleanValue(false);
+					return ValueFactory.mkBool(false);
 				}
 			}
 			catch (ValueException e)
@@ -67,7 +67,7 @@ public class INClassInvariantStatement extends INStatement
 			}
 		}
 
-		return new BooleanValue(true);
+		return ValueFactory.mkBool(true);
 	}
 
 	@Override
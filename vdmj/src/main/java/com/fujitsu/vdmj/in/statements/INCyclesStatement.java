@@ -56,7 +56,7 @@ public class INCyclesStatement extends INStatement
 		location.hit();
 		cycles.location.hit();
 
-		SchedulableThread me = (SchedulableThread)Thread.currentThread();
+		SchedulableThread me = SchedulableThread.current();
 
 		if (me.inOuterTimestep())
 		{
@@ -56,7 +56,7 @@ public class INDurationStatement extends INStatement
 		location.hit();
 		duration.location.hit();
 
-		SchedulableThread me = (SchedulableThread)Thread.currentThread();
+		SchedulableThread me = SchedulableThread.current();
 
 		if (me.inOuterTimestep())
 		{
@@ -29,8 +29,8 @@ import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.tc.lex.TCNameToken;
-import com.fujitsu.vdmj.values.IntegerValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 import com.fujitsu.vdmj.values.VoidValue;
 
 public class INForIndexStatement extends INStatement
@@ -82,7 +82,7 @@ public class INForIndexStatement extends INStatement
 				 value += bval)
 			{
 				Context evalContext = new Context(location, "for index", ctxt);
-				evalContext.put(var, new IntegerValue(value));
+				evalContext.put(var, ValueFactory.mkInt(value));
 				Value rv = statement.eval(evalContext);
 
 				if (!rv.isVoid())
@@ -25,6 +25,7 @@ package com.fujitsu.vdmj.in.statements;
 
 import com.fujitsu.vdmj.in.definitions.INMultiBindListDefinition;
 import com.fujitsu.vdmj.in.expressions.INExpression;
+import com.fujitsu.vdmj.in.expressions.INQuantifierFilter;
 import com.fujitsu.vdmj.in.patterns.INMultipleBind;
 import com.fujitsu.vdmj.in.patterns.INPattern;
 import com.fujitsu.vdmj.in.statements.visitors.INStatementVisitor;
@@ -45,6 +46,7 @@ public class INLetBeStStatement extends INStatement
 	public final INExpression suchThat;
 	public final INStatement statement;
 	public final INMultiBindListDefinition def;
+	private final INQuantifierFilter filter;
 
 	public INLetBeStStatement(LexLocation location,
 		INMultipleBind bind, INExpression suchThat, INStatement statement, INMultiBindListDefinition def)
@@ -54,6 +56,7 @@ public class INLetBeStStatement extends INStatement
 		this.suchThat = suchThat;
 		this.statement = statement;
 		this.def = def;
+		this.filter = new INQuantifierFilter(location, "let be st statement", def.bindings, suchThat);
 	}
 
 	@Override
@@ -82,6 +85,7 @@ public class INLetBeStStatement extends INStatement
 				}
 			}
 
+			filter.addTo(quantifiers, ctxt);
 			quantifiers.init(ctxt, true);
 
 			while (quantifiers.hasNext())
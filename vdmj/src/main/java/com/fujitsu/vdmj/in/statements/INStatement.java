@@ -25,6 +25,7 @@ package com.fujitsu.vdmj.in.statements;
 
 import java.io.Serializable;
 
+import com.fujitsu.vdmj.config.Properties;
 import com.fujitsu.vdmj.in.INNode;
 import com.fujitsu.vdmj.in.statements.visitors.INStatementVisitor;
 import com.fujitsu.vdmj.lex.LexLocation;
@@ -50,8 +51,12 @@ public abstract class INStatement extends INNode implements Serializable
 	public INStatement(LexLocation location)
 	{
 		super(location);
-		this.breakpoint = new Breakpoint(location);
-		location.executable(true);
+		this.breakpoint = Breakpoint.create(location);
+
+		if (!Properties.in_fast_mode)
+		{
+			location.executable(true);		// No coverage in fast mode
+		}
 	}
 
 	@Override
@@ -76,7 +76,7 @@ public class INStopStatement extends INStatement
 			}
 
 			// Cause a reschedule so that this thread is stopped, if necessary
-			SchedulableThread th = (SchedulableThread) Thread.currentThread();
+			SchedulableThread th = SchedulableThread.current();
 			th.reschedule(ctxt, location);
 			
 			return new VoidValue();
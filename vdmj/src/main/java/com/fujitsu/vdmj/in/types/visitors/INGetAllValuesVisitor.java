@@ -67,20 +67,18 @@ import com.fujitsu.vdmj.tc.types.TCUnresolvedType;
 import com.fujitsu.vdmj.tc.types.TCVoidReturnType;
 import com.fujitsu.vdmj.tc.types.TCVoidType;
 import com.fujitsu.vdmj.tc.types.visitors.TCTypeVisitor;
-import com.fujitsu.vdmj.values.BooleanValue;
 import com.fujitsu.vdmj.values.InvariantValue;
 import com.fujitsu.vdmj.values.MapValue;
 import com.fujitsu.vdmj.values.NameValuePair;
 import com.fujitsu.vdmj.values.NameValuePairList;
-import com.fujitsu.vdmj.values.NilValue;
 import com.fujitsu.vdmj.values.ParameterValue;
 import com.fujitsu.vdmj.values.Quantifier;
 import com.fujitsu.vdmj.values.QuantifierList;
-import com.fujitsu.vdmj.values.QuoteValue;
 import com.fujitsu.vdmj.values.RecordValue;
 import com.fujitsu.vdmj.values.SetValue;
 import com.fujitsu.vdmj.values.TupleValue;
 import com.fujitsu.vdmj.values.Value;
+import com.fujitsu.vdmj.values.ValueFactory;
 import com.fujitsu.vdmj.values.ValueList;
 import com.fujitsu.vdmj.values.ValueMap;
 import com.fujitsu.vdmj.values.ValueSet;
@@ -97,8 +95,8 @@ public class INGetAllValuesVisitor extends TCTypeVisitor<ValueList, Context>
 	public ValueList caseBooleanType(TCBooleanType type, Context ctxt)
 	{
 		ValueList v = new ValueList();
-		v.add(new BooleanValue(true));
-		v.add(new BooleanValue(false));
+		v.add(ValueFactory.mkBool(true));
+		v.add(ValueFactory.mkBool(false));
 		return v;
 	}
 
@@ -118,7 +116,7 @@ public class INGetAllValuesVisitor extends TCTypeVisitor<ValueList, Context>
 		{
 			MapValue vm = (MapValue)map;
 			
-			if (vm.values.isInjective())
+			if (vm.mapValue(null).isInjective())
 			{
 				result.add(vm);
 			}
@@ -185,7 +183,7 @@ public class INGetAllValuesVisitor extends TCTypeVisitor<ValueList, Context>
 	public ValueList caseOptionalType(TCOptionalType type, Context ctxt)
 	{
 		ValueList list = type.type.apply(this, ctxt);
-		list.add(new NilValue());
+		list.add(ValueFactory.mkNil());
 		return list;
 	}
 
@@ -218,7 +216,7 @@ public class INGetAllValuesVisitor extends TCTypeVisitor<ValueList, Context>
 	public ValueList caseQuoteType(TCQuoteType type, Context ctxt)
 	{
 		ValueList v = new ValueList();
-		v.add(new QuoteValue(type.value));
+		v.add(ValueFactory.mkQuote(type.value));
 		return v;
 	}
 
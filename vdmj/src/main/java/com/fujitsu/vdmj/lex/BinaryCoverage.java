@@ -0,0 +1,199 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.lex;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * A compact binary form of the coverage written by SourceFile.writeCoverage.
+ * After a header, each location that has been hit is a record of its line (as a
+ * difference from the previous record's line), its start position, its length
+ * and its hit count, all as variable length numbers.
+ */
+public class BinaryCoverage
+{
+	public static final byte[] MAGIC = { 'V', 'C', 'O', 'V' };
+	public static final int VERSION = 1;
+	public static final String EXTENSION = ".covb";
+
+	public static void write(List<LexLocation> locations, OutputStream out) throws IOException
+	{
+		out.write(MAGIC);
+		out.write(VERSION);
+		int last = 0;
+
+		for (LexLocation l: locations)
+		{
+			long hits = l.getHits();
+
+			if (hits > 0)
+			{
+				writeVarLong(out, zigzag(l.startLine - last));
+				writeVarLong(out, l.startPos);
+				writeVarLong(out, zigzag(l.endPos - l.startPos));
+				writeVarLong(out, hits);
+				last = l.startLine;
+			}
+		}
+
+		out.flush();
+	}
+
+	public static boolean isBinary(File file) throws IOException
+	{
+		InputStream in = new FileInputStream(file);
+
+		try
+		{
+			for (byte b: MAGIC)
+			{
+				if (in.read() != b)
+				{
+					return false;
+				}
+			}
+
+			return true;
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+
+	/**
+	 * Read the records of a binary coverage file, as {line, from, to, hits}.
+	 */
+	public static List<long[]> read(File file) throws IOException
+	{
+		InputStream in = new BufferedInputStream(new FileInputStream(file));
+		List<long[]> records = new Vector<long[]>();
+
+		try
+		{
+			for (byte b: MAGIC)
+			{
+				if (in.read() != b)
+				{
+					throw new IOException(file + " is not a binary coverage file");
+				}
+			}
+
+			int version = in.read();
+
+			if (version != VERSION)
+			{
+				throw new IOException(file + " has unsupported version " + version);
+			}
+
+			long line = 0;
+
+			while (true)
+			{
+				long delta = readVarLong(in, true);
+
+				if (delta < 0)
+				{
+					break;
+				}
+
+				line += unzigzag(delta);
+				long from = readVarLong(in, false);
+				long to = from + unzigzag(readVarLong(in, false));
+				long hits = readVarLong(in, false);
+
+				records.add(new long[] { line, from, to, hits });
+			}
+		}
+		finally
+		{
+			in.close();
+		}
+
+		return records;
+	}
+
+	private static long zigzag(long value)
+	{
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unzigzag(long value)
+	{
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void writeVarLong(OutputStream out, long value) throws IOException
+	{
+		while ((value & ~0x7FL) != 0)
+		{
+			out.write((int)((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+
+		out.write((int)value);
+	}
+
+	/**
+	 * Read a variable length number, returning -1 if the stream ends before the
+	 * first byte and that is allowed.
+	 */
+	private static long readVarLong(InputStream in, boolean eofOK) throws IOException
+	{
+		long value = 0;
+		int shift = 0;
+
+		while (true)
+		{
+			int b = in.read();
+
+			if (b < 0)
+			{
+				if (eofOK && shift == 0)
+				{
+					return -1;
+				}
+
+				throw new EOFException("Truncated binary coverage file");
+			}
+
+			value |= (long)(b & 0x7F) << shift;
+			shift += 7;
+
+			if ((b & 0x80) == 0)
+			{
+				return value;
+			}
+		}
+	}
+}
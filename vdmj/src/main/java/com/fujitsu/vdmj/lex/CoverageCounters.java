@@ -0,0 +1,107 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.lex;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The hit counters for the locations of one source file, indexed by location id.
+ * The counters are held in chunks, so that more can be added as the file's
+ * locations are created without losing any counts. Each chunk has a number of
+ * stripes, and a thread only increments the counters in its own stripe, so that
+ * threads evaluating the same code do not contend for the same counters. The
+ * stripes are added together when the count is read.
+ */
+class CoverageCounters
+{
+	private static final int CHUNK_SIZE = 1024;
+	private static final int STRIPES =
+		Integer.highestOneBit(Math.min(Runtime.getRuntime().availableProcessors(), 8));
+
+	private volatile AtomicLongArray[] chunks = new AtomicLongArray[0];
+
+	/**
+	 * Make sure there is a counter for the location id given.
+	 */
+	public synchronized void ensure(int id)
+	{
+		int needed = id / CHUNK_SIZE + 1;
+
+		if (chunks.length < needed)
+		{
+			AtomicLongArray[] bigger = new AtomicLongArray[needed];
+			System.arraycopy(chunks, 0, bigger, 0, chunks.length);
+
+			for (int c = chunks.length; c < needed; c++)
+			{
+				bigger[c] = new AtomicLongArray(CHUNK_SIZE * STRIPES);
+			}
+
+			chunks = bigger;
+		}
+	}
+
+	public void add(int id, long count)
+	{
+		int stripe = (int)Thread.currentThread().getId() & (STRIPES - 1);
+		chunks[id / CHUNK_SIZE].addAndGet(stripe * CHUNK_SIZE + id % CHUNK_SIZE, count);
+	}
+
+	public long get(int id)
+	{
+		AtomicLongArray chunk = chunks[id / CHUNK_SIZE];
+		int offset = id % CHUNK_SIZE;
+		long sum = 0;
+
+		for (int s = 0; s < STRIPES; s++)
+		{
+			sum += chunk.get(s * CHUNK_SIZE + offset);
+		}
+
+		return sum;
+	}
+
+	public void clear(int id)
+	{
+		AtomicLongArray chunk = chunks[id / CHUNK_SIZE];
+		int offset = id % CHUNK_SIZE;
+
+		for (int s = 0; s < STRIPES; s++)
+		{
+			chunk.set(s * CHUNK_SIZE + offset, 0);
+		}
+	}
+
+	public void clearAll()
+	{
+		for (AtomicLongArray chunk: chunks)
+		{
+			for (int i = 0; i < chunk.length(); i++)
+			{
+				chunk.set(i, 0);
+			}
+		}
+	}
+}
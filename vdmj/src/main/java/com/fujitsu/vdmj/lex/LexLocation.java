@@ -46,8 +46,11 @@ public class LexLocation implements Serializable
 {
 	private static final long serialVersionUID = 1L;
 
-	/** An ordered collection of all LexLocation objects. */
-	private static List<LexLocation> allLocations = new Vector<LexLocation>();
+	/** The LexLocation objects of each file, in order. A location's id is its index. */
+	private static Map<File, List<LexLocation>> fileLocations = new HashMap<File, List<LexLocation>>();
+
+	/** The hit counters for the locations of each file, indexed by location id. */
+	private static Map<File, CoverageCounters> fileCounters = new HashMap<File, CoverageCounters>();
 	
 	/** A unique map of LexLocation objects, for rapid searching. */
 	private static Map<LexLocation, LexLocation> uniqueLocations = new HashMap<LexLocation, LexLocation>();
@@ -55,6 +58,17 @@ public class LexLocation implements Serializable
 	/** A map of f/op/class names to their lexical span, for coverage. */
 	private static Map<LexNameToken, LexLocation> nameSpans = new HashMap<LexNameToken, LexLocation>();
 
+	/** The number of threads that are not counting hits, and the depth for each thread. */
+	private static volatile int uncounted = 0;
+	private static final ThreadLocal<int[]> uncountedDepth = new ThreadLocal<int[]>()
+	{
+		@Override
+		protected int[] initialValue()
+		{
+			return new int[1];
+		}
+	};
+
 	/** A dummy location meaning "nowhere" */
 	public static final LexLocation ANY = new LexLocation();
 	
@@ -84,8 +98,9 @@ public class LexLocation implements Serializable
 	/** The position of the last character of the token. */
 	public final int endPos;
 
-	/** The number of times the location has been executed. */
-	public long hits = 0;
+	/** The counters and index of the location's hit count. */
+	private transient CoverageCounters counters = null;
+	private transient int id = -1;
 
 	/**
 	 * Create a location with the given fields.
@@ -103,9 +118,34 @@ public class LexLocation implements Serializable
 		if (!file.getName().equals("console") &&
 			!file.getName().equals("?"))	// Don't remember junk
 		{
-			allLocations.add(this);
-			uniqueLocations.put(this, this);
+			register(this);
+		}
+	}
+
+	private static synchronized void register(LexLocation location)
+	{
+		List<LexLocation> locations = fileLocations.get(location.file);
+		CoverageCounters counters = fileCounters.get(location.file);
+
+		if (locations == null)
+		{
+			locations = new Vector<LexLocation>();
+			fileLocations.put(location.file, locations);
+			counters = new CoverageCounters();
+			fileCounters.put(location.file, counters);
 		}
+
+		location.id = locations.size();
+		locations.add(location);
+		counters.ensure(location.id);
+		location.counters = counters;
+		uniqueLocations.put(location, location);
+	}
+
+	private static List<LexLocation> getLocations(File file)
+	{
+		List<LexLocation> locations = fileLocations.get(file);
+		return locations == null ? new Vector<LexLocation>() : locations;
 	}
 
 	/**
@@ -210,39 +250,94 @@ public class LexLocation implements Serializable
 
 	public void hit()
 	{
-		if (executable) hits++;
+		if (executable && counters != null && isCounting())
+		{
+			counters.add(id, 1);
+		}
+	}
+
+	/**
+	 * Remove a hit, for locations that are counted twice.
+	 */
+	public void unhit()
+	{
+		if (executable && counters != null && isCounting())
+		{
+			counters.add(id, -1);
+		}
+	}
+
+	/**
+	 * Stop counting hits in the current thread, until a matching call to
+	 * resumeCounting. This is used for evaluations that are repeated later, so
+	 * that they are only counted once (see INQuantifierFilter).
+	 */
+	public static void suspendCounting()
+	{
+		if (uncountedDepth.get()[0]++ == 0)
+		{
+			synchronized (LexLocation.class)
+			{
+				uncounted++;
+			}
+		}
+	}
+
+	public static void resumeCounting()
+	{
+		if (--uncountedDepth.get()[0] == 0)
+		{
+			synchronized (LexLocation.class)
+			{
+				uncounted--;
+			}
+		}
+	}
+
+	private static boolean isCounting()
+	{
+		return uncounted == 0 || uncountedDepth.get()[0] == 0;
 	}
 
-	public static void clearLocations()
+	/**
+	 * The number of times the location has been executed, by all threads.
+	 */
+	public long getHits()
+	{
+		return counters == null ? 0 : counters.get(id);
+	}
+
+	public static synchronized void clearLocations()
 	{
-		for (LexLocation loc: allLocations)
+		for (CoverageCounters counters: fileCounters.values())
 		{
-			loc.hits = 0;
+			counters.clearAll();
 		}
 	}
 
-	public static void resetLocations()
+	public static synchronized void resetLocations()
 	{
-		allLocations = new Vector<LexLocation>();
+		fileLocations = new HashMap<File, List<LexLocation>>();
+		fileCounters = new HashMap<File, CoverageCounters>();
 		uniqueLocations = new HashMap<LexLocation, LexLocation>();
 		nameSpans =	new HashMap<LexNameToken, LexLocation>();
 	}
 
-	public static void clearAfter(File file, int linecount, int charpos)
+	public static synchronized void clearAfter(File file, int linecount, int charpos)
 	{
 		// Called from the LexTokenReader's pop method, to remove any
 		// locations "popped". We assume any pushes are on the end of
-		// the vector.
+		// the file's vector, so the ids of the remaining locations
+		// are unchanged.
 
-		ListIterator<LexLocation> it =
-			allLocations.listIterator(allLocations.size());
+		List<LexLocation> locations = getLocations(file);
+		ListIterator<LexLocation> it = locations.listIterator(locations.size());
 
 		while (it.hasPrevious())
 		{
 			LexLocation l = it.previous();
 
-			if (!l.file.equals(file) ||
-				l.startLine < linecount ||
+			if (l.startLine < linecount ||
 				(l.startLine == linecount && l.startPos < charpos))
 			{
 				break;
@@ -251,6 +346,8 @@ public class LexLocation implements Serializable
 			{
 				it.remove();
 				uniqueLocations.remove(l);
+				l.counters.clear(l.id);
+				l.counters = null;
 			}
 		}
 	}
@@ -302,11 +399,11 @@ public class LexLocation implements Serializable
 		int misses = 0;
 		LexLocation span = nameSpans.get(name);
 
-		for (LexLocation l: allLocations)
+		for (LexLocation l: getLocations(span.file))
 		{
 			if (l.executable && l.within(span))
 			{
-				if (l.hits > 0)
+				if (l.getHits() > 0)
     			{
     				hits++;
     			}
@@ -328,11 +425,11 @@ public class LexLocation implements Serializable
 
 		LexLocation span = nameSpans.get(name);
 
-		for (LexLocation l: allLocations)
+		for (LexLocation l: getLocations(span.file))
 		{
 			if (l.executable && l.within(span))
 			{
-				return l.hits;
+				return l.getHits();
 			}
 		}
 
@@ -343,9 +440,9 @@ public class LexLocation implements Serializable
 	{
 		List<Integer> hits = new Vector<Integer>();
 
-		for (LexLocation l: allLocations)
+		for (LexLocation l: getLocations(file))
 		{
-			if (l.hits > 0 && l.file.equals(file))
+			if (l.getHits() > 0)
 			{
 				hits.add(l.startLine);
 			}
@@ -358,9 +455,9 @@ public class LexLocation implements Serializable
 	{
 		List<Integer> misses = new Vector<Integer>();
 
-		for (LexLocation l: allLocations)
+		for (LexLocation l: getLocations(file))
 		{
-			if (l.hits == 0 && l.file.equals(file))
+			if (l.getHits() == 0)
 			{
 				misses.add(l.startLine);
 			}
@@ -374,9 +471,9 @@ public class LexLocation implements Serializable
 		List<Integer> lines = new Vector<Integer>();
 		int last = 0;
 
-		for (LexLocation l: allLocations)
+		for (LexLocation l: getLocations(file))
 		{
-			if (l.executable && l.startLine != last && l.file.equals(file))
+			if (l.executable && l.startLine != last)
 			{
 				lines.add(l.startLine);
 				last = l.startLine;
@@ -391,9 +488,9 @@ public class LexLocation implements Serializable
 		Map<Integer, List<LexLocation>> map =
 				new HashMap<Integer, List<LexLocation>>();
 
-		for (LexLocation l: allLocations)
+		for (LexLocation l: getLocations(file))
 		{
-			if (l.executable && l.hits > 0 && l.file.equals(file))
+			if (l.executable && l.getHits() > 0)
 			{
 				List<LexLocation> list = map.get(l.startLine);
 
@@ -415,11 +512,11 @@ public class LexLocation implements Serializable
 		int hits = 0;
 		int misses = 0;
 
-		for (LexLocation l: allLocations)
+		for (LexLocation l: getLocations(file))
 		{
-			if (l.file.equals(file) && l.executable)
+			if (l.executable)
 			{
-				if (l.hits > 0)
+				if (l.getHits() > 0)
     			{
     				hits++;
     			}
@@ -439,9 +536,9 @@ public class LexLocation implements Serializable
 		Map<Integer, List<LexLocation>> map =
 				new HashMap<Integer, List<LexLocation>>();
 
-		for (LexLocation l: allLocations)
+		for (LexLocation l: getLocations(file))
 		{
-			if (l.executable && l.hits == 0 && l.file.equals(file))
+			if (l.executable && l.getHits() == 0)
 			{
 				List<LexLocation> list = map.get(l.startLine);
 
@@ -462,9 +559,9 @@ public class LexLocation implements Serializable
 	{
 		List<LexLocation> locations = new Vector<LexLocation>();
 
-		for (LexLocation l: allLocations)
+		for (LexLocation l: getLocations(file))
 		{
-			if (l.executable && l.file.equals(file))
+			if (l.executable)
 			{
 				locations.add(l);
 			}
@@ -475,13 +572,43 @@ public class LexLocation implements Serializable
 
 	public static void mergeHits(File source, File coverage) throws IOException
 	{
-		List<LexLocation> locations = getSourceLocations(source);
+		if (BinaryCoverage.isBinary(coverage))
+		{
+			Map<String, LexLocation> locations = getHitIndex(source);
+
+			for (long[] record: BinaryCoverage.read(coverage))
+			{
+				mergeHit(locations, (int)record[0], (int)record[1], (int)record[2], record[3]);
+			}
+
+			return;
+		}
+
 		BufferedReader br = new BufferedReader(new FileReader(coverage));
+		List<String> lines = new Vector<String>();
 		String line = br.readLine();
 
 		while (line != null)
 		{
-			if (line.charAt(0) == '+')
+			lines.add(line);
+			line = br.readLine();
+		}
+
+		br.close();
+		mergeHits(source, lines);
+	}
+
+	/**
+	 * Merge coverage lines, as written by SourceFile.writeCoverage, into the hit
+	 * counts of the source file's locations.
+	 */
+	public static void mergeHits(File source, List<String> lines)
+	{
+		Map<String, LexLocation> locations = getHitIndex(source);
+
+		for (String line: lines)
+		{
+			if (!line.isEmpty() && line.charAt(0) == '+')
 			{
 				// Hit lines are "+line from-to=hits"
 
@@ -492,23 +619,42 @@ public class LexLocation implements Serializable
 				int lnum = Integer.parseInt(line.substring(1, s1));
 				int from = Integer.parseInt(line.substring(s1+1, s2));
 				int to   = Integer.parseInt(line.substring(s2+1, s3));
-				int hits = Integer.parseInt(line.substring(s3+1));
+				long hits = Long.parseLong(line.substring(s3+1));
 
-				for (LexLocation l: locations)	// Only executable locations
-				{
-					if (l.startLine == lnum &&
-						l.startPos == from &&
-						l.endPos == to)
-					{
-						l.hits += hits;
-						break;
-					}
-				}
+				mergeHit(locations, lnum, from, to, hits);
 			}
+		}
+	}
 
-			line = br.readLine();
+	/**
+	 * The executable locations of a source file, keyed on their line and positions,
+	 * so that each merged hit is a lookup rather than a search of every location.
+	 * The first location wins if several have the same key.
+	 */
+	private static Map<String, LexLocation> getHitIndex(File source)
+	{
+		Map<String, LexLocation> index = new HashMap<String, LexLocation>();
+
+		for (LexLocation l: getSourceLocations(source))
+		{
+			index.putIfAbsent(hitKey(l.startLine, l.startPos, l.endPos), l);
 		}
 
-		br.close();
+		return index;
+	}
+
+	private static String hitKey(int lnum, int from, int to)
+	{
+		return lnum + " " + from + "-" + to;
+	}
+
+	private static void mergeHit(Map<String, LexLocation> locations, int lnum, int from, int to, long hits)
+	{
+		LexLocation l = locations.get(hitKey(lnum, from, to));
+
+		if (l != null && l.counters != null)
+		{
+			l.counters.add(l.id, hits);
+		}
 	}
 }
@@ -23,12 +23,12 @@
 
 package com.fujitsu.vdmj.mapper;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Vector;
 
 import com.fujitsu.vdmj.mapper.ClassMapper;
 
-abstract public class MappedList<FROM, TO> extends Vector<TO>
+abstract public class MappedList<FROM, TO> extends ArrayList<TO>
 {
 	private static final long serialVersionUID = 1L;
 
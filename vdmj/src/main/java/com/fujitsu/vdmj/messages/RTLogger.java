@@ -23,91 +23,108 @@
 
 package com.fujitsu.vdmj.messages;
 
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.PrintWriter;
 import java.util.LinkedList;
 import java.util.List;
 
+import com.fujitsu.vdmj.messages.rtlog.RTBinaryWriter;
+import com.fujitsu.vdmj.messages.rtlog.RTEventKind;
 import com.fujitsu.vdmj.scheduler.SystemClock;
 
 public class RTLogger
 {
+	/** Log files with this extension are written in the binary format */
+	public static final String BINARY_EXTENSION = ".rtbin";
+	private static final int BINARY_BUFFER_SIZE = 1024 * 1024;
+
 	private static boolean enabled = false;
 	private static List<String> events = new LinkedList<String>();
 	private static PrintWriter logfile = null;
-	private static String cached = null;
+	private static RTBinaryWriter binary = null;
+
+	private static RTEventKind cachedKind = null;
+	private static Object[] cachedValues = null;
+	private static long cachedTime = 0;
 
 	public static synchronized void enable(boolean on)
 	{
 		if (!on)
 		{
 			dump(true);
-			cached = null;
+			cachedKind = null;
 		}
 
 		enabled = on;
 	}
 
+	/**
+	 * Log a free text diagnostic event, which should start with "--".
+	 */
 	public static synchronized void log(String event)
+	{
+		log(RTEventKind.DIAGNOSTIC, event);
+	}
+
+	/**
+	 * Log an event, passing the values of the fields defined for its kind.
+	 */
+	public static synchronized void log(RTEventKind kind, Object... values)
 	{
 		if (!enabled)
 		{
 			return;
 		}
 
-		event = event + " time: " + SystemClock.getWallTime();
+		long time = SystemClock.getWallTime();
 
-		if (event.startsWith("ThreadSwapIn") ||
-			event.startsWith("DelayedThreadSwapIn"))
+		if (kind.isSwapIn())
 		{
-			if (cached != null)
+			if (cachedKind != null)
 			{
-				doLog(cached);
+				doLog(cachedKind, cachedValues, cachedTime);
 			}
 
-			cached = event;
+			cachedKind = kind;
+			cachedValues = values;
+			cachedTime = time;
 			return;
 		}
 
-		if (cached != null)
+		if (cachedKind != null)
 		{
-			if (event.startsWith("ThreadSwapOut"))
+			// A swap in that is immediately swapped out is not logged
+
+			if (kind.isSwapOut() &&
+				cachedValues[0].equals(values[0]) &&	// thread
+				cachedTime == time)
 			{
-				String[] cparts = cached.split("\\s+");
-				String[] eparts = event.split("\\s+");
-
-				if (cparts[0].equals("DelayedThreadSwapIn") &&
-					cparts[3].equals(eparts[3]) &&	// thread
-					cparts[15].equals(eparts[13]))	// time
-				{
-					cached = null;
-					return;
-				}
-
-				if (cparts[0].equals("ThreadSwapIn") &&
-					cparts[3].equals(eparts[3]) &&	// thread
-					cparts[13].equals(eparts[13]))	// time
-				{
-					cached = null;
-					return;
-				}
+				cachedKind = null;
+				return;
 			}
 
-			doLog(cached);
-			cached = null;
+			doLog(cachedKind, cachedValues, cachedTime);
+			cachedKind = null;
 		}
 
-		doLog(event);
+		doLog(kind, values, time);
 	}
 
-	private static void doLog(String event)
+	private static void doLog(RTEventKind kind, Object[] values, long time)
 	{
-		if (logfile == null)
+		if (binary != null)
 		{
-			Console.out.println(event);
+			binary.write(kind, values, time);
+		}
+		else if (logfile == null)
+		{
+			Console.out.println(kind.format(values, time));
 		}
 		else
 		{
-    		events.add(event);
+    		events.add(kind.format(values, time));
 
     		if (events.size() > 1000)
     		{
@@ -121,7 +138,26 @@ public class RTLogger
 		enabled = true;
 		dump(true);		// Write out and close previous
 		logfile = out;
-		cached = null;
+		binary = null;
+		cachedKind = null;
+	}
+
+	/**
+	 * Log to a file, using the binary format if the file has the BINARY_EXTENSION,
+	 * else the text format.
+	 */
+	public static void openLogfile(File file) throws FileNotFoundException
+	{
+		if (file.getName().endsWith(BINARY_EXTENSION))
+		{
+			FileOutputStream out = new FileOutputStream(file, false);
+			setLogfile(null);
+			binary = new RTBinaryWriter(out, BINARY_BUFFER_SIZE);
+		}
+		else
+		{
+			setLogfile(new PrintWriter(new FileOutputStream(file, false)));
+		}
 	}
 
 	public static int getLogSize()
@@ -146,5 +182,17 @@ public class RTLogger
     			logfile.close();
     		}
 		}
+
+		if (binary != null)
+		{
+			if (close)
+			{
+				binary.close();
+			}
+			else
+			{
+				binary.flush();
+			}
+		}
 	}
 }
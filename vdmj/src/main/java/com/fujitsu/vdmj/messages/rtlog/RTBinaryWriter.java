@@ -0,0 +1,351 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.messages.rtlog;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fujitsu.vdmj.messages.Console;
+
+/**
+ * Write RT events in a compact binary format. Each event is encoded as a kind
+ * ordinal, a time and its fields, where numbers are variable length and short
+ * strings are only written once and then referred to by index. Encoded events
+ * are added to a fixed size ring buffer, which is drained to the file by a
+ * writer thread, so events are not held in memory until the log is dumped.
+ * 
+ * Events are written by one thread at a time (RTLogger is synchronized). If the
+ * ring buffer is full, the caller waits for the writer thread. RTLogConverter
+ * turns a binary log back into the .logrt text format.
+ */
+public class RTBinaryWriter
+{
+	public static final byte[] MAGIC = { 'V', 'R', 'T', 'B' };
+	public static final int VERSION = 1;
+
+	/** String tags, followed by a literal, or an index into the strings written */
+	public static final int STRING_NULL = 0;
+	public static final int STRING_LITERAL = 1;
+	public static final int STRING_INTERN = 2;
+	public static final int STRING_INDEX = 3;
+
+	private static final int MAX_STRINGS = 4096;
+	private static final int MAX_STRING_LENGTH = 64;
+
+	private final OutputStream out;
+	private final byte[] ring;
+	private long head = 0;		// Total bytes added to the ring
+	private long tail = 0;		// Total bytes written to the file
+	private boolean closed = false;
+	private final Thread writer;
+
+	private byte[] record = new byte[256];
+	private int length = 0;
+	private final Map<String, Integer> strings = new HashMap<String, Integer>();
+
+	public RTBinaryWriter(OutputStream out, int capacity)
+	{
+		this.out = new BufferedOutputStream(out, 65536);
+		this.ring = new byte[capacity];
+
+		length = 0;
+
+		for (byte b: MAGIC)
+		{
+			putByte(b);
+		}
+
+		putByte(VERSION);
+		add();
+
+		writer = new Thread("RTLogWriter")
+		{
+			@Override
+			public void run()
+			{
+				drain();
+			}
+		};
+
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	public void write(RTEventKind kind, Object[] values, long time)
+	{
+		if (closed)
+		{
+			return;
+		}
+
+		length = 0;
+		putByte(kind.ordinal());
+		putLong(time);
+
+		for (int i=0; i<kind.types.length; i++)
+		{
+			Object value = values[i];
+
+			switch (kind.types[i])
+			{
+				case LONG:
+					putLong(((Number)value).longValue());
+					break;
+
+				case BOOL:
+					putByte((Boolean)value ? 1 : 0);
+					break;
+
+				case REF:
+					putVarLong(value == null ? 0 : ((Number)value).longValue() + 1);
+					break;
+
+				default:
+					putString(value == null ? null : value.toString());
+					break;
+			}
+		}
+
+		add();
+	}
+
+	/**
+	 * Wait until everything added has been written, and flush the file.
+	 */
+	public synchronized void flush()
+	{
+		boolean interrupted = false;
+
+		while (tail < head)
+		{
+			interrupted = waitForChange() || interrupted;
+		}
+
+		if (interrupted)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		try
+		{
+			out.flush();
+		}
+		catch (IOException e)
+		{
+			Console.err.println("Cannot write RT event log: " + e.getMessage());
+		}
+	}
+
+	public void close()
+	{
+		synchronized (this)
+		{
+			if (closed)
+			{
+				return;
+			}
+
+			flush();
+			closed = true;
+			notifyAll();
+		}
+
+		try
+		{
+			writer.join();
+			out.close();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();		// Leave the writer to finish
+		}
+		catch (IOException e)
+		{
+			Console.err.println("Cannot close RT event log: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Copy the encoded record into the ring, waiting for space if necessary.
+	 */
+	private synchronized void add()
+	{
+		int done = 0;
+		boolean interrupted = false;
+
+		while (done < length)
+		{
+			while (head - tail == ring.length)
+			{
+				interrupted = waitForChange() || interrupted;
+			}
+
+			int start = (int)(head % ring.length);
+			int count = Math.min(length - done, ring.length - start);
+			count = (int)Math.min(count, ring.length - (head - tail));
+
+			System.arraycopy(record, done, ring, start, count);
+			head += count;
+			done += count;
+			notifyAll();
+		}
+
+		if (interrupted)
+		{
+			Thread.currentThread().interrupt();		// Scheduler signals are delivered later
+		}
+	}
+
+	private void drain()
+	{
+		boolean failed = false;
+
+		while (true)
+		{
+			int start = 0;
+			int count = 0;
+
+			synchronized (this)
+			{
+				while (head == tail && !closed)
+				{
+					waitForChange();	// The writer thread is not interrupted
+				}
+
+				if (head == tail)
+				{
+					return;		// Closed and drained
+				}
+
+				start = (int)(tail % ring.length);
+				count = (int)Math.min(head - tail, ring.length - start);
+			}
+
+			if (!failed)
+			{
+				try
+				{
+					out.write(ring, start, count);
+				}
+				catch (IOException e)
+				{
+					Console.err.println("Cannot write RT event log: " + e.getMessage());
+					failed = true;		// Discard the rest
+				}
+			}
+
+			synchronized (this)
+			{
+				tail += count;
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Wait for the ring to change, returning true if the wait was interrupted. The
+	 * VDM threads that add records are sent TERMINATE and SUSPEND signals by an
+	 * interrupt, so callers must re-assert it once they have finished waiting.
+	 */
+	private boolean waitForChange()
+	{
+		try
+		{
+			wait();
+			return false;
+		}
+		catch (InterruptedException e)
+		{
+			return true;	// Check the condition again
+		}
+	}
+
+	private void putByte(int b)
+	{
+		if (length == record.length)
+		{
+			byte[] bigger = new byte[record.length * 2];
+			System.arraycopy(record, 0, bigger, 0, length);
+			record = bigger;
+		}
+
+		record[length++] = (byte)b;
+	}
+
+	private void putLong(long value)
+	{
+		putVarLong((value << 1) ^ (value >> 63));	// Zig-zag, for small negatives
+	}
+
+	private void putVarLong(long value)
+	{
+		while ((value & ~0x7FL) != 0)
+		{
+			putByte((int)((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+
+		putByte((int)value);
+	}
+
+	private void putString(String value)
+	{
+		if (value == null)
+		{
+			putVarLong(STRING_NULL);
+			return;
+		}
+
+		Integer index = strings.get(value);
+
+		if (index != null)
+		{
+			putVarLong(STRING_INDEX + index);
+			return;
+		}
+
+		if (strings.size() < MAX_STRINGS && value.length() <= MAX_STRING_LENGTH)
+		{
+			strings.put(value, strings.size());
+			putVarLong(STRING_INTERN);
+		}
+		else
+		{
+			putVarLong(STRING_LITERAL);
+		}
+
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		putVarLong(bytes.length);
+
+		for (byte b: bytes)
+		{
+			putByte(b);
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.messages.rtlog;
+
+/**
+ * The kinds of event written to the RT log. Each kind has a fixed list of typed
+ * fields, which are passed to RTLogger.log in the order given here, and from which
+ * the .logrt text format and the binary format are produced. A double space in
+ * a spec is written as a double space in the text format, as some events have
+ * always been.
+ */
+public enum RTEventKind
+{
+	THREAD_CREATE("ThreadCreate", "id:L period:B objref:R clnm:N cpunm:L"),
+	THREAD_SWAP_IN("ThreadSwapIn", "id:L objref:R clnm:N cpunm:L overhead:L"),
+	DELAYED_THREAD_SWAP_IN("DelayedThreadSwapIn", "id:L objref:R clnm:N delay:L cpunm:L overhead:L"),
+	THREAD_SWAP_OUT("ThreadSwapOut", "id:L objref:R clnm:N cpunm:L overhead:L"),
+	THREAD_KILL("ThreadKill", "id:L cpunm:L"),
+	OP_REQUEST("OpRequest", "id:L opname:S objref:R clnm:S cpunm:L async:B"),
+	OP_ACTIVATE("OpActivate", "id:L opname:S objref:R clnm:S cpunm:L async:B"),
+	OP_COMPLETED("OpCompleted", "id:L opname:S objref:R clnm:S cpunm:L async:B"),
+	MESSAGE_REQUEST("MessageRequest", "busid:L fromcpu:L tocpu:L msgid:L callthr:L opname:S objref:L size:L"),
+	REPLY_REQUEST("ReplyRequest", "busid:L fromcpu:L tocpu:L msgid:L origmsgid:L callthr:L calleethr:L size:L"),
+	MESSAGE_ACTIVATE("MessageActivate", "msgid:L"),
+	MESSAGE_COMPLETED("MessageCompleted", "msgid:L"),
+	DEPLOY_OBJ("DeployObj", "objref:L clnm:S cpunm:L"),
+	CPU_DECL("CPUdecl", "id:L expl:B sys:S name:S"),
+	BUS_DECL("BUSdecl", "id:L topo:T name:S"),
+	INST_VAR_CHANGE("InstVarChange", "instnm:S val:S objref:R id:L"),
+	DIAGNOSTIC("--", "text:T"),		// Free text, already starting "--"
+
+	// The "system constructor" thread, as logged by ClassInterpreter
+
+	MAIN_THREAD_CREATE("ThreadCreate", "id:L period:B  objref:R clnm:N  cpunm:L"),
+	MAIN_THREAD_SWAP_IN("ThreadSwapIn", "id:L objref:R clnm:N  cpunm:L overhead:L"),
+	MAIN_THREAD_SWAP_OUT("ThreadSwapOut", "id:L objref:R clnm:N  cpunm:L overhead:L");
+
+	/**
+	 * The field types, coded as L, B, S, N, R and T in the specs above: a number,
+	 * a boolean, a quoted string, a quoted string or nil, a number or nil, and
+	 * unquoted text.
+	 */
+	public static enum FieldType
+	{
+		LONG, BOOL, STRING, NAME, REF, TEXT
+	}
+
+	public final String text;
+	public final String[] fields;
+	public final FieldType[] types;
+	private final String[] spaces;
+
+	private RTEventKind(String text, String spec)
+	{
+		String[] parts = spec.split(" +");
+		String[] gaps = spec.split("[^ ]+");
+		this.text = text;
+		this.fields = new String[parts.length];
+		this.types = new FieldType[parts.length];
+		this.spaces = new String[parts.length];
+
+		for (int i=0; i<parts.length; i++)
+		{
+			String[] pair = parts[i].split(":");
+			fields[i] = pair[0];
+			types[i] = FieldType.values()["LBSNRT".indexOf(pair[1])];
+			spaces[i] = (i == 0) ? " " : gaps[i];
+		}
+	}
+
+	/**
+	 * True for events that are held back, in case they are cancelled by an
+	 * immediate swap out of the same thread.
+	 */
+	public boolean isSwapIn()
+	{
+		return this == THREAD_SWAP_IN || this == DELAYED_THREAD_SWAP_IN ||
+			this == MAIN_THREAD_SWAP_IN;
+	}
+
+	/**
+	 * True for events that cancel a held swap in of the same thread at the same time.
+	 */
+	public boolean isSwapOut()
+	{
+		return this == THREAD_SWAP_OUT || this == MAIN_THREAD_SWAP_OUT;
+	}
+
+	/**
+	 * Produce the .logrt text line for an event of this kind.
+	 */
+	public String format(Object[] values, long time)
+	{
+		StringBuilder sb = new StringBuilder();
+
+		if (this == DIAGNOSTIC)
+		{
+			sb.append(values[0]);
+		}
+		else
+		{
+			sb.append(text);
+			sb.append(" ->");
+
+			for (int i=0; i<fields.length; i++)
+			{
+				sb.append(spaces[i]);
+				sb.append(fields[i]);
+				sb.append(": ");
+				Object value = values[i];
+
+				switch (types[i])
+				{
+					case STRING:
+						sb.append('"');
+						sb.append(value);
+						sb.append('"');
+						break;
+
+					case NAME:
+						if (value == null)
+						{
+							sb.append("nil");
+						}
+						else
+						{
+							sb.append('"');
+							sb.append(value);
+							sb.append('"');
+						}
+						break;
+
+					case REF:
+						sb.append(value == null ? "nil" : value);
+						break;
+
+					default:
+						sb.append(value);
+						break;
+				}
+			}
+		}
+
+		sb.append(" time: ");
+		sb.append(time);
+		return sb.toString();
+	}
+}
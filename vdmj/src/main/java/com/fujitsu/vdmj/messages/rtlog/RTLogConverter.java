@@ -0,0 +1,230 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.messages.rtlog;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * Convert a binary RT log, written by RTBinaryWriter, to the .logrt text format.
+ * This can be run from the command line, as:
+ * 
+ *    java -cp vdmj.jar com.fujitsu.vdmj.messages.rtlog.RTLogConverter <in> [<out>]
+ * 
+ * The text is written to stdout if no output file is given.
+ */
+public class RTLogConverter
+{
+	private final DataInputStream in;
+	private final List<String> strings = new Vector<String>();
+
+	public RTLogConverter(InputStream in)
+	{
+		this.in = new DataInputStream(new BufferedInputStream(in, 65536));
+	}
+
+	public static void main(String[] args)
+	{
+		if (args.length < 1 || args.length > 2)
+		{
+			System.err.println("Usage: RTLogConverter <binary log> [<text log>]");
+			System.exit(1);
+		}
+
+		try
+		{
+			PrintWriter out = new PrintWriter(new OutputStreamWriter(
+				args.length == 2 ? new FileOutputStream(args[1]) : System.out,
+				StandardCharsets.UTF_8));
+
+			RTLogConverter converter = new RTLogConverter(new FileInputStream(args[0]));
+			int count = converter.convert(out);
+			out.close();
+
+			if (args.length == 2)
+			{
+				System.err.println("Converted " + count + " RT events to " + args[1]);
+			}
+		}
+		catch (IOException e)
+		{
+			System.err.println("Cannot convert RT log: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Write all of the events as .logrt text lines, returning the event count.
+	 */
+	public int convert(PrintWriter out) throws IOException
+	{
+		for (byte b: RTBinaryWriter.MAGIC)
+		{
+			if (in.readByte() != b)
+			{
+				throw new IOException("Not a binary RT log");
+			}
+		}
+
+		int version = in.readUnsignedByte();
+
+		if (version != RTBinaryWriter.VERSION)
+		{
+			throw new IOException("Unsupported binary RT log version " + version);
+		}
+
+		RTEventKind[] kinds = RTEventKind.values();
+		int count = 0;
+
+		try
+		{
+			while (true)
+			{
+				int ordinal = in.read();
+
+				if (ordinal < 0)
+				{
+					break;
+				}
+				else if (ordinal >= kinds.length)
+				{
+					throw new IOException("Unknown RT event kind " + ordinal);
+				}
+
+				RTEventKind kind = kinds[ordinal];
+				long time = readLong();
+				Object[] values = new Object[kind.types.length];
+
+				for (int i=0; i<values.length; i++)
+				{
+					switch (kind.types[i])
+					{
+						case LONG:
+							values[i] = readLong();
+							break;
+
+						case BOOL:
+							values[i] = in.readByte() != 0;
+							break;
+
+						case REF:
+							long ref = readVarLong();
+							values[i] = (ref == 0) ? null : Long.valueOf(ref - 1);
+							break;
+
+						default:
+							values[i] = readString();
+							break;
+					}
+				}
+
+				out.println(kind.format(values, time));
+				count++;
+			}
+		}
+		catch (EOFException e)
+		{
+			throw new IOException("Binary RT log is truncated after " + count + " events");
+		}
+		finally
+		{
+			in.close();
+		}
+
+		out.flush();
+		return count;
+	}
+
+	private long readLong() throws IOException
+	{
+		long value = readVarLong();
+		return (value >>> 1) ^ -(value & 1);	// Zig-zag
+	}
+
+	private long readVarLong() throws IOException
+	{
+		long value = 0;
+		int shift = 0;
+
+		while (true)
+		{
+			int b = in.readUnsignedByte();
+			value |= (long)(b & 0x7F) << shift;
+
+			if ((b & 0x80) == 0)
+			{
+				return value;
+			}
+
+			shift += 7;
+		}
+	}
+
+	private String readString() throws IOException
+	{
+		int tag = (int)readVarLong();
+
+		switch (tag)
+		{
+			case RTBinaryWriter.STRING_NULL:
+				return null;
+
+			case RTBinaryWriter.STRING_LITERAL:
+				return readLiteral();
+
+			case RTBinaryWriter.STRING_INTERN:
+				String value = readLiteral();
+				strings.add(value);
+				return value;
+
+			default:
+				int index = tag - RTBinaryWriter.STRING_INDEX;
+
+				if (index >= strings.size())
+				{
+					throw new IOException("Bad string index " + index + " in binary RT log");
+				}
+
+				return strings.get(index);
+		}
+	}
+
+	private String readLiteral() throws IOException
+	{
+		byte[] bytes = new byte[(int)readVarLong()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
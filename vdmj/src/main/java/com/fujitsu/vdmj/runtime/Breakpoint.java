@@ -27,6 +27,7 @@ import java.io.Serializable;
 
 import com.fujitsu.vdmj.Settings;
 import com.fujitsu.vdmj.ast.expressions.ASTExpression;
+import com.fujitsu.vdmj.config.Properties;
 import com.fujitsu.vdmj.in.INNode;
 import com.fujitsu.vdmj.in.expressions.INBreakpointExpression;
 import com.fujitsu.vdmj.in.expressions.INExpression;
@@ -170,27 +171,32 @@ public class Breakpoint implements Serializable
 		execInterrupt = level;
 	}
 	
-	private static synchronized int execInterruptLevel()	// Needs sync for Java 11
+	protected static synchronized int execInterruptLevel()	// Needs sync for Java 11
 	{
 		return execInterrupt;
 	}
-	
+
 	/**
-	 * Check whether to stop. The implementation in Breakpoint is used to check
-	 * for the "step" and "next" commands, using the stepline, nextctxt and
-	 * outctxt fields. If the current line is different to the last step line,
-	 * and the current context is not "above" the next context or the current
-	 * context equals the out context or neither the next or out context are
-	 * set, we enter the debugger.
-	 *
-	 * @param execl The execution location.
-	 * @param ctxt The execution context.
+	 * The default breakpoint for a node at the location given. In fast mode, this
+	 * is a shared FastBreakpoint that does no coverage or stepping.
 	 */
-	public void check(LexLocation execl, Context ctxt)
+	public static Breakpoint create(LexLocation location)
 	{
-		location.hit();
-		hits++;
+		if (Properties.in_fast_mode)
+		{
+			return FastBreakpoint.INSTANCE;
+		}
+		else
+		{
+			return new Breakpoint(location);
+		}
+	}
 
+	/**
+	 * Act on any external cancel or pause action, at the breakpoint passed.
+	 */
+	protected static void checkInterrupt(Breakpoint bp, Context ctxt)
+	{
 		switch (execInterruptLevel())
 		{
 			case NONE:
@@ -200,7 +206,7 @@ public class Breakpoint implements Serializable
     			try
     			{
     				execInterrupt = 0;
-    				enterDebugger(ctxt);
+    				bp.enterDebugger(ctxt);
     			}
     			catch (DebuggerException e)
     			{
@@ -210,9 +216,36 @@ public class Breakpoint implements Serializable
 
 			case TERMINATE:
 				execInterrupt = 0;
-				throw new ContextException(4175, "Execution cancelled", location, ctxt);
+				throw new ContextException(4175, "Execution cancelled", bp.location, ctxt);
 		}
-		
+	}
+
+	/**
+	 * Remove the location hit counted by check, for nodes whose location is also
+	 * counted when a sub-expression is evaluated.
+	 */
+	public void uncount()
+	{
+		location.unhit();
+	}
+	
+	/**
+	 * Check whether to stop. The implementation in Breakpoint is used to check
+	 * for the "step" and "next" commands, using the stepline, nextctxt and
+	 * outctxt fields. If the current line is different to the last step line,
+	 * and the current context is not "above" the next context or the current
+	 * context equals the out context or neither the next or out context are
+	 * set, we enter the debugger.
+	 *
+	 * @param execl The execution location.
+	 * @param ctxt The execution context.
+	 */
+	public void check(LexLocation execl, Context ctxt)
+	{
+		location.hit();
+		hits++;
+
+		checkInterrupt(this, ctxt);
 		ThreadState state = ctxt.threadState;
 
 		if (Settings.dialect != Dialect.VDM_SL)
@@ -249,11 +282,10 @@ public class Breakpoint implements Serializable
 	 */
 	public void enterDebugger(Context ctxt)
 	{
-		Thread current = Thread.currentThread();
+		SchedulableThread th = SchedulableThread.current();
 
-		if (current instanceof SchedulableThread)
+		if (th != null)
 		{
-			SchedulableThread th = (SchedulableThread)current;
 			th.suspendOthers();
 		}
 
@@ -38,6 +38,7 @@ import com.fujitsu.vdmj.in.definitions.INDefinition;
 import com.fujitsu.vdmj.in.definitions.INNamedTraceDefinition;
 import com.fujitsu.vdmj.in.expressions.INExpression;
 import com.fujitsu.vdmj.in.statements.INStatement;
+import com.fujitsu.vdmj.lex.Dialect;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.lex.LexTokenReader;
 import com.fujitsu.vdmj.lex.Token;
@@ -45,6 +46,7 @@ import com.fujitsu.vdmj.mapper.ClassMapper;
 import com.fujitsu.vdmj.messages.Console;
 import com.fujitsu.vdmj.messages.RTLogger;
 import com.fujitsu.vdmj.messages.VDMErrorsException;
+import com.fujitsu.vdmj.messages.rtlog.RTEventKind;
 import com.fujitsu.vdmj.po.PONode;
 import com.fujitsu.vdmj.po.annotations.POAnnotation;
 import com.fujitsu.vdmj.po.definitions.POClassList;
@@ -72,10 +74,12 @@ import com.fujitsu.vdmj.typechecker.NameScope;
 import com.fujitsu.vdmj.typechecker.PublicClassEnvironment;
 import com.fujitsu.vdmj.values.BUSValue;
 import com.fujitsu.vdmj.values.CPUValue;
+import com.fujitsu.vdmj.values.FunctionCache;
 import com.fujitsu.vdmj.values.NameValuePair;
 import com.fujitsu.vdmj.values.NameValuePairList;
 import com.fujitsu.vdmj.values.NameValuePairMap;
 import com.fujitsu.vdmj.values.ObjectValue;
+import com.fujitsu.vdmj.values.StateSnapshot;
 import com.fujitsu.vdmj.values.Value;
 
 /**
@@ -179,10 +183,11 @@ public class ClassInterpreter extends Interpreter
 		CPUValue.init(scheduler);
 		BUSValue.init();
 		ObjectValue.init();
+		FunctionCache.reset();
 
 		logSwapIn();
 		initialContext = executableClasses.creatInitialContext();
-		executableClasses.initialize((StateContext) initialContext);
+		executableClasses.initialize((StateContext) initialContext, checkedClasses.getDependencies());
 		executableClasses.systemInit(scheduler, initialContext);
 		INAnnotation.init(initialContext);
 		logSwapOut();
@@ -199,14 +204,45 @@ public class ClassInterpreter extends Interpreter
 	{
 		SchedulableThread.terminateAll();
 		scheduler.reset();
+		FunctionCache.reset();
 
 		SystemClock.init();
 		initialContext = executableClasses.creatInitialContext();
-		executableClasses.initialize((StateContext) initialContext);
+		executableClasses.initialize((StateContext) initialContext, checkedClasses.getDependencies());
 		createdValues = new NameValuePairMap();
 		createdDefinitions = new TCDefinitionSet();
 	}
 
+	@Override
+	protected StateSnapshot traceCapture()
+	{
+		if (Settings.dialect == Dialect.VDM_RT || SchedulableThread.getThreadCount() > 0)
+		{
+			return null;	// CPUs, buses and running threads cannot be restored
+		}
+
+		return StateSnapshot.capture(initialContext, new Vector<Context>());
+	}
+
+	@Override
+	protected void traceRestore(StateSnapshot snapshot)
+	{
+		SchedulableThread.terminateAll();
+
+		scheduler.init();
+		SystemClock.init();
+		CPUValue.init(scheduler);
+		BUSValue.init();
+		snapshot.restore();
+		INAnnotation.init(initialContext);
+
+		createdValues = new NameValuePairMap();
+		createdDefinitions = new TCDefinitionSet();
+
+		scheduler.reset();
+		BUSValue.start();
+	}
+
 	@Override
 	protected TCExpression parseExpression(String line, String module) throws Exception
 	{
@@ -414,30 +450,20 @@ public class ClassInterpreter extends Interpreter
 	{
 		// Show the "system constructor" thread creation
 
-		RTLogger.log(
-			"ThreadCreate -> id: " + Thread.currentThread().getId() +
-			" period: false " +
-			" objref: nil clnm: nil " +
-			" cpunm: 0");
-
-		RTLogger.log(
-			"ThreadSwapIn -> id: " + Thread.currentThread().getId() +
-			" objref: nil clnm: nil " +
-			" cpunm: 0" +
-			" overhead: 0");
+		RTLogger.log(RTEventKind.MAIN_THREAD_CREATE,
+			SchedulableThread.currentId(), false, null, null, 0);
+
+		RTLogger.log(RTEventKind.MAIN_THREAD_SWAP_IN,
+			SchedulableThread.currentId(), null, null, 0, 0);
 	}
 
 	private void logSwapOut()
 	{
-		RTLogger.log(
-			"ThreadSwapOut -> id: " + Thread.currentThread().getId() +
-			" objref: nil clnm: nil " +
-			" cpunm: 0" +
-			" overhead: 0");
-
-		RTLogger.log(
-			"ThreadKill -> id: " + Thread.currentThread().getId() +
-			" cpunm: 0");
+		RTLogger.log(RTEventKind.MAIN_THREAD_SWAP_OUT,
+			SchedulableThread.currentId(), null, null, 0, 0);
+
+		RTLogger.log(RTEventKind.THREAD_KILL,
+			SchedulableThread.currentId(), 0);
 	}
 
 	@Override
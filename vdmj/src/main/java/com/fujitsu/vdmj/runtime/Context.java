@@ -26,6 +26,7 @@ package com.fujitsu.vdmj.runtime;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.messages.ConsoleWriter;
@@ -40,6 +41,16 @@ import com.fujitsu.vdmj.values.Value;
 
 /**
  * A class to hold runtime name/value context information.
+ * 
+ * Names are looked up by name in each Context of the chain, which costs one hash
+ * per level. The first few names put into a Context are also held in an array of
+ * slots, in the order they were added. For the common cases, like parameters and
+ * let bindings, that order is the same every time a frame is built, so a variable
+ * expression can remember the (depth, slot) where its name was found, see resolve,
+ * and go straight there next time, see getSlot. The slot's name is the binding
+ * name object itself, so a chain with a different shape is detected and the name
+ * is looked up by hash instead. Contexts are still Maps, as the debuggers,
+ * annotations and plugins read and extend them.
  */
 @SuppressWarnings("serial")
 public class Context extends HashMap<TCNameToken, Value>
@@ -50,6 +61,8 @@ public class Context extends HashMap<TCNameToken, Value>
 	public final String title;
 	/** A link to a lower level context, if present. */
 	public final Context outer;
+	/** The outermost context in the chain, which may be this one. */
+	private final Context global;
 	/** The thread state associated with this context. */
 	public ThreadState threadState = null;
 
@@ -60,6 +73,30 @@ public class Context extends HashMap<TCNameToken, Value>
 	/** Set to the operation being guarded, if any. */
 	public OperationValue guardOp = null;
 
+	/** The first names put into this context, and their values, in order. */
+	private static final int MAX_SLOTS = 8;
+	private TCNameToken[] slotNames = null;
+	private Value[] slotValues = null;
+	private int slotCount = 0;
+
+	/**
+	 * A name's position in a context chain, as found by resolve. The binder is the
+	 * name object in the slot, which is the one from the binding pattern.
+	 */
+	public static class Slot
+	{
+		public final int depth;
+		public final int index;
+		public final TCNameToken binder;
+
+		private Slot(int depth, int index, TCNameToken binder)
+		{
+			this.depth = depth;
+			this.index = index;
+			this.binder = binder;
+		}
+	}
+
 	/**
 	 * Create a context at the given location.
 	 *
@@ -76,6 +113,11 @@ public class Context extends HashMap<TCNameToken, Value>
 		if (outer != null)
 		{
 			this.threadState = outer.threadState;
+			this.global = outer.global;
+		}
+		else
+		{
+			this.global = this;
 		}
 	}
 
@@ -90,20 +132,15 @@ public class Context extends HashMap<TCNameToken, Value>
 	}
 
 	/**
-	 * Find the outermost context from this one.
+	 * Find the outermost context from this one. This is called for every
+	 * name that is not found in a RootContext, so the link is held rather
+	 * than searching down a (possibly deeply recursive) context chain.
 	 *
 	 * @return The outermost context.
 	 */
 	public Context getGlobal()
 	{
-		Context op = this;
-
-		while (op.outer != null)
-		{
-			op = op.outer;
-		}
-
-		return op;
+		return global;
 	}
 
 	/**
@@ -144,19 +181,156 @@ public class Context extends HashMap<TCNameToken, Value>
 		}
 	}
 
+	/**
+	 * Names are added to the slots as well as the map, until they are full. A name
+	 * that is already present keeps its slot, with the new value.
+	 */
+	@Override
+	public Value put(TCNameToken name, Value value)
+	{
+		Value old = super.put(name, value);
+
+		if (old == null)
+		{
+			if (slotCount < MAX_SLOTS)
+			{
+				if (slotNames == null)
+				{
+					slotNames = new TCNameToken[MAX_SLOTS];
+					slotValues = new Value[MAX_SLOTS];
+				}
+
+				slotNames[slotCount] = name;
+				slotValues[slotCount++] = value;
+			}
+		}
+		else
+		{
+			for (int i=0; i<slotCount; i++)
+			{
+				if (slotNames[i].equals(name))
+				{
+					slotValues[i] = value;
+					break;
+				}
+			}
+		}
+
+		return old;
+	}
+
+	@Override
+	public void putAll(Map<? extends TCNameToken, ? extends Value> map)
+	{
+		for (Map.Entry<? extends TCNameToken, ? extends Value> entry: map.entrySet())
+		{
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public Value remove(Object name)
+	{
+		slotCount = 0;		// Positions would change, so stop using slots
+		slotNames = null;
+		slotValues = null;
+		return super.remove(name);
+	}
+
+	@Override
+	public void clear()
+	{
+		slotCount = 0;
+		slotNames = null;
+		slotValues = null;
+		super.clear();
+	}
+
+	/**
+	 * Find the slot of a name in the chain, if it is in the slots of a frame below
+	 * the nearest RootContext. RootContexts look for names that they don't hold in
+	 * the free variables, the object and the global context, so a slot beyond
+	 * one could be hidden. Type-qualified names are not resolved.
+	 */
+	public Slot resolve(TCNameToken name)
+	{
+		if (name.getTypeQualifier() != null)
+		{
+			return null;
+		}
+
+		Context frame = this;
+		int depth = 0;
+
+		while (frame != null)
+		{
+			if (frame.containsKey(name))
+			{
+				for (int i=0; i<frame.slotCount; i++)
+				{
+					if (frame.slotNames[i].equals(name))
+					{
+						return new Slot(depth, i, frame.slotNames[i]);
+					}
+				}
+
+				return null;	// Not in a slot
+			}
+			else if (frame instanceof RootContext)
+			{
+				return null;
+			}
+
+			frame = frame.outer;
+			depth++;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Get the value in a slot found by resolve, or null if this chain has a
+	 * different shape and the name must be looked up by hash.
+	 */
+	public Value getSlot(Slot slot)
+	{
+		Context frame = this;
+
+		for (int d = 0; d < slot.depth; d++)
+		{
+			if (frame instanceof RootContext || frame.outer == null)
+			{
+				return null;
+			}
+
+			frame = frame.outer;
+		}
+
+		if (slot.index < frame.slotCount && frame.slotNames[slot.index] == slot.binder)
+		{
+			return frame.slotValues[slot.index];
+		}
+
+		return null;
+	}
+
 	/**
 	 * Get a name, taking type overloading into account. If we use the
 	 * superclass method, different names are considered different,
 	 * because the map is driven by the names' hashCodes. The equals
 	 * method of LexNameToken makes a TypeComparator check, which is
 	 * what we need. But we try a simple super.get() first.
+	 * 
+	 * Names without a type qualifier have a hashCode that is consistent
+	 * with equals, so a miss from super.get() is final. This matters, as
+	 * check() calls this for every level of the Context chain.
 	 */
 	@Override
 	public Value get(Object name)
 	{
 		Value rv = super.get(name);
 
-		if (rv == null)
+		if (rv == null && isQualified(name))
 		{
     		for (TCNameToken var: keySet())
     		{
@@ -171,6 +345,11 @@ public class Context extends HashMap<TCNameToken, Value>
 		return rv;
 	}
 
+	private boolean isQualified(Object name)
+	{
+		return name instanceof TCNameToken && ((TCNameToken)name).getTypeQualifier() != null;
+	}
+
 	/**
 	 * Get all visible names from this Context, with more visible
 	 * values overriding those below.
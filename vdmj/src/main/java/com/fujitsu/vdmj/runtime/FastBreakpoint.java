@@ -0,0 +1,77 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.runtime;
+
+import com.fujitsu.vdmj.Settings;
+import com.fujitsu.vdmj.lex.Dialect;
+import com.fujitsu.vdmj.lex.LexLocation;
+
+/**
+ * The breakpoint shared by every node in fast mode (see the in.fast.mode property).
+ * This does no coverage counting or stepping, but still reschedules threads in
+ * VDM++ and VDM-RT. External cancel or pause actions are only checked occasionally.
+ * Breakpoints and tracepoints that are set explicitly replace this as usual.
+ */
+public class FastBreakpoint extends Breakpoint
+{
+	private static final long serialVersionUID = 1L;
+
+	/** The single instance */
+	public static final FastBreakpoint INSTANCE = new FastBreakpoint();
+
+	/** The number of checks between tests for cancellation */
+	private static final int INTERRUPT_INTERVAL = 1024;
+
+	private FastBreakpoint()
+	{
+		super(new LexLocation());
+	}
+
+	@Override
+	public void check(LexLocation execl, Context ctxt)
+	{
+		if (Settings.dialect != Dialect.VDM_SL)
+		{
+			ctxt.threadState.reschedule(ctxt, execl);
+		}
+
+		if (ctxt.threadState.fastCheck(INTERRUPT_INTERVAL) && execInterruptLevel() != NONE)
+		{
+			checkInterrupt(new Breakpoint(execl), ctxt);
+		}
+	}
+
+	@Override
+	public void uncount()
+	{
+		// Nothing was counted by check
+	}
+
+	@Override
+	public boolean catchReturn(Context ctxt)
+	{
+		return false;	// No stepping
+	}
+}
@@ -35,6 +35,7 @@ import java.util.TreeMap;
 import java.util.Map.Entry;
 
 import com.fujitsu.vdmj.Settings;
+import com.fujitsu.vdmj.config.Properties;
 import com.fujitsu.vdmj.in.definitions.INClassDefinition;
 import com.fujitsu.vdmj.in.definitions.INNamedTraceDefinition;
 import com.fujitsu.vdmj.in.expressions.INExpression;
@@ -61,10 +62,12 @@ import com.fujitsu.vdmj.traces.CallSequence;
 import com.fujitsu.vdmj.traces.TraceFilter;
 import com.fujitsu.vdmj.traces.TraceIterator;
 import com.fujitsu.vdmj.traces.TraceReductionType;
+import com.fujitsu.vdmj.traces.TraceWorkerPool;
 import com.fujitsu.vdmj.traces.Verdict;
 import com.fujitsu.vdmj.typechecker.Environment;
 import com.fujitsu.vdmj.typechecker.NameScope;
 import com.fujitsu.vdmj.typechecker.TypeChecker;
+import com.fujitsu.vdmj.values.StateSnapshot;
 import com.fujitsu.vdmj.values.Value;
 
 /**
@@ -90,6 +93,9 @@ abstract public class Interpreter
 	/** A static instance pointer to the interpreter. */
 	protected static Interpreter instance = null;
 
+	/** The state after the last init, for traceTestInit. */
+	private StateSnapshot traceSnapshot = null;
+
 	/**
 	 * Create an Interpreter.
 	 */
@@ -173,6 +179,37 @@ abstract public class Interpreter
 	 */
 	abstract public void traceInit();
 
+	/**
+	 * Initialize the interpreter before a trace test. This has the same effect
+	 * as a full init, but the state after the init is captured and subsequent
+	 * calls restore that, rather than repeating the initialization each time.
+	 * A snapshot is out of date once init has been called again, so a full
+	 * init is used then, as it is if the specification cannot be restored.
+	 */
+	public void traceTestInit()
+	{
+		if (traceSnapshot != null && traceSnapshot.isFor(initialContext))
+		{
+			traceRestore(traceSnapshot);
+		}
+		else
+		{
+			init();
+			traceSnapshot = traceCapture();
+		}
+	}
+
+	/**
+	 * Take a snapshot of the state after an init, for traceTestInit, or return
+	 * null if this specification cannot be restored from a snapshot.
+	 */
+	abstract protected StateSnapshot traceCapture();
+
+	/**
+	 * Restore a snapshot from traceCapture, doing the remainder of the init.
+	 */
+	abstract protected void traceRestore(StateSnapshot snapshot);
+
 	/**
 	 * Parse the line passed, type check it and evaluate it as an expression
 	 * in the initial context.
@@ -404,13 +441,13 @@ abstract public class Interpreter
 
 			if (stmt != null)
 			{
-				stmt.breakpoint = new Breakpoint(stmt.location);
+				stmt.breakpoint = Breakpoint.create(stmt.location);
 			}
 			else
 			{
 				INExpression exp = findExpression(old.location.file, old.location.startLine);
 				assert (exp != null) : "Cannot locate old breakpoint?";
-				exp.breakpoint = new Breakpoint(exp.location);
+				exp.breakpoint = Breakpoint.create(exp.location);
 			}
 		}
 
@@ -490,51 +527,19 @@ abstract public class Interpreter
 
 	abstract public Context getTraceContext(INClassDefinition classdef) throws ValueException;
 
-	public void runtrace(String name, int startTest, int endTest, boolean debug)
+	public void runtrace(String name, long startTest, long endTest, boolean debug)
 		throws Exception
 	{
 		runtrace(name, startTest, endTest, debug, 1.0F, TraceReductionType.NONE, 1234);
 	}
 
 	public boolean runtrace(
-		String name, int startTest, int endTest, boolean debug,
+		String name, long startTest, long endTest, boolean debug,
 		float subset, TraceReductionType reductionType, long seed)
 		throws Exception
 	{
-		// Trace names have / substituted for _ to make a valid name during the parse
-		name = name.replaceAll("/", "_");
-
-		LexTokenReader ltr = new LexTokenReader(name, Dialect.VDM_SL);
-		LexToken token = ltr.nextToken();
-		ltr.close();
-		TCNameToken lexname = null;
-
-		switch (token.type)
-		{
-			case NAME:
-				lexname = new TCNameToken((LexNameToken) token);
-
-				if (Settings.dialect == Dialect.VDM_SL &&
-					!lexname.getModule().equals(getDefaultName()))
-				{
-					setDefaultName(lexname.getModule());
-				}
-				break;
-
-			case IDENTIFIER:
-				lexname = new TCNameToken(token.location, getDefaultName(), ((LexIdentifierToken)token).name);
-				break;
-
-			default:
-				throw new Exception("Expecting trace name");
-		}
-
-		INNamedTraceDefinition tracedef = findTraceDefinition(lexname);
-
-		if (tracedef == null)
-		{
-			throw new Exception("Trace " + lexname + " not found");
-		}
+		INNamedTraceDefinition tracedef = lookupTrace(name);
+		TCNameToken lexname = tracedef.name;
 
 		long before = System.currentTimeMillis();
 		TraceIterator tests = tracedef.getIterator(getTraceContext(tracedef.classDefinition));
@@ -548,7 +553,8 @@ abstract public class Interpreter
 			writer = Console.out;
 		}
 
-		final int count = tests.count();
+		final long count = tests.count();
+		long lastTest = endTest;
 
 		if (endTest > count)
 		{
@@ -557,7 +563,7 @@ abstract public class Interpreter
 		
 		if (endTest == 0)		// To the end of the tests, if specified as zero
 		{
-			endTest = count;
+			lastTest = count;
 		}
 		
 		if (startTest > 0)		// Suppress any reduction if a range specified
@@ -566,8 +572,8 @@ abstract public class Interpreter
 			reductionType = TraceReductionType.NONE;
 		}
 
-		int testNumber = 1;
-		int excluded = 0;
+		long testNumber = Math.max(startTest, 1);
+		long excluded = testNumber - 1;		// Those before startTest are not generated
 		boolean failed = false;
 		TraceFilter filter = new TraceFilter(count, subset, reductionType, seed);
 
@@ -591,25 +597,38 @@ abstract public class Interpreter
 		// Not needed with new traces?
 		// Environment environment = getTraceEnvironment(tracedef.classDefinition);
 
-		while (tests.hasMoreTests())
+		TraceWorkerPool pool = null;
+
+		if (Properties.traces_workers > 1 && !debug && Settings.dialect != Dialect.VDM_RT)
 		{
-			CallSequence test = tests.getNextTest();
+			pool = new TraceWorkerPool(this, tracedef, filter, writer, Properties.traces_workers);
+		}
+
+		while (testNumber <= lastTest)
+		{
+			CallSequence test = filter.isRemoved(testNumber) ? null : tests.getTest(testNumber - 1);
+			boolean removed = (test == null || filter.isRemoved(test, testNumber));
+			long filteredBy = (removed || pool != null) ? 0 : filter.getFilteredBy(test);
 			
-			if (testNumber < startTest || testNumber > endTest || filter.isRemoved(test, testNumber))
+			if (removed)
 			{
 				excluded++;
 			}
-			else if (filter.getFilteredBy(test) > 0)
+			else if (pool != null)
+			{
+				pool.add(testNumber, test);		// Printed in order, as results arrive
+			}
+			else if (filteredBy > 0)
 			{
 				excluded++;
     			writer.println("Test " + testNumber + " = " + test.getCallString(getTraceContext(tracedef.classDefinition)));
-				writer.println("Test " + testNumber + " FILTERED by test " + filter.getFilteredBy(test));
+				writer.println("Test " + testNumber + " FILTERED by test " + filteredBy);
 			}
 			else
 			{
 				// test.typeCheck(this, environment);	// Not needed with new traces?
 				
-    			init();	// Initialize completely between every run...
+    			traceTestInit();	// Initialize completely between every run...
     			List<Object> result = runOneTrace(tracedef.classDefinition, test, debug);
     			filter.update(result, test, testNumber);
 
@@ -622,15 +641,19 @@ abstract public class Interpreter
     			}
 			}
 
-			if (testNumber >= endTest)
-			{
-				excluded = count - (endTest - startTest + 1);
-				break;
-			}
-
 			testNumber++;
 		}
 
+		excluded = excluded + (count - lastTest);	// Those after lastTest
+
+		if (pool != null)
+		{
+			pool.finish();
+			pool.close();
+			failed = pool.hasFailed();
+			excluded = excluded + pool.getFilteredCount();
+		}
+
 		init();
 		Settings.usingCmdLine = wasCMD;
 		
@@ -641,10 +664,55 @@ abstract public class Interpreter
 
 		long finished = System.currentTimeMillis();
 		writer.println("Executed in " + (double)(finished-after)/1000 + " secs. ");
+		writer.println("Filtering took " + (double)(filter.getFilterTime()/1000000)/1000 + " secs. ");
 		
 		return !failed;
 	}
 
+	/**
+	 * Find a trace definition from its name, which may be qualified by a module or
+	 * class name. The VDM-SL default module is changed to that of the trace.
+	 */
+	public INNamedTraceDefinition lookupTrace(String name) throws Exception
+	{
+		// Trace names have / substituted for _ to make a valid name during the parse
+		name = name.replaceAll("/", "_");
+
+		LexTokenReader ltr = new LexTokenReader(name, Dialect.VDM_SL);
+		LexToken token = ltr.nextToken();
+		ltr.close();
+		TCNameToken lexname = null;
+
+		switch (token.type)
+		{
+			case NAME:
+				lexname = new TCNameToken((LexNameToken) token);
+
+				if (Settings.dialect == Dialect.VDM_SL &&
+					!lexname.getModule().equals(getDefaultName()))
+				{
+					setDefaultName(lexname.getModule());
+				}
+				break;
+
+			case IDENTIFIER:
+				lexname = new TCNameToken(token.location, getDefaultName(), ((LexIdentifierToken)token).name);
+				break;
+
+			default:
+				throw new Exception("Expecting trace name");
+		}
+
+		INNamedTraceDefinition tracedef = findTraceDefinition(lexname);
+
+		if (tracedef == null)
+		{
+			throw new Exception("Trace " + lexname + " not found");
+		}
+
+		return tracedef;
+	}
+
 	public abstract List<Object> runOneTrace(INClassDefinition classDefinition, CallSequence test, boolean debug);
 	
 	abstract public <T extends List<?>> T getTC();
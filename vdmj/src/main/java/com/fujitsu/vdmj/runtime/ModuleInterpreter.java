@@ -26,6 +26,7 @@ package com.fujitsu.vdmj.runtime;
 import java.io.File;
 import java.util.List;
 import java.util.Set;
+import java.util.Vector;
 
 import com.fujitsu.vdmj.VDMJ;
 import com.fujitsu.vdmj.ast.expressions.ASTExpression;
@@ -64,6 +65,8 @@ import com.fujitsu.vdmj.traces.CallSequence;
 import com.fujitsu.vdmj.typechecker.Environment;
 import com.fujitsu.vdmj.typechecker.ModuleEnvironment;
 import com.fujitsu.vdmj.values.CPUValue;
+import com.fujitsu.vdmj.values.FunctionCache;
+import com.fujitsu.vdmj.values.StateSnapshot;
 import com.fujitsu.vdmj.values.Value;
 
 /**
@@ -200,8 +203,9 @@ public class ModuleInterpreter extends Interpreter
 	{
 		scheduler.init();
 		CPUValue.init(scheduler);
+		FunctionCache.reset();
 		initialContext = executableModules.creatInitialContext();
-		executableModules.initialize(initialContext);
+		executableModules.initialize(initialContext, checkedModules.getDependencies());
 		INAnnotation.init(initialContext);
 	}
 
@@ -209,8 +213,36 @@ public class ModuleInterpreter extends Interpreter
 	public void traceInit()
 	{
 		scheduler.reset();
+		FunctionCache.reset();
 		initialContext = executableModules.creatInitialContext();
-		executableModules.initialize(initialContext);
+		executableModules.initialize(initialContext, checkedModules.getDependencies());
+	}
+
+	@Override
+	protected StateSnapshot traceCapture()
+	{
+		List<Context> states = new Vector<Context>();
+
+		for (INModule m: executableModules)
+		{
+			Context state = m.getStateContext();
+
+			if (state != null)
+			{
+				states.add(state);
+			}
+		}
+
+		return StateSnapshot.capture(initialContext, states);
+	}
+
+	@Override
+	protected void traceRestore(StateSnapshot snapshot)
+	{
+		scheduler.init();
+		CPUValue.init(scheduler);
+		snapshot.restore();
+		INAnnotation.init(initialContext);
 	}
 
 	@Override
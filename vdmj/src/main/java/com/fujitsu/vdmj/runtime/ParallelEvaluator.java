@@ -0,0 +1,287 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.runtime;
+
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import com.fujitsu.vdmj.Settings;
+import com.fujitsu.vdmj.config.Properties;
+import com.fujitsu.vdmj.lex.Dialect;
+import com.fujitsu.vdmj.messages.ConsoleWriter;
+import com.fujitsu.vdmj.values.NameValuePairList;
+import com.fujitsu.vdmj.values.QuantifierList;
+
+/**
+ * Evaluate the bindings of quantifiers and comprehensions in parallel, using a
+ * pool of in.parallel.threads threads. The results are always returned in the
+ * order of the bindings, and if evaluation stops early (eg. a forall finding a
+ * false case) or fails, the outcome is the same as a serial evaluation.
+ * 
+ * This is only used for expressions that cannot call operations, and is never
+ * used for VDM-RT, where evaluation affects the time, or when debugging.
+ * 
+ * Each item is evaluated in a WorkerContext, which has its own ThreadState. Native
+ * library methods, like IO and MATH, may not be pure, so a worker that reaches one
+ * stops (see INNotYetSpecifiedExpression) and the batch is evaluated serially.
+ */
+public class ParallelEvaluator
+{
+	private static ForkJoinPool pool = null;
+
+	private static synchronized ForkJoinPool getPool()
+	{
+		if (pool == null)
+		{
+			pool = new ForkJoinPool(getThreads());
+		}
+
+		return pool;
+	}
+
+	/**
+	 * The pool size, which is never more than the number of processors available.
+	 */
+	private static int getThreads()
+	{
+		return Math.min(Properties.in_parallel_threads, Runtime.getRuntime().availableProcessors());
+	}
+
+	public static boolean isEnabled(Context ctxt)
+	{
+		if (getThreads() < 2 || Settings.dialect == Dialect.VDM_RT)
+		{
+			return false;
+		}
+
+		Interpreter interpreter = Interpreter.getInstance();
+
+		return !ctxt.threadState.isStepping() &&
+			(interpreter == null || interpreter.getBreakpoints().isEmpty());
+	}
+
+	/**
+	 * Evaluate all of the bindings of a QuantifierList, in batches. The results are
+	 * in binding order, and end with the first one that matches stop, if any. The
+	 * evaluator is passed the Context to use, which is ctxt or a WorkerContext.
+	 */
+	public static <T> List<T> evaluate(QuantifierList quantifiers, Context ctxt,
+		BiFunction<NameValuePairList, Context, T> evaluator, Predicate<T> stop)
+	{
+		List<T> results = new Vector<T>();
+		int batch = Math.max(Properties.in_parallel_minimum, 64) * getThreads();
+		List<NameValuePairList> bindings = new Vector<NameValuePairList>(batch);
+		boolean serial = false;
+
+		while (quantifiers.hasNext())	// NB hasNext() moves to the next binding
+		{
+			bindings.add(quantifiers.next());
+
+			if (bindings.size() == batch)
+			{
+				Boolean stopped = serial ? null : evaluateParallel(bindings, ctxt, evaluator, stop, results);
+
+				if (stopped == null)
+				{
+					serial = true;		// Impure, so the rest are serial
+					stopped = evaluateSerial(bindings, ctxt, evaluator, stop, results);
+				}
+
+				if (stopped)
+				{
+					return results;
+				}
+
+				bindings.clear();
+			}
+		}
+
+		evaluate(bindings, ctxt, evaluator, stop, results, serial ? Integer.MAX_VALUE : Properties.in_parallel_minimum);
+		return results;
+	}
+
+	/**
+	 * Evaluate a list of items, adding the results to the list passed in binding
+	 * order. Returns true if a result matches stop, which is the last one added.
+	 */
+	public static <X, T> boolean evaluate(List<X> items, Context ctxt,
+		BiFunction<X, Context, T> evaluator, Predicate<T> stop, List<T> results)
+	{
+		return evaluate(items, ctxt, evaluator, stop, results, Properties.in_parallel_minimum);
+	}
+
+	/**
+	 * As above, but with an explicit minimum number of items to evaluate in parallel.
+	 */
+	public static <X, T> boolean evaluate(List<X> items, Context ctxt,
+		BiFunction<X, Context, T> evaluator, Predicate<T> stop, List<T> results, int minimum)
+	{
+		if (items.size() >= minimum)
+		{
+			Boolean stopped = evaluateParallel(items, ctxt, evaluator, stop, results);
+
+			if (stopped != null)
+			{
+				return stopped;
+			}
+		}
+
+		return evaluateSerial(items, ctxt, evaluator, stop, results);
+	}
+
+	private static <X, T> boolean evaluateSerial(List<X> items, Context ctxt,
+		BiFunction<X, Context, T> evaluator, Predicate<T> stop, List<T> results)
+	{
+		for (X item: items)
+		{
+			T result = evaluator.apply(item, ctxt);
+			results.add(result);
+
+			if (isStop(result, stop))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns whether a result matched stop, as above, or null if a worker reached
+	 * an impure call, in which case nothing is added to the results.
+	 */
+	private static <X, T> Boolean evaluateParallel(List<X> items, Context ctxt,
+		BiFunction<X, Context, T> evaluator, Predicate<T> stop, List<T> results)
+	{
+		int count = items.size();
+		Object[] values = new Object[count];
+		Throwable[] errors = new Throwable[count];
+		AtomicInteger limit = new AtomicInteger(count);		// Items after this are not needed
+		AtomicBoolean impure = new AtomicBoolean(false);
+
+		try
+		{
+			getPool().submit(() -> IntStream.range(0, count).parallel().forEach(i ->
+			{
+				if (i < limit.get() && !impure.get())
+				{
+					WorkerContext worker = new WorkerContext(ctxt);
+
+					try
+					{
+						T result = evaluator.apply(items.get(i), worker);
+						values[i] = result;
+
+						if (isStop(result, stop))
+						{
+							limit.accumulateAndGet(i, Math::min);
+						}
+					}
+					catch (Throwable e)
+					{
+						errors[i] = e;
+						limit.accumulateAndGet(i, Math::min);
+					}
+
+					if (worker.threadState.isImpure())
+					{
+						impure.set(true);
+					}
+				}
+			})).get();
+		}
+		catch (InterruptedException e)
+		{
+			throw new RuntimeException(e);
+		}
+		catch (ExecutionException e)
+		{
+			throw new RuntimeException(e.getCause());
+		}
+
+		if (impure.get())
+		{
+			return null;
+		}
+
+		// Everything before the limit was evaluated, so this is a serial outcome
+
+		for (int i=0; i<count; i++)
+		{
+			if (errors[i] instanceof RuntimeException)
+			{
+				throw (RuntimeException)errors[i];
+			}
+			else if (errors[i] instanceof Error)
+			{
+				throw (Error)errors[i];
+			}
+
+			@SuppressWarnings("unchecked")
+			T result = (T)values[i];
+			results.add(result);
+
+			if (isStop(result, stop))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static <T> boolean isStop(T result, Predicate<T> stop)
+	{
+		return result != null && stop != null && stop.test(result);
+	}
+
+	/**
+	 * A frame with its own ThreadState for each item evaluated by a worker. This is
+	 * not shown in stack traces, so errors are reported as in a serial evaluation.
+	 */
+	private static class WorkerContext extends Context
+	{
+		private static final long serialVersionUID = 1L;
+
+		public WorkerContext(Context outer)
+		{
+			super(outer.location, outer.title, outer);
+			this.threadState = new ThreadState(outer.threadState);
+		}
+
+		@Override
+		public void printStackTrace(ConsoleWriter out, boolean variables)
+		{
+			outer.printStackTrace(out, variables);
+		}
+	}
+}
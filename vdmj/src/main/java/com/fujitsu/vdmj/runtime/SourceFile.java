@@ -28,6 +28,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.util.Collections;
 import java.util.List;
@@ -37,6 +38,7 @@ import java.util.Vector;
 import com.fujitsu.vdmj.VDMJ;
 import com.fujitsu.vdmj.config.Properties;
 import com.fujitsu.vdmj.lex.BacktrackInputReader;
+import com.fujitsu.vdmj.lex.BinaryCoverage;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.messages.ConsoleWriter;
 import com.fujitsu.vdmj.ast.lex.LexNameList;
@@ -527,11 +529,18 @@ public class SourceFile
 	{
         for (LexLocation l: LexLocation.getSourceLocations(filename))
         {
-        	if (l.hits > 0)
+        	long hits = l.getHits();
+
+        	if (hits > 0)
         	{
         		out.println("+" + l.startLine +
-        			" " + l.startPos + "-" + l.endPos + "=" + l.hits);
+        			" " + l.startPos + "-" + l.endPos + "=" + hits);
         	}
         }
 	}
+
+	public void writeCoverage(OutputStream out) throws IOException
+	{
+		BinaryCoverage.write(LexLocation.getSourceLocations(filename), out);
+	}
 }
@@ -42,6 +42,10 @@ public class ThreadState implements Serializable
 	private int atomic = 0;			// Don't reschedule if >0
 	private int pure = 0;			// In a pure operation if >0
 
+	private int speculative = 0;	// Native calls are not made if >0
+	private boolean impure = false;	// Set if a native call was not made
+	private int fastChecks = 0;		// FastBreakpoint checks since an interrupt test
+
 	public LexLocation stepline;	// Breakpoint stepping values
 	public RootContext nextctxt;
 	public Context outctxt;
@@ -49,11 +53,31 @@ public class ThreadState implements Serializable
 
 	public ThreadState(CPUValue cpu)
 	{
-		this.threadId = Thread.currentThread().getId();
+		this.threadId = SchedulableThread.currentId();
 		this.CPU = cpu;
 		init();
 	}
 
+	/**
+	 * The state for a ParallelEvaluator worker, which starts with the atomic and
+	 * pure settings of the thread that started the parallel evaluation, and is
+	 * always speculative.
+	 */
+	public ThreadState(ThreadState parent)
+	{
+		this.threadId = SchedulableThread.currentId();
+		this.CPU = parent.CPU;
+		this.speculative = 1;
+
+		synchronized (parent)
+		{
+			this.atomic = parent.atomic;
+			this.pure = parent.pure;
+		}
+
+		init();
+	}
+
 	public void init()
 	{
 		setBreaks(null, null, null);
@@ -78,11 +102,10 @@ public class ThreadState implements Serializable
 		{
 			// Initialization doesn't occur from SchedulableThreads
 
-			Thread current = Thread.currentThread();
+			SchedulableThread s = SchedulableThread.current();
 
-			if (current instanceof SchedulableThread)
+			if (s != null)
 			{
-				SchedulableThread s = (SchedulableThread)current;
 				s.step(ctxt, location);
 			}
 		}
@@ -121,4 +144,52 @@ public class ThreadState implements Serializable
 	{
 		return pure > 0;
 	}
+
+	/**
+	 * Speculative evaluations are those made by ParallelEvaluator workers and
+	 * INQuantifierFilter tests. Native methods may have side effects, like IO or
+	 * random numbers, so these stop at a native call, and are then repeated in the
+	 * usual way (see INNotYetSpecifiedExpression).
+	 */
+	public void setSpeculative(boolean speculative)
+	{
+		if (speculative)
+		{
+			this.speculative++;
+		}
+		else
+		{
+			this.speculative--;
+		}
+	}
+
+	public boolean isSpeculative()
+	{
+		return speculative > 0;
+	}
+
+	public void setImpure()
+	{
+		impure = true;
+	}
+
+	public boolean isImpure()
+	{
+		return impure;
+	}
+
+	/**
+	 * Count a FastBreakpoint check, returning true once in every interval checks.
+	 * The count is per thread, so that threads do not contend for it.
+	 */
+	public boolean fastCheck(int interval)
+	{
+		if (++fastChecks >= interval)
+		{
+			fastChecks = 0;
+			return true;
+		}
+
+		return false;
+	}
 }
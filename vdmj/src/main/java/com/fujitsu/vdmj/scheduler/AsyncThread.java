@@ -70,6 +70,12 @@ public class AsyncThread extends SchedulableThread
 		this.request = request;
 	}
 
+	@Override
+	protected boolean isCarried()
+	{
+		return true;
+	}
+
 	@Override
 	protected void body()
 	{
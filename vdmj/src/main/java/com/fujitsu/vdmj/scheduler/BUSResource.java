@@ -27,6 +27,7 @@ import java.util.LinkedList;
 import java.util.List;
 
 import com.fujitsu.vdmj.messages.RTLogger;
+import com.fujitsu.vdmj.messages.rtlog.RTEventKind;
 
 public class BUSResource extends Resource
 {
@@ -83,10 +84,8 @@ public class BUSResource extends Resource
 
 		if (busNumber != 0)
 		{
-    		RTLogger.log(
-    			"BUSdecl -> id: " + busNumber +
-    			" topo: " + cpusToSet() +
-    			" name: \"" + name + "\"");
+    		RTLogger.log(RTEventKind.BUS_DECL,
+    			busNumber, cpusToSet(), name);
 		}
 	}
 
@@ -146,15 +145,10 @@ public class BUSResource extends Resource
 
 	public void transmit(MessageRequest request)
 	{
-		RTLogger.log(
-			"MessageRequest -> busid: " + request.bus.getNumber() +
-			" fromcpu: " + request.from.getNumber() +
-			" tocpu: " + request.to.getNumber() +
-			" msgid: " + request.msgId +
-			" callthr: " + request.thread.getId() +
-			" opname: " + "\"" + request.operation.name + "\"" +
-			" objref: " + request.target.objectReference +
-			" size: " + request.getSize());
+		RTLogger.log(RTEventKind.MESSAGE_REQUEST,
+			request.bus.getNumber(), request.from.getNumber(), request.to.getNumber(),
+			request.msgId, request.thread.getId(), request.operation.name,
+			request.target.objectReference, request.getSize());
 
 		messages.add(request);
 		cq.stim();
@@ -162,15 +156,10 @@ public class BUSResource extends Resource
 
 	public void reply(MessageResponse response)
 	{
-		RTLogger.log(
-			"ReplyRequest -> busid: " + response.bus.getNumber() +
-			" fromcpu: " + response.from.getNumber() +
-			" tocpu: " + response.to.getNumber() +
-			" msgid: " + response.msgId +
-			" origmsgid: " + response.originalId +
-			" callthr: " + response.caller.getId() +
-			" calleethr: " + response.thread.getId() +
-			" size: " + response.getSize());
+		RTLogger.log(RTEventKind.REPLY_REQUEST,
+			response.bus.getNumber(), response.from.getNumber(), response.to.getNumber(),
+			response.msgId, response.originalId, response.caller.getId(),
+			response.thread.getId(), response.getSize());
 
 		messages.add(response);
 		cq.stim();
@@ -189,8 +178,7 @@ public class BUSResource extends Resource
 
     		MessagePacket m = messages.remove(0);
 
-    		RTLogger.log(
-				"MessageActivate -> msgid: " + m.msgId);
+    		RTLogger.log(RTEventKind.MESSAGE_ACTIVATE, m.msgId);
 
     		if (m instanceof MessageRequest)
     		{
@@ -218,8 +206,7 @@ public class BUSResource extends Resource
     			mr.replyTo.set(mr);
     		}
 
-    		RTLogger.log(
-				"MessageCompleted -> msgid: " + m.msgId);
+    		RTLogger.log(RTEventKind.MESSAGE_COMPLETED, m.msgId);
 		}
 	}
 
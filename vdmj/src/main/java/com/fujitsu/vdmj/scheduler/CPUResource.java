@@ -24,6 +24,7 @@
 package com.fujitsu.vdmj.scheduler;
 
 import com.fujitsu.vdmj.messages.RTLogger;
+import com.fujitsu.vdmj.messages.rtlog.RTEventKind;
 import com.fujitsu.vdmj.values.ObjectValue;
 
 public class CPUResource extends Resource
@@ -86,31 +87,21 @@ public class CPUResource extends Resource
 			{
 				if (swappedIn != null)
 				{
-	    			RTLogger.log(
-	    				"ThreadSwapOut -> id: " + swappedIn.getId() +
-	    				objRefString(swappedIn.getObject()) +
-	    				" cpunm: " + cpuNumber +
-	    				" overhead: " + 0);
+	    			RTLogger.log(RTEventKind.THREAD_SWAP_OUT,
+	    				swappedIn.getId(), objref(swappedIn), clnm(swappedIn), cpuNumber, 0);
 				}
 
 				long delay = SystemClock.getWallTime() - best.getSwapInBy();
 
 				if (best.getSwapInBy() > 0 && delay > 0)
 				{
-		        	RTLogger.log(
-		        		"DelayedThreadSwapIn -> id: " + best.getId() +
-		        		objRefString(best.getObject()) +
-		        		" delay: " + delay +
-		        		" cpunm: " + cpuNumber +
-		        		" overhead: " + 0);
+		        	RTLogger.log(RTEventKind.DELAYED_THREAD_SWAP_IN,
+		        		best.getId(), objref(best), clnm(best), delay, cpuNumber, 0);
 				}
 				else
 				{
-    				RTLogger.log(
-    					"ThreadSwapIn -> id: " + best.getId() +
-    					objRefString(best.getObject()) +
-    					" cpunm: " + cpuNumber +
-    					" overhead: " + 0);
+    				RTLogger.log(RTEventKind.THREAD_SWAP_IN,
+    					best.getId(), objref(best), clnm(best), cpuNumber, 0);
 				}
 			}
 
@@ -120,15 +111,11 @@ public class CPUResource extends Resource
 			switch (swappedIn.getRunState())
 			{
 				case COMPLETE:
-        			RTLogger.log(
-        				"ThreadSwapOut -> id: " + swappedIn.getId() +
-        				objRefString(swappedIn.getObject()) +
-        				" cpunm: " + cpuNumber +
-        				" overhead: " + 0);
+        			RTLogger.log(RTEventKind.THREAD_SWAP_OUT,
+        				swappedIn.getId(), objref(swappedIn), clnm(swappedIn), cpuNumber, 0);
 
-        			RTLogger.log(
-    					"ThreadKill -> id: " + swappedIn.getId() +
-    					" cpunm: " + cpuNumber);
+        			RTLogger.log(RTEventKind.THREAD_KILL,
+        				swappedIn.getId(), cpuNumber);
 
         			swappedIn = null;
         			return true;	// We may be able to run other threads
@@ -177,26 +164,26 @@ public class CPUResource extends Resource
 
 	public void createThread(SchedulableThread th)
 	{
-		RTLogger.log(
-			"ThreadCreate -> id: " + th.getId() +
-			" period: " + th.isPeriodic() +
-			objRefString(th.getObject()) +
-			" cpunm: " + cpuNumber);
+		RTLogger.log(RTEventKind.THREAD_CREATE,
+			th.getId(), th.isPeriodic(), objref(th), clnm(th), cpuNumber);
 	}
 
 	public void deploy(ObjectValue object)
 	{
-		RTLogger.log(
-			"DeployObj -> objref: " + object.objectReference +
-			" clnm: \"" + object.type + "\"" +
-			" cpunm: " + cpuNumber);
+		RTLogger.log(RTEventKind.DEPLOY_OBJ,
+			object.objectReference, object.type.toString(), cpuNumber);
 	}
 
-	private String objRefString(ObjectValue obj)
+	private Integer objref(SchedulableThread th)
 	{
-		return
-			" objref: " + (obj == null ? "nil" : obj.objectReference) +
-			" clnm: " + (obj == null ? "nil" : ("\"" + obj.type + "\""));
+		ObjectValue obj = th.getObject();
+		return obj == null ? null : obj.objectReference;
+	}
+
+	private String clnm(SchedulableThread th)
+	{
+		ObjectValue obj = th.getObject();
+		return obj == null ? null : obj.type.toString();
 	}
 
 	public long getCyclesDuration(long cycles)
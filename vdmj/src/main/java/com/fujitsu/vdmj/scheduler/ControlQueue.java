@@ -46,7 +46,7 @@ public class ControlQueue implements Serializable
 
 	public void join(Context ctxt, LexLocation location)
 	{
-		SchedulableThread th = (SchedulableThread)Thread.currentThread();
+		SchedulableThread th = SchedulableThread.current();
 
 		if (joined != null && joined != th)
 		{
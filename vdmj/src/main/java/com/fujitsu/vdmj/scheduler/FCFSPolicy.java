@@ -23,34 +23,105 @@
 
 package com.fujitsu.vdmj.scheduler;
 
-import java.util.LinkedList;
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.Vector;
 
 import com.fujitsu.vdmj.config.Properties;
 import com.fujitsu.vdmj.values.TransactionValue;
 
+/**
+ * A first come, first served policy. Threads are held in a scheduling order, where
+ * the thread that last ran is at the end. The policy is told of every change of
+ * thread state, so that the runnable threads, the threads at a timestep and the
+ * threads waiting for an alarm are held in their own ordered sets. This means that
+ * finding the next thread to run or the next alarm is O(log n) rather than a scan
+ * of all the threads on the resource.
+ *
+ * Note that the policy lock is taken by stateChanged, which is called with the
+ * thread's lock held. So the policy must never call a synchronized thread method
+ * while holding its own lock.
+ */
 public class FCFSPolicy extends SchedulingPolicy
 {
     private static final long serialVersionUID = 1L;
-	protected final List<SchedulableThread> threads;
+	protected final TreeMap<Long, SchedulableThread> threads;	// In scheduling order
 	protected SchedulableThread bestThread = null;
 	protected Random PRNG = null;
 
+	private final Map<SchedulableThread, Long> order;
+	private final Map<SchedulableThread, Long> wakeTimes;
+	private final TreeSet<SchedulableThread> runnable;
+	private final TreeSet<SchedulableThread> timesteps;
+	private final TreeSet<SchedulableThread> alarms;
+	private final Set<SchedulableThread> active;
+	private long lastOrder = 0;
+
 	private SchedulableThread durationThread = null;
 
 	public FCFSPolicy()
 	{
-		threads = new LinkedList<SchedulableThread>();
+		threads = new TreeMap<Long, SchedulableThread>();
+		order = new HashMap<SchedulableThread, Long>();
+		wakeTimes = new HashMap<SchedulableThread, Long>();
+		runnable = new TreeSet<SchedulableThread>(new OrderComparator());
+		timesteps = new TreeSet<SchedulableThread>(new OrderComparator());
+		alarms = new TreeSet<SchedulableThread>(new AlarmComparator());
+		active = new HashSet<SchedulableThread>();
 		PRNG = new Random();	// NB deliberately non-deterministic!
 	}
 
+	/**
+	 * Threads in scheduling order.
+	 */
+	private class OrderComparator implements Comparator<SchedulableThread>, Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public int compare(SchedulableThread a, SchedulableThread b)
+		{
+			return Long.compare(order.get(a), order.get(b));
+		}
+	}
+
+	/**
+	 * Threads in order of their alarm wake time, then scheduling order.
+	 */
+	private class AlarmComparator implements Comparator<SchedulableThread>, Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public int compare(SchedulableThread a, SchedulableThread b)
+		{
+			int c = Long.compare(wakeTimes.get(a), wakeTimes.get(b));
+			return c != 0 ? c : Long.compare(order.get(a), order.get(b));
+		}
+	}
+
 	@Override
 	public void reset()
 	{
 		synchronized (threads)
 		{
 			threads.clear();
+			runnable.clear();
+			timesteps.clear();
+			alarms.clear();
+			order.clear();
+			wakeTimes.clear();
+			active.clear();
+			lastOrder = 0;
 		}
 
 		bestThread = null;
@@ -65,15 +136,16 @@ public class FCFSPolicy extends SchedulingPolicy
 			// The last thread is the one currently running, so insert ahead of this
 			// one so that the new thread is scheduled before the current one is
 			// next scheduled.
-			int count = threads.size();
-			
-			if (count == 0)
+
+			if (threads.isEmpty())
 			{
-				threads.add(thread);
+				setOrder(thread, ++lastOrder);
 			}
 			else
 			{
-				threads.add(count - 1, thread);
+				Entry<Long, SchedulableThread> last = threads.lastEntry();
+				setOrder(last.getValue(), ++lastOrder);
+				setOrder(thread, last.getKey());
 			}
 		}
 	}
@@ -83,8 +155,12 @@ public class FCFSPolicy extends SchedulingPolicy
 	{
 		synchronized (threads)
 		{
-			threads.remove(thread);
-			
+			if (order.containsKey(thread))
+			{
+				unindexThread(thread);
+				threads.remove(order.remove(thread));
+			}
+
 			if (durationThread == thread)
 			{
 				durationThread = null;
@@ -92,6 +168,90 @@ public class FCFSPolicy extends SchedulingPolicy
 		}
 	}
 
+	@Override
+	public void stateChanged(SchedulableThread thread, RunState newstate)
+	{
+		super.stateChanged(thread, newstate);
+
+		synchronized (threads)
+		{
+			if (order.containsKey(thread))
+			{
+				unindexThread(thread);
+				indexThread(thread, newstate);
+			}
+		}
+	}
+
+	/**
+	 * Move a thread to a new position in the scheduling order.
+	 */
+	private void setOrder(SchedulableThread thread, long position)
+	{
+		Long previous = order.get(thread);
+		boolean isRunnable = false;
+		boolean isTimestep = false;
+		boolean isAlarm = false;
+
+		if (previous != null)
+		{
+			// Sets must be updated while the old order is still in place
+
+			isRunnable = runnable.remove(thread);
+			isTimestep = timesteps.remove(thread);
+			isAlarm = wakeTimes.containsKey(thread) && alarms.remove(thread);
+			threads.remove(previous);
+		}
+
+		order.put(thread, position);
+		threads.put(position, thread);
+
+		if (isRunnable) runnable.add(thread);
+		if (isTimestep) timesteps.add(thread);
+		if (isAlarm) alarms.add(thread);
+	}
+
+	private void indexThread(SchedulableThread thread, RunState state)
+	{
+		switch (state)
+		{
+			case RUNNABLE:
+				runnable.add(thread);
+				break;
+
+			case TIMESTEP:
+				timesteps.add(thread);
+				active.add(thread);
+				break;
+
+			case WAITING:
+				active.add(thread);
+				break;
+
+			case ALARM:
+				// Called with the thread's lock held, via stateChanged
+				wakeTimes.put(thread, thread.getAlarmWakeTime());
+				alarms.add(thread);
+				break;
+
+			default:
+				break;
+		}
+	}
+
+	private void unindexThread(SchedulableThread thread)
+	{
+		runnable.remove(thread);
+		timesteps.remove(thread);
+		active.remove(thread);
+
+		if (wakeTimes.containsKey(thread))
+		{
+			alarms.remove(thread);
+			wakeTimes.remove(thread);
+		}
+	}
+
 	@Override
 	public boolean reschedule()
 	{
@@ -106,23 +266,12 @@ public class FCFSPolicy extends SchedulingPolicy
 
 		synchronized (threads)
 		{
-    		for (SchedulableThread th: threads)
-    		{
-    			switch (th.getRunState())
-    			{
-    				case RUNNABLE:
-        				bestThread = th;
-        				threads.remove(th);
-        				threads.add(th);
-        				return true;
-
-    				case TIMESTEP:
-    				case WAITING:
-    				case LOCKING:
-    				default:
-    					break;
-    			}
-    		}
+			if (!runnable.isEmpty())
+			{
+				bestThread = runnable.first();
+				setOrder(bestThread, ++lastOrder);		// Move to the end
+				return true;
+			}
 		}
 
 		return false;
@@ -142,7 +291,7 @@ public class FCFSPolicy extends SchedulingPolicy
 	{
 		long slice = 0;
 
-		if (bestThread.isVirtual())
+		if (bestThread.isVirtualCPU())
 		{
 			slice = Properties.scheduler_virtual_timeslice;
 		}
@@ -163,70 +312,63 @@ public class FCFSPolicy extends SchedulingPolicy
 	@Override
 	public long timeToNextAlarm()
 	{
-		long minTime = Long.MAX_VALUE;
 		long now = SystemClock.getWallTime();
 
 		synchronized (threads)
 		{
-    		for (SchedulableThread th: threads)
-    		{
-    			switch (th.getRunState())
-    			{
-     				case ALARM:
-    					long delay = th.getAlarmWakeTime() - now;
-
-    					if (delay < 0)
-    					{
-    						delay = 0;	// Time has past
-    					}
-
-    					if (delay < minTime)
-    					{
-    						minTime = delay;
-    					}
-     					break;
-
-        			default:
-        				break;
-    			}
-    		}
-		}
+			if (alarms.isEmpty())
+			{
+				return Long.MAX_VALUE;
+			}
 
-		return minTime;
+			long delay = wakeTimes.get(alarms.first()) - now;
+			return delay < 0 ? 0 : delay;	// Time may have past
+		}
 	}
 
 	@Override
 	public void advance()
 	{
+		List<SchedulableThread> stepped = new Vector<SchedulableThread>();
+		List<SchedulableThread> woken = new Vector<SchedulableThread>();
+		long now = SystemClock.getWallTime();
+
 		synchronized (threads)
 		{
-    		for (SchedulableThread th: threads)
-    		{
-    			switch (th.getRunState())
-    			{
-    				case TIMESTEP:
-        				durationThread = th;
-        				th.setState(RunState.RUNNABLE);
-
-        				if (Properties.rt_duration_transactions &&
-        					th.getDurationEnd() == SystemClock.getWallTime())
-        				{
-        					TransactionValue.commitOne(th.getId());
-        				}
-        				break;
-
-    				case ALARM:
-    					if (th.getAlarmWakeTime() <= SystemClock.getWallTime())
-    					{
-    						th.clearAlarm();	// Time to wake up!
-    						th.setState(RunState.RUNNABLE);
-    					}
-    					break;
-
-        			default:
-        				break;
-    			}
-    		}
+			stepped.addAll(timesteps);
+
+			if (!stepped.isEmpty())
+			{
+				durationThread = stepped.get(stepped.size() - 1);
+			}
+
+			for (SchedulableThread th: alarms)
+			{
+				if (wakeTimes.get(th) > now)
+				{
+					break;
+				}
+
+				woken.add(th);
+			}
+		}
+
+		// The thread states are changed outside the policy lock, as above.
+
+		for (SchedulableThread th: stepped)
+		{
+			th.setState(RunState.RUNNABLE);
+
+			if (Properties.rt_duration_transactions && th.getDurationEnd() == now)
+			{
+				TransactionValue.commitOne(th.getId());
+			}
+		}
+
+		for (SchedulableThread th: woken)
+		{
+			th.clearAlarm();	// Time to wake up!
+			th.setState(RunState.RUNNABLE);
 		}
 	}
 
@@ -235,16 +377,8 @@ public class FCFSPolicy extends SchedulingPolicy
 	{
 		synchronized (threads)
 		{
-    		for (SchedulableThread th: threads)
-    		{
-    			if (th.isActive())
-    			{
-    				return true;
-    			}
-    		}
+			return !active.isEmpty();
 		}
-
-		return false;
 	}
 
 	@Override
@@ -259,11 +393,14 @@ public class FCFSPolicy extends SchedulingPolicy
 		StringBuilder sb = new StringBuilder();
 		String sep = "";
 
-		for (SchedulableThread th: threads)
+		synchronized (threads)
 		{
-			sb.append(sep);
-			sb.append(th);
-			sep = "\n";
+			for (SchedulableThread th: threads.values())
+			{
+				sb.append(sep);
+				sb.append(th);
+				sep = "\n";
+			}
 		}
 
 		return sb.toString();
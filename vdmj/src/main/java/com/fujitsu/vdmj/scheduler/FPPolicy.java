@@ -52,7 +52,7 @@ public class FPPolicy extends FCFSPolicy
 
 		priorities.put(thread,
 			priority == 0 ?	Properties.scheduler_fcfs_timeslice :
-			thread.isVirtual() ? Properties.scheduler_virtual_timeslice :
+			thread.isVirtualCPU() ? Properties.scheduler_virtual_timeslice :
 			priority);
 	}
 
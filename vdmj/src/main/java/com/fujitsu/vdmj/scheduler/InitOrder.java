@@ -0,0 +1,328 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.scheduler;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Stack;
+import java.util.Vector;
+
+import com.fujitsu.vdmj.in.definitions.INClassDefinition;
+import com.fujitsu.vdmj.in.definitions.INClassList;
+import com.fujitsu.vdmj.in.definitions.INDefinition;
+import com.fujitsu.vdmj.in.definitions.INImportedDefinition;
+import com.fujitsu.vdmj.in.definitions.INRenamedDefinition;
+import com.fujitsu.vdmj.in.definitions.INValueDefinition;
+import com.fujitsu.vdmj.in.modules.INModule;
+import com.fujitsu.vdmj.in.modules.INModuleList;
+import com.fujitsu.vdmj.tc.lex.TCNameList;
+import com.fujitsu.vdmj.tc.lex.TCNameSet;
+import com.fujitsu.vdmj.tc.lex.TCNameToken;
+
+/**
+ * The order in which the InitThread initializes module values or classes, using the
+ * free variable dependencies found by the type checker's cyclic dependency check.
+ * Items are sorted into levels, where every item only depends on items in earlier
+ * levels. So one pass through the levels initializes everything, and the items in
+ * one level are independent of each other. Items that are part of a cycle cannot
+ * be placed, and are listed separately.
+ */
+public class InitOrder<T>
+{
+	private final List<T> items = new Vector<T>();
+	private final Map<T, TCNameList> defines = new IdentityHashMap<T, TCNameList>();
+	private final Map<T, TCNameSet> uses = new IdentityHashMap<T, TCNameSet>();
+
+	private final List<List<T>> levels = new Vector<List<T>>();
+	private final List<T> cyclic = new Vector<T>();
+
+	private InitOrder()
+	{
+		// Use the static methods below
+	}
+
+	/**
+	 * Order the value definitions of a list of modules, including renamed imports,
+	 * which depend on the definition that they rename. Nothing else is evaluated
+	 * when a module is initialized, so everything else can be initialized first.
+	 */
+	public static InitOrder<INDefinition> forModules(INModuleList modules,
+		Map<TCNameToken, TCNameSet> dependencies)
+	{
+		InitOrder<INDefinition> order = new InitOrder<INDefinition>();
+
+		for (INModule m: modules)
+		{
+			for (INDefinition d: m.importdefs)
+			{
+				if (d instanceof INRenamedDefinition)
+				{
+					INDefinition def = ((INRenamedDefinition)d).def;
+
+					while (def instanceof INImportedDefinition)
+					{
+						def = ((INImportedDefinition)def).def;
+					}
+
+					// References to the renamed name are resolved to the original
+					// by the type checker, so the renamed value defines both.
+
+					TCNameList names = new TCNameList(d.name);
+					TCNameSet used = new TCNameSet();
+
+					if (def.name != null)
+					{
+						names.add(def.name);
+						used.add(def.name);
+					}
+
+					order.add(d, names, used);
+				}
+			}
+
+			for (INDefinition d: m.defs)
+			{
+				if (d instanceof INValueDefinition)
+				{
+					INValueDefinition vdef = (INValueDefinition)d;
+					order.add(d, vdef.pattern.getVariableNames(), new TCNameSet());
+				}
+			}
+		}
+
+		order.sort(dependencies);
+		return order;
+	}
+
+	/**
+	 * Order a list of classes by the dependencies of their static values and
+	 * static instance variables.
+	 */
+	public static InitOrder<INClassDefinition> forClasses(INClassList classes,
+		Map<TCNameToken, TCNameSet> dependencies)
+	{
+		InitOrder<INClassDefinition> order = new InitOrder<INClassDefinition>();
+
+		for (INClassDefinition cdef: classes)
+		{
+			TCNameList names = new TCNameList();
+
+			for (INDefinition d: cdef.definitions)
+			{
+				if (d instanceof INValueDefinition)
+				{
+					names.addAll(((INValueDefinition)d).pattern.getVariableNames());
+				}
+				else if (d.isInstanceVariable() && d.isStatic())
+				{
+					names.add(d.name);
+				}
+			}
+
+			order.add(cdef, names, new TCNameSet());
+		}
+
+		order.sort(dependencies);
+		return order;
+	}
+
+	private void add(T item, TCNameList names, TCNameSet used)
+	{
+		items.add(item);
+		defines.put(item, names);
+		uses.put(item, used);
+	}
+
+	/**
+	 * Find the items that each item depends on, by following the dependencies of
+	 * the names it defines or uses through any names that are not defined by an
+	 * item (like functions). Then place every item one level after the highest
+	 * level of the items it depends on, in the original order within each level.
+	 */
+	private void sort(Map<TCNameToken, TCNameSet> dependencies)
+	{
+		Map<TCNameToken, List<T>> owners = new HashMap<TCNameToken, List<T>>();
+
+		for (T item: items)
+		{
+			for (TCNameToken name: defines.get(item))
+			{
+				List<T> list = owners.get(name);
+
+				if (list == null)
+				{
+					list = new Vector<T>();
+					owners.put(name, list);
+				}
+
+				list.add(item);
+			}
+		}
+
+		Map<T, Set<T>> after = new IdentityHashMap<T, Set<T>>();
+
+		for (T item: items)
+		{
+			Set<T> previous = Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
+			Stack<TCNameToken> stack = new Stack<TCNameToken>();
+			TCNameSet visited = new TCNameSet();
+
+			stack.addAll(uses.get(item));
+
+			for (TCNameToken name: defines.get(item))
+			{
+				TCNameSet freevars = dependencies.get(name);
+
+				if (freevars != null)
+				{
+					stack.addAll(freevars);
+				}
+			}
+
+			while (!stack.isEmpty())
+			{
+				TCNameToken name = stack.pop();
+
+				if (visited.add(name))
+				{
+					List<T> list = owners.get(name);
+
+					if (list == null)
+					{
+						TCNameSet freevars = dependencies.get(name);
+
+						if (freevars != null)
+						{
+							stack.addAll(freevars);
+						}
+					}
+					else
+					{
+						for (T owner: list)
+						{
+							if (owner != item)
+							{
+								previous.add(owner);
+							}
+						}
+					}
+				}
+			}
+
+			after.put(item, previous);
+		}
+
+		Map<T, Integer> placed = new IdentityHashMap<T, Integer>();
+		boolean progress = true;
+
+		while (progress)
+		{
+			progress = false;
+
+			for (T item: items)
+			{
+				if (!placed.containsKey(item))
+				{
+					int level = 0;
+					boolean ready = true;
+
+					for (T other: after.get(item))
+					{
+						Integer olevel = placed.get(other);
+
+						if (olevel == null)
+						{
+							ready = false;
+							break;
+						}
+
+						level = Math.max(level, olevel + 1);
+					}
+
+					if (ready)
+					{
+						while (levels.size() <= level)
+						{
+							levels.add(new Vector<T>());
+						}
+
+						levels.get(level).add(item);
+						placed.put(item, level);
+						progress = true;
+					}
+				}
+			}
+		}
+
+		for (T item: items)
+		{
+			if (!placed.containsKey(item))
+			{
+				cyclic.add(item);
+			}
+		}
+	}
+
+	public boolean contains(T item)
+	{
+		return defines.containsKey(item);
+	}
+
+	/**
+	 * The levels of items. Every item only depends on items in earlier levels.
+	 */
+	public List<List<T>> getLevels()
+	{
+		return levels;
+	}
+
+	/**
+	 * Items that could not be placed in a level, because of a cyclic dependency.
+	 */
+	public List<T> getCyclic()
+	{
+		return cyclic;
+	}
+
+	/**
+	 * All of the items, in level order, followed by any cyclic ones.
+	 */
+	public List<T> getOrdered()
+	{
+		List<T> ordered = new Vector<T>(items.size());
+
+		for (List<T> level: levels)
+		{
+			ordered.addAll(level);
+		}
+
+		ordered.addAll(cyclic);
+		return ordered;
+	}
+}
@@ -25,22 +25,32 @@ package com.fujitsu.vdmj.scheduler;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.Vector;
 
 import com.fujitsu.vdmj.Settings;
+import com.fujitsu.vdmj.config.Properties;
 import com.fujitsu.vdmj.debug.DebugLink;
 import com.fujitsu.vdmj.in.definitions.INClassDefinition;
 import com.fujitsu.vdmj.in.definitions.INClassList;
+import com.fujitsu.vdmj.in.definitions.INDefinition;
+import com.fujitsu.vdmj.in.definitions.INStateDefinition;
 import com.fujitsu.vdmj.in.modules.INModule;
 import com.fujitsu.vdmj.in.modules.INModuleList;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.messages.Console;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ContextException;
+import com.fujitsu.vdmj.runtime.ParallelEvaluator;
 import com.fujitsu.vdmj.runtime.StateContext;
 import com.fujitsu.vdmj.tc.lex.TCIdentifierToken;
+import com.fujitsu.vdmj.tc.lex.TCNameSet;
 import com.fujitsu.vdmj.tc.lex.TCNameToken;
 import com.fujitsu.vdmj.values.CPUValue;
+import com.fujitsu.vdmj.values.NameValuePairList;
 import com.fujitsu.vdmj.values.TransactionValue;
 
 /**
@@ -53,28 +63,46 @@ public class InitThread extends SchedulableThread
 	private final INModuleList modules;
 	private final INClassList classes;
 	private final Context globalContext;
+	private final Map<TCNameToken, TCNameSet> dependencies;
 	private Exception exception = null;
 
 
 	public InitThread(INModuleList modules, Context ctxt)
+	{
+		this(modules, ctxt, null);
+	}
+
+	public InitThread(INClassList classes, Context ctxt)
+	{
+		this(classes, ctxt, null);
+	}
+
+	/**
+	 * The dependencies are those found by the type checker, which allow definitions
+	 * to be initialized in order. Otherwise (if null), we retry initializations that
+	 * fail because of forward references.
+	 */
+	public InitThread(INModuleList modules, Context ctxt, Map<TCNameToken, TCNameSet> dependencies)
 	{
 		super(CPUResource.vCPU, null, 0, false, 0);
 
 		this.modules = modules;
 		this.classes = null;
 		this.globalContext = ctxt;
+		this.dependencies = dependencies;
 		this.exception = null;
 
 		setName("InitThread");
 	}
 
-	public InitThread(INClassList classes, Context ctxt)
+	public InitThread(INClassList classes, Context ctxt, Map<TCNameToken, TCNameSet> dependencies)
 	{
 		super(CPUResource.vCPU, null, 0, false, 0);
 
 		this.classes = classes;
 		this.modules = null;
 		this.globalContext = ctxt;
+		this.dependencies = dependencies;
 		this.exception = null;
 
 		setName("InitThread");
@@ -146,7 +174,20 @@ public class InitThread extends SchedulableThread
 		boolean exceptions = Settings.exceptions;
 		Settings.exceptions = false;
 
-		do
+		boolean retry = true;
+
+		if (dependencies != null)
+		{
+			initializeInOrder(initialContext, problems, passed);
+			retry = isForwardReference(problems);	// Otherwise all done, or real errors
+
+			if (retry && Settings.verbose)
+			{
+				Console.out.println("Ordered initialization incomplete, retrying");
+			}
+		}
+
+		while (retry)
 		{
 			lastProblemCount = problems.isEmpty() ? Integer.MAX_VALUE : problems.size();
 			problems.clear();
@@ -199,8 +240,9 @@ public class InitThread extends SchedulableThread
 			{
 				retries--;
 			}
+
+        	retry = (retries > 0 || problems.size() < lastProblemCount) && !problems.isEmpty();
 		}
-		while ((retries > 0 || problems.size() < lastProblemCount) && !problems.isEmpty());
 
 		if (!problems.isEmpty())
 		{
@@ -246,13 +288,23 @@ public class InitThread extends SchedulableThread
 		boolean exceptions = Settings.exceptions;
 		Settings.exceptions = false;
 
+		// If we know the dependencies, the first pass is in dependency order, so
+		// retries are only needed for cycles between classes.
+
+		List<INClassDefinition> ordered = classes;
+
+		if (dependencies != null)
+		{
+			ordered = InitOrder.forClasses(classes, dependencies).getOrdered();
+		}
+
 		do
 		{
 			lastProblemCount = trouble.isEmpty() ? Integer.MAX_VALUE : trouble.size();
 			failed = null;
 			trouble.clear();
 
-    		for (INClassDefinition cdef: classes)
+    		for (INClassDefinition cdef: ordered)
     		{
 				if (passed.contains(cdef.name))
 				{
@@ -339,6 +391,180 @@ public class InitThread extends SchedulableThread
 		Settings.exceptions = exceptions;
 	}
 
+	/**
+	 * Initialize modules in dependency order. The definitions that do not evaluate
+	 * anything (like functions) are created first, then the values in order, and
+	 * finally the module states. Any problems are added to the set passed, and the
+	 * modules without problems are added to the passed set.
+	 */
+	private void initializeInOrder(StateContext initialContext,
+		Set<ContextException> problems, Set<TCIdentifierToken> passed)
+	{
+		InitOrder<INDefinition> order = InitOrder.forModules(modules, dependencies);
+		Map<INDefinition, TCIdentifierToken> owners = new IdentityHashMap<INDefinition, TCIdentifierToken>();
+		Set<TCIdentifierToken> failed = new HashSet<TCIdentifierToken>();
+
+		for (INModule m: modules)
+		{
+			for (INDefinition d: m.importdefs)
+			{
+				if (order.contains(d))
+				{
+					owners.put(d, m.name);
+				}
+			}
+
+			for (INDefinition d: m.defs)
+			{
+				if (order.contains(d))
+				{
+					owners.put(d, m.name);
+				}
+				else
+				{
+					try
+					{
+						initialContext.putList(d.getNamedValues(initialContext));
+					}
+					catch (ContextException e)
+					{
+						if (isFatal(e, problems))
+						{
+							return;
+						}
+
+						failed.add(m.name);
+					}
+				}
+			}
+		}
+
+		List<List<INDefinition>> levels = new Vector<List<INDefinition>>(order.getLevels());
+		levels.add(order.getCyclic());
+
+		boolean parallel = Properties.in_parallel_init && ParallelEvaluator.isEnabled(initialContext);
+		int minimum = parallel ? 2 : Integer.MAX_VALUE;
+
+		for (int n=0; n<levels.size(); n++)
+		{
+			List<INDefinition> level = levels.get(n);
+			long before = System.currentTimeMillis();
+			List<Object> results = new Vector<Object>(level.size());
+
+			// The values in a level are independent, so they can be evaluated in parallel.
+			// Exceptions are returned as results, so that the order of errors is stable.
+
+			ParallelEvaluator.evaluate(level, initialContext, (d, ctxt) ->
+			{
+				try
+				{
+					return d.getNamedValues(ctxt);
+				}
+				catch (ContextException e)
+				{
+					return e;
+				}
+			},
+			null, results, minimum);
+
+			for (int i=0; i<level.size(); i++)
+			{
+				Object result = results.get(i);
+
+				if (result instanceof ContextException)
+				{
+					if (isFatal((ContextException)result, problems))
+					{
+						return;
+					}
+
+					failed.add(owners.get(level.get(i)));
+				}
+				else
+				{
+					initialContext.putList((NameValuePairList)result);
+				}
+			}
+
+			long after = System.currentTimeMillis();
+
+			if (Settings.verbose && (after-before) > 200)
+			{
+				Console.out.printf("Level %d: %d values = %.3f secs\n",
+					n, level.size(), (double)(after-before)/1000);
+			}
+		}
+
+		for (INModule m: modules)
+		{
+			try
+			{
+				INStateDefinition sdef = m.defs.findStateDefinition();
+
+				if (sdef != null)
+				{
+					sdef.initState(initialContext);
+				}
+			}
+			catch (ContextException e)
+			{
+				if (isFatal(e, problems))
+				{
+					return;
+				}
+
+				failed.add(m.name);
+			}
+
+			if (!failed.contains(m.name))
+			{
+				passed.add(m.name);
+			}
+		}
+
+		if (Settings.verbose && !problems.isEmpty())
+		{
+			Console.out.println("Ordered pass:");
+
+			for (ContextException e: problems)
+			{
+				Console.out.println(e.toString());
+			}
+		}
+	}
+
+	/**
+	 * Add a problem to the set, returning true if it stops the initialization.
+	 */
+	private boolean isFatal(ContextException e, Set<ContextException> problems)
+	{
+		if (e.isStackOverflow() || e.isUserCancel())
+		{
+			problems.clear();
+			problems.add(e);
+			return true;
+		}
+
+		problems.add(e);
+		return false;
+	}
+
+	/**
+	 * True if any of the problems could be caused by a forward reference.
+	 */
+	private boolean isForwardReference(Set<ContextException> problems)
+	{
+		for (ContextException e: problems)
+		{
+			if (e.number == 4034 || e.number == 6)
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	public void setException(Exception e)
 	{
 		exception = e;
@@ -24,9 +24,13 @@
 package com.fujitsu.vdmj.scheduler;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
+import com.fujitsu.vdmj.config.Properties;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.messages.InternalException;
 import com.fujitsu.vdmj.runtime.Context;
@@ -37,15 +41,32 @@ public class Lock implements Serializable
 	private SchedulableThread lockedBy = null;
 	private Set<SchedulableThread> waiters = new HashSet<SchedulableThread>();
 
+	/** The inputs that blocked waiters are waiting for, if they are known. */
+	private Map<SchedulableThread, Set<Object>> waitInputs = new HashMap<SchedulableThread, Set<Object>>();
+
+	/** The number of waiting threads that were not woken by signal(input), with diags_guards. */
+	private static final AtomicLong avoided = new AtomicLong();
+
 	public void reset()
 	{
 		lockedBy = null;
 		waiters.clear();
+		waitInputs.clear();
+	}
+
+	public static long getAvoidedWakeups()
+	{
+		return avoided.get();
+	}
+
+	public static void resetAvoidedWakeups()
+	{
+		avoided.set(0);
 	}
 
 	public void lock(Context ctxt, LexLocation location)
 	{
-		SchedulableThread th = (SchedulableThread)Thread.currentThread();
+		SchedulableThread th = SchedulableThread.current();
 
 		while (lockedBy != null && lockedBy != th)
 		{
@@ -72,7 +93,17 @@ public class Lock implements Serializable
 
 	public void block(Context ctxt, LexLocation location)
 	{
-		SchedulableThread th = (SchedulableThread)Thread.currentThread();
+		block(ctxt, location, null);
+	}
+
+	/**
+	 * Release the lock and wait for a signal, then re-acquire the lock. If the
+	 * inputs are given, only signal() or a signal(input) for one of them will
+	 * wake the thread. Otherwise any signal will wake it.
+	 */
+	public void block(Context ctxt, LexLocation location, Set<Object> inputs)
+	{
+		SchedulableThread th = SchedulableThread.current();
 
 		if (lockedBy != null && lockedBy != th)
 		{
@@ -97,6 +128,11 @@ public class Lock implements Serializable
 			synchronized (waiters)
 			{
 				waiters.add(th);
+
+				if (inputs != null)
+				{
+					waitInputs.put(th, inputs);
+				}
 			}
 
 			try
@@ -108,8 +144,16 @@ public class Lock implements Serializable
 				synchronized (waiters)
 				{
 					waiters.remove(th);
+					waitInputs.remove(th);
 				}
 			}
+
+			// The thread has been woken for its guard, and the caller re-evaluates
+			// the guard once block returns. If the lock was taken by another thread
+			// in the meantime, the thread only waits for that to be released. Any
+			// signal must wake it for that, so its inputs no longer apply.
+
+			inputs = null;
 		}
 		while (lockedBy != null);
 
@@ -121,9 +165,18 @@ public class Lock implements Serializable
 		signalAll();
 	}
 
+	/**
+	 * Signal that the input given has changed. This only wakes the waiters that
+	 * are waiting for that input, or whose inputs are not known.
+	 */
+	public void signal(Object input)
+	{
+		signalWaiting(input);
+	}
+
 	public void unlock()
 	{
-		SchedulableThread th = (SchedulableThread)Thread.currentThread();
+		SchedulableThread th = SchedulableThread.current();
 
 		if (lockedBy != null && lockedBy != th)
 		{
@@ -131,7 +184,7 @@ public class Lock implements Serializable
 		}
 
 		lockedBy = null;
-		signalAll();
+		signalWaiting(null);	// No inputs have changed
 	}
 
 	private void signalAll()
@@ -144,4 +197,24 @@ public class Lock implements Serializable
 			}
 		}
 	}
+
+	private void signalWaiting(Object input)
+	{
+		synchronized (waiters)
+		{
+			for (SchedulableThread th: waiters)
+			{
+				Set<Object> inputs = waitInputs.get(th);
+
+				if (inputs == null || (input != null && inputs.contains(input)))
+				{
+					th.setState(RunState.RUNNABLE);
+				}
+				else if (Properties.diags_guards && th.getRunState() == RunState.WAITING)
+				{
+					avoided.incrementAndGet();
+				}
+			}
+		}
+	}
 }
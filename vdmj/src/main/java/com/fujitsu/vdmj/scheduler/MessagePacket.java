@@ -47,7 +47,7 @@ public abstract class MessagePacket implements Serializable
 		ObjectValue target, OperationValue operation)
 	{
 		this.msgId = getNextId();
-		this.thread = (SchedulableThread)Thread.currentThread();
+		this.thread = SchedulableThread.current();
 		this.bus = bus;
 		this.from = from;
 		this.to = to;
@@ -71,6 +71,12 @@ public class ObjectThread extends SchedulableThread
 		return (int)getId();
 	}
 
+	@Override
+	protected boolean isCarried()
+	{
+		return true;
+	}
+
 	@Override
 	public void body()
 	{
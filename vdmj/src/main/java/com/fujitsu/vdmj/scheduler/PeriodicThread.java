@@ -115,6 +115,12 @@ public class PeriodicThread extends SchedulableThread
 		alarming(wakeUpTime);
 	}
 
+	@Override
+	protected boolean isCarried()
+	{
+		return true;
+	}
+
 	@Override
 	protected void body()
 	{
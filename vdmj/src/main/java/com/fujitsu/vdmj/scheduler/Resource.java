@@ -84,11 +84,13 @@ abstract public class Resource implements Serializable
 	public void register(SchedulableThread th, long priority)
 	{
 		policy.register(th, priority);
+		policy.setChanged();
 	}
 
 	public void unregister(SchedulableThread th)
 	{
 		policy.unregister(th);
+		policy.setChanged();
 	}
 
 	// Find the next thread to schedule and run one timeslice. The return
@@ -105,6 +107,7 @@ abstract public class Resource implements Serializable
 	public void advance()
 	{
 		policy.advance();
+		policy.setChanged();
 	}
 
 	public boolean hasActive()
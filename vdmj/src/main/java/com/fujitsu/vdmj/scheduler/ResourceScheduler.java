@@ -24,6 +24,7 @@
 package com.fujitsu.vdmj.scheduler;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -74,25 +75,50 @@ public class ResourceScheduler implements Serializable
 		boolean idle = true;
 		stopping = false;
 
+		// An idle resource stays idle, with the same minimum timestep, until the
+		// state of one of its threads changes or the time moves. So we remember
+		// the timestep and wall time when each resource was last idle, and only
+		// poll the resources whose policy reports a change.
+
+		Resource[] polled = resources.toArray(new Resource[0]);
+		long[] idleSteps = new long[polled.length];
+		long[] idleTimes = new long[polled.length];
+		Arrays.fill(idleTimes, -1);
+
 		do
 		{
 			long minstep = Long.MAX_VALUE;
 			idle = true;
 
-			for (Resource resource: resources)
+			for (int i = 0; i < polled.length; i++)
 			{
-				if (resource.reschedule())
+				Resource resource = polled[i];
+				long now = SystemClock.getWallTime();
+				long d = 0;
+
+				// The flag is cleared before polling, so changes made while the
+				// resource runs are seen on the next pass.
+
+				if (!resource.policy.takeChanged() && idleTimes[i] == now)
+				{
+					d = idleSteps[i];
+				}
+				else if (resource.reschedule())
 				{
 					idle = false;
+					idleTimes[i] = -1;
+					continue;
 				}
 				else
 				{
-					long d = resource.getMinimumTimestep();
+					d = resource.getMinimumTimestep();
+					idleSteps[i] = d;
+					idleTimes[i] = now;
+				}
 
-					if (d < minstep)
-					{
-						minstep = d;
-					}
+				if (d < minstep)
+				{
+					minstep = d;
 				}
 			}
 
@@ -50,6 +50,10 @@ public abstract class SchedulableThread extends Thread implements Serializable,
 	private static List<SchedulableThread> allThreads =	new LinkedList<SchedulableThread>();
 	private static int threadCount = 0;		// Non-bus threads
 
+	/** The thread being run by a ThreadBackend carrier, if any */
+	private static final ThreadLocal<SchedulableThread> carried = new ThreadLocal<SchedulableThread>();
+	private Thread carrier = null;
+
 	protected final Resource resource;
 	protected final ObjectValue object;
 	private final boolean periodic;
@@ -125,10 +129,62 @@ public abstract class SchedulableThread extends Thread implements Serializable,
 		return getName() + " (" + (stopCalled ? "STOPPING" : state) + ")";
 	}
 
+	/**
+	 * The SchedulableThread running the current Java thread, or null. This is either
+	 * the current thread itself, or the thread being run by a ThreadBackend carrier.
+	 */
+	public static SchedulableThread current()
+	{
+		Thread current = Thread.currentThread();
+
+		if (current instanceof SchedulableThread)
+		{
+			return (SchedulableThread)current;
+		}
+		else
+		{
+			return carried.get();
+		}
+	}
+
+	/**
+	 * The id of the current thread, which is the SchedulableThread if there is one.
+	 */
+	public static long currentId()
+	{
+		SchedulableThread current = current();
+		return current == null ? Thread.currentThread().getId() : current.getId();
+	}
+
+	/**
+	 * The name of the current thread, which is the SchedulableThread if there is one.
+	 */
+	public static String currentName()
+	{
+		SchedulableThread current = current();
+		return current == null ? Thread.currentThread().getName() : current.getName();
+	}
+
+	/**
+	 * True if this thread can be run by the configured ThreadBackend. Threads that
+	 * are joined or tested for liveness must be real Java threads.
+	 */
+	protected boolean isCarried()
+	{
+		return false;
+	}
+
     @Override
 	public synchronized void start()
 	{
-		super.start();
+		if (isCarried())
+		{
+			ThreadBackend.getInstance().start(this);
+		}
+		else
+		{
+			super.start();
+		}
 
 		while (state == RunState.CREATED)
 		{
@@ -169,6 +225,62 @@ public abstract class SchedulableThread extends Thread implements Serializable,
 		}
 	}
 
+	/**
+	 * Start this as a platform thread, as called by a ThreadBackend.
+	 */
+	protected void startPlatform()
+	{
+		super.start();
+	}
+
+	/**
+	 * Run the thread on a carrier thread, as called by a ThreadBackend.
+	 */
+	protected void runOn(Thread thread)
+	{
+		synchronized (this)
+		{
+			carrier = thread;
+		}
+
+		carried.set(this);
+
+		try
+		{
+			run();
+		}
+		finally
+		{
+			carried.remove();
+
+			synchronized (this)
+			{
+				carrier = null;
+				Thread.interrupted();	// Clear any late signal
+			}
+		}
+	}
+
+	@Override
+	public void interrupt()
+	{
+		Thread target = null;
+
+		synchronized (this)
+		{
+			target = carrier;
+		}
+
+		if (target != null)
+		{
+			target.interrupt();
+		}
+		else
+		{
+			super.interrupt();
+		}
+	}
+
 	abstract protected void body();
 
 	public void step(Context ctxt, LexLocation location)
@@ -207,6 +319,7 @@ public abstract class SchedulableThread extends Thread implements Serializable,
 	public synchronized void setState(RunState newstate)
 	{
 		state = newstate;
+		resource.policy.stateChanged(this, newstate);
 		notifyAll();
 	}
 
@@ -385,7 +498,7 @@ public abstract class SchedulableThread extends Thread implements Serializable,
 			stopCalled = true;
 			timestep = Long.MAX_VALUE;			// Don't take part in time step
 			
-			if (Thread.currentThread() != this)
+			if (current() != this)
 			{
 				setState(RunState.RUNNABLE);	// So that thread is rescheduled
 			}
@@ -478,7 +591,11 @@ public abstract class SchedulableThread extends Thread implements Serializable,
 		return state == RunState.TIMESTEP || state == RunState.WAITING;
 	}
 
-	public boolean isVirtual()
+	/**
+	 * True if the thread runs on a virtual CPU. This is not Thread.isVirtual,
+	 * which is final from Java 21 and means a virtual (carrier) thread.
+	 */
+	public boolean isVirtualCPU()
 	{
 		return virtual;
 	}
@@ -24,12 +24,14 @@
 package com.fujitsu.vdmj.scheduler;
 
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.fujitsu.vdmj.scheduler.SchedulingPolicy;
 
 abstract public class SchedulingPolicy implements Serializable
 {
     private static final long serialVersionUID = 1L;
+	private final AtomicBoolean changed = new AtomicBoolean(true);
 
 	abstract public boolean reschedule();
 	abstract public SchedulableThread getThread();
@@ -43,6 +45,33 @@ abstract public class SchedulingPolicy implements Serializable
 	abstract public String getStatus();
 	abstract public long timeToNextAlarm();
 
+	/**
+	 * Called by a thread when its RunState changes, with the thread's lock held.
+	 * Policies that override this must call super.stateChanged.
+	 */
+	public void stateChanged(SchedulableThread thread, RunState newstate)
+	{
+		setChanged();	// Otherwise, policies look at thread states when they need them
+	}
+
+	/**
+	 * Note that the threads of the policy may be scheduled differently.
+	 */
+	public void setChanged()
+	{
+		changed.set(true);
+	}
+
+	/**
+	 * Test and clear the changed flag. If this is false, nothing has happened to
+	 * the policy's threads since the flag was last cleared, so an idle resource
+	 * is still idle with the same minimum timestep.
+	 */
+	public boolean takeChanged()
+	{
+		return changed.getAndSet(false);
+	}
+
 	public static SchedulingPolicy factory(String type)
 	{
 		if (type.equals("FP"))
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.scheduler;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fujitsu.vdmj.config.Properties;
+import com.fujitsu.vdmj.messages.Console;
+
+/**
+ * The Java threads that run the bodies of VDM threads. By default, every VDM thread
+ * is a platform Java thread. The "pooled" backend runs the bodies of async, periodic
+ * and object threads on a cached pool of carrier threads, so that (for example) each
+ * firing of a periodic thread reuses an idle carrier rather than creating a new Java
+ * thread. The "virtual" backend uses a virtual thread for each body, when the JVM
+ * supports them (Java 21 onwards), else it uses the pooled backend.
+ * 
+ * VDM threads hand over to each other with synchronized methods and wait/notify,
+ * which pin a virtual thread to its carrier (before Java 24). So the virtual
+ * backend saves the cost of creating threads, but each blocked VDM thread still
+ * holds a carrier, as the other backends do.
+ * 
+ * The backend is selected by the scheduler.threads property.
+ */
+abstract public class ThreadBackend
+{
+	private static ThreadBackend instance = null;
+	private static String selected = null;
+
+	public static synchronized ThreadBackend getInstance()
+	{
+		if (instance == null || !Properties.scheduler_threads.equals(selected))
+		{
+			selected = Properties.scheduler_threads;
+
+			switch (selected)
+			{
+				case "pooled":
+					instance = new PooledBackend();
+					break;
+
+				case "virtual":
+					instance = VirtualBackend.create();
+					break;
+
+				default:
+					instance = new PlatformBackend();
+					break;
+			}
+		}
+
+		return instance;
+	}
+
+	/**
+	 * Start the thread passed, which must eventually call its runOn method.
+	 */
+	abstract public void start(SchedulableThread thread);
+
+	/**
+	 * The task passed to a carrier, which runs one SchedulableThread.
+	 */
+	protected Runnable task(SchedulableThread thread)
+	{
+		return () ->
+		{
+			try
+			{
+				thread.runOn(Thread.currentThread());
+			}
+			catch (ThreadDeath e)
+			{
+				// Thread stopped or terminated, as for platform threads
+			}
+		};
+	}
+
+	/**
+	 * Every VDM thread is a platform thread.
+	 */
+	private static class PlatformBackend extends ThreadBackend
+	{
+		@Override
+		public void start(SchedulableThread thread)
+		{
+			thread.startPlatform();
+		}
+	}
+
+	/**
+	 * VDM threads are run by a cached pool of daemon carrier threads.
+	 */
+	private static class PooledBackend extends ThreadBackend
+	{
+		private final ExecutorService pool;
+		private final AtomicInteger count = new AtomicInteger(0);
+
+		public PooledBackend()
+		{
+			pool = Executors.newCachedThreadPool(runnable ->
+			{
+				Thread carrier = new Thread(runnable, "Carrier-" + count.incrementAndGet());
+				carrier.setDaemon(true);
+				return carrier;
+			});
+		}
+
+		@Override
+		public void start(SchedulableThread thread)
+		{
+			pool.execute(task(thread));
+		}
+	}
+
+	/**
+	 * VDM threads are run by virtual threads. These are found by reflection, so that
+	 * VDMJ can still be built and run with Java 8.
+	 */
+	private static class VirtualBackend extends ThreadBackend
+	{
+		private final Method startVirtualThread;
+
+		private VirtualBackend(Method startVirtualThread)
+		{
+			this.startVirtualThread = startVirtualThread;
+		}
+
+		public static ThreadBackend create()
+		{
+			try
+			{
+				return new VirtualBackend(Thread.class.getMethod("startVirtualThread", Runnable.class));
+			}
+			catch (NoSuchMethodException e)
+			{
+				Console.err.println("Virtual threads are not available, using pooled threads");
+				return new PooledBackend();
+			}
+		}
+
+		@Override
+		public void start(SchedulableThread thread)
+		{
+			try
+			{
+				startVirtualThread.invoke(null, task(thread));
+			}
+			catch (Exception e)
+			{
+				throw new RuntimeException(e);
+			}
+		}
+	}
+}
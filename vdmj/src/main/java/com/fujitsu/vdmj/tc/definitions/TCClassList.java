@@ -25,12 +25,14 @@ package com.fujitsu.vdmj.tc.definitions;
 
 import java.io.File;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 
 import com.fujitsu.vdmj.ast.definitions.ASTClassDefinition;
 import com.fujitsu.vdmj.ast.definitions.ASTClassList;
 import com.fujitsu.vdmj.tc.TCMappedList;
+import com.fujitsu.vdmj.tc.lex.TCNameSet;
 import com.fujitsu.vdmj.tc.lex.TCNameToken;
 import com.fujitsu.vdmj.typechecker.Environment;
 import com.fujitsu.vdmj.typechecker.NameScope;
@@ -41,6 +43,7 @@ import com.fujitsu.vdmj.typechecker.NameScope;
 public class TCClassList extends TCMappedList<ASTClassDefinition, TCClassDefinition>
 {
 	private static final long serialVersionUID = 1L;
+	private transient Map<TCNameToken, TCNameSet> dependencies = null;
 
 	public TCClassList()
 	{
@@ -57,6 +60,20 @@ public class TCClassList extends TCMappedList<ASTClassDefinition, TCClassDefinit
 		add(definition);
 	}
 
+	/**
+	 * The free variable dependencies of each definition name, set by the type checker
+	 * and used to initialize definitions in order. This is null if not checked.
+	 */
+	public void setDependencies(Map<TCNameToken, TCNameSet> dependencies)
+	{
+		this.dependencies = dependencies;
+	}
+
+	public Map<TCNameToken, TCNameSet> getDependencies()
+	{
+		return dependencies;
+	}
+
 	public Set<File> getSourceFiles()
 	{
 		Set<File> files = new HashSet<File>();
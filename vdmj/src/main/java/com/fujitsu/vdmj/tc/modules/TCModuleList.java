@@ -25,6 +25,7 @@ package com.fujitsu.vdmj.tc.modules;
 
 import java.io.File;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 
@@ -38,12 +39,15 @@ import com.fujitsu.vdmj.tc.TCMappedList;
 import com.fujitsu.vdmj.tc.definitions.TCDefinition;
 import com.fujitsu.vdmj.tc.definitions.TCDefinitionList;
 import com.fujitsu.vdmj.tc.lex.TCIdentifierToken;
+import com.fujitsu.vdmj.tc.lex.TCNameSet;
 import com.fujitsu.vdmj.tc.lex.TCNameToken;
 import com.fujitsu.vdmj.util.Utils;
 
 @SuppressWarnings("serial")
 public class TCModuleList extends TCMappedList<ASTModule, TCModule>
 {
+	private transient Map<TCNameToken, TCNameSet> dependencies = null;
+
 	public TCModuleList()
 	{
 		super();
@@ -60,6 +64,20 @@ public class TCModuleList extends TCMappedList<ASTModule, TCModule>
 		return Utils.listToString(this);
 	}
 
+	/**
+	 * The free variable dependencies of each definition name, set by the type checker
+	 * and used to initialize definitions in order. This is null if not checked.
+	 */
+	public void setDependencies(Map<TCNameToken, TCNameSet> dependencies)
+	{
+		this.dependencies = dependencies;
+	}
+
+	public Map<TCNameToken, TCNameSet> getDependencies()
+	{
+		return dependencies;
+	}
+
 	public Set<File> getSourceFiles()
 	{
 		Set<File> files = new HashSet<File>();
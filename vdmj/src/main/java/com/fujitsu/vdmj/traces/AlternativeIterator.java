@@ -64,6 +64,14 @@ public class AlternativeIterator extends TraceIterator
 		return test;
 	}
 
+	@Override
+	public CallSequence getTest(long index)
+	{
+		CallSequence test = getVariables();
+		test.addAll(alternatives.getTestAlternative(index));
+		return test;
+	}
+
 	@Override
 	public boolean hasMoreTests()
 	{
@@ -71,7 +79,7 @@ public class AlternativeIterator extends TraceIterator
 	}
 
 	@Override
-	public int count()
+	public long count()
 	{
 		return alternatives.countAlternative();
 	}
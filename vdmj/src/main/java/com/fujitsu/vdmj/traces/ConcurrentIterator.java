@@ -23,6 +23,9 @@
 
 package com.fujitsu.vdmj.traces;
 
+import java.util.List;
+import java.util.Vector;
+
 import com.fujitsu.vdmj.util.Permutor;
 
 
@@ -81,7 +84,7 @@ public class ConcurrentIterator extends TraceIterator
 			
 			for (int i=0; i<nodesSize; i++)
 			{
-				c[i] = nodes.get(i).count();
+				c[i] = (int)nodes.get(i).count();
 			}
 			
 			selector = new Permutor(c);
@@ -116,6 +119,61 @@ public class ConcurrentIterator extends TraceIterator
 		return test;
 	}
 
+	@Override
+	public CallSequence getTest(long index)
+	{
+		// The tests for each permutation of the node orderings follow each other,
+		// and within them, the first node's subsequences vary fastest.
+
+		int nodesSize = nodes.size();
+		long selections = nodes.countSequence();
+		int[] permutation = getPermutation(nodesSize, index / selections);
+		long select = index % selections;
+
+		CallSequence[] subsequences = new CallSequence[nodesSize];
+
+		for (int node=0; node<nodesSize; node++)
+		{
+			long count = nodes.count(node);
+			subsequences[node] = nodes.get(node).getTest(select % count);
+			select = select / count;
+		}
+
+		CallSequence test = getVariables();
+
+		for (int i=0; i<nodesSize; i++)		// Add in permutation order
+		{
+			test.addAll(subsequences[permutation[i]]);
+		}
+
+		return test;
+	}
+
+	/**
+	 * The nth permutation of 0 to size-1, in the (lexicographic) order that they
+	 * are produced by a PermuteArray.
+	 */
+	private int[] getPermutation(int size, long n)
+	{
+		List<Integer> remaining = new Vector<Integer>();
+
+		for (int i=0; i<size; i++)
+		{
+			remaining.add(i);
+		}
+
+		int[] result = new int[size];
+
+		for (int i=0; i<size; i++)
+		{
+			long f = factorial(size - i - 1);
+			result[i] = remaining.remove((int)(n / f));
+			n = n % f;
+		}
+
+		return result;
+	}
+
 	@Override
 	public boolean hasMoreTests()
 	{
@@ -124,14 +182,14 @@ public class ConcurrentIterator extends TraceIterator
 	}
 
 	@Override
-	public int count()
+	public long count()
 	{
-		return nodes.countSequence() * factorial(nodes.size());
+		return Math.multiplyExact(nodes.countSequence(), factorial(nodes.size()));
 	}
 
-	private int factorial(int size)
+	private long factorial(int size)
 	{
-		return (size == 1) ? 1 : size * factorial(size - 1);
+		return (size <= 1) ? 1 : Math.multiplyExact(size, factorial(size - 1));
 	}
 
 	@Override
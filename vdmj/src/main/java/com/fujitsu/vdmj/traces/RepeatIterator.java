@@ -36,7 +36,7 @@ public class RepeatIterator extends TraceIterator
 	private final int from;
 	private final int to;
 	
-	private int repeatCount;
+	private long repeatCount;
 	private Integer repeatValue;
 	private Permutor permutor;
 	
@@ -65,7 +65,7 @@ public class RepeatIterator extends TraceIterator
 		if (permutor == null)	// Start new permutor for repeatValue
 		{
 			int[] c = new int[repeatValue];
-			Arrays.fill(c, repeatCount);
+			Arrays.fill(c, (int)repeatCount);
 			permutor = new Permutor(c);
 		}
 		
@@ -78,7 +78,7 @@ public class RepeatIterator extends TraceIterator
 			// The select array contains a set of numbers, being the elements of
 			// the expansion of "repeat" that must be concatenated.
 			
-			CallSequence[] subsequences = new CallSequence[repeatCount];
+			CallSequence[] subsequences = new CallSequence[(int)repeatCount];
 			repeat.reset();
 			
 			for (int i=0; i<repeatCount; i++)
@@ -114,6 +114,40 @@ public class RepeatIterator extends TraceIterator
 		return test;
 	}
 
+	@Override
+	public CallSequence getTest(long index)
+	{
+		CallSequence test = getVariables();
+
+		for (int rval=from; rval <= to; rval++)
+		{
+			long size = power(repeatCount, rval);
+
+			if (index < size)
+			{
+				if (rval == 0)		// ie. "?" or zero times
+				{
+					test.add(SKIP);
+				}
+
+				// The index is a number base repeatCount, with rval digits, being the
+				// elements of the expansion of "repeat" that must be concatenated.
+
+				for (int i=0; i<rval; i++)
+				{
+					test.addAll(repeat.getTest(index % repeatCount));
+					index = index / repeatCount;
+				}
+
+				return test;
+			}
+
+			index = index - size;
+		}
+
+		throw new RuntimeException("Called getTest() with index beyond count()");
+	}
+
 	@Override
 	public boolean hasMoreTests()
 	{
@@ -121,18 +155,30 @@ public class RepeatIterator extends TraceIterator
 	}
 
 	@Override
-	public int count()
+	public long count()
 	{
-		int n = 0;
+		long n = 0;
 		
 		for (int rval=from; rval <= to; rval++)
 		{
-			n = (int) (n + Math.pow(repeatCount, rval));
+			n = Math.addExact(n, power(repeatCount, rval));
 		}
 		
 		return n;
 	}
 
+	private long power(long base, int exponent)
+	{
+		long result = 1;
+
+		for (int i=0; i<exponent; i++)
+		{
+			result = Math.multiplyExact(result, base);
+		}
+
+		return result;
+	}
+
 	@Override
 	public void reset()
 	{
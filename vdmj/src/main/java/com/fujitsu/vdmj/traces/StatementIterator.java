@@ -57,6 +57,14 @@ public class StatementIterator extends TraceIterator
 		return test;
 	}
 
+	@Override
+	public CallSequence getTest(long index)
+	{
+		CallSequence test = getVariables();
+		test.add(statement);
+		return test;
+	}
+
 	@Override
 	public boolean hasMoreTests()
 	{
@@ -64,7 +72,7 @@ public class StatementIterator extends TraceIterator
 	}
 
 	@Override
-	public int count()
+	public long count()
 	{
 		return 1;
 	}
@@ -23,31 +23,35 @@
 
 package com.fujitsu.vdmj.traces;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.Vector;
 
+import com.fujitsu.vdmj.in.statements.INStatement;
+import com.fujitsu.vdmj.in.traces.INTraceVariableStatement;
+
 /**
  * A class to filter whether tests are performed, by various criteria.
  */
 public class TraceFilter
 {
-	private final int count;
+	private final long count;
 	private final float subset;
 	private final TraceReductionType reductionType;
 	private final Random prng;
 	
-	private List<CallSequence> failedTests = new Vector<CallSequence>();
-	private List<Integer> failedStems = new Vector<Integer>();
-	private List<Integer> failedNumbers = new Vector<Integer>();
+	private StemNode failedStems = new StemNode();
+	private long filterTime = 0;
 	private Set<String> shapes = new HashSet<String>();
 	private int extras = 0;
 	
-	private Set<Integer> included = new HashSet<Integer>();
+	private Set<Long> included = new HashSet<Long>();
 	
-	public TraceFilter(int count, float subset, TraceReductionType reductionType, long seed)
+	public TraceFilter(long count, float subset, TraceReductionType reductionType, long seed)
 	{
 		this.count = count;
 		this.subset = subset;
@@ -57,13 +61,13 @@ public class TraceFilter
 		// Generate explicit random tests to include for the subset, if there is one.
 		if (subset < 1.0)
 		{
-    		for (int i=0; i<(count * subset); i++)
+    		for (long i=0; i<(count * subset); i++)
     		{
-    			int n;
+    			long n;
     			
     			do
     			{
-    				n = prng.nextInt(count) + 1;
+    				n = random(count) + 1;
     			}
     			while (included.contains(n));
     			
@@ -72,30 +76,129 @@ public class TraceFilter
 		}
 	}
 
-	public int getFilteredBy(CallSequence test)
+	/**
+	 * A random number from 0 to limit-1. This is the same as the int sequence
+	 * for limits that fit in an int, so that seeds produce the same tests.
+	 */
+	private long random(long limit)
+	{
+		if (limit <= Integer.MAX_VALUE)
+		{
+			return prng.nextInt((int)limit);
+		}
+		else
+		{
+			return Math.floorMod(prng.nextLong(), limit);
+		}
+	}
+
+	/**
+	 * The number of the first failed test whose stem starts the test passed, or
+	 * zero. This follows the failed stems that match the test's statements, so it
+	 * is proportional to the length of the test, rather than the number of failures.
+	 */
+	public long getFilteredBy(CallSequence test)
 	{
-		for (int i=0; i<failedTests.size(); i++)
+		long start = System.nanoTime();
+		long first = 0;
+		StemNode node = failedStems;
+		int i = 0;
+
+		while (node != null)
 		{
-			if (failedTests.get(i).compareStem(test, failedStems.get(i)))
+			long n = node.getFailure(test.size());
+
+			if (n > 0 && (first == 0 || n < first))
 			{
-				return failedNumbers.get(i);
+				first = n;
 			}
+
+			if (i >= test.size())
+			{
+				break;
+			}
+
+			node = node.children.get(test.get(i++).toString());
 		}
-		
-		return 0;
+
+		filterTime += System.nanoTime() - start;
+		return first;
 	}
 
-	public void update(List<Object> result, CallSequence test, int n)
+	/**
+	 * Add a failed test to the stems, which are the statements up to the one that
+	 * failed. As with CallSequence.compareStem, the stem length from the result
+	 * does not count any variable statements, but they are included in the stem.
+	 */
+	public void update(List<Object> result, CallSequence test, long n)
 	{
 		if (result.get(result.size()-1) != Verdict.PASSED)
 		{
-			failedTests.add(test);
-			failedStems.add(result.size() - 1);
-			failedNumbers.add(n);
+			long start = System.nanoTime();
+			int upto = result.size() - 1;
+			StemNode node = failedStems;
+			int i = 0;
+
+			for (int count=0; count<upto; i++)
+			{
+				if (i >= test.size())
+				{
+					return;		// Can never match
+				}
+
+				INStatement stmt = test.get(i);
+				node = node.getChild(stmt.toString());
+
+				if (!(stmt instanceof INTraceVariableStatement))
+				{
+					count++;	// Only increment for non-variable statements
+				}
+			}
+
+			node.addFailure(test.size(), n);
+			filterTime += System.nanoTime() - start;
 		}
 	}
 
-	public boolean isRemoved(CallSequence test, int number)
+	/**
+	 * The time spent checking whether tests are filtered or removed, in nanoseconds.
+	 */
+	public long getFilterTime()
+	{
+		return filterTime;
+	}
+
+	/**
+	 * True if a test is removed by its number alone, which is only the case for
+	 * random reductions. This allows the test to be skipped without creating it.
+	 */
+	public boolean isRemoved(long number)
+	{
+		if (reductionType == TraceReductionType.RANDOM && included.size() > 0)
+		{
+			return !included.contains(number);
+		}
+		else
+		{
+			return false;	// Not random, or 100% random
+		}
+	}
+
+	public boolean isRemoved(CallSequence test, long number)
+	{
+		long start = System.nanoTime();
+
+		try
+		{
+			return isRemovedByShape(test, number);
+		}
+		finally
+		{
+			filterTime += System.nanoTime() - start;
+		}
+	}
+
+	private boolean isRemovedByShape(CallSequence test, long number)
 	{
 		switch (reductionType)
 		{
@@ -103,14 +206,7 @@ public class TraceFilter
 				return false;
 
 			case RANDOM:
-				if (included.size() > 0)
-				{
-					return !included.contains(number);
-				}
-				else
-				{
-					return false;	// 100% random
-				}
+				return isRemoved(number);
 				
 			case SHAPES_NOVARS:
 			case SHAPES_VARNAMES:
@@ -157,11 +253,11 @@ public class TraceFilter
 		return false;
 	}
 	
-	public int getFilteredCount()
+	public long getFilteredCount()
 	{
 		if (subset < 1.0 && reductionType == TraceReductionType.RANDOM)
 		{
-			return (int)Math.ceil(count * subset);
+			return (long)Math.ceil(count * subset);
 		}
 		else
 		{
@@ -169,4 +265,57 @@ public class TraceFilter
 			return -1;
 		}
 	}
+
+	/**
+	 * A node in a trie of failed test stems, keyed by the statement strings. The
+	 * failures recorded at a node have a stem which is the path to the node. They
+	 * only filter tests that are at least as long as the failed test.
+	 */
+	private static class StemNode
+	{
+		public final Map<String, StemNode> children = new HashMap<String, StemNode>();
+		private List<Integer> sizes = null;
+		private List<Long> numbers = null;
+
+		public StemNode getChild(String key)
+		{
+			StemNode child = children.get(key);
+
+			if (child == null)
+			{
+				child = new StemNode();
+				children.put(key, child);
+			}
+
+			return child;
+		}
+
+		public void addFailure(int size, long number)
+		{
+			if (sizes == null)
+			{
+				sizes = new Vector<Integer>();
+				numbers = new Vector<Long>();
+			}
+
+			sizes.add(size);
+			numbers.add(number);
+		}
+
+		public long getFailure(int size)
+		{
+			if (sizes != null)
+			{
+				for (int i=0; i<sizes.size(); i++)	// In order of test number
+				{
+					if (size >= sizes.get(i))
+					{
+						return numbers.get(i);
+					}
+				}
+			}
+
+			return 0;
+		}
+	}
 }
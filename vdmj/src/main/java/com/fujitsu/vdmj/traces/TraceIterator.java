@@ -56,7 +56,14 @@ public abstract class TraceIterator
 
 	abstract public CallSequence getNextTest();
 
-	abstract public int count();
+	/**
+	 * Get the test at a (zero based) index in the expansion, without affecting
+	 * the getNextTest sequence. The test is calculated from the index, rather than
+	 * by generating the tests before it.
+	 */
+	abstract public CallSequence getTest(long index);
+
+	abstract public long count();
 	
 	abstract public void reset();
 }
@@ -36,6 +36,70 @@ public class TraceIteratorList extends Vector<TraceIterator>
 
 	private Integer lastAlternative = null;
 
+	/** The counts of the iterators, calculated when first needed (see getCounts). */
+	private transient volatile Counts counts = null;
+
+	/**
+	 * The iterators' counts do not change once the list is built, so getTest is
+	 * not recursively recounting the whole expansion for every test. Each
+	 * iterator's first alternative index is kept, for a binary search.
+	 */
+	private static class Counts
+	{
+		public final long[] counts;
+		public final long[] starts;		// Long.MAX_VALUE after an overflow
+		public final Long alternative;	// Or null after an overflow
+		public final Long sequence;		// Or null after an overflow
+
+		public Counts(TraceIteratorList list)
+		{
+			counts = new long[list.size()];
+			starts = new long[list.size()];
+			Long sum = 0L;
+			Long product = 1L;
+
+			for (int i=0; i<counts.length; i++)
+			{
+				counts[i] = list.get(i).count();
+				starts[i] = (sum == null) ? Long.MAX_VALUE : sum;
+
+				try
+				{
+					sum = (sum == null) ? null : Math.addExact(sum, counts[i]);
+				}
+				catch (ArithmeticException e)
+				{
+					sum = null;
+				}
+
+				try
+				{
+					product = (product == null) ? null : Math.multiplyExact(product, counts[i]);
+				}
+				catch (ArithmeticException e)
+				{
+					product = null;
+				}
+			}
+
+			alternative = sum;
+			sequence = product;
+		}
+	}
+
+	private Counts getCounts()
+	{
+		Counts result = counts;
+
+		if (result == null || result.counts.length != size())	// Still being built?
+		{
+			result = new Counts(this);
+			counts = result;
+		}
+
+		return result;
+	}
+
 	public void reset()
 	{
 		for (TraceIterator iter: this)
@@ -47,30 +111,38 @@ public class TraceIteratorList extends Vector<TraceIterator>
 		lastAlternative = null;
 	}
 	
-	public int countSequence()
+	public long countSequence()
 	{
-		int result = 1;
-		
-		for (TraceIterator iter: this)
+		Long result = getCounts().sequence;
+
+		if (result == null)
 		{
-			result = result * iter.count();
+			throw new ArithmeticException("long overflow");
 		}
-		
+
 		return result;
 	}
 
-	public int countAlternative()
+	public long countAlternative()
 	{
-		int result = 0;
-		
-		for (TraceIterator iter: this)
+		Long result = getCounts().alternative;
+
+		if (result == null)
 		{
-			result = result + iter.count();
+			throw new ArithmeticException("long overflow");
 		}
-		
+
 		return result;
 	}
 
+	/**
+	 * The count of the iterator at an index in the list.
+	 */
+	public long count(int index)
+	{
+		return getCounts().counts[index];
+	}
+
 	public boolean hasMoreSequenceTests()
 	{
 		for (int i=0; i < size(); i++)
@@ -159,6 +231,60 @@ public class TraceIteratorList extends Vector<TraceIterator>
 		throw new RuntimeException("Called getNextTest() when !hasMoreTests()");
 	}
 	
+	/**
+	 * The indexed equivalent of getNextTestSequence. The first iterator varies
+	 * fastest, so the index is decoded as a mixed radix number whose digits are
+	 * the indexes of each iterator's subsequence.
+	 */
+	public CallSequence getTestSequence(long index)
+	{
+		long[] c = getCounts().counts;
+		CallSequence seq = new CallSequence();
+		
+		for (int i=0; i<c.length; i++)
+		{
+			seq.addAll(get(i).getTest(index % c[i]));
+			index = index / c[i];
+		}
+		
+		return seq;
+	}
+
+	/**
+	 * The indexed equivalent of getNextTestAlternative. The tests of each iterator
+	 * follow those of the one before, so this finds the last iterator that starts
+	 * at or before the index.
+	 */
+	public CallSequence getTestAlternative(long index)
+	{
+		Counts c = getCounts();
+		int low = 0;
+		int high = c.starts.length - 1;
+		int found = -1;
+
+		while (low <= high)
+		{
+			int mid = (low + high) >>> 1;
+
+			if (c.starts[mid] <= index)
+			{
+				found = mid;
+				low = mid + 1;
+			}
+			else
+			{
+				high = mid - 1;
+			}
+		}
+
+		if (found >= 0 && index - c.starts[found] < c.counts[found])
+		{
+			return get(found).getTest(index - c.starts[found]);
+		}
+		
+		throw new RuntimeException("Called getTest() with index beyond count()");
+	}
+
 	/**
 	 * Get the simplest alternative iterator representing the list.
 	 */
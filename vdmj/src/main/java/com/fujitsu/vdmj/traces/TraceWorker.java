@@ -0,0 +1,184 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.traces;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+
+import com.fujitsu.vdmj.RemoteControl;
+import com.fujitsu.vdmj.RemoteInterpreter;
+import com.fujitsu.vdmj.Settings;
+import com.fujitsu.vdmj.in.definitions.INNamedTraceDefinition;
+import com.fujitsu.vdmj.lex.LexLocation;
+import com.fujitsu.vdmj.messages.Console;
+import com.fujitsu.vdmj.messages.ConsolePrintWriter;
+import com.fujitsu.vdmj.messages.ConsoleWriter;
+import com.fujitsu.vdmj.runtime.Interpreter;
+
+/**
+ * The RemoteControl class run by each process of a TraceWorkerPool. This reads the
+ * name of a trace from stdin, followed by the numbers of the tests to run, and
+ * finally END. The output, coverage and result of each test is written to stdout,
+ * so that the pool only merges the coverage of tests that are not filtered. Replies
+ * are one line, starting with a tag, and any newlines in the rest are escaped.
+ */
+public class TraceWorker implements RemoteControl
+{
+	public static final String END = "END";
+
+	public static final String TEST = "TEST";
+	public static final String OUTPUT = "OUTPUT";
+	public static final String ITEM = "ITEM";
+	public static final String VERDICT = "VERDICT";
+	public static final String RESULT = "RESULT";
+	public static final String COVERAGE = "COVERAGE";
+	public static final String HITS = "HITS";
+	public static final String ERROR = "ERROR";
+	public static final String FINISHED = "FINISHED";
+
+	private ConsoleWriter replies;
+
+	@Override
+	public void run(RemoteInterpreter remote) throws Exception
+	{
+		replies = Console.out;		// Test output is captured separately
+
+		try
+		{
+			Interpreter interpreter = remote.getInterpreter();
+			BufferedReader requests = Console.in;
+			INNamedTraceDefinition tracedef = interpreter.lookupTrace(requests.readLine());
+			TraceIterator tests = tracedef.getIterator(interpreter.getTraceContext(tracedef.classDefinition));
+
+			Settings.usingCmdLine = false;
+			interpreter.traceTestInit();
+
+			String line = requests.readLine();
+
+			while (line != null && !line.equals(END))
+			{
+				CallSequence test = tests.getTest(Long.parseLong(line) - 1);
+				LexLocation.clearLocations();	// Just the coverage of this test
+				StringWriter output = new StringWriter();
+				Console.out = new ConsolePrintWriter(new PrintWriter(output));
+				List<Object> result = null;
+
+				try
+				{
+					interpreter.traceTestInit();
+					result = interpreter.runOneTrace(tracedef.classDefinition, test, false);
+				}
+				finally
+				{
+					Console.out = replies;
+				}
+
+				reply(TEST, line);
+				reply(OUTPUT, output.toString());
+
+				for (Object item: result)
+				{
+					if (item instanceof Verdict)
+					{
+						reply(VERDICT, item.toString());
+					}
+					else
+					{
+						reply(ITEM, item.toString());
+					}
+				}
+
+				for (File file: interpreter.getSourceFiles())
+				{
+					StringWriter hits = new StringWriter();
+					PrintWriter pw = new PrintWriter(hits);
+					interpreter.getSourceFile(file).writeCoverage(pw);
+					pw.flush();
+
+					if (hits.getBuffer().length() > 0)
+					{
+						reply(COVERAGE, file.getPath());
+
+						for (String hit: hits.toString().split("\\R"))
+						{
+							if (!hit.isEmpty())
+							{
+								reply(HITS, hit);
+							}
+						}
+					}
+				}
+
+				reply(RESULT, line);
+				line = requests.readLine();
+			}
+
+			replies.println(FINISHED);
+		}
+		catch (Throwable e)
+		{
+			reply(ERROR, e.toString());
+		}
+	}
+
+	private void reply(String tag, String text)
+	{
+		replies.println(tag + " " + escape(text));
+	}
+
+	public static String escape(String text)
+	{
+		return text.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+	}
+
+	public static String unescape(String text)
+	{
+		StringBuilder sb = new StringBuilder(text.length());
+
+		for (int i=0; i<text.length(); i++)
+		{
+			char c = text.charAt(i);
+
+			if (c == '\\' && i < text.length() - 1)
+			{
+				switch (text.charAt(++i))
+				{
+					case 'n':	sb.append('\n'); break;
+					case 'r':	sb.append('\r'); break;
+					default:	sb.append(text.charAt(i)); break;
+				}
+			}
+			else
+			{
+				sb.append(c);
+			}
+		}
+
+		return sb.toString();
+	}
+}
@@ -0,0 +1,500 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.traces;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+import com.fujitsu.vdmj.Settings;
+import com.fujitsu.vdmj.VDMJ;
+import com.fujitsu.vdmj.config.Properties;
+import com.fujitsu.vdmj.in.definitions.INClassDefinition;
+import com.fujitsu.vdmj.in.definitions.INNamedTraceDefinition;
+import com.fujitsu.vdmj.in.modules.INModule;
+import com.fujitsu.vdmj.lex.Dialect;
+import com.fujitsu.vdmj.lex.LexLocation;
+import com.fujitsu.vdmj.messages.Console;
+import com.fujitsu.vdmj.messages.ConsoleWriter;
+import com.fujitsu.vdmj.runtime.ClassInterpreter;
+import com.fujitsu.vdmj.runtime.Interpreter;
+import com.fujitsu.vdmj.runtime.ModuleInterpreter;
+
+/**
+ * A set of TraceWorker processes that run the tests of a trace in parallel. Each
+ * worker is a separate JVM running VDMJ with the same specification, so the tests
+ * are isolated from each other and from this interpreter.
+ * 
+ * Tests are added in test number order. Those that are not already filtered are
+ * sent to the worker with the fewest outstanding tests, and the results are
+ * printed and used to update the TraceFilter in test number order, as they would
+ * be when running the tests one at a time. A test may be run and then found to
+ * be filtered by an earlier test that failed, in which case its result and its
+ * coverage are not used, as if it had not been run.
+ */
+public class TraceWorkerPool
+{
+	/** The number of tests queued per worker, before the earliest is printed */
+	private static final int WINDOW = 8;
+
+	private final Interpreter interpreter;
+	private final INNamedTraceDefinition tracedef;
+	private final TraceFilter filter;
+	private final ConsoleWriter writer;
+	private final List<Worker> workers = new Vector<Worker>();
+
+	private final LinkedList<Long> queuedNumbers = new LinkedList<Long>();
+	private final LinkedList<CallSequence> queuedTests = new LinkedList<CallSequence>();
+	private final Map<Long, Worker> running = new HashMap<Long, Worker>();
+
+	private boolean failed = false;
+	private long filtered = 0;
+
+	public TraceWorkerPool(Interpreter interpreter, INNamedTraceDefinition tracedef,
+		TraceFilter filter, ConsoleWriter writer, int count) throws Exception
+	{
+		this.interpreter = interpreter;
+		this.tracedef = tracedef;
+		this.filter = filter;
+		this.writer = writer;
+
+		List<String> command = getCommand();
+		String tracename = tracedef.name.getModule() + "`" + tracedef.name.getName();
+
+		for (int i=0; i<count; i++)
+		{
+			workers.add(new Worker(command, tracename));
+		}
+	}
+
+	/**
+	 * Add the next test, which has passed the number range and TraceFilter reduction
+	 * checks. This blocks if the window of queued tests is full, until the result
+	 * of the earliest one is available.
+	 */
+	public void add(long number, CallSequence test) throws Exception
+	{
+		if (filter.getFilteredBy(test) == 0)	// Else will be filtered when printed
+		{
+			Worker worker = workers.get(0);
+
+			for (Worker w: workers)
+			{
+				if (w.outstanding() < worker.outstanding())
+				{
+					worker = w;
+				}
+			}
+
+			worker.submit(number);
+			running.put(number, worker);
+		}
+
+		queuedNumbers.add(number);
+		queuedTests.add(test);
+
+		if (queuedNumbers.size() > WINDOW * workers.size())
+		{
+			printNext();
+		}
+	}
+
+	/**
+	 * Print the remaining results after the last test has been added.
+	 */
+	public void finish() throws Exception
+	{
+		while (!queuedNumbers.isEmpty())
+		{
+			printNext();
+		}
+	}
+
+	public boolean hasFailed()
+	{
+		return failed;
+	}
+
+	public long getFilteredCount()
+	{
+		return filtered;
+	}
+
+	/**
+	 * Stop the workers.
+	 */
+	public void close() throws Exception
+	{
+		for (Worker worker: workers)
+		{
+			worker.close();
+		}
+	}
+
+	private void printNext() throws Exception
+	{
+		long number = queuedNumbers.removeFirst();
+		CallSequence test = queuedTests.removeFirst();
+		Worker worker = running.remove(number);
+		Reply reply = null;
+
+		if (worker != null)
+		{
+			try
+			{
+				reply = worker.take(number);
+			}
+			catch (Exception e)
+			{
+				for (Worker w: workers)
+				{
+					w.kill();	// Don't leave the others waiting
+				}
+
+				throw e;
+			}
+		}
+
+		long filteredBy = filter.getFilteredBy(test);
+
+		if (filteredBy > 0)
+		{
+			filtered++;
+			writer.println("Test " + number + " = " + test.getCallString(interpreter.getTraceContext(tracedef.classDefinition)));
+			writer.println("Test " + number + " FILTERED by test " + filteredBy);
+		}
+		else
+		{
+			List<Object> result = reply.result;
+			Console.out.print(reply.output);	// As printed by the test
+			filter.update(result, test, number);
+
+			for (File file: reply.coverage.keySet())
+			{
+				LexLocation.mergeHits(file, reply.coverage.get(file));
+			}
+
+			writer.println("Test " + number + " = " + test.getCallString(interpreter.getTraceContext(tracedef.classDefinition)));
+			writer.println("Result = " + result);
+
+			if (result.lastIndexOf(Verdict.PASSED) == -1)
+			{
+				failed = true;	// Not passed => failed.
+			}
+		}
+	}
+
+	/**
+	 * The command to start a worker, which is VDMJ with the same JVM, classpath,
+	 * properties, settings and source files as this interpreter.
+	 */
+	private List<String> getCommand() throws Exception
+	{
+		List<String> command = new Vector<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+
+		for (String arg: ManagementFactory.getRuntimeMXBean().getInputArguments())
+		{
+			if (arg.startsWith("-Xmx") || arg.startsWith("-Xss") || arg.startsWith("-D"))
+			{
+				command.add(arg);
+			}
+		}
+
+		for (Field f: Properties.class.getFields())
+		{
+			command.add("-D" + f.getName().replace('_', '.') + "=" + f.get(null));
+		}
+
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(VDMJ.class.getName());
+		command.add(Settings.dialect == Dialect.VDM_SL ? "-vdmsl" : "-vdmpp");
+		command.add("-q");
+		command.add("-w");
+		command.add("-remote");
+		command.add(TraceWorker.class.getName());
+		command.add("-c");
+		command.add(VDMJ.filecharset);
+		command.add("-t");
+		command.add(Console.charset);
+		command.add("-r");
+		command.add(Settings.release.toString());
+
+		if (!Settings.prechecks)			command.add("-pre");
+		if (!Settings.postchecks)			command.add("-post");
+		if (!Settings.invchecks)			command.add("-inv");
+		if (!Settings.dynamictypechecks)	command.add("-dtc");
+		if (!Settings.measureChecks)		command.add("-measures");
+		if (Settings.exceptions)			command.add("-exceptions");
+		if (Settings.annotations)			command.add("-annotations");
+		if (Settings.strict)				command.add("-strict");
+
+		for (File file: getSourceFiles())
+		{
+			command.add(file.getPath());
+		}
+
+		return command;
+	}
+
+	/**
+	 * The source files in the order they were parsed, which is the order of the
+	 * modules or classes.
+	 */
+	private List<File> getSourceFiles()
+	{
+		List<File> files = new Vector<File>();
+
+		if (interpreter instanceof ModuleInterpreter)
+		{
+			for (INModule m: ((ModuleInterpreter)interpreter).getModules())
+			{
+				for (File file: m.files)
+				{
+					if (!files.contains(file))
+					{
+						files.add(file);
+					}
+				}
+			}
+		}
+		else
+		{
+			for (INClassDefinition c: ((ClassInterpreter)interpreter).getClasses())
+			{
+				File file = c.name.getLocation().file;
+
+				if (!files.contains(file))
+				{
+					files.add(file);
+				}
+			}
+		}
+
+		return files;
+	}
+
+	/**
+	 * The output, result and coverage of one test.
+	 */
+	private static class Reply
+	{
+		public final String output;
+		public final List<Object> result;
+		public final Map<File, List<String>> coverage;
+
+		public Reply(String output, List<Object> result, Map<File, List<String>> coverage)
+		{
+			this.output = output;
+			this.result = result;
+			this.coverage = coverage;
+		}
+	}
+
+	/**
+	 * One worker process, and a thread that reads its replies.
+	 */
+	private static class Worker extends Thread
+	{
+		private final Process process;
+		private final PrintWriter requests;
+		private final BufferedReader input;
+		private final Map<Long, Reply> replies = new HashMap<Long, Reply>();
+
+		private int outstanding = 0;
+		private String error = null;
+		private boolean finished = false;
+
+		public Worker(List<String> command, String tracename) throws IOException
+		{
+			ProcessBuilder pb = new ProcessBuilder(command);
+			pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+			process = pb.start();
+
+			requests = new PrintWriter(new OutputStreamWriter(process.getOutputStream(), Console.charset));
+			input = new BufferedReader(new InputStreamReader(process.getInputStream(), Console.charset));
+
+			setName("TraceWorker");
+			setDaemon(true);
+			start();
+
+			requests.println(tracename);
+			requests.flush();
+		}
+
+		public synchronized int outstanding()
+		{
+			return outstanding;
+		}
+
+		public synchronized void submit(long number)
+		{
+			outstanding++;
+			requests.println(number);
+			requests.flush();
+		}
+
+		public synchronized Reply take(long number) throws Exception
+		{
+			while (!replies.containsKey(number))
+			{
+				if (error != null)
+				{
+					throw new Exception("Trace worker failed: " + error);
+				}
+
+				wait();
+			}
+
+			outstanding--;
+			return replies.remove(number);
+		}
+
+		public void kill()
+		{
+			process.destroy();
+		}
+
+		public void close() throws Exception
+		{
+			synchronized (this)
+			{
+				requests.println(TraceWorker.END);
+				requests.flush();
+
+				while (!finished && error == null)
+				{
+					wait();
+				}
+			}
+
+			process.waitFor();
+
+			if (error != null)
+			{
+				throw new Exception("Trace worker failed: " + error);
+			}
+		}
+
+		@Override
+		public void run()
+		{
+			try
+			{
+				String line = input.readLine();
+				StringBuilder output = null;
+				List<Object> result = null;
+				Map<File, List<String>> coverage = null;
+				List<String> hits = null;
+
+				while (line != null)
+				{
+					int space = line.indexOf(' ');
+					String tag = (space < 0) ? line : line.substring(0, space);
+					String arg = (space < 0) ? "" : TraceWorker.unescape(line.substring(space + 1));
+
+					switch (tag)
+					{
+						case TraceWorker.TEST:
+							output = new StringBuilder();
+							result = new Vector<Object>();
+							coverage = new HashMap<File, List<String>>();
+							break;
+
+						case TraceWorker.OUTPUT:
+							output.append(arg);
+							break;
+
+						case TraceWorker.ITEM:
+							result.add(arg);
+							break;
+
+						case TraceWorker.VERDICT:
+							result.add(Verdict.valueOf(arg));
+							break;
+
+						case TraceWorker.RESULT:
+							synchronized (this)
+							{
+								replies.put(Long.parseLong(arg), new Reply(output.toString(), result, coverage));
+								notifyAll();
+							}
+							break;
+
+						case TraceWorker.COVERAGE:
+							hits = new Vector<String>();
+							coverage.put(new File(arg), hits);
+							break;
+
+						case TraceWorker.HITS:
+							hits.add(arg);
+							break;
+
+						case TraceWorker.ERROR:
+							throw new Exception(arg);
+
+						case TraceWorker.FINISHED:
+							synchronized (this)
+							{
+								finished = true;
+								notifyAll();
+							}
+							break;
+
+						default:	// Not a reply, so just pass it on
+							Console.err.println(line);
+							break;
+					}
+
+					line = input.readLine();
+				}
+
+				if (!finished)
+				{
+					throw new Exception("process ended unexpectedly");
+				}
+			}
+			catch (Exception e)
+			{
+				synchronized (this)
+				{
+					error = e.getMessage();
+					notifyAll();
+				}
+			}
+		}
+	}
+}
@@ -166,6 +166,6 @@ public class ClassTypeChecker extends TypeChecker
 			if (c.annotations != null) c.annotations.tcAfter(c);
 		}
     	
-    	cyclicDependencyCheck(allDefs);
+    	classes.setDependencies(cyclicDependencyCheck(allDefs));
 	}
 }
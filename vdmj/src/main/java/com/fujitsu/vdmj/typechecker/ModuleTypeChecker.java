@@ -270,6 +270,6 @@ public class ModuleTypeChecker extends TypeChecker
 		TCAnnotation.close();
 
     	// Check for inter-definition cyclic dependencies before initialization
-    	cyclicDependencyCheck(alldefs);
+    	modules.setDependencies(cyclicDependencyCheck(alldefs));
 	}
 }
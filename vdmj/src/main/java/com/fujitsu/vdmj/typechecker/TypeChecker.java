@@ -74,18 +74,20 @@ abstract public class TypeChecker
 	
 	/**
 	 * Check for cyclic dependencies between the free variables that definitions depend
-	 * on and the definition of those variables.
+	 * on and the definition of those variables. The dependency map is returned, so
+	 * that the interpreter can initialize definitions in order, or null if the
+	 * check was not performed.
 	 */
-	protected void cyclicDependencyCheck(TCDefinitionList defs)
+	protected Map<TCNameToken, TCNameSet> cyclicDependencyCheck(TCDefinitionList defs)
 	{
 		if (System.getProperty("skip.cyclic.check") != null)
 		{
-			return;		// For now, to allow us to skip if there are issues.
+			return null;	// For now, to allow us to skip if there are issues.
 		}
 		
 		if (getErrorCount() > 0)
 		{
-			return;		// Can't really check everything until it's clean
+			return null;	// Can't really check everything until it's clean
 		}
 		
 		Map<TCNameToken, TCNameSet> dependencies = new HashMap<TCNameToken, TCNameSet>();
@@ -149,6 +151,8 @@ abstract public class TypeChecker
     			stack.pop();
 			}
 		}
+		
+		return dependencies;
 	}
 
 	/**
@@ -23,27 +23,32 @@
 
 package com.fujitsu.vdmj.values;
 
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.Vector;
 
 /**
- * A class to hold the name/Value list of fields in a record.
+ * A class to hold the name/Value list of fields in a record. Records keep their
+ * fields in the order of the TCRecordType's fields, so the position of a field
+ * in the type is also its index here. Callers that know that index can use
+ * get(key, index) to avoid a search by name.
  */
 
 @SuppressWarnings("serial")
-public class FieldMap extends Vector<FieldValue>
+public class FieldMap extends ArrayList<FieldValue>
 {
 	public FieldMap()
 	{
 		super();
 	}
 
+	public FieldMap(int size)
+	{
+		super(size);
+	}
+
 	public FieldMap(FieldMap from)
 	{
-		for (FieldValue fv: from)
-		{
-			add(fv);
-		}
+		super(from);	// Already unique, so no checks needed
 	}
 
 	public FieldMap(String k, Value v, boolean comp)
@@ -59,12 +64,11 @@ public class FieldMap extends Vector<FieldValue>
 
 	public boolean add(String k, Value v, boolean comp)
 	{
-		for (FieldValue fv: this)
+		for (int i=0; i<size(); i++)
 		{
-			if (fv.name.equals(k))
+			if (get(i).name.equals(k))
 			{
-				remove(fv);
-				add(new FieldValue(k, v, comp));
+				set(i, new FieldValue(k, v, comp));		// Field keeps its position
 				return false;
 			}
 		}
@@ -72,6 +76,31 @@ public class FieldMap extends Vector<FieldValue>
 		return super.add(new FieldValue(k, v, comp));
 	}
 
+	public boolean addNoCheck(String k, Value v, boolean comp)
+	{
+		return super.add(new FieldValue(k, v, comp));	// Caller knows k is unique
+	}
+
+	/**
+	 * Get a field value, using the index as a hint for where the field should be.
+	 * If the index is out of range or the field there has a different name (eg.
+	 * a union of record types), the field is searched for by name.
+	 */
+	public Value get(String key, int index)
+	{
+		if (index >= 0 && index < size())
+		{
+			FieldValue fv = get(index);
+
+			if (fv.name.equals(key))
+			{
+				return fv.value;
+			}
+		}
+
+		return get(key);
+	}
+
 	public Value get(String key)
 	{
 		for (FieldValue fv: this)
@@ -128,11 +157,11 @@ public class FieldMap extends Vector<FieldValue>
 	@Override
 	public Object clone()
 	{
-		FieldMap copy = new FieldMap();
+		FieldMap copy = new FieldMap(size());
 
 		for (FieldValue fv: this)
 		{
-			copy.add(fv.name, (Value)fv.value.clone(), fv.comparable);
+			copy.addNoCheck(fv.name, (Value)fv.value.clone(), fv.comparable);
 		}
 
 		return copy;
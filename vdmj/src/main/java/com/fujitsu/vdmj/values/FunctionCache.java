@@ -0,0 +1,370 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.values;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+/**
+ * A bounded cache of the results of a function, keyed by its argument values.
+ * VDM functions have no side effects, so a result can be reused when the same
+ * arguments are passed again. The least recently used entry is dropped when
+ * the cache is full.
+ * 
+ * Arguments whose hashCode could change, like updatable state values, are never
+ * cached (see Value.isHashStable). Nor are arguments that contain objects, since
+ * a function can read the instance variables of an object that has changed.
+ * 
+ * Local and curried functions create a FunctionValue, and so a cache, each time
+ * they are evaluated, so the list of caches for reporting only holds them weakly.
+ */
+public class FunctionCache
+{
+	/** The cache size used by @Memo if none is given */
+	public static final int DEFAULT_SIZE = 1000;
+
+	private static final List<WeakReference<FunctionCache>> caches = new Vector<WeakReference<FunctionCache>>();
+	private static final ReferenceQueue<FunctionCache> collected = new ReferenceQueue<FunctionCache>();
+
+	private final String name;
+	private final int size;
+	private final Map<ValueList, Value> results;
+
+	private long hits = 0;
+	private long misses = 0;
+	private long uncached = 0;
+
+	@SuppressWarnings("serial")
+	public FunctionCache(String name, int size)
+	{
+		this.name = name;
+		this.size = size;
+
+		this.results = new LinkedHashMap<ValueList, Value>(16, 0.75f, true)	// Access order
+		{
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ValueList, Value> eldest)
+			{
+				return size() > FunctionCache.this.size;
+			}
+		};
+
+		register(this);
+	}
+
+	private FunctionCache(FunctionCache from)
+	{
+		this.name = from.name;
+		this.size = from.size;
+		this.results = new LinkedHashMap<ValueList, Value>(from.results);
+		this.hits = from.hits;
+		this.misses = from.misses;
+		this.uncached = from.uncached;
+	}
+
+	private static void register(FunctionCache cache)
+	{
+		synchronized (caches)
+		{
+			if (collected.poll() != null)
+			{
+				while (collected.poll() != null)
+				{
+					// Drain the queue, then remove all cleared references
+				}
+
+				Iterator<WeakReference<FunctionCache>> iter = caches.iterator();
+
+				while (iter.hasNext())
+				{
+					if (iter.next().get() == null)
+					{
+						iter.remove();
+					}
+				}
+			}
+
+			caches.add(new WeakReference<FunctionCache>(cache, collected));
+		}
+	}
+
+	/**
+	 * Remove all caches, which is called when the specification is initialized.
+	 */
+	public static void reset()
+	{
+		caches.clear();
+	}
+
+	/**
+	 * Copies of the current caches, keyed by the original. This is used by
+	 * StateSnapshot to return the caches to their state after initialization.
+	 */
+	public static Map<FunctionCache, FunctionCache> save()
+	{
+		Map<FunctionCache, FunctionCache> saved = new LinkedHashMap<FunctionCache, FunctionCache>();
+
+		synchronized (caches)
+		{
+			for (WeakReference<FunctionCache> ref: caches)
+			{
+				FunctionCache cache = ref.get();
+
+				if (cache != null)
+				{
+					synchronized (cache)
+					{
+						saved.put(cache, new FunctionCache(cache));
+					}
+				}
+			}
+		}
+
+		return saved;
+	}
+
+	public static void restore(Map<FunctionCache, FunctionCache> saved)
+	{
+		synchronized (caches)
+		{
+			caches.clear();
+
+			for (FunctionCache cache: saved.keySet())
+			{
+				FunctionCache copy = saved.get(cache);
+
+				synchronized (cache)
+				{
+					cache.results.clear();
+					cache.results.putAll(copy.results);
+					cache.hits = copy.hits;
+					cache.misses = copy.misses;
+					cache.uncached = copy.uncached;
+				}
+
+				caches.add(new WeakReference<FunctionCache>(cache, collected));
+			}
+		}
+	}
+
+	/**
+	 * Get a previous result for these arguments, or null.
+	 */
+	public synchronized Value get(ValueList args)
+	{
+		if (!isCacheable(args))
+		{
+			uncached++;
+			return null;
+		}
+
+		Value result = results.get(args);
+
+		if (result == null)
+		{
+			misses++;
+		}
+		else
+		{
+			hits++;
+		}
+
+		return result;
+	}
+
+	public synchronized void put(ValueList args, Value result)
+	{
+		if (isCacheable(args))
+		{
+			results.put(new ValueList(args), result);
+		}
+	}
+
+	private boolean isCacheable(ValueList args)
+	{
+		for (Value arg: args)
+		{
+			arg.hashCode();		// Structured values are only stable once hashed
+
+			if (!arg.isHashStable() || hasObjects(arg))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * True if the value is or contains an object. This is no more expensive than
+	 * the equals test of a cache hit, which also visits every member.
+	 */
+	private static boolean hasObjects(Value value)
+	{
+		Value v = value.deref();
+
+		if (v instanceof ObjectValue || v instanceof OperationValue)
+		{
+			return true;
+		}
+		else if (v instanceof StringSeqValue || v instanceof RangeSetValue)
+		{
+			return false;
+		}
+		else if (v instanceof SeqValue)
+		{
+			SeqValue seq = (SeqValue)v;
+			int length = seq.length();
+
+			for (int i=0; i<length; i++)
+			{
+				if (hasObjects(seq.elementAt(i)))
+				{
+					return true;
+				}
+			}
+		}
+		else if (v instanceof SetValue)
+		{
+			for (Value m: ((SetValue)v).values)
+			{
+				if (hasObjects(m))
+				{
+					return true;
+				}
+			}
+		}
+		else if (v instanceof MapValue)
+		{
+			for (Map.Entry<Value, Value> entry: ((MapValue)v).mapValue(null).entrySet())
+			{
+				if (hasObjects(entry.getKey()) || hasObjects(entry.getValue()))
+				{
+					return true;
+				}
+			}
+		}
+		else if (v instanceof RecordValue)
+		{
+			for (FieldValue field: ((RecordValue)v).fieldmap)
+			{
+				if (hasObjects(field.value))
+				{
+					return true;
+				}
+			}
+		}
+		else if (v instanceof TupleValue)
+		{
+			for (Value m: ((TupleValue)v).values)
+			{
+				if (hasObjects(m))
+				{
+					return true;
+				}
+			}
+		}
+		else if (v instanceof TokenValue)
+		{
+			return hasObjects(((TokenValue)v).value);
+		}
+		else if (v instanceof FunctionValue)
+		{
+			return ((FunctionValue)v).self != null;
+		}
+
+		return false;
+	}
+
+	@Override
+	public synchronized String toString()
+	{
+		return name + ": " + hits + " hits, " + misses + " misses, " +
+			uncached + " uncacheable, " + results.size() + " of " + size + " entries";
+	}
+
+	/**
+	 * A line for each cache that has been used, or an empty string.
+	 */
+	public static String report()
+	{
+		StringBuilder sb = new StringBuilder();
+
+		synchronized (caches)
+		{
+			for (WeakReference<FunctionCache> ref: caches)
+			{
+				FunctionCache cache = ref.get();
+
+				if (cache == null)
+				{
+					continue;
+				}
+
+				synchronized (cache)
+				{
+					if (cache.hits + cache.misses + cache.uncached > 0)
+					{
+						if (sb.length() > 0)
+						{
+							sb.append("\n");
+						}
+
+						sb.append("Function cache ");
+						sb.append(cache);
+					}
+				}
+			}
+		}
+
+		return sb.toString();
+	}
+
+	public static void resetStatistics()
+	{
+		synchronized (caches)
+		{
+			for (WeakReference<FunctionCache> ref: caches)
+			{
+				FunctionCache cache = ref.get();
+
+				if (cache != null)
+				{
+					synchronized (cache)
+					{
+						cache.hits = 0;
+						cache.misses = 0;
+						cache.uncached = 0;
+					}
+				}
+			}
+		}
+	}
+}
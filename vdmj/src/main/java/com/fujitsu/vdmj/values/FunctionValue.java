@@ -27,11 +27,16 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.Vector;
 
 import com.fujitsu.vdmj.Settings;
+import com.fujitsu.vdmj.config.Properties;
+import com.fujitsu.vdmj.in.annotations.INAnnotation;
+import com.fujitsu.vdmj.in.annotations.INAnnotationList;
 import com.fujitsu.vdmj.in.definitions.INClassDefinition;
 import com.fujitsu.vdmj.in.definitions.INExplicitFunctionDefinition;
 import com.fujitsu.vdmj.in.definitions.INImplicitFunctionDefinition;
@@ -50,6 +55,7 @@ import com.fujitsu.vdmj.runtime.PatternMatchException;
 import com.fujitsu.vdmj.runtime.RootContext;
 import com.fujitsu.vdmj.runtime.StateContext;
 import com.fujitsu.vdmj.runtime.ValueException;
+import com.fujitsu.vdmj.scheduler.SchedulableThread;
 import com.fujitsu.vdmj.tc.lex.TCNameToken;
 import com.fujitsu.vdmj.tc.types.TCFunctionType;
 import com.fujitsu.vdmj.tc.types.TCNamedType;
@@ -92,6 +98,12 @@ public class FunctionValue extends Value
 	public boolean isStatic = false;
 	public boolean uninstantiated = false;
 
+	// Context title, built once rather than for every call
+	private String title = null;
+
+	// Set if results are cached, see Properties.in_function_cache and INAnnotation
+	public transient FunctionCache cache = null;
+
 	private FunctionValue(LexLocation location, String name, TCFunctionType type,
 		INPatternListList paramPatternList, INExpression body,
 		FunctionValue precondition, FunctionValue postcondition,
@@ -158,6 +170,8 @@ public class FunctionValue extends Value
 			measureName = def.measureName;
 			measureValues = Collections.synchronizedMap(new HashMap<Long, Stack<Value>>());
 		}
+
+		setCache(def.annotations);
 	}
 
 	public FunctionValue(INImplicitFunctionDefinition def,
@@ -191,6 +205,8 @@ public class FunctionValue extends Value
 			measureName = def.measureName;
 			measureValues = Collections.synchronizedMap(new HashMap<Long, Stack<Value>>());
 		}
+
+		setCache(def.annotations);
 	}
 
 	public FunctionValue(INImplicitFunctionDefinition fdef,
@@ -229,6 +245,26 @@ public class FunctionValue extends Value
 		this.classdef = classdef;
 	}
 
+	/**
+	 * Functions defined in the specification have their results cached if the
+	 * in.function.cache property is set, or if an annotation sets the cache.
+	 */
+	private void setCache(INAnnotationList annotations)
+	{
+		if (Properties.in_function_cache > 0)
+		{
+			cache = new FunctionCache(name, Properties.in_function_cache);
+		}
+
+		if (annotations != null)
+		{
+			for (INAnnotation annotation: annotations)
+			{
+				annotation.inFunctionValue(this);
+			}
+		}
+	}
+
 	@Override
 	public String toString()
 	{
@@ -289,297 +325,376 @@ public class FunctionValue extends Value
 		}
 
 		INPatternList paramPatterns = paramPatternList.get(0);
-		RootContext evalContext = newContext(from, toTitle(), ctxt, sctxt);
+		List<ValueList> tailArgs = null;		// Args of self tail calls, see TailCallValue
 
-		if (typeValues != null)
+		try
 		{
-			// Add any @T type values, for recursive polymorphic functions
-			evalContext.putAll(typeValues);
-		}
+			while (true)
+			{
+				RootContext evalContext = newContext(from, toTitle(), ctxt, sctxt);
 
-		if (argValues.size() != paramPatterns.size())
-		{
-			ExceptionHandler.abort(type.location, 4052, "Wrong number of arguments passed to " + name, ctxt);
-		}
+				if (typeValues != null)
+				{
+					// Add any @T type values, for recursive polymorphic functions
+					evalContext.putAll(typeValues);
+				}
 
-		Iterator<Value> valIter = argValues.iterator();
-		Iterator<TCType> typeIter = type.parameters.iterator();
-		NameValuePairMap args = new NameValuePairMap();
+				if (argValues.size() != paramPatterns.size())
+				{
+					ExceptionHandler.abort(type.location, 4052, "Wrong number of arguments passed to " + name, ctxt);
+				}
 
-		for (INPattern p: paramPatterns)
-		{
-			Value pv = valIter.next();
-
-			// The "old" signature of type invariant functions was inv_T: T +> bool. That means that
-			// you are passing an object of type T to the invariant, rather than the RHS of the type.
-			// This was subsequently changed, so that the signature is inv_T: nat +> bool (for T=nat).
-			// So we can always check the types of the arguments here...
-			//
-			// Was if (checkInvariants)	// Don't even convert invariant arg values
-			{
-				pv = pv.convertTo(typeIter.next(), ctxt);
-			}
+				Iterator<Value> valIter = argValues.iterator();
+				Iterator<TCType> typeIter = type.parameters.iterator();
+				NameValuePairMap args = new NameValuePairMap();
 
-			try
-			{
-				for (NameValuePair nvp: p.getNamedValues(pv, ctxt))
+				for (INPattern p: paramPatterns)
 				{
-					Value v = args.get(nvp.name);
-
-					if (v == null)
+					Value pv = valIter.next();
+
+					// The "old" signature of type invariant functions was inv_T: T +> bool. That means that
+					// you are passing an object of type T to the invariant, rather than the RHS of the type.
+					// This was subsequently changed, so that the signature is inv_T: nat +> bool (for T=nat).
+					// So we can always check the types of the arguments here...
+					//
+					// Was if (checkInvariants)	// Don't even convert invariant arg values
 					{
-						args.put(nvp);
+						pv = pv.convertTo(typeIter.next(), ctxt);
 					}
-					else	// Names match, so values must also
+
+					try
 					{
-						if (!v.equals(nvp.value))
+						for (NameValuePair nvp: p.getNamedValues(pv, ctxt))
 						{
-							abort(4053, "Parameter patterns do not match arguments", ctxt);
+							Value v = args.get(nvp.name);
+
+							if (v == null)
+							{
+								args.put(nvp);
+							}
+							else	// Names match, so values must also
+							{
+								if (!v.equals(nvp.value))
+								{
+									abort(4053, "Parameter patterns do not match arguments", ctxt);
+								}
+							}
 						}
 					}
+					catch (PatternMatchException e)
+					{
+						abort(e.number, e, ctxt);
+					}
 				}
-			}
-			catch (PatternMatchException e)
-			{
-				abort(e.number, e, ctxt);
-			}
-		}
-
-		if (self != null)
-		{
-			evalContext.put(new TCNameToken(location, location.module, "self"), self);
-		}
-
-		evalContext.putAll(args);
-
-		if (freeVariables != null)
-		{
-			evalContext.putAll(freeVariables);
-		}
-		
-		if (paramPatternList.size() == 1)
-		{
-			if (precondition != null && Settings.prechecks)
-			{
-				// Evaluate pre/post in evalContext as it includes the type
-				// variables, if any. We disable the swapping and time (RT)
-				// as precondition checks should be "free".
 
-				try
+				if (self != null)
 				{
-					evalContext.threadState.setAtomic(true);
-					evalContext.setPrepost(4055, "Precondition failure: ");
-					precondition.eval(from, argValues, evalContext);
+					evalContext.put(new TCNameToken(location, location.module, "self"), self);
 				}
-				finally
-				{
-					evalContext.setPrepost(0, null);
-					evalContext.threadState.setAtomic(false);
-				}
-			}
 
-			Long tid = Thread.currentThread().getId();
+				evalContext.putAll(args);
 
-			if (isMeasure)
-			{
-				if (measuringThreads.contains(tid))		// We are measuring on this thread
+				if (freeVariables != null)
 				{
-    				if (!callingThreads.add(tid))		// And we've been here already
-    				{
-    					abort(4148, "Measure function is called recursively: " + name, evalContext);
-    				}
+					evalContext.putAll(freeVariables);
 				}
-			}
-
-			if (measureName != null)
-			{
-				if (measure == null)
+		
+				if (paramPatternList.size() == 1)
 				{
-					measure = evalContext.lookup(measureName).functionValue(ctxt);
+					if (precondition != null && Settings.prechecks)
+					{
+						// Evaluate pre/post in evalContext as it includes the type
+						// variables, if any. We disable the swapping and time (RT)
+						// as precondition checks should be "free".
+
+						try
+						{
+							evalContext.threadState.setAtomic(true);
+							evalContext.setPrepost(4055, "Precondition failure: ");
+							precondition.eval(from, argValues, evalContext);
+						}
+						finally
+						{
+							evalContext.setPrepost(0, null);
+							evalContext.threadState.setAtomic(false);
+						}
+					}
+
+					Long tid = SchedulableThread.currentId();
 
-					if (typeValues != null)		// Function is polymorphic, so measure copies type args
+					if (isMeasure)
 					{
-						measure = (FunctionValue)measure.clone();
-						measure.uninstantiated = false;
-						measure.typeValues = typeValues;
+						if (measuringThreads.contains(tid))		// We are measuring on this thread
+						{
+		    				if (!callingThreads.add(tid))		// And we've been here already
+		    				{
+		    					abort(4148, "Measure function is called recursively: " + name, evalContext);
+		    				}
+						}
 					}
 
-					measure.measuringThreads = Collections.synchronizedSet(new HashSet<Long>());
-					measure.callingThreads = Collections.synchronizedSet(new HashSet<Long>());
-					measure.isMeasure = true;
-				}
+					if (measureName != null)
+					{
+						if (measure == null)
+						{
+							measure = evalContext.lookup(measureName).functionValue(ctxt);
+
+							if (typeValues != null)		// Function is polymorphic, so measure copies type args
+							{
+								measure = (FunctionValue)measure.clone();
+								measure.uninstantiated = false;
+								measure.typeValues = typeValues;
+							}
+
+							measure.measuringThreads = Collections.synchronizedSet(new HashSet<Long>());
+							measure.callingThreads = Collections.synchronizedSet(new HashSet<Long>());
+							measure.isMeasure = true;
+						}
 				
-				// If this is a curried function, then the measure is called with all of the
-				// previously applied argument values, in addition to the argValues.
+						// If this is a curried function, then the measure is called with all of the
+						// previously applied argument values, in addition to the argValues.
 				
-				ValueList measureArgs = null;
+						ValueList measureArgs = null;
 				
-				if (curriedArgs == null)
-				{
-					measureArgs = argValues;
-				}
-				else
-				{
-					measureArgs = new ValueList();
-					measureArgs.addAll(curriedArgs);	// Previous args
-					measureArgs.addAll(argValues);		// Final args
-				}
+						if (curriedArgs == null)
+						{
+							measureArgs = argValues;
+						}
+						else
+						{
+							measureArgs = new ValueList();
+							measureArgs.addAll(curriedArgs);	// Previous args
+							measureArgs.addAll(argValues);		// Final args
+						}
 
-				// We disable the swapping and time (RT) as measure checks should be "free".
-				Value mv;
+						// We disable the swapping and time (RT) as measure checks should be "free".
+						Value mv;
 				
-				try
-				{
-					measure.measuringThreads.add(tid);
-					evalContext.threadState.setAtomic(true);
-					mv = measure.eval(measure.location, measureArgs, evalContext).deref();
-				}
-				finally
-				{
-					evalContext.threadState.setAtomic(false);
-					measure.measuringThreads.remove(tid);
-				}
+						try
+						{
+							measure.measuringThreads.add(tid);
+							evalContext.threadState.setAtomic(true);
+							mv = measure.eval(measure.location, measureArgs, evalContext).deref();
+						}
+						finally
+						{
+							evalContext.threadState.setAtomic(false);
+							measure.measuringThreads.remove(tid);
+						}
 
-				Stack<Value> stack = measureValues.get(tid);
+						Stack<Value> stack = measureValues.get(tid);
 
-				if (stack == null)
-				{
-					stack = new Stack<Value>();
-					measureValues.put(tid, stack);
-				}
+						if (stack == null)
+						{
+							stack = new Stack<Value>();
+							measureValues.put(tid, stack);
+						}
 
-				if (!stack.isEmpty())
-				{
-					Value old = stack.peek();		// Previous value
+						if (!stack.isEmpty())
+						{
+							Value old = stack.peek();		// Previous value
 
-    				if (old != null && mv.compareTo(old) >= 0)		// Not decreasing order
-    				{
-    					String message = "Measure failure: " +
-    						name + Utils.listToString("(", argValues, ", ", ")") + ", measure " +
-    						measure.name + ", current " + mv + ", previous " + old;
+		    				if (old != null && mv.compareTo(old) >= 0)		// Not decreasing order
+		    				{
+		    					String message = "Measure failure: " +
+		    						name + Utils.listToString("(", argValues, ", ", ")") + ", measure " +
+		    						measure.name + ", current " + mv + ", previous " + old;
     					
-    					measure = null;	// Re-initialise counters
-    					abort(4146, message, evalContext);
-    				}
-				}
+		    					measure = null;	// Re-initialise counters
+		    					abort(4146, message, evalContext);
+		    				}
+						}
 
-				stack.push(mv);
-			}
+						stack.push(mv);
+					}
 
-			Value rv = null;
-			
-			try
-			{
-				// Functions are executed atomically, so they can safely access arg object state
-				evalContext.threadState.setAtomic(true);
-				evalContext.threadState.setPure(true);
-				rv = body.eval(evalContext).convertTo(type.result, evalContext);
-			}
-			finally
-			{
-				evalContext.threadState.setAtomic(false);
-				evalContext.threadState.setPure(false);
-			}
+					// A cached result has already passed the postcondition, so that is not
+					// checked again. The precondition and measure are checked as usual.
 
-    		if (ctxt.prepost > 0)	// Note, caller's context is checked
-    		{
-    			if (!rv.boolValue(ctxt))
-    			{
-    				// Note that this calls getLocation to find out where the body
-    				// wants to report its location for this error - this may be an
-    				// errs clause in some circumstances.
+					Value rv = (cache == null) ? null : cache.get(argValues);
+					boolean cached = (rv != null);
 
-    				ExceptionHandler.handle(new ContextException(ctxt.prepost,
-    						ctxt.prepostMsg + name, body.getLocation(), evalContext));
-    			}
-    		}
+					if (!cached)
+					{
+						try
+						{
+							// Functions are executed atomically, so they can safely access arg object state
+							evalContext.threadState.setAtomic(true);
+							evalContext.threadState.setPure(true);
+							rv = body.eval(evalContext);
+						}
+						finally
+						{
+							evalContext.threadState.setAtomic(false);
+							evalContext.threadState.setPure(false);
+						}
 
-			if (postcondition != null && Settings.postchecks)
-			{
-				ValueList postArgs = new ValueList(argValues);
-				postArgs.add(rv);
+						if (rv instanceof TailCallValue)
+						{
+							TailCallValue tail = (TailCallValue)rv;
+
+							if (tail.function == this)
+							{
+								// Loop with the new arguments rather than recursing. The
+								// postcondition and measure of this call are completed
+								// when the final result is known.
+
+								if (tailArgs == null)
+								{
+									tailArgs = new Vector<ValueList>();
+								}
+
+								tailArgs.add(argValues);
+								argValues = tail.args;
+								from = tail.location;
+								continue;
+							}
+							else	// eg. an overriding subclass function
+							{
+								rv = tail.function.eval(tail.location, tail.args, evalContext);
+							}
+						}
 
-				// Evaluate pre/post in evalContext as it includes the type
-				// variables, if any. We disable the swapping and time (RT)
-				// as postcondition checks should be "free".
+						rv = rv.convertTo(type.result, evalContext);
+					}
 
-				try
-				{
-					evalContext.threadState.setAtomic(true);
-					evalContext.setPrepost(4056, "Postcondition failure: ");
-					postcondition.eval(from, postArgs, evalContext);
-				}
-				finally
-				{
-					evalContext.setPrepost(0, null);
-					evalContext.threadState.setAtomic(false);
-				}
-			}
+		    		if (ctxt.prepost > 0)	// Note, caller's context is checked
+		    		{
+		    			if (!rv.boolValue(ctxt))
+		    			{
+		    				// Note that this calls getLocation to find out where the body
+		    				// wants to report its location for this error - this may be an
+		    				// errs clause in some circumstances.
 
-			if (measure != null)
-			{
-				measureValues.get(tid).pop();
-			}
+		    				ExceptionHandler.handle(new ContextException(ctxt.prepost,
+		    						ctxt.prepostMsg + name, body.getLocation(), evalContext));
+		    			}
+		    		}
 
-			if (isMeasure)
-			{
-				callingThreads.remove(tid);
-			}
+					completeCall(from, argValues, rv, cached, evalContext, tid);
 
-			return rv;
-		}
-		else	// This is a curried function
-		{
-			if (type.result instanceof TCFunctionType)
-			{
-				// If a curried function has a pre/postcondition, then the
-				// result of a partial application has a pre/post condition
-				// with its free variables taken from the environment (so
-				// that parameters passed are fixed in subsequent applies).
+					if (tailArgs != null)
+					{
+						// Complete the self tail calls that led here, which all return rv
 
-				FunctionValue newpre = null;
+						for (int i = tailArgs.size() - 1; i >= 0; i--)
+						{
+							completeCall(from, tailArgs.get(i), rv, false, evalContext, tid);
+						}
+					}
 
-				if (precondition != null)
-				{
-					newpre = precondition.curry(evalContext);
+					if (isMeasure)
+					{
+						callingThreads.remove(tid);
+					}
+
+					return rv;
 				}
+				else	// This is a curried function
+				{
+					if (type.result instanceof TCFunctionType)
+					{
+						// If a curried function has a pre/postcondition, then the
+						// result of a partial application has a pre/post condition
+						// with its free variables taken from the environment (so
+						// that parameters passed are fixed in subsequent applies).
 
-				FunctionValue newpost = null;
+						FunctionValue newpre = null;
 
-				if (postcondition != null)
-				{
-					newpost = postcondition.curry(evalContext);
-				}
+						if (precondition != null)
+						{
+							newpre = precondition.curry(evalContext);
+						}
+
+						FunctionValue newpost = null;
+
+						if (postcondition != null)
+						{
+							newpost = postcondition.curry(evalContext);
+						}
 
-				// Curried arguments are collected so that we can invoke any measure functions
-				// once we reach the final apply that does not return a function.
+						// Curried arguments are collected so that we can invoke any measure functions
+						// once we reach the final apply that does not return a function.
 				
-				ValueList argList = new ValueList();
+						ValueList argList = new ValueList();
 				
-				if (curriedArgs != null)
-				{
-					argList.addAll(curriedArgs);
-				}
+						if (curriedArgs != null)
+						{
+							argList.addAll(curriedArgs);
+						}
 				
-				argList.addAll(argValues);
+						argList.addAll(argValues);
 
-    			FunctionValue rv = new FunctionValue(location, "curried",
-    				(TCFunctionType)type.result,
-    				paramPatternList.subList(1, paramPatternList.size()),
-    				body, newpre, newpost, evalContext, false, argList,
-    				measureName, measureValues, classdef);
+		    			FunctionValue rv = new FunctionValue(location, "curried",
+		    				(TCFunctionType)type.result,
+		    				paramPatternList.subList(1, paramPatternList.size()),
+		    				body, newpre, newpost, evalContext, false, argList,
+		    				measureName, measureValues, classdef);
 
-    			rv.setSelf(self);
-    			rv.typeValues = typeValues;
+		    			rv.setSelf(self);
+		    			rv.typeValues = typeValues;
 
-        		return rv;
+		        		return rv;
+					}
+
+					ExceptionHandler.abort(type.location, 4057, "Curried function return type is not a function", ctxt);
+					return null;
+				}
+			}
+		}
+		catch (ValueException e)
+		{
+			if (tailArgs == null)
+			{
+				throw e;
 			}
 
-			ExceptionHandler.abort(type.location, 4057, "Curried function return type is not a function", ctxt);
+			// Report at the tail call, as the application would have done
+			ExceptionHandler.handle(new ContextException(e, from));
 			return null;
 		}
 	}
 
+	/**
+	 * Check the postcondition, cache the result and pop the measure value of a
+	 * call that has returned rv.
+	 */
+	private void completeCall(LexLocation from, ValueList argValues, Value rv,
+		boolean cached, Context evalContext, Long tid) throws ValueException
+	{
+		if (!cached && postcondition != null && Settings.postchecks)
+		{
+			ValueList postArgs = new ValueList(argValues);
+			postArgs.add(rv);
+
+			// Evaluate pre/post in evalContext as it includes the type
+			// variables, if any. We disable the swapping and time (RT)
+			// as postcondition checks should be "free".
+
+			try
+			{
+				evalContext.threadState.setAtomic(true);
+				evalContext.setPrepost(4056, "Postcondition failure: ");
+				postcondition.eval(from, postArgs, evalContext);
+			}
+			finally
+			{
+				evalContext.setPrepost(0, null);
+				evalContext.threadState.setAtomic(false);
+			}
+		}
+
+		if (cache != null && !cached)
+		{
+			cache.put(argValues, rv);
+		}
+
+		if (measure != null)
+		{
+			measureValues.get(tid).pop();
+		}
+	}
+
 	private RootContext newContext(LexLocation from, String title, Context ctxt, Context sctxt)
 	{
 		RootContext evalContext;
@@ -764,8 +879,13 @@ public class FunctionValue extends Value
 
 	public String toTitle()
 	{
-		INPatternList paramPatterns = paramPatternList.get(0);
-		return name + Utils.listToString("(", paramPatterns, ", ", ")");
+		if (title == null)
+		{
+			INPatternList paramPatterns = paramPatternList.get(0);
+			title = name + Utils.listToString("(", paramPatterns, ", ", ")");
+		}
+
+		return title;
 	}
 
 	@Override
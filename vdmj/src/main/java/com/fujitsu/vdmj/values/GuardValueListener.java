@@ -33,6 +33,7 @@ import com.fujitsu.vdmj.messages.RTLogger;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.scheduler.Lock;
+import com.fujitsu.vdmj.scheduler.SchedulableThread;
 
 public class GuardValueListener implements ValueListener, Serializable
 {
@@ -52,15 +53,15 @@ public class GuardValueListener implements ValueListener, Serializable
 			if (Settings.dialect == Dialect.VDM_PP)
 			{
 				System.err.println(String.format("%s updated value %s",
-					Thread.currentThread(), location));
+					SchedulableThread.current(), location));
 			}
 			else
 			{
 				RTLogger.log(String.format("-- %s updated value %s",
-					Thread.currentThread(), location));
+					SchedulableThread.current(), location));
 			}
 		}
 
-		lock.signal();
+		lock.signal(this);		// Only wakes waiters on this guard
 	}
 }
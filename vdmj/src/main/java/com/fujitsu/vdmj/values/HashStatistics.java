@@ -0,0 +1,70 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+package com.fujitsu.vdmj.values;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fujitsu.vdmj.config.Properties;
+
+/**
+ * Counts of the hashCode calls on structured values that were answered from a
+ * cached hash, and those that had to calculate it. These are only maintained
+ * if the diags.hashcodes property is set.
+ */
+public class HashStatistics
+{
+	private static final AtomicLong hits = new AtomicLong();
+	private static final AtomicLong misses = new AtomicLong();
+
+	public static void hit()
+	{
+		if (Properties.diags_hashcodes)
+		{
+			hits.incrementAndGet();
+		}
+	}
+
+	public static void miss()
+	{
+		if (Properties.diags_hashcodes)
+		{
+			misses.incrementAndGet();
+		}
+	}
+
+	public static void reset()
+	{
+		hits.set(0);
+		misses.set(0);
+	}
+
+	public static String report()
+	{
+		long h = hits.get();
+		long total = h + misses.get();
+		long percent = (total == 0) ? 0 : (100 * h / total);
+
+		return "Hash codes: " + h + " cached of " + total + " (" + percent + "%)";
+	}
+}
@@ -274,6 +274,12 @@ public class InvariantValue extends ReferenceValue
 	}
 
 	@Override
+	public boolean isHashStable()
+	{
+		return equality != null || super.isHashStable();
+	}
+
+	@Override
 	public <R, S> R apply(ValueVisitor<R, S> visitor, S arg)
 	{
 		return visitor.caseInvariantValue(this, arg);
@@ -24,6 +24,7 @@
 package com.fujitsu.vdmj.values;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -143,24 +144,33 @@ public class InvariantValueMap implements Map<Value, Value>
 	}
 
 	/**
-	 * Returns a list of maps, with the map entries in all possible orders.
+	 * Returns the maps with the map entries in all possible orders, each created
+	 * when it is needed.
 	 */
-	public List<Map<Value, Value>> permutedMaps()
+	public Iterator<Map<Value, Value>> permutations()
 	{
 		// This is a 1st order permutation, which does not take account of the possible
 		// nesting of maps or the presence of other permutable values with them (sets).
 
-		List<Map<Value, Value>> results = new Vector<Map<Value, Value>>();
-
 		if (size == 0)
 		{
-			results.add(new ValueMap());	// Just {|->}
+			List<Map<Value, Value>> empty = new Vector<Map<Value, Value>>();
+			empty.add(new ValueMap());	// Just {|->}
+			return empty.iterator();
 		}
-		else
+
+		PermuteArray p = new PermuteArray(size);
+
+		return new Iterator<Map<Value, Value>>()
 		{
-			PermuteArray p = new PermuteArray(size);
+			@Override
+			public boolean hasNext()
+			{
+				return p.hasNext();
+			}
 
-			while (p.hasNext())
+			@Override
+			public Map<Value, Value> next()
 			{
 				InvariantValueMap m = new InvariantValueMap();
 				int[] perm = p.next();
@@ -170,11 +180,9 @@ public class InvariantValueMap implements Map<Value, Value>
 					m.put(domain.get(perm[i]), range.get(perm[i]));
 				}
 
-				results.add(m);
+				return m;
 			}
-		}
-
-		return results;
+		};
 	}
 
 	@Override
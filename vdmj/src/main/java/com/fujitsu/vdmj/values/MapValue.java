@@ -23,6 +23,8 @@
 
 package com.fujitsu.vdmj.values;
 
+import java.util.Map.Entry;
+
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.tc.types.TCInMapType;
@@ -34,7 +36,17 @@ import com.fujitsu.vdmj.values.visitors.ValueVisitor;
 public class MapValue extends Value
 {
 	private static final long serialVersionUID = 1L;
-	public final ValueMap values;
+	public ValueMap values;		// Null until mapValue() for a SharedMapValue
+
+	// Set when the values are known to conform to this map type
+	protected transient TCType conforms = null;
+
+	// Set when the hashCode is known and cannot change, see hashCode
+	protected transient int hash = 0;
+	protected transient volatile boolean hashed = false;
+
+	// Set for the values of updatable maps, which are changed in place
+	protected transient boolean mutable = false;
 
 	public MapValue()
 	{
@@ -63,7 +75,9 @@ public class MapValue extends Value
 			nm.put(k, v);
 		}
 
-		return UpdatableValue.factory(new MapValue(nm), listeners);
+		MapValue result = new MapValue(nm);
+		result.mutable = true;
+		return UpdatableValue.factory(result, listeners);
 	}
 
 	@Override
@@ -102,7 +116,17 @@ public class MapValue extends Value
     		if (val instanceof MapValue)
     		{
     			MapValue ot = (MapValue)val;
-    			return values.equals(ot.values);
+
+    			if (ot == this)
+    			{
+    				return true;
+    			}
+    			else if (hashed && ot.hashed && hash != ot.hash)
+    			{
+    				return false;
+    			}
+
+    			return values.equals(ot.mapValue(null));
     		}
 		}
 
@@ -118,7 +142,39 @@ public class MapValue extends Value
 	@Override
 	public int hashCode()
 	{
-		return values.hashCode();
+		if (hashed)
+		{
+			HashStatistics.hit();
+			return hash;
+		}
+
+		// Same as ValueMap.hashCode. The hash is cached if no key or range can change.
+
+		HashStatistics.miss();
+		int h = 0;
+		boolean stable = !mutable;
+
+		for (Entry<Value, Value> entry: values.entrySet())
+		{
+			Value k = entry.getKey();
+			Value v = entry.getValue();
+			h += k.hashCode() ^ v.hashCode();
+			stable = stable && k.isHashStable() && v.isHashStable();
+		}
+
+		if (stable)
+		{
+			hash = h;
+			hashed = true;
+		}
+
+		return h;
+	}
+
+	@Override
+	public boolean isHashStable()
+	{
+		return hashed;		// Only known after hashCode
 	}
 
 	@Override
@@ -137,14 +193,23 @@ public class MapValue extends Value
 				abort(4062, "Cannot convert non-injective map to an inmap", ctxt);
 			}
 
+			if (to == conforms)
+			{
+				return this;	// Already converted, typically a recursive function argument
+			}
+
 			TCMapType mapto = to.getMap();
 			ValueMap nm = new ValueMap();
+			boolean changed = mutable;		// Updatable maps must be copied
+			boolean updatable = false;
 
 			for (Value k: values.keySet())
 			{
 				Value v = values.get(k);
 				Value dom = k.convertValueTo(mapto.from, ctxt);
 				Value rng = v.convertValueTo(mapto.to, ctxt);
+				changed = changed || dom != k || rng != v;
+				updatable = updatable || dom instanceof UpdatableValue || rng instanceof UpdatableValue;
 
 				Value old = nm.put(dom, rng);
 
@@ -154,7 +219,20 @@ public class MapValue extends Value
 				}
 			}
 
-			return new MapValue(nm);
+			if (!changed)
+			{
+				conforms = to;
+				return this;
+			}
+
+			MapValue result = new MapValue(nm);
+
+			if (!updatable)		// Updatable members must be copied by conversions
+			{
+				result.conforms = to;
+			}
+
+			return result;
 		}
 		else
 		{
@@ -23,12 +23,12 @@
 
 package com.fujitsu.vdmj.values;
 
-import java.util.Vector;
+import java.util.ArrayList;
 import com.fujitsu.vdmj.tc.lex.TCNameToken;
 import com.fujitsu.vdmj.util.Utils;
 
 @SuppressWarnings("serial")
-public class NameValuePairList extends Vector<NameValuePair>
+public class NameValuePairList extends ArrayList<NameValuePair>
 {
 	public NameValuePairList()
 	{
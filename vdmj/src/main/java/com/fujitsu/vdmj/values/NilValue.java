@@ -43,7 +43,11 @@ public class NilValue extends Value
 	@Override
 	public boolean equals(Object other)
 	{
-		if (other instanceof Value)
+		if (other == this)
+		{
+			return true;	// Canonical values, see ValueFactory
+		}
+		else if (other instanceof Value)
 		{
 			Value val = ((Value)other).deref();
 			return val instanceof NilValue;
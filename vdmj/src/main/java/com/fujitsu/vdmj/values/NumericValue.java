@@ -75,7 +75,7 @@ public abstract class NumericValue extends Value
 		{
 			try
 			{
-				return new NaturalOneValue(iv);
+				return ValueFactory.mkNat1(iv);
 			}
 			catch (Exception e)
 			{
@@ -87,7 +87,7 @@ public abstract class NumericValue extends Value
 		{
 			try
 			{
-				return new NaturalValue(iv);
+				return ValueFactory.mkNat(iv);
 			}
 			catch (Exception e)
 			{
@@ -95,7 +95,7 @@ public abstract class NumericValue extends Value
 			}
 		}
 
-		return new IntegerValue(iv);
+		return ValueFactory.mkInt(iv);
 	}
 
 	public static boolean areIntegers(Value l, Value r)
@@ -163,7 +163,11 @@ public abstract class NumericValue extends Value
 	@Override
 	public boolean equals(Object other)
 	{
-		if (other instanceof Value)
+		if (other == this)
+		{
+			return true;	// Canonical values, see ValueFactory
+		}
+		else if (other instanceof Value)
 		{
 			Value val = ((Value)other).deref();
 
@@ -555,6 +555,42 @@ public class ObjectValue extends Value
 		nextObjectReference = 0;
 	}
 
+	static synchronized int getNextReference()
+	{
+		return nextObjectReference;
+	}
+
+	static synchronized void setNextReference(int next)
+	{
+		nextObjectReference = next;
+	}
+
+	/**
+	 * True if the object runs on the virtual CPU and has no delegate instance,
+	 * so that StateSnapshot can return it to its initialized state.
+	 */
+	synchronized boolean isRestorable()
+	{
+		return (CPU == null || CPU == CPUValue.vCPU) && delegateObject == null;
+	}
+
+	/**
+	 * Return the object to the state it had after initialization. The virtual
+	 * CPU is recreated by each init, so the object is moved to the current one.
+	 */
+	synchronized void restore()
+	{
+		if (CPU != null)
+		{
+			CPU = CPUValue.vCPU;
+		}
+
+		delegateObject = null;
+		periodicCount = 0;
+		periodicOverlaps = 0;
+		guardLock.reset();
+	}
+
 	public void setListener(ClassInvariantListener listener)
 	{
 		invlistener = listener;
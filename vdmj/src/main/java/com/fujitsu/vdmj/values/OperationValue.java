@@ -23,8 +23,10 @@
 
 package com.fujitsu.vdmj.values;
 
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.Set;
 
 import com.fujitsu.vdmj.Release;
 import com.fujitsu.vdmj.Settings;
@@ -36,6 +38,7 @@ import com.fujitsu.vdmj.in.definitions.INStateDefinition;
 import com.fujitsu.vdmj.in.definitions.INSystemDefinition;
 import com.fujitsu.vdmj.in.expressions.INAndExpression;
 import com.fujitsu.vdmj.in.expressions.INExpression;
+import com.fujitsu.vdmj.in.expressions.INHistoryExpression;
 import com.fujitsu.vdmj.in.patterns.INPattern;
 import com.fujitsu.vdmj.in.patterns.INPatternList;
 import com.fujitsu.vdmj.in.statements.INStatement;
@@ -45,6 +48,7 @@ import com.fujitsu.vdmj.ast.lex.LexKeywordToken;
 import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.lex.Token;
 import com.fujitsu.vdmj.messages.RTLogger;
+import com.fujitsu.vdmj.messages.rtlog.RTEventKind;
 import com.fujitsu.vdmj.runtime.ClassContext;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ContextException;
@@ -92,12 +96,18 @@ public class OperationValue extends Value
 	public boolean isAsync = false;
 
 	private INExpression guard = null;
+	private GuardValueListener guardListener = null;
+	private Set<Object> guardInputs = null;
+	private boolean guardInputsFound = false;
 
 	public int hashAct = 0; // Number of activations
 	public int hashFin = 0; // Number of finishes
 	public int hashReq = 0; // Number of requests
 
 	private long priority = 0;
+
+	// Context title, built once rather than for every call
+	private String title = null;
 	private boolean traceRT = true;
 
 	public OperationValue(INExplicitOperationDefinition def,
@@ -197,16 +207,50 @@ public class OperationValue extends Value
 	{
 		if (guard != null)
 		{
-			ValueListener vl = new GuardValueListener(getGuardLock());
+			guardListener = new GuardValueListener(getGuardLock());
 
 			for (Value v: guard.getValues(ctxt))
 			{
 				UpdatableValue uv = (UpdatableValue)v;
-				uv.addListener(vl);
+				uv.addListener(guardListener);
 			}
 		}
 	}
 
+	/**
+	 * The inputs of the guard are its GuardValueListener, which signals changes
+	 * to the values that it reads, and the names of the operations whose history
+	 * counters it reads, which are signalled by notifySelf. A null result means
+	 * that the inputs are not known, and any signal must re-evaluate the guard.
+	 */
+	private synchronized Set<Object> getGuardInputs()
+	{
+		if (!guardInputsFound)
+		{
+			guardInputsFound = true;
+
+			// Static guards have no listener, and guards that call functions or
+			// operations, or read fields or the time, may read values that are
+			// not signalled, so their inputs are not known.
+
+			if (guardListener != null && guard.getUnsignalled().isEmpty())
+			{
+				guardInputs = new HashSet<Object>();
+				guardInputs.add(guardListener);
+
+				for (INExpression exp: guard.getHistoryExpressions())
+				{
+					for (TCNameToken opname: ((INHistoryExpression)exp).opnames)
+					{
+						guardInputs.add(opname.getName());
+					}
+				}
+			}
+		}
+
+		return guardInputs;
+	}
+
 	public Value eval(LexLocation from, ValueList argValues, Context ctxt)
 		throws ValueException
 	{
@@ -490,7 +534,7 @@ public class OperationValue extends Value
 
 	private void guard(Context ctxt) throws ValueException
 	{
-		if (!(Thread.currentThread() instanceof SchedulableThread))
+		if (SchedulableThread.current() == null)
 		{
 			return;		// Probably during initialization.
 		}
@@ -526,12 +570,13 @@ public class OperationValue extends Value
 			}
 
 			// The guardLock list is signalled by the GuardValueListener
-			// and by notifySelf when something changes. The guardOp
+			// and by notifySelf when something changes, but we are only
+			// woken if the change is one of the guard's inputs. The guardOp
 			// is set to indicate the guard state to any breakpoints.
 
 			debug("guard WAIT");
 			ctxt.guardOp = this;
-			lock.block(ctxt, guard.location);
+			lock.block(ctxt, guard.location, getGuardInputs());
 			ctxt.guardOp = null;
 			debug("guard WAKE");
 		}
@@ -546,7 +591,7 @@ public class OperationValue extends Value
 		if (lock != null)
 		{
 			debug("Signal guard");
-			lock.signal();
+			lock.signal(name.getName());	// Our history counters changed
 		}
 	}
 
@@ -562,14 +607,9 @@ public class OperationValue extends Value
 		// "from" CPU, whereas the OpActivate and OpComplete are made
 		// by the called object, using self's CPU (see trace(msg)).
 
-		RTLogger.log(
-			"OpRequest -> id: " + Thread.currentThread().getId() +
-			" opname: \"" + name + "\"" +
-			" objref: " + self.objectReference +
-			" clnm: \"" + self.type.name.getName() + "\"" +
-			" cpunm: " + from.getNumber() +
-			" async: " + isAsync
-			);
+		RTLogger.log(RTEventKind.OP_REQUEST,
+			SchedulableThread.currentId(), name, self.objectReference,
+			self.type.name.getName(), from.getNumber(), isAsync);
 
 		if (from != to)		// Remote CPU call
 		{
@@ -679,7 +719,7 @@ public class OperationValue extends Value
 
 		if (logreq)		// Async OpRequests are made in asyncEval
 		{
-			trace("OpRequest");
+			trace(RTEventKind.OP_REQUEST);
 		}
 
 		debug("#req = " + hashReq);
@@ -691,7 +731,7 @@ public class OperationValue extends Value
 
 		if (!ResourceScheduler.isStopping())
 		{
-			trace("OpActivate");
+			trace(RTEventKind.OP_ACTIVATE);
 			debug("#act = " + hashAct);
 		}
 	}
@@ -702,50 +742,39 @@ public class OperationValue extends Value
 
 		if (!ResourceScheduler.isStopping())
 		{
-			trace("OpCompleted");
+			trace(RTEventKind.OP_COMPLETED);
 			debug("#fin = " + hashFin);
 		}
 	}
 
-	private void trace(String kind)
+	private void trace(RTEventKind kind)
 	{
 		if (traceRT)
 		{
-			Thread ct = Thread.currentThread();
+			SchedulableThread ct = SchedulableThread.current();
+			long id = SchedulableThread.currentId();
 
 			if (isStatic)
 			{
 				int cpu = 0;
 
-				if (ct instanceof SchedulableThread)
+				if (ct != null)
 				{
-					SchedulableThread th = (SchedulableThread)ct;
-					cpu = th.getCPUResource().getNumber();
+					cpu = ct.getCPUResource().getNumber();
 				}
 				else
 				{
 					cpu = 0;	// Initialization on vCPU
 				}
 
-	    		RTLogger.log(
-	    			kind + " -> id: " + ct.getId() +
-	    			" opname: \"" + name + "\"" +
-	    			" objref: nil" +
-	    			" clnm: \"" + classdef.name.getName() + "\"" +
-	    			" cpunm: " + cpu +
-	    			" async: " + isAsync
-	    			);
+	    		RTLogger.log(kind,
+	    			id, name, null, classdef.name.getName(), cpu, isAsync);
 			}
 			else
 			{
-        		RTLogger.log(
-        			kind + " -> id: " + ct.getId() +
-        			" opname: \"" + name + "\"" +
-        			" objref: " + self.objectReference +
-        			" clnm: \"" + self.type.name.getName() + "\"" +
-        			" cpunm: " + self.getCPU().getNumber() +
-        			" async: " + isAsync
-        			);
+        		RTLogger.log(kind,
+        			id, name, self.objectReference, self.type.name.getName(),
+        			self.getCPU().getNumber(), isAsync);
 			}
 		}
 	}
@@ -760,12 +789,12 @@ public class OperationValue extends Value
 			if (Settings.dialect == Dialect.VDM_PP)
 			{
 				System.err.println(String.format("%s %s %s",
-					Thread.currentThread(), name, string));
+					SchedulableThread.current(), name, string));
 			}
 			else
 			{
 				RTLogger.log(String.format("-- %s %s %s",
-					Thread.currentThread(), name, string));
+					SchedulableThread.current(), name, string));
 			}
 		}
 	}
@@ -787,7 +816,12 @@ public class OperationValue extends Value
 
 	public String toTitle()
 	{
-		return name.getName() + Utils.listToString("(", paramPatterns, ", ", ")");
+		if (title == null)
+		{
+			title = name.getName() + Utils.listToString("(", paramPatterns, ", ", ")");
+		}
+
+		return title;
 	}
 
 	@Override
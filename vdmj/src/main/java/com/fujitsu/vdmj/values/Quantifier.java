@@ -25,6 +25,7 @@ package com.fujitsu.vdmj.values;
 
 import java.util.List;
 import java.util.Vector;
+import java.util.function.Predicate;
 
 import com.fujitsu.vdmj.in.patterns.INPattern;
 import com.fujitsu.vdmj.runtime.Context;
@@ -67,6 +68,15 @@ public class Quantifier
 		return nvlist.size();
 	}
 
+	/**
+	 * Remove the values for which the test is false, after size() has been called.
+	 */
+	public int filter(Predicate<NameValuePairList> test)
+	{
+		nvlist.removeIf(nvpl -> !test.test(nvpl));
+		return nvlist.size();
+	}
+
 	public NameValuePairList get(int index)
 		throws PatternMatchException
 	{
@@ -23,14 +23,17 @@
 
 package com.fujitsu.vdmj.values;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Vector;
+import java.util.function.Predicate;
 
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.PatternMatchException;
 
 
 @SuppressWarnings("serial")
-public class QuantifierList extends Vector<Quantifier>
+public class QuantifierList extends ArrayList<Quantifier>
 {
 	private int count;
 	private int[] size;
@@ -38,6 +41,38 @@ public class QuantifierList extends Vector<Quantifier>
 	private NameValuePairList result = null;
 	private boolean done = false;
 
+	private List<Filter> filters = new Vector<Filter>();
+	private List<List<Filter>> levels;		// Filters by lowest quantifier index
+	private int changed;					// Highest quantifier index changed
+
+	/**
+	 * A test of the values of some of the quantifiers, which is false if every
+	 * binding with those values can be skipped (see INQuantifierFilter).
+	 */
+	private static class Filter
+	{
+		public final int[] quantifiers;
+		public final Predicate<NameValuePairList> test;
+
+		public Filter(int[] quantifiers, Predicate<NameValuePairList> test)
+		{
+			this.quantifiers = quantifiers;
+			this.test = test;
+		}
+	}
+
+	/**
+	 * Add a filter before init is called. A filter of one quantifier removes values
+	 * from that quantifier. Otherwise it is tested whenever the quantifiers it uses
+	 * change, and skips every combination of the other quantifiers' values when it
+	 * fails. Since the first quantifier varies fastest, that is most effective when
+	 * the filter does not use the first quantifiers.
+	 */
+	public void addFilter(int[] quantifiers, Predicate<NameValuePairList> test)
+	{
+		filters.add(new Filter(quantifiers, test));
+	}
+
 	public void init(Context ctxt, boolean allPossibilities)
 	{
 		count = size();
@@ -49,18 +84,50 @@ public class QuantifierList extends Vector<Quantifier>
 		for (int i=0; i<count; i++)
 		{
 			size[i] = get(i).size(ctxt, allPossibilities);
+			next[i] = 0;
+		}
+
+		levels = new Vector<List<Filter>>(count);
+
+		for (int i=0; i<count; i++)
+		{
+			levels.add(new Vector<Filter>());
+		}
+
+		for (Filter filter: filters)
+		{
+			if (filter.quantifiers.length == 1)
+			{
+				int q = filter.quantifiers[0];
+				size[q] = get(q).filter(filter.test);
+			}
+			else
+			{
+				levels.get(filter.quantifiers[0]).add(filter);
+			}
+		}
+
+		for (int i=0; i<count; i++)
+		{
 			someData = someData || size[i] > 0;
 			oneHasNoData = oneHasNoData || size[i] == 0;
-			next[i] = 0;
 		}
 
 		done = count == 0 || !someData || oneHasNoData;
+		changed = count - 1;
 	}
 
-	private void permute()
+	private void permute(int from)
 	{
-		for (int i=0; i<count; i++)
+		for (int i=0; i<from; i++)
+		{
+			next[i] = 0;
+		}
+
+		for (int i=from; i<count; i++)
 		{
+			changed = i;
+
 			if (++next[i] < size[i])
 			{
 				break;
@@ -75,6 +142,40 @@ public class QuantifierList extends Vector<Quantifier>
 		}
 	}
 
+	/**
+	 * Test the filters that use a quantifier which has changed, returning the
+	 * highest quantifier index of a filter that fails, or -1.
+	 */
+	private int failedLevel()
+	{
+		for (int level = changed; level > 0; level--)
+		{
+			for (Filter filter: levels.get(level))
+			{
+				try
+				{
+					NameValuePairList values = new NameValuePairList();
+
+					for (int q: filter.quantifiers)
+					{
+						values.addAll(get(q).get(next[q]));
+					}
+
+					if (!filter.test.test(values))
+					{
+						return level;
+					}
+				}
+				catch (PatternMatchException e)
+				{
+					// Not filtered
+				}
+			}
+		}
+
+		return -1;
+	}
+
 	public NameValuePairList next()
 	{
 		return result;
@@ -84,6 +185,16 @@ public class QuantifierList extends Vector<Quantifier>
 	{
 		while (!done)
 		{
+			int failed = failedLevel();
+
+			if (failed >= 0)
+			{
+				permute(failed);	// Skip all values of the quantifiers below
+				continue;
+			}
+
+			changed = -1;
+
 			try
 			{
            		result = new NameValuePairList();
@@ -94,12 +205,12 @@ public class QuantifierList extends Vector<Quantifier>
         			result.addAll(q.get(next[i]));
         		}
 
-        		permute();
+        		permute(0);
         		return true;
 			}
 			catch (PatternMatchException e)
 			{
-				permute();		// Bad matches are ignored
+				permute(0);		// Bad matches are ignored
 			}
 		}
 
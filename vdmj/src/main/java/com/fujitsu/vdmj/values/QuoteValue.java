@@ -49,7 +49,11 @@ public class QuoteValue extends Value
 	@Override
 	public boolean equals(Object other)
 	{
-		if (other instanceof Value)
+		if (other == this)
+		{
+			return true;	// Canonical values, see ValueFactory
+		}
+		else if (other instanceof Value)
 		{
 			Value val = ((Value)other).deref();
 
@@ -0,0 +1,327 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+package com.fujitsu.vdmj.values;
+
+import com.fujitsu.vdmj.messages.InternalException;
+import com.fujitsu.vdmj.runtime.Context;
+import com.fujitsu.vdmj.runtime.ValueException;
+import com.fujitsu.vdmj.tc.types.TCIntegerType;
+import com.fujitsu.vdmj.tc.types.TCNaturalOneType;
+import com.fujitsu.vdmj.tc.types.TCNaturalType;
+import com.fujitsu.vdmj.tc.types.TCSet1Type;
+import com.fujitsu.vdmj.tc.types.TCSetType;
+import com.fujitsu.vdmj.tc.types.TCType;
+import com.fujitsu.vdmj.tc.types.TCTypeSet;
+
+/**
+ * A set of integers {first, ..., last}, as created by a set range expression.
+ * Cardinality, membership, subset, equality and iteration are answered from the
+ * bounds. The ValueSet of members is only created when an operation needs one,
+ * via setValue().
+ */
+public class RangeSetValue extends SetValue
+{
+	private static final long serialVersionUID = 1L;
+	public final long first;
+	public final long last;
+	private final TCType elemtype;	// int, nat or nat1 (null means int)
+
+	public RangeSetValue(long first, long last)
+	{
+		this(first, last, null);
+	}
+
+	private RangeSetValue(long first, long last, TCType elemtype)
+	{
+		super(null, false);		// Values created on demand
+
+		if (last < first)	// Normalize empty ranges
+		{
+			first = 1;
+			last = 0;
+		}
+		else if (last - first + 1 <= 0)
+		{
+			throw new InternalException(67, "Set range too large: {" + first + ", ..., " + last + "}");
+		}
+
+		this.first = first;
+		this.last = last;
+		this.elemtype = elemtype;
+	}
+
+	public long card()
+	{
+		return last - first + 1;
+	}
+
+	/**
+	 * The card() of the range as an int, for creating a ValueList or ValueSet.
+	 */
+	private int size()
+	{
+		long n = card();
+
+		if (n > Integer.MAX_VALUE)
+		{
+			throw new InternalException(67, "Set range too large to enumerate: {" +
+				first + ", ..., " + last + "}");
+		}
+
+		return (int)n;
+	}
+
+	public boolean isEmpty()
+	{
+		return last < first;
+	}
+
+	public boolean contains(Value v)
+	{
+		v = v.deref();
+
+		if (v instanceof NumericValue)
+		{
+			double d = ((NumericValue)v).value;
+			return d >= first && d <= last && d == Math.rint(d);
+		}
+
+		return false;
+	}
+
+	/**
+	 * True if every member of the set passed is in this range.
+	 */
+	public boolean containsAll(SetValue other)
+	{
+		if (other instanceof RangeSetValue)
+		{
+			RangeSetValue or = (RangeSetValue)other;
+			return or.isEmpty() || (or.first >= first && or.last <= last);
+		}
+
+		for (Value v: other.setValue(null))
+		{
+			if (!contains(v))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * The members of the range, in order, without creating a ValueSet.
+	 */
+	public ValueList valueList()
+	{
+		ValueList list = new ValueList(size());
+
+		for (long i=first; i<=last; i++)
+		{
+			list.add(element(i));
+		}
+
+		return list;
+	}
+
+	private Value element(long i)
+	{
+		try
+		{
+			if (elemtype instanceof TCNaturalOneType)
+			{
+				return new NaturalOneValue(i);
+			}
+			else if (elemtype instanceof TCNaturalType)
+			{
+				return new NaturalValue(i);
+			}
+			else
+			{
+				return new IntegerValue(i);
+			}
+		}
+		catch (Exception e)
+		{
+			throw new InternalException(5, "Illegal range element " + i);
+		}
+	}
+
+	@Override
+	public synchronized ValueSet setValue(Context ctxt)
+	{
+		if (values == null)
+		{
+			ValueSet set = new ValueSet(size());
+
+			for (long i=first; i<=last; i++)
+			{
+				set.addNoCheck(element(i));
+			}
+
+			set.sort();		// Already in order, so cheap
+			values = set;
+		}
+
+		return values;
+	}
+
+	@Override
+	public Value getUpdatable(ValueListenerList listeners)
+	{
+		return UpdatableValue.factory(this, listeners);		// Members are immutable
+	}
+
+	@Override
+	public Value getConstant()
+	{
+		return this;
+	}
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof Value)
+		{
+			Value val = ((Value)other).deref();
+
+			if (val instanceof RangeSetValue)
+			{
+				RangeSetValue or = (RangeSetValue)val;
+				return or.first == first && or.last == last;
+			}
+			else if (val instanceof SetValue)
+			{
+				SetValue ot = (SetValue)val;
+				return ot.setValue(null).size() == card() && containsAll(ot);
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder("{");
+		String sep = "";
+
+		for (long i=first; i<=last; i++)
+		{
+			sb.append(sep);
+			sb.append(i);
+			sep = ", ";
+		}
+
+		sb.append("}");
+		return sb.toString();
+	}
+
+	@Override
+	public int hashCode()
+	{
+		// Same as ValueSet.hashCode, which is the int sum of the members' hashCodes,
+		// which are (int)i. The long sum below is exact modulo 2^64, even when the
+		// products overflow, so its low 32 bits are the same as that int sum.
+
+		long n = card();
+		long sum;
+
+		if (n % 2 == 0)
+		{
+			sum = (n / 2) * (first + last);
+		}
+		else
+		{
+			sum = n * (first + (last - first) / 2);		// n odd, so first + last even
+		}
+
+		return (int)sum;
+	}
+
+	@Override
+	public boolean isHashStable()
+	{
+		return true;
+	}
+
+	@Override
+	public ValueList permutedSets()
+	{
+		setValue(null);
+		return super.permutedSets();
+	}
+
+	@Override
+	protected Value convertValueTo(TCType to, Context ctxt, TCTypeSet done) throws ValueException
+	{
+		if (to instanceof TCSetType)
+		{
+			if (to instanceof TCSet1Type && isEmpty())
+			{
+				abort(4170, "Cannot convert empty set to set1", ctxt);
+			}
+
+			TCType setof = ((TCSetType)to).setof;
+
+			if (setof instanceof TCIntegerType)
+			{
+				return this;
+			}
+			else if (setof instanceof TCNaturalType)
+			{
+				if (elemtype instanceof TCNaturalType || elemtype instanceof TCNaturalOneType)
+				{
+					return this;
+				}
+				else if (isEmpty() || first >= 0)
+				{
+					return new RangeSetValue(first, last, setof);
+				}
+			}
+			else if (setof instanceof TCNaturalOneType)
+			{
+				if (elemtype instanceof TCNaturalOneType)
+				{
+					return this;
+				}
+				else if (isEmpty() || first >= 1)
+				{
+					return new RangeSetValue(first, last, setof);
+				}
+			}
+		}
+
+		setValue(ctxt);
+		return super.convertValueTo(to, ctxt, done);
+	}
+
+	@Override
+	public Object clone()
+	{
+		return new RangeSetValue(first, last, elemtype);
+	}
+}
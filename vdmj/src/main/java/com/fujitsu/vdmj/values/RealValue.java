@@ -127,7 +127,10 @@ public class RealValue extends NumericValue
 	@Override
 	public int hashCode()
 	{
-		return toString().hashCode();
+		// Must be consistent with IntegerValue, as equals() compares numerically,
+		// so that ValueSet and ValueMap hashing will find "1 = 1.0".
+		long rounded = (long)value;
+		return (rounded == value) ? (int)rounded : Double.hashCode(value);
 	}
 
 	@Override
@@ -43,12 +43,16 @@ public class RecordValue extends Value
 	public final FunctionValue invariant;
 	public final FunctionValue equality;
 	public final FunctionValue ordering;
+
+	// Set when the hashCode is known and cannot change, see hashCode
+	private transient int hash = 0;
+	private transient volatile boolean hashed = false;
 	
 	// mk_ expressions
 	public RecordValue(TCRecordType type, ValueList values, Context ctxt) throws ValueException
 	{
 		this.type = type;
-		this.fieldmap = new FieldMap();
+		this.fieldmap = new FieldMap(type.fields.size());
 		this.invariant = type.getInvariant(ctxt);
 		this.equality = type.getEquality(ctxt);
 		this.ordering = type.getOrder(ctxt);
@@ -63,7 +67,7 @@ public class RecordValue extends Value
 		for (Value v: values)
 		{
 			TCField f = fi.next();
-			fieldmap.add(f.tag, v.convertTo(f.type, ctxt), !f.equalityAbstraction);
+			fieldmap.addNoCheck(f.tag, v.convertTo(f.type, ctxt), !f.equalityAbstraction);
 		}
 		
 		checkInvariant(ctxt);
@@ -74,7 +78,7 @@ public class RecordValue extends Value
 		throws ValueException
 	{
 		this.type = type;
-		this.fieldmap = new FieldMap();
+		this.fieldmap = new FieldMap(type.fields.size());
 		this.invariant = type.getInvariant(ctxt);
 		this.equality = type.getEquality(ctxt);
 		this.ordering = type.getOrder(ctxt);
@@ -84,19 +88,18 @@ public class RecordValue extends Value
 			abort(4080, "Wrong number of fields for " + type.name, ctxt);
 		}
 
-		Iterator<TCField> fi = type.fields.iterator();
+		int index = 0;
 
-		while (fi.hasNext())
+		for (TCField f: type.fields)
 		{
-			TCField f = fi.next();
-			Value v = mapvalues.get(f.tag);
+			Value v = mapvalues.get(f.tag, index++);
 
 			if (v == null)
 			{
 				abort(4081, "ASTField not defined: " + f.tag, ctxt);
 			}
 
-			fieldmap.add(f.tag, v.convertTo(f.type, ctxt), !f.equalityAbstraction);
+			fieldmap.addNoCheck(f.tag, v.convertTo(f.type, ctxt), !f.equalityAbstraction);
 		}
 
 		checkInvariant(ctxt);
@@ -188,12 +191,12 @@ public class RecordValue extends Value
 			listeners = list;
 		}
 
-		FieldMap nm = new FieldMap();
+		FieldMap nm = new FieldMap(fieldmap.size());
 
 		for (FieldValue fv: fieldmap)
 		{
 			Value uv = fv.value.getUpdatable(listeners);
-			nm.add(fv.name, uv, fv.comparable);
+			nm.addNoCheck(fv.name, uv, fv.comparable);
 		}
 
 		UpdatableValue uval = UpdatableValue.factory(new RecordValue(type, nm, invariant, equality, ordering), listeners);
@@ -210,12 +213,12 @@ public class RecordValue extends Value
 	@Override
 	public Value getConstant()
 	{
-		FieldMap nm = new FieldMap();
+		FieldMap nm = new FieldMap(fieldmap.size());
 
 		for (FieldValue fv: fieldmap)
 		{
 			Value uv = fv.value.getConstant();
-			nm.add(fv.name, uv, fv.comparable);
+			nm.addNoCheck(fv.name, uv, fv.comparable);
 		}
 
 		return new RecordValue(type, nm, invariant, equality, ordering);
@@ -231,8 +234,16 @@ public class RecordValue extends Value
     		if (val instanceof RecordValue)
     		{
     			RecordValue ot = (RecordValue)val;
-    
-    			if (ot.type.equals(type))
+
+    			if (ot == this)
+    			{
+    				return true;
+    			}
+    			else if (hashed && ot.hashed && hash != ot.hash)
+    			{
+    				return false;
+    			}
+    			else if (ot.type.equals(type))
     			{
     				if (equality != null)
     				{
@@ -260,12 +271,14 @@ public class RecordValue extends Value
     				}
     				else
     				{
+	    				int index = 0;
+
 	    				for (TCField f: type.fields)
 	    				{
 	    					if (!f.equalityAbstraction)
 	    					{
-	    						Value fv = fieldmap.get(f.tag);
-	    						Value ofv = ot.fieldmap.get(f.tag);
+	    						Value fv = fieldmap.get(f.tag, index);
+	    						Value ofv = ot.fieldmap.get(f.tag, index);
 	    
 	    						if (fv == null || ofv == null)
 	    						{
@@ -277,6 +290,8 @@ public class RecordValue extends Value
 	    							return false;
 	    						}
 	    					}
+
+	    					index++;
 	    				}
     				}
     
@@ -337,12 +352,14 @@ public class RecordValue extends Value
 				}
 				else
 				{
+					int index = 0;
+
 					for (TCField f: type.fields)
 					{
 						if (!f.equalityAbstraction)
 						{
-							Value fv = fieldmap.get(f.tag);
-							Value ofv = ot.fieldmap.get(f.tag);
+							Value fv = fieldmap.get(f.tag, index);
+							Value ofv = ot.fieldmap.get(f.tag, index);
 	
 							if (fv == null || ofv == null)
 							{
@@ -356,6 +373,8 @@ public class RecordValue extends Value
 								return comp;
 							}
 						}
+
+						index++;
 					}
 
 					return 0;
@@ -376,13 +395,14 @@ public class RecordValue extends Value
 
 		if (fi.hasNext())
 		{
+    		int index = 0;
     		String ftag = fi.next().tag;
-    		sb.append(fieldmap.get(ftag));
+    		sb.append(fieldmap.get(ftag, index++));
 
     		while (fi.hasNext())
     		{
     			ftag = fi.next().tag;
-    			sb.append(", " + fieldmap.get(ftag));
+    			sb.append(", " + fieldmap.get(ftag, index++));
     		}
 		}
 
@@ -393,7 +413,46 @@ public class RecordValue extends Value
 	@Override
 	public int hashCode()
 	{
-		return type.name.hashCode() + fieldmap.hashCode();
+		if (hashed)
+		{
+			HashStatistics.hit();
+			return hash;
+		}
+
+		HashStatistics.miss();
+		int h = type.name.hashCode();
+		boolean stable = true;
+
+		if (equality == null)
+		{
+			// Same as FieldMap.hashCode. The hash is cached if no field can change.
+
+			for (FieldValue fv: fieldmap)
+			{
+				if (fv.comparable)
+				{
+					h += fv.value.hashCode();
+					stable = stable && fv.value.isHashStable();
+				}
+			}
+		}
+
+		// else, as with InvariantValue, a hash consistent with an "eq" clause can only
+		// depend on the type.
+
+		if (stable)
+		{
+			hash = h;
+			hashed = true;
+		}
+
+		return h;
+	}
+
+	@Override
+	public boolean isHashStable()
+	{
+		return hashed;		// Only known after hashCode
 	}
 
 	@Override
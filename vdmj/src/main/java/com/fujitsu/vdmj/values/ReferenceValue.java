@@ -227,6 +227,12 @@ abstract public class ReferenceValue extends Value
 		return value.hashCode();
 	}
 
+	@Override
+	public boolean isHashStable()
+	{
+		return value.isHashStable();
+	}
+
 	@Override
 	public String toString()
 	{
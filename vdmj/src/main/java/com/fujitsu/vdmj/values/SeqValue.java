@@ -38,7 +38,17 @@ import com.fujitsu.vdmj.values.visitors.ValueVisitor;
 public class SeqValue extends Value
 {
 	private static final long serialVersionUID = 1L;
-	public final ValueList values;
+	public ValueList values;		// Null until seqValue() for a SliceSeqValue
+
+	// Set when the values are known to conform to this element type
+	protected transient TCType conforms = null;
+
+	// Set when the hashCode is known and cannot change, see hashCode
+	protected transient int hash = 0;
+	protected transient volatile boolean hashed = false;
+
+	// Set for the values of updatable sequences, which are changed in place
+	protected transient boolean mutable = false;
 
 	public SeqValue()
 	{
@@ -72,6 +82,28 @@ public class SeqValue extends Value
 		return values;
 	}
 
+	/**
+	 * The length of the sequence, and the ith member (from zero), which allow
+	 * sequence slices to be accessed without creating their ValueList.
+	 */
+	public int length()
+	{
+		return values.size();
+	}
+
+	public Value elementAt(int i)
+	{
+		return values.get(i);
+	}
+
+	/**
+	 * The element type that all members are known to conform to, or null.
+	 */
+	public TCType conformsTo()
+	{
+		return conforms;
+	}
+
 	@Override
 	public String stringValue(Context ctxt)
 	{
@@ -109,7 +141,9 @@ public class SeqValue extends Value
 			nseq.add(v);
 		}
 
-		return UpdatableValue.factory(new SeqValue(nseq), listeners);
+		SeqValue result = new SeqValue(nseq);
+		result.mutable = true;
+		return UpdatableValue.factory(result, listeners);
 	}
 
 	@Override
@@ -140,6 +174,20 @@ public class SeqValue extends Value
     		if (val instanceof SeqValue)
     		{
     			SeqValue ot = (SeqValue)val;
+
+    			if (ot == this)
+    			{
+    				return true;
+    			}
+    			else if (hashed && ot.hashed && hash != ot.hash)
+    			{
+    				return false;
+    			}
+    			else if (ot instanceof SliceSeqValue || ot instanceof StringSeqValue)
+    			{
+    				return ot.equals(this);		// Compares without creating values
+    			}
+
     			return values.equals(ot.values);
     		}
 		}
@@ -156,7 +204,39 @@ public class SeqValue extends Value
 	@Override
 	public int hashCode()
 	{
-		return values.hashCode();
+		if (hashed)
+		{
+			HashStatistics.hit();
+			return hash;
+		}
+
+		// Same as ValueList.hashCode. The hash is cached if no member can change.
+
+		HashStatistics.miss();
+		int h = 1;
+		boolean stable = !mutable;
+		int length = length();
+
+		for (int i=0; i<length; i++)
+		{
+			Value v = elementAt(i);
+			h = 31 * h + v.hashCode();
+			stable = stable && v.isHashStable();
+		}
+
+		if (stable)
+		{
+			hash = h;
+			hashed = true;
+		}
+
+		return h;
+	}
+
+	@Override
+	public boolean isHashStable()
+	{
+		return hashed;		// Only known after hashCode
 	}
 
 	@Override
@@ -180,14 +260,30 @@ public class SeqValue extends Value
 			}
 
 			TCSeqType seqto = (TCSeqType)to;
-			ValueList nl = new ValueList();
+
+			if (seqto.seqof == conforms)
+			{
+				return this;	// Already converted, typically a recursive function argument
+			}
+
+			ValueList nl = new ValueList(values.size());
+			boolean updatable = false;
 
 			for (Value v: values)
 			{
-				nl.add(v.convertValueTo(seqto.seqof, ctxt));
+				Value cv = v.convertValueTo(seqto.seqof, ctxt);
+				updatable = updatable || cv instanceof UpdatableValue;
+				nl.add(cv);
+			}
+
+			SeqValue result = new SeqValue(nl);
+
+			if (!updatable)		// Updatable members must be copied by conversions
+			{
+				result.conforms = seqto.seqof;
 			}
 
-			return new SeqValue(nl);
+			return result;
 		}
 		else
 		{
@@ -37,7 +37,14 @@ import com.fujitsu.vdmj.values.visitors.ValueVisitor;
 public class SetValue extends Value
 {
 	private static final long serialVersionUID = 1L;
-	public final ValueSet values;
+	public ValueSet values;		// Null until setValue() for a RangeSetValue
+
+	// Set when the hashCode is known and cannot change, see hashCode
+	private transient int hash = 0;
+	private transient volatile boolean hashed = false;
+
+	// Set for the values of updatable sets, which are changed in place
+	private transient boolean mutable = false;
 
 	public SetValue()
 	{
@@ -86,7 +93,9 @@ public class SetValue extends Value
 			nset.add(v);
 		}
 
-		return UpdatableValue.factory(new SetValue(nset, false), listeners);
+		SetValue result = new SetValue(nset, false);
+		result.mutable = true;
+		return UpdatableValue.factory(result, listeners);
 	}
 
 	@Override
@@ -113,6 +122,20 @@ public class SetValue extends Value
     		if (val instanceof SetValue)
     		{
     			SetValue ot = (SetValue)val;
+
+    			if (ot == this)
+    			{
+    				return true;
+    			}
+    			else if (hashed && ot.hashed && hash != ot.hash)
+    			{
+    				return false;
+    			}
+    			else if (ot instanceof RangeSetValue)
+    			{
+    				return ot.equals(this);		// Compares without creating values
+    			}
+
     			return values.equals(ot.values);
     		}
 		}
@@ -129,7 +152,37 @@ public class SetValue extends Value
 	@Override
 	public int hashCode()
 	{
-		return values.hashCode();
+		if (hashed)
+		{
+			HashStatistics.hit();
+			return hash;
+		}
+
+		// Same as ValueSet.hashCode. The hash is cached if no member can change.
+
+		HashStatistics.miss();
+		int h = 0;
+		boolean stable = !mutable;
+
+		for (Value v: values)
+		{
+			h += v.hashCode();
+			stable = stable && v.isHashStable();
+		}
+
+		if (stable)
+		{
+			hash = h;
+			hashed = true;
+		}
+
+		return h;
+	}
+
+	@Override
+	public boolean isHashStable()
+	{
+		return hashed;		// Only known after hashCode
 	}
 
 	public ValueList permutedSets()
@@ -0,0 +1,437 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.values;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fujitsu.vdmj.runtime.Context;
+import com.fujitsu.vdmj.runtime.ValueException;
+import com.fujitsu.vdmj.tc.types.TCInMapType;
+import com.fujitsu.vdmj.tc.types.TCMapType;
+import com.fujitsu.vdmj.tc.types.TCType;
+import com.fujitsu.vdmj.tc.types.TCTypeSet;
+
+/**
+ * A map which shares a buffer of entries with other maps. This is produced by "++"
+ * and "munion" expressions, so that a recursion that adds to a map does not copy
+ * the whole map at every level.
+ *
+ * The newest map of a buffer, its tip, uses the buffer's ValueMap directly. When
+ * the tip is extended, the buffer is changed in place and the old tip keeps the
+ * changes needed to undo that, so the ValueMap of an older map is only rebuilt
+ * if mapValue() is called for it. Calling mapValue() for the tip freezes the
+ * buffer, and anything else makes a new buffer.
+ */
+public class SharedMapValue extends MapValue
+{
+	private static final long serialVersionUID = 1L;
+
+	private static class Buffer implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+		public final ValueMap map;
+		public SharedMapValue tip = null;
+		public boolean frozen = false;		// Set when the tip uses the map as its values
+
+		public Buffer(ValueMap map)
+		{
+			this.map = map;
+		}
+	}
+
+	private static class Change implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+		public final Value key;
+		public final Value old;		// Null if the key was added
+
+		public Change(Value key, Value old)
+		{
+			this.key = key;
+			this.old = old;
+		}
+	}
+
+	private final Buffer buffer;
+
+	// The changes from the map that this extends, and the type that it conformed to
+	private final List<Change> changes;
+	private transient TCType previous;
+
+	// Set when this map is extended, to the new tip and the changes to undo
+	private SharedMapValue next = null;
+	private List<Change> undo = null;
+
+	private SharedMapValue(Buffer buffer, List<Change> changes, TCType previous)
+	{
+		super((ValueMap)null);	// Values created on demand
+		this.buffer = buffer;
+		this.changes = changes;
+		this.previous = previous;
+		buffer.tip = this;
+	}
+
+	/**
+	 * Return the map "left ++ right".
+	 */
+	public static MapValue override(MapValue left, ValueMap right)
+	{
+		if (left instanceof SharedMapValue)
+		{
+			SharedMapValue shared = (SharedMapValue)left;
+
+			if (right.isEmpty())
+			{
+				return shared;
+			}
+
+			synchronized (shared.buffer)
+			{
+				if (shared.isTip())
+				{
+					List<Change> changes = put(shared.buffer.map, right);
+					shared.next = new SharedMapValue(shared.buffer, changes, shared.conforms);
+					shared.undo = changes;
+					return shared.next;
+				}
+			}
+		}
+
+		ValueMap map = new ValueMap(left.mapValue(null));
+		List<Change> changes = put(map, right);
+		return new SharedMapValue(new Buffer(map), changes, left.conforms);
+	}
+
+	/**
+	 * Return the map "left munion right". Either map can be extended, since the
+	 * result is the same if the keys they share have equal values. So the one
+	 * that is a tip, typically the result of an earlier "munion", is used.
+	 */
+	public static MapValue union(MapValue left, MapValue right, Context ctxt) throws ValueException
+	{
+		if (isTip(right) && !isTip(left))
+		{
+			MapValue swap = left;
+			left = right;
+			right = swap;
+		}
+
+		ValueMap rm = right.mapValue(ctxt);
+
+		for (Value k: rm.keySet())
+		{
+			Value rng = rm.get(k);
+			Value old = get(left, k);
+
+			if (old != null && !old.equals(rng))
+			{
+				left.abort(4021, "Duplicate map keys have different values: " + k, ctxt);
+			}
+		}
+
+		return override(left, rm);
+	}
+
+	private static List<Change> put(ValueMap map, ValueMap right)
+	{
+		List<Change> changes = new ArrayList<Change>(right.size());
+
+		for (Value k: right.keySet())
+		{
+			Value old = map.put(k, right.get(k));
+			changes.add(new Change(k, old));
+		}
+
+		return changes;
+	}
+
+	private static boolean isTip(MapValue map)
+	{
+		if (map instanceof SharedMapValue)
+		{
+			SharedMapValue shared = (SharedMapValue)map;
+
+			synchronized (shared.buffer)
+			{
+				return shared.isTip();
+			}
+		}
+
+		return false;
+	}
+
+	private static Value get(MapValue map, Value key)
+	{
+		if (map instanceof SharedMapValue)
+		{
+			SharedMapValue shared = (SharedMapValue)map;
+
+			synchronized (shared.buffer)
+			{
+				if (shared.isTip())
+				{
+					return shared.buffer.map.get(key);
+				}
+			}
+		}
+
+		return map.mapValue(null).get(key);
+	}
+
+	/**
+	 * True if this map can use the buffer without freezing it. Called with the
+	 * buffer locked.
+	 */
+	private boolean isTip()
+	{
+		return values == null && !buffer.frozen && buffer.tip == this;
+	}
+
+	@Override
+	public ValueMap mapValue(Context ctxt)
+	{
+		synchronized (buffer)
+		{
+			if (values == null)
+			{
+				if (buffer.tip == this)
+				{
+					buffer.frozen = true;	// No more changes, so the map can be shared
+					values = buffer.map;
+				}
+				else
+				{
+					values = rebuild();
+				}
+			}
+
+			return values;
+		}
+	}
+
+	/**
+	 * Rebuild the map of an older map, by undoing the changes made by the maps
+	 * that extended it, newest first. Called with the buffer locked.
+	 */
+	private ValueMap rebuild()
+	{
+		List<SharedMapValue> chain = new ArrayList<SharedMapValue>();
+		SharedMapValue newer = this;
+
+		while (newer.values == null && newer != buffer.tip)
+		{
+			chain.add(newer);
+			newer = newer.next;
+		}
+
+		ValueMap map = new ValueMap(newer.values == null ? buffer.map : newer.values);
+
+		for (int i = chain.size() - 1; i >= 0; i--)
+		{
+			for (Change change: chain.get(i).undo)
+			{
+				if (change.old == null)
+				{
+					map.remove(change.key);
+				}
+				else
+				{
+					map.put(change.key, change.old);
+				}
+			}
+		}
+
+		return map;
+	}
+
+	@Override
+	public Value lookup(Value arg, Context ctxt) throws ValueException
+	{
+		synchronized (buffer)
+		{
+			if (isTip())
+			{
+				Value v = buffer.map.get(arg);
+
+				if (v == null)
+				{
+					abort(4061, "No such key value in map: " + arg, ctxt);
+				}
+
+				return v;
+			}
+		}
+
+		mapValue(ctxt);
+		return super.lookup(arg, ctxt);
+	}
+
+	@Override
+	public boolean equals(Object other)
+	{
+		mapValue(null);
+		return super.equals(other);
+	}
+
+	@Override
+	public String toString()
+	{
+		mapValue(null);
+		return super.toString();
+	}
+
+	@Override
+	public int hashCode()
+	{
+		mapValue(null);
+		return super.hashCode();
+	}
+
+	@Override
+	public Value getUpdatable(ValueListenerList listeners)
+	{
+		mapValue(null);
+		return super.getUpdatable(listeners);
+	}
+
+	@Override
+	public Value getConstant()
+	{
+		mapValue(null);
+		return super.getConstant();
+	}
+
+	@Override
+	protected Value convertValueTo(TCType to, Context ctxt, TCTypeSet done) throws ValueException
+	{
+		if (to instanceof TCMapType && !(to instanceof TCInMapType))
+		{
+			// A tip is checked in place, rather than frozen and copied. Only the
+			// changes are checked if the map it extended conformed to the type,
+			// so converting an argument that was built by "++" is usually only
+			// a check of the newest entries.
+
+			if (to == conforms)
+			{
+				return this;
+			}
+			else if (checkTip((TCMapType)to, ctxt))
+			{
+				conforms = to;
+				return this;
+			}
+		}
+
+		mapValue(ctxt);
+		return super.convertValueTo(to, ctxt, done);
+	}
+
+	/**
+	 * Check whether a tip's entries conform to a map type without changes. A range
+	 * value that converts to an equal value with the same hash, like a nat to an
+	 * invariant type, is stored back into the buffer, as for sequence slices.
+	 */
+	private boolean checkTip(TCMapType mapto, Context ctxt) throws ValueException
+	{
+		ValueList keys = new ValueList();
+		ValueList ranges = new ValueList();
+
+		synchronized (buffer)
+		{
+			if (!isTip())
+			{
+				return false;
+			}
+			else if (changes != null && previous == mapto)
+			{
+				for (Change change: changes)
+				{
+					keys.add(change.key);
+				}
+			}
+			else
+			{
+				keys.addAll(buffer.map.keySet());
+			}
+
+			for (Value k: keys)
+			{
+				ranges.add(buffer.map.get(k));
+			}
+		}
+
+		// Conversions can evaluate invariants, so the buffer is not locked
+
+		ValueList rkeys = new ValueList();
+		ValueList rvalues = new ValueList();
+
+		for (int i=0; i<keys.size(); i++)
+		{
+			Value k = keys.get(i);
+			Value v = ranges.get(i);
+			Value dom = k.convertValueTo(mapto.from, ctxt);
+			Value rng = v.convertValueTo(mapto.to, ctxt);
+
+			if (dom != k || rng instanceof UpdatableValue)
+			{
+				return false;
+			}
+			else if (rng != v)
+			{
+				if (rng.hashCode() != v.hashCode())
+				{
+					return false;
+				}
+
+				rkeys.add(k);
+				rvalues.add(rng);
+			}
+		}
+
+		synchronized (buffer)
+		{
+			if (!isTip())
+			{
+				return false;
+			}
+
+			for (int i=0; i<rkeys.size(); i++)
+			{
+				buffer.map.put(rkeys.get(i), rvalues.get(i));
+			}
+
+			return true;
+		}
+	}
+
+	@Override
+	public Object clone()
+	{
+		mapValue(null);
+		return super.clone();
+	}
+}
@@ -0,0 +1,438 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+package com.fujitsu.vdmj.values;
+
+import java.io.Serializable;
+import java.util.Formatter;
+
+import com.fujitsu.vdmj.runtime.Context;
+import com.fujitsu.vdmj.runtime.ValueException;
+import com.fujitsu.vdmj.tc.types.TCSeq1Type;
+import com.fujitsu.vdmj.tc.types.TCSeqType;
+import com.fujitsu.vdmj.tc.types.TCType;
+import com.fujitsu.vdmj.tc.types.TCTypeSet;
+
+/**
+ * A sequence which is a slice of a buffer shared with other sequences. This is
+ * produced by "tl" and "^" expressions, so that a recursion that takes the tail
+ * of a sequence or appends to the end of one does not copy the whole sequence
+ * at every level.
+ *
+ * Members are only ever appended to the end of a buffer, so the slice of it that
+ * a value uses never changes. An append to a slice which ends at the end of its
+ * buffer extends the buffer in place; anything else makes a new buffer. The
+ * ValueList of the members is only created when seqValue() is called.
+ */
+public class SliceSeqValue extends SeqValue
+{
+	private static final long serialVersionUID = 1L;
+
+	private static class Buffer implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+		public final ValueList list;
+		public boolean frozen = false;		// Set when a slice uses the list as its values
+
+		// Members from..to are known to conform to this type
+		public transient TCType conforms = null;
+		public int confFrom = 0;
+		public int confTo = 0;
+
+		public Buffer(int size)
+		{
+			list = new ValueList(size);
+		}
+	}
+
+	private final Buffer buffer;
+	private final int start;
+	private final int end;
+
+	private SliceSeqValue(Buffer buffer, int start, int end)
+	{
+		super((ValueList)null);	// Values created on demand
+		this.buffer = buffer;
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Return the tail of a non-empty sequence.
+	 */
+	public static SeqValue tail(SeqValue seq)
+	{
+		if (seq instanceof SliceSeqValue)
+		{
+			SliceSeqValue slice = (SliceSeqValue)seq;
+			return new SliceSeqValue(slice.buffer, slice.start + 1, slice.end);
+		}
+		else
+		{
+			int length = seq.length();
+			Buffer buffer = new Buffer(length);
+
+			for (int i=1; i<length; i++)
+			{
+				buffer.list.add(seq.elementAt(i));
+			}
+
+			setConforms(buffer, seq, 0, length - 1);
+			return new SliceSeqValue(buffer, 0, length - 1);
+		}
+	}
+
+	/**
+	 * Return the concatenation of two sequences.
+	 */
+	public static SeqValue concat(SeqValue left, SeqValue right)
+	{
+		int rlength = right.length();
+
+		if (left instanceof SliceSeqValue)
+		{
+			SliceSeqValue slice = (SliceSeqValue)left;
+
+			if (rlength == 0)
+			{
+				return slice;
+			}
+
+			synchronized (slice.buffer)
+			{
+				if (!slice.buffer.frozen && slice.end == slice.buffer.list.size())
+				{
+					for (int i=0; i<rlength; i++)
+					{
+						slice.buffer.list.add(right.elementAt(i));
+					}
+
+					return new SliceSeqValue(slice.buffer, slice.start, slice.end + rlength);
+				}
+			}
+		}
+		else if (right instanceof SliceSeqValue && left.length() == 0)
+		{
+			return right;
+		}
+
+		int llength = left.length();
+		Buffer buffer = new Buffer(llength + rlength);
+
+		for (int i=0; i<llength; i++)
+		{
+			buffer.list.add(left.elementAt(i));
+		}
+
+		for (int i=0; i<rlength; i++)
+		{
+			buffer.list.add(right.elementAt(i));
+		}
+
+		setConforms(buffer, left, 0, llength);
+		return new SliceSeqValue(buffer, 0, llength + rlength);
+	}
+
+	private static void setConforms(Buffer buffer, SeqValue from, int start, int end)
+	{
+		TCType type = from.conformsTo();
+
+		if (type != null)
+		{
+			buffer.conforms = type;
+			buffer.confFrom = start;
+			buffer.confTo = end;
+		}
+	}
+
+	@Override
+	public int length()
+	{
+		return end - start;
+	}
+
+	@Override
+	public Value elementAt(int i)
+	{
+		return buffer.list.get(start + i);
+	}
+
+	@Override
+	public TCType conformsTo()
+	{
+		synchronized (buffer)
+		{
+			if (buffer.confFrom <= start && end <= buffer.confTo)
+			{
+				return buffer.conforms;
+			}
+			else
+			{
+				return null;
+			}
+		}
+	}
+
+	@Override
+	public ValueList seqValue(Context ctxt)
+	{
+		synchronized (buffer)
+		{
+			if (values == null)
+			{
+				if (start == 0 && end == buffer.list.size())
+				{
+					buffer.frozen = true;	// No more appends, so the list can be shared
+					values = buffer.list;
+				}
+				else
+				{
+					ValueList list = new ValueList(end - start);
+					list.addAll(buffer.list.subList(start, end));
+					values = list;
+				}
+			}
+
+			return values;
+		}
+	}
+
+	@Override
+	public Value get(Value arg, Context ctxt) throws ValueException
+	{
+		int i = (int)arg.nat1Value(ctxt);
+
+		if (i < 1 || i > length())
+		{
+			abort(4083, "Sequence index out of range: " + arg, ctxt);
+		}
+
+		return elementAt(i-1);		// NB 1st = 1
+	}
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof Value)
+		{
+			Value val = ((Value)other).deref();
+
+			if (val instanceof SeqValue)
+			{
+				SeqValue ot = (SeqValue)val;
+				int length = length();
+
+				if (ot == this)
+				{
+					return true;
+				}
+				else if (hashed && ot.hashed && hash != ot.hash)
+				{
+					return false;
+				}
+				else if (ot.length() != length)
+				{
+					return false;
+				}
+
+				for (int i=0; i<length; i++)
+				{
+					if (!elementAt(i).equals(ot.elementAt(i)))
+					{
+						return false;
+					}
+				}
+
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public String toString()
+	{
+		return seqValue(null).toString();
+	}
+
+	@Override
+	public String stringValue(Context ctxt)
+	{
+		seqValue(ctxt);
+		return super.stringValue(ctxt);
+	}
+
+	@Override
+	public void formatTo(Formatter formatter, int flags, int width, int precision)
+	{
+		seqValue(null);
+		super.formatTo(formatter, flags, width, precision);
+	}
+
+	@Override
+	public Value getUpdatable(ValueListenerList listeners)
+	{
+		seqValue(null);
+		return super.getUpdatable(listeners);
+	}
+
+	@Override
+	public Value getConstant()
+	{
+		seqValue(null);
+		return super.getConstant();
+	}
+
+	@Override
+	protected Value convertValueTo(TCType to, Context ctxt, TCTypeSet done) throws ValueException
+	{
+		if (to instanceof TCSeqType)
+		{
+			if (to instanceof TCSeq1Type && length() == 0)
+			{
+				abort(4084, "Cannot convert empty sequence to seq1", ctxt);
+			}
+
+			// Members that are known to conform are not checked again, so converting
+			// an argument that was built by appending or taking tails is usually
+			// only a check of the newest members. A member that is converted to an
+			// equal value, like a nat to an invariant type, is stored back into the
+			// buffer, so that it is not converted (and the slice copied) again.
+
+			TCType seqof = ((TCSeqType)to).seqof;
+			int from = start;
+
+			synchronized (buffer)
+			{
+				if (buffer.conforms == seqof && buffer.confFrom <= start && start <= buffer.confTo)
+				{
+					from = Math.max(start, buffer.confTo);
+				}
+			}
+
+			for (int i=from; i<end; i++)
+			{
+				Value v = buffer.list.get(i);
+				Value cv = v.convertValueTo(seqof, ctxt);
+
+				if (cv != v && !replace(i, v, cv))
+				{
+					return convertedCopy(seqof, i, cv, ctxt);
+				}
+			}
+
+			synchronized (buffer)
+			{
+				if (buffer.conforms == seqof && buffer.confFrom <= start && start <= buffer.confTo)
+				{
+					buffer.confTo = Math.max(end, buffer.confTo);
+				}
+				else
+				{
+					buffer.conforms = seqof;
+					buffer.confFrom = start;
+					buffer.confTo = end;
+				}
+			}
+
+			return this;
+		}
+
+		seqValue(ctxt);
+		return super.convertValueTo(to, ctxt, done);
+	}
+
+	/**
+	 * Replace buffer member i, v, with its conversion cv, if other slices which share
+	 * the member would see an equal value. Updatable values must be copied by conversions, and a different
+	 * hashCode would change the hash of any slice that includes the member. Members
+	 * known to conform to another type are left, so that remains true.
+	 */
+	private boolean replace(int i, Value v, Value cv)
+	{
+		if (cv instanceof UpdatableValue || cv.hashCode() != v.hashCode())
+		{
+			return false;
+		}
+
+		synchronized (buffer)
+		{
+			if (buffer.conforms != null && buffer.confFrom <= i && i < buffer.confTo)
+			{
+				return false;
+			}
+
+			buffer.list.set(i, cv);
+			return true;
+		}
+	}
+
+	/**
+	 * Make a converted copy of the slice, given that member "changed" is the first
+	 * to be changed by the conversion, to cv. The members before that are unchanged,
+	 * so only the rest are converted. The copy is a slice of a new buffer, so that
+	 * its tails and appends are not copied again.
+	 */
+	private SeqValue convertedCopy(TCType seqof, int changed, Value cv, Context ctxt)
+		throws ValueException
+	{
+		int length = end - start;
+		Buffer nb = new Buffer(length);
+		ValueList nl = nb.list;
+		boolean updatable = false;
+
+		for (int i=start; i<changed; i++)
+		{
+			Value v = buffer.list.get(i);
+			updatable = updatable || v instanceof UpdatableValue;
+			nl.add(v);
+		}
+
+		updatable = updatable || cv instanceof UpdatableValue;
+		nl.add(cv);
+
+		for (int i=changed+1; i<end; i++)
+		{
+			Value v = buffer.list.get(i).convertValueTo(seqof, ctxt);
+			updatable = updatable || v instanceof UpdatableValue;
+			nl.add(v);
+		}
+
+		if (!updatable)		// Updatable members must be copied by conversions
+		{
+			nb.conforms = seqof;
+			nb.confFrom = 0;
+			nb.confTo = length;
+		}
+
+		return new SliceSeqValue(nb, 0, length);
+	}
+
+	@Override
+	public Object clone()
+	{
+		seqValue(null);
+		return super.clone();
+	}
+}
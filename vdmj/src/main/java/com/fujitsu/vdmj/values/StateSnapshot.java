@@ -0,0 +1,284 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.values;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.Stack;
+import java.util.Vector;
+
+import com.fujitsu.vdmj.runtime.Context;
+import com.fujitsu.vdmj.tc.lex.TCNameToken;
+
+/**
+ * A snapshot of the state of a specification after initialization, which can be
+ * restored between trace tests instead of repeating the initialization.
+ * 
+ * Values are immutable, apart from UpdatableValues and the maps and sequences
+ * that assignments extend in place, so the snapshot only records those, plus
+ * the things that tests change in objects and operations. Everything else is
+ * shared with the running specification. The state is found by walking the
+ * values that are reachable from the contexts passed.
+ */
+public class StateSnapshot
+{
+	private final Context globals;
+	private final Map<TCNameToken, Value> globalValues;
+	private final int nextObjectReference;
+	private final Map<FunctionCache, FunctionCache> caches;
+
+	private final List<UpdatableValue> updatables = new Vector<UpdatableValue>();
+	private final List<Value> updatableValues = new Vector<Value>();
+	private final List<ValueListenerList> updatableListeners = new Vector<ValueListenerList>();
+	private final Map<ValueListenerList, Integer> listenerSizes = new IdentityHashMap<ValueListenerList, Integer>();
+	private final Map<ValueMap, ValueMap> maps = new IdentityHashMap<ValueMap, ValueMap>();
+	private final Map<ValueList, Integer> seqs = new IdentityHashMap<ValueList, Integer>();
+	private final Map<OperationValue, int[]> operations = new IdentityHashMap<OperationValue, int[]>();
+	private final List<ObjectValue> objects = new Vector<ObjectValue>();
+
+	private boolean restorable = true;
+
+	private StateSnapshot(Context globals, List<Context> others)
+	{
+		this.globals = globals;
+		this.globalValues = new HashMap<TCNameToken, Value>(globals);
+		this.nextObjectReference = ObjectValue.getNextReference();
+		this.caches = FunctionCache.save();
+
+		Stack<Value> stack = new Stack<Value>();
+		stack.addAll(globals.values());
+
+		for (Context ctxt: others)
+		{
+			stack.addAll(ctxt.values());
+		}
+
+		walk(stack);
+	}
+
+	/**
+	 * Take a snapshot of the initialized state reachable from the global context
+	 * and any others passed, like module state contexts. This returns null if the
+	 * state includes something that cannot be restored, like a delegate object.
+	 */
+	public static StateSnapshot capture(Context globals, List<Context> others)
+	{
+		StateSnapshot snapshot = new StateSnapshot(globals, others);
+		return snapshot.restorable ? snapshot : null;
+	}
+
+	/**
+	 * True if this snapshot was taken from the context passed. Every init creates
+	 * a new global context, so this detects a snapshot that is out of date.
+	 */
+	public boolean isFor(Context ctxt)
+	{
+		return globals == ctxt;
+	}
+
+	/**
+	 * Return everything to the state it had when the snapshot was taken.
+	 */
+	public void restore()
+	{
+		globals.clear();
+		globals.putAll(globalValues);
+		ObjectValue.setNextReference(nextObjectReference);
+		FunctionCache.restore(caches);
+
+		for (int i=0; i<updatables.size(); i++)
+		{
+			UpdatableValue uv = updatables.get(i);
+
+			synchronized (uv)
+			{
+				uv.value = updatableValues.get(i);
+				uv.listeners = updatableListeners.get(i);
+			}
+		}
+
+		for (Entry<ValueListenerList, Integer> entry: listenerSizes.entrySet())
+		{
+			ValueListenerList list = entry.getKey();
+			int size = entry.getValue();
+
+			while (list.size() > size)
+			{
+				list.remove(list.size() - 1);	// Only ever appended to
+			}
+		}
+
+		for (Entry<ValueMap, ValueMap> entry: maps.entrySet())
+		{
+			ValueMap map = entry.getKey();
+			ValueMap saved = entry.getValue();
+
+			if (map.size() != saved.size())		// Only ever has keys added
+			{
+				map.clear();
+				map.putAll(saved);
+			}
+		}
+
+		for (Entry<ValueList, Integer> entry: seqs.entrySet())
+		{
+			ValueList seq = entry.getKey();
+			int size = entry.getValue();
+
+			while (seq.size() > size)
+			{
+				seq.remove(seq.size() - 1);		// Only ever appended to
+			}
+		}
+
+		for (Entry<OperationValue, int[]> entry: operations.entrySet())
+		{
+			OperationValue op = entry.getKey();
+			int[] counts = entry.getValue();
+
+			op.hashAct = counts[0];
+			op.hashFin = counts[1];
+			op.hashReq = counts[2];
+		}
+
+		for (ObjectValue object: objects)
+		{
+			object.restore();
+		}
+	}
+
+	private void walk(Stack<Value> stack)
+	{
+		Set<Value> visited = Collections.newSetFromMap(new IdentityHashMap<Value, Boolean>());
+
+		while (!stack.isEmpty())
+		{
+			Value v = stack.pop();
+
+			if (v == null || !visited.add(v))
+			{
+				continue;
+			}
+
+			if (v instanceof UpdatableValue)
+			{
+				UpdatableValue uv = (UpdatableValue)v;
+
+				synchronized (uv)
+				{
+					updatables.add(uv);
+					updatableValues.add(uv.value);
+					updatableListeners.add(uv.listeners);
+
+					if (uv.listeners != null)
+					{
+						listenerSizes.put(uv.listeners, uv.listeners.size());
+					}
+
+					// Assignments to m(k) and s(len s + 1) extend these in place
+
+					Value d = uv.value.deref();
+
+					if (d instanceof MapValue)
+					{
+						ValueMap map = ((MapValue)d).mapValue(null);
+						maps.put(map, new ValueMap(map));
+					}
+					else if (d instanceof SeqValue && ((SeqValue)d).values != null)
+					{
+						ValueList seq = ((SeqValue)d).values;
+						seqs.put(seq, seq.size());
+					}
+
+					stack.push(uv.value);
+				}
+			}
+			else if (v instanceof ReferenceValue)
+			{
+				stack.push(((ReferenceValue)v).value);
+			}
+			else if (v instanceof RecordValue)
+			{
+				for (FieldValue fv: ((RecordValue)v).fieldmap)
+				{
+					stack.push(fv.value);
+				}
+			}
+			else if (v instanceof TupleValue)
+			{
+				stack.addAll(((TupleValue)v).values);
+			}
+			else if (v instanceof SeqValue)
+			{
+				ValueList values = ((SeqValue)v).values;
+
+				if (values != null)		// Strings and slices have no updatable members
+				{
+					stack.addAll(values);
+				}
+			}
+			else if (v instanceof SetValue)
+			{
+				ValueSet values = ((SetValue)v).values;
+
+				if (values != null)		// Ranges only have integers
+				{
+					stack.addAll(values);
+				}
+			}
+			else if (v instanceof MapValue)
+			{
+				for (Entry<Value, Value> entry: ((MapValue)v).mapValue(null).entrySet())
+				{
+					stack.push(entry.getKey());
+					stack.push(entry.getValue());
+				}
+			}
+			else if (v instanceof ObjectValue)
+			{
+				ObjectValue object = (ObjectValue)v;
+
+				if (!object.isRestorable())
+				{
+					restorable = false;
+				}
+
+				objects.add(object);
+				stack.addAll(object.members.values());
+				stack.addAll(object.superobjects);
+			}
+			else if (v instanceof OperationValue)
+			{
+				OperationValue op = (OperationValue)v;
+				operations.put(op, new int[] { op.hashAct, op.hashFin, op.hashReq });
+			}
+		}
+	}
+}
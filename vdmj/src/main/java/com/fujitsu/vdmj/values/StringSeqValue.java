@@ -0,0 +1,392 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+package com.fujitsu.vdmj.values;
+
+import java.util.FormattableFlags;
+import java.util.Formatter;
+
+import com.fujitsu.vdmj.runtime.Context;
+import com.fujitsu.vdmj.runtime.ValueException;
+import com.fujitsu.vdmj.tc.types.TCCharacterType;
+import com.fujitsu.vdmj.tc.types.TCSeq1Type;
+import com.fujitsu.vdmj.tc.types.TCSeqType;
+import com.fujitsu.vdmj.tc.types.TCType;
+import com.fujitsu.vdmj.tc.types.TCTypeSet;
+
+/**
+ * A seq of char held as a Java String, as created by string literals and the
+ * libraries. CharacterValues are only created for members that are accessed
+ * individually, and the ValueList of members is only created when seqValue()
+ * is called. Concatenating two strings or taking the tail of one produces
+ * another StringSeqValue; anything else uses the normal SeqValue operations.
+ */
+public class StringSeqValue extends SeqValue
+{
+	private static final long serialVersionUID = 1L;
+	private final String string;
+	private final int start;
+	private final int end;
+
+	public StringSeqValue(String string)
+	{
+		this(string, 0, string.length());
+	}
+
+	private StringSeqValue(String string, int start, int end)
+	{
+		super((ValueList)null);		// Values created on demand
+		this.string = string;
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * The characters of the sequence, without quotes or escapes.
+	 */
+	public String chars()
+	{
+		return string.substring(start, end);
+	}
+
+	/**
+	 * The tail of a non-empty string, which shares this string's characters.
+	 */
+	public StringSeqValue tail()
+	{
+		return new StringSeqValue(string, start + 1, end);
+	}
+
+	public StringSeqValue concat(StringSeqValue other)
+	{
+		if (other.length() == 0)
+		{
+			return this;
+		}
+		else if (length() == 0)
+		{
+			return other;
+		}
+
+		return new StringSeqValue(chars().concat(other.chars()));
+	}
+
+	@Override
+	public int length()
+	{
+		return end - start;
+	}
+
+	@Override
+	public Value elementAt(int i)
+	{
+		return new CharacterValue(string.charAt(start + i));
+	}
+
+	@Override
+	public synchronized ValueList seqValue(Context ctxt)
+	{
+		if (values == null)
+		{
+			ValueList list = new ValueList(end - start);
+
+			for (int i=start; i<end; i++)
+			{
+				list.add(new CharacterValue(string.charAt(i)));
+			}
+
+			values = list;
+		}
+
+		return values;
+	}
+
+	@Override
+	public String stringValue(Context ctxt)
+	{
+		// Same as SeqValue, which strips the quotes but keeps the escapes
+
+		String s = toString();
+
+		if (s.charAt(0) == '"')
+		{
+			return s.substring(1, s.length()-1);
+		}
+
+		return s;
+	}
+
+	@Override
+	public void formatTo(Formatter formatter, int flags, int width, int precision)
+	{
+		String s = toString();
+
+		if ((flags & FormattableFlags.ALTERNATE) == 0 && s.charAt(0) == '"')
+		{
+			s = s.substring(1, s.length()-1);
+		}
+
+		formatTo(s, formatter, flags, width, precision);
+	}
+
+	@Override
+	public Value get(Value arg, Context ctxt) throws ValueException
+	{
+		int i = (int)arg.nat1Value(ctxt);
+
+		if (i < 1 || i > length())
+		{
+			abort(4083, "Sequence index out of range: " + arg, ctxt);
+		}
+
+		return elementAt(i-1);		// NB 1st = 1
+	}
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof Value)
+		{
+			Value val = ((Value)other).deref();
+
+			if (val == this)
+			{
+				return true;
+			}
+			else if (val instanceof StringSeqValue)
+			{
+				StringSeqValue ot = (StringSeqValue)val;
+				int length = length();
+
+				return ot.length() == length &&
+					string.regionMatches(start, ot.string, ot.start, length);
+			}
+			else if (val instanceof SeqValue)
+			{
+				SeqValue ot = (SeqValue)val;
+				int length = length();
+
+				if (ot.length() != length)
+				{
+					return false;
+				}
+
+				for (int i=0; i<length; i++)
+				{
+					if (!elementAt(i).equals(ot.elementAt(i)))
+					{
+						return false;
+					}
+				}
+
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public int compareTo(Value other)
+	{
+		Value val = other.deref();
+
+		if (val instanceof StringSeqValue)
+		{
+			StringSeqValue ot = (StringSeqValue)val;
+
+			if (isPlain() && ot.isPlain())
+			{
+				// Same order as comparing the quoted toString forms
+
+				int length = Math.min(length(), ot.length());
+
+				for (int i=0; i<length; i++)
+				{
+					char a = string.charAt(start + i);
+					char b = ot.string.charAt(ot.start + i);
+
+					if (a != b)
+					{
+						return a - b;
+					}
+				}
+
+				if (length() == ot.length())
+				{
+					return 0;
+				}
+				else if (length() < ot.length())
+				{
+					return '"' - ot.string.charAt(ot.start + length);
+				}
+				else
+				{
+					return string.charAt(start + length) - '"';
+				}
+			}
+		}
+
+		return super.compareTo(other);
+	}
+
+	/**
+	 * True if the string is not empty and has no characters that toString escapes.
+	 */
+	private boolean isPlain()
+	{
+		if (length() == 0)
+		{
+			return false;
+		}
+
+		for (int i=start; i<end; i++)
+		{
+			switch (string.charAt(i))
+			{
+				case '\r': case '\f': case '\033': case '\007': case '\"': case '\\':
+					return false;
+
+				default:
+					break;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public String toString()
+	{
+		// Same as ValueList.toString for a list of characters
+
+		if (length() == 0)
+		{
+			return "[]";
+		}
+
+		StringBuilder sb = new StringBuilder(length() + 2);
+		sb.append("\"");
+
+		for (int i=start; i<end; i++)
+		{
+			char ch = string.charAt(i);
+
+			switch (ch)
+			{
+				case '\r':
+					sb.append("\\r");
+					break;
+
+				case '\f':
+					sb.append("\\f");
+					break;
+
+				case '\033':
+					sb.append("\\e");
+					break;
+
+				case '\007':
+					sb.append("\\a");
+					break;
+
+				case '\"':
+					sb.append("\\\"");
+					break;
+
+				case '\\':
+					sb.append("\\\\");
+					break;
+
+				default:
+					sb.append(ch);
+			}
+		}
+
+		sb.append("\"");
+		return sb.toString();
+	}
+
+	@Override
+	public int hashCode()
+	{
+		if (hashed)
+		{
+			HashStatistics.hit();
+			return hash;
+		}
+
+		// Same as ValueList.hashCode, as CharacterValue hashes are their unicode
+
+		HashStatistics.miss();
+		int h = 1;
+
+		for (int i=start; i<end; i++)
+		{
+			h = 31 * h + string.charAt(i);
+		}
+
+		hash = h;
+		hashed = true;
+		return h;
+	}
+
+	@Override
+	public Value getUpdatable(ValueListenerList listeners)
+	{
+		seqValue(null);
+		return super.getUpdatable(listeners);
+	}
+
+	@Override
+	public Value getConstant()
+	{
+		return this;
+	}
+
+	@Override
+	protected Value convertValueTo(TCType to, Context ctxt, TCTypeSet done) throws ValueException
+	{
+		if (to instanceof TCSeqType)
+		{
+			if (to instanceof TCSeq1Type && length() == 0)
+			{
+				abort(4084, "Cannot convert empty sequence to seq1", ctxt);
+			}
+
+			if (((TCSeqType)to).seqof instanceof TCCharacterType)
+			{
+				return this;
+			}
+		}
+
+		seqValue(ctxt);
+		return super.convertValueTo(to, ctxt, done);
+	}
+
+	@Override
+	public Object clone()
+	{
+		return new StringSeqValue(chars());
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.values;
+
+import com.fujitsu.vdmj.lex.LexLocation;
+import com.fujitsu.vdmj.values.visitors.ValueVisitor;
+
+/**
+ * A function application in the tail position of a function body, whose
+ * evaluation is left to the FunctionValue evaluating that body. This allows
+ * a self-recursive function to loop rather than recurse. These values are
+ * never seen outside FunctionValue.eval.
+ */
+public class TailCallValue extends Value
+{
+	private static final long serialVersionUID = 1L;
+	public final FunctionValue function;
+	public final ValueList args;
+	public final LexLocation location;
+
+	public TailCallValue(FunctionValue function, ValueList args, LexLocation location)
+	{
+		this.function = function;
+		this.args = args;
+		this.location = location;
+	}
+
+	@Override
+	public String toString()
+	{
+		return function.name + args;
+	}
+
+	@Override
+	public boolean equals(Object other)
+	{
+		return other == this;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return System.identityHashCode(this);
+	}
+
+	@Override
+	public String kind()
+	{
+		return "tail call";
+	}
+
+	@Override
+	public Object clone()
+	{
+		return new TailCallValue(function, args, location);
+	}
+
+	@Override
+	public <R, S> R apply(ValueVisitor<R, S> visitor, S arg)
+	{
+		return visitor.caseValue(this, arg);
+	}
+}
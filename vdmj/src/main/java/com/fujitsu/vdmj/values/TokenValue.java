@@ -33,7 +33,7 @@ import com.fujitsu.vdmj.values.visitors.ValueVisitor;
 public class TokenValue extends Value
 {
 	private static final long serialVersionUID = 1L;
-	private final Value value;
+	public final Value value;
 
 	public TokenValue(Value exp)
 	{
@@ -69,6 +69,12 @@ public class TokenValue extends Value
 		return value.hashCode();
 	}
 
+	@Override
+	public boolean isHashStable()
+	{
+		return value.isHashStable();
+	}
+
 	@Override
 	public String kind()
 	{
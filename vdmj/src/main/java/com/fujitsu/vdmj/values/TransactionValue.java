@@ -32,6 +32,7 @@ import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ContextException;
 import com.fujitsu.vdmj.runtime.ExceptionHandler;
 import com.fujitsu.vdmj.runtime.ValueException;
+import com.fujitsu.vdmj.scheduler.SchedulableThread;
 import com.fujitsu.vdmj.tc.types.TCType;
 import com.fujitsu.vdmj.tc.types.TCTypeSet;
 import com.fujitsu.vdmj.values.visitors.ValueVisitor;
@@ -64,7 +65,7 @@ public class TransactionValue extends UpdatableValue
 	private Value select()
 	{
 		if (newthreadid > 0 &&
-			Thread.currentThread().getId() == newthreadid)
+			SchedulableThread.currentId() == newthreadid)
 		{
 			return newvalue;
 		}
@@ -90,7 +91,7 @@ public class TransactionValue extends UpdatableValue
 	@Override
 	public void set(LexLocation location, Value newval, Context ctxt) throws ValueException
 	{
-		long current = Thread.currentThread().getId();
+		long current = SchedulableThread.currentId();
 
 		if (newthreadid > 0 && current != newthreadid)
 		{
@@ -113,7 +114,7 @@ public class TransactionValue extends UpdatableValue
 		{
 			synchronized (commitList)
 			{
-				newthreadid = Thread.currentThread().getId();
+				newthreadid = SchedulableThread.currentId();
 				commitList.add(this);
 			}
 		}
@@ -39,6 +39,10 @@ public class TupleValue extends Value
 	private static final long serialVersionUID = 1L;
 	public final ValueList values;
 
+	// Set when the hashCode is known and cannot change, see hashCode
+	private transient int hash = 0;
+	private transient volatile boolean hashed = false;
+
 	public TupleValue(ValueList argvals)
 	{
 		this.values = argvals;
@@ -88,6 +92,16 @@ public class TupleValue extends Value
     		if (val instanceof TupleValue)
     		{
     			TupleValue ot = (TupleValue)val;
+
+    			if (ot == this)
+    			{
+    				return true;
+    			}
+    			else if (hashed && ot.hashed && hash != ot.hash)
+    			{
+    				return false;
+    			}
+
     			return values.equals(ot.values);
     		}
 		}
@@ -135,7 +149,37 @@ public class TupleValue extends Value
 	@Override
 	public int hashCode()
 	{
-		return values.hashCode();
+		if (hashed)
+		{
+			HashStatistics.hit();
+			return hash;
+		}
+
+		// Same as ValueList.hashCode. The hash is cached if no member can change.
+
+		HashStatistics.miss();
+		int h = 1;
+		boolean stable = true;
+
+		for (Value v: values)
+		{
+			h = 31 * h + v.hashCode();
+			stable = stable && v.isHashStable();
+		}
+
+		if (stable)
+		{
+			hash = h;
+			hashed = true;
+		}
+
+		return h;
+	}
+
+	@Override
+	public boolean isHashStable()
+	{
+		return hashed;		// Only known after hashCode
 	}
 
 	@Override
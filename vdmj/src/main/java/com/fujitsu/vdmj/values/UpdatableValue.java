@@ -214,6 +214,12 @@ public class UpdatableValue extends ReferenceValue
 		return value.deref();
 	}
 
+	@Override
+	public boolean isHashStable()
+	{
+		return false;	// The value can be replaced
+	}
+
 	@Override
 	public synchronized boolean isUndefined()
 	{
@@ -97,12 +97,26 @@ abstract public class Value implements Comparable<Value>, Serializable, Formatta
 	@Override
 	public int compareTo(Value other)
 	{
+		if (other == this)
+		{
+			return 0;
+		}
+
 		return toString().compareTo(other.toString());	// Arbitrary order
 	}
 
 	@Override
 	abstract public int hashCode();
 
+	/**
+	 * True if the hashCode of this value can never change. Structured values only
+	 * cache their own hashCode if this is true of all of their members.
+	 */
+	public boolean isHashStable()
+	{
+		return true;
+	}
+
 	/** A string with the informal kind of the value, like "set". */
 	abstract public String kind();
 
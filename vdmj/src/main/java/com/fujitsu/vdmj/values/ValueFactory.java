@@ -23,7 +23,11 @@
 
 package com.fujitsu.vdmj.values;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import com.fujitsu.vdmj.lex.LexLocation;
+import com.fujitsu.vdmj.messages.InternalException;
 import com.fujitsu.vdmj.runtime.Interpreter;
 import com.fujitsu.vdmj.runtime.ValueException;
 import com.fujitsu.vdmj.tc.definitions.TCDefinition;
@@ -34,12 +38,53 @@ import com.fujitsu.vdmj.tc.types.TCType;
 
 /**
  * Create Values from the arguments passed, which is useful from native Java implementations.
+ *
+ * Values are immutable, so booleans, nil, quotes and small integers are returned
+ * from a set of canonical instances rather than being created each time. The
+ * interpreter uses these methods for the results of expressions.
  */
 public class ValueFactory
 {
+	private static final BooleanValue TRUE = new BooleanValue(true);
+	private static final BooleanValue FALSE = new BooleanValue(false);
+	private static final NilValue NIL = new NilValue();
+
+	private static final int CACHE_MIN = -128;
+	private static final int CACHE_MAX = 1024;
+	private static final IntegerValue[] intCache = new IntegerValue[CACHE_MAX - CACHE_MIN + 1];
+	private static final NaturalValue[] natCache = new NaturalValue[CACHE_MAX + 1];
+	private static final NaturalOneValue[] nat1Cache = new NaturalOneValue[CACHE_MAX + 1];
+
+	private static final Map<String, QuoteValue> quotes = new HashMap<String, QuoteValue>();
+
+	static
+	{
+		try
+		{
+			for (int i=CACHE_MIN; i<=CACHE_MAX; i++)
+			{
+				intCache[i - CACHE_MIN] = new IntegerValue(i);
+			}
+
+			for (int i=0; i<=CACHE_MAX; i++)
+			{
+				natCache[i] = new NaturalValue(i);
+			}
+
+			for (int i=1; i<=CACHE_MAX; i++)
+			{
+				nat1Cache[i] = new NaturalOneValue(i);
+			}
+		}
+		catch (Exception e)
+		{
+			throw new InternalException(5, "Cannot create cached values");
+		}
+	}
+
 	public static BooleanValue mkBool(boolean b)
 	{
-		return new BooleanValue(b);
+		return b ? TRUE : FALSE;
 	}
 	
 	public static CharacterValue mkChar(char c)
@@ -49,16 +94,31 @@ public class ValueFactory
 	
 	public static IntegerValue mkInt(long i)
 	{
+		if (i >= CACHE_MIN && i <= CACHE_MAX)
+		{
+			return intCache[(int)i - CACHE_MIN];
+		}
+
 		return new IntegerValue(i);
 	}
 	
 	public static NaturalValue mkNat(long n) throws Exception
 	{
+		if (n >= 0 && n <= CACHE_MAX)
+		{
+			return natCache[(int)n];
+		}
+
 		return new NaturalValue(n);
 	}
 	
 	public static NaturalOneValue mkNat1(long n) throws Exception
 	{
+		if (n >= 1 && n <= CACHE_MAX)
+		{
+			return nat1Cache[(int)n];
+		}
+
 		return new NaturalOneValue(n);
 	}
 	
@@ -79,12 +139,23 @@ public class ValueFactory
 
 	public static NilValue mkNil()
 	{
-		return new NilValue();
+		return NIL;
 	}
 	
 	public static QuoteValue mkQuote(String q)
 	{
-		return new QuoteValue(q);
+		synchronized (quotes)
+		{
+			QuoteValue value = quotes.get(q);
+
+			if (value == null)
+			{
+				value = new QuoteValue(q);
+				quotes.put(q, value);
+			}
+
+			return value;
+		}
 	}
 	
 	public static SeqValue mkSeq(Value ...args)
@@ -23,7 +23,7 @@
 
 package com.fujitsu.vdmj.values;
 
-import java.util.Vector;
+import java.util.ArrayList;
 
 import com.fujitsu.vdmj.util.Utils;
 
@@ -32,7 +32,7 @@ import com.fujitsu.vdmj.util.Utils;
  */
 
 @SuppressWarnings("serial")
-public class ValueList extends Vector<Value>
+public class ValueList extends ArrayList<Value>
 {
 	public ValueList()
 	{
@@ -29,6 +29,11 @@ import com.fujitsu.vdmj.lex.LexLocation;
 import com.fujitsu.vdmj.runtime.Context;
 import com.fujitsu.vdmj.runtime.ValueException;
 
+/**
+ * The listeners of an UpdatableValue. Unlike the other value collections, this
+ * is still a Vector, because the same list is shared by the updatable values
+ * of a state or instance variable, which may be used by several threads.
+ */
 public class ValueListenerList extends Vector<ValueListener>
 {
 	private static final long serialVersionUID = 1L;
@@ -26,6 +26,7 @@ package com.fujitsu.vdmj.values;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -116,24 +117,50 @@ public class ValueMap extends HashMap<Value, Value>
 	 */
 	public List<Map<Value, Value>> permutedMaps()
 	{
-		if (delegate != null) return delegate.permutedMaps();
+		List<Map<Value, Value>> results = new Vector<Map<Value, Value>>();
+		Iterator<Map<Value, Value>> iter = permutations();
+
+		while (iter.hasNext())
+		{
+			results.add(iter.next());
+		}
+
+		return results;
+	}
+
+	/**
+	 * The same maps as permutedMaps, in the same order, but each is only created
+	 * when it is needed.
+	 */
+	public Iterator<Map<Value, Value>> permutations()
+	{
+		if (delegate != null) return delegate.permutations();
 
 		// This is a 1st order permutation, which does not take account of the possible
 		// nesting of maps or the presence of other permutable values with them (sets).
 
-		List<Map<Value, Value>> results = new Vector<Map<Value, Value>>();
 		Object[] entries = entrySet().toArray();
 		int size = entries.length;
 
 		if (size == 0)
 		{
-			results.add(new LinkedHashMap<Value, Value>());	// Just {|->}
+			List<Map<Value, Value>> empty = new Vector<Map<Value, Value>>();
+			empty.add(new LinkedHashMap<Value, Value>());	// Just {|->}
+			return empty.iterator();
 		}
-		else
+
+		PermuteArray p = new PermuteArray(size);
+
+		return new Iterator<Map<Value, Value>>()
 		{
-			PermuteArray p = new PermuteArray(size);
+			@Override
+			public boolean hasNext()
+			{
+				return p.hasNext();
+			}
 
-			while (p.hasNext())
+			@Override
+			public Map<Value, Value> next()
 			{
 				Map<Value, Value> m = new LinkedHashMap<Value, Value>();
 				int[] perm = p.next();
@@ -145,11 +172,9 @@ public class ValueMap extends HashMap<Value, Value>
 					m.put(entry.getKey(), entry.getValue());
 				}
 
-				results.add(m);
+				return m;
 			}
-		}
-
-		return results;
+		};
 	}
 
 	/**
@@ -23,10 +23,15 @@
 
 package com.fujitsu.vdmj.values;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Vector;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import com.fujitsu.vdmj.traces.PermuteArray;
 import com.fujitsu.vdmj.util.Utils;
@@ -34,16 +39,34 @@ import com.fujitsu.vdmj.util.Utils;
 
 /**
  * A set of values. Note that although this class implements a set (no duplicates)
- * it is not based on a java.util.Set<Value>, but rather a Vector<Value>. This is
+ * it is not based on a java.util.Set<Value>, but rather an ArrayList<Value>. This is
  * so that the possible orderings of set values can be enumerated when
  * performing quantifiers like "a,b,c in set {{1,2,3}, {4,5,6}}".
+ * 
+ * Membership tests on larger sets are answered by a HashSet index which is kept
+ * alongside the list, so that building a set of n values is not O(n^2). The
+ * list remains the ordered view of the set.
+ * 
+ * NOTE! As soon as an Invariant/Record value is added that defines "eq", we stop
+ * using the index and fall back to linear searches which only use equals(). The
+ * problem is that we only have "eq" and not a hashCode function defined, which can
+ * produce inconsistent results with a HashSet (see ValueMap). As with ValueMap, only
+ * the value itself is checked. Values that contain such values are still indexed,
+ * since the hashCode of an Invariant/Record value with "eq" is fixed by its type.
  */
 
 @SuppressWarnings("serial")
-public class ValueSet extends Vector<Value>		// NB based on Vector
+public class ValueSet extends ArrayList<Value>		// NB based on a List
 {
+	/** Sets smaller than this are searched linearly, without an index */
+	private static final int INDEX_THRESHOLD = 8;
+
 	private boolean isSorted;
 
+	/** Built lazily by contains(), which parallel quantifier workers may call at once */
+	private volatile HashSet<Value> index = null;
+	private boolean indexable = true;
+
 	public ValueSet()
 	{
 		super();
@@ -58,8 +81,15 @@ public class ValueSet extends Vector<Value>		// NB based on Vector
 
 	public ValueSet(ValueSet from)
 	{
-		addAll(from);
+		super(from);	// Already unique, so no checks needed
 		isSorted = from.isSorted;
+		indexable = from.indexable;
+		HashSet<Value> idx = from.index;
+
+		if (idx != null)
+		{
+			index = new HashSet<Value>(idx);
+		}
 	}
 
 	public ValueSet(Value v)
@@ -79,7 +109,11 @@ public class ValueSet extends Vector<Value>		// NB based on Vector
 	@Override
 	public boolean equals(Object other)
 	{
-		if (other instanceof ValueSet)
+		if (other == this)
+		{
+			return true;
+		}
+		else if (other instanceof ValueSet)
 		{
 			ValueSet os = (ValueSet)other;
 			return os.size() == size() && os.containsAll(this);
@@ -101,6 +135,21 @@ public class ValueSet extends Vector<Value>		// NB based on Vector
 		return hash;
 	}
 
+	@Override
+	public boolean contains(Object o)
+	{
+		HashSet<Value> idx = getIndex();
+
+		if (idx != null)
+		{
+			return idx.contains(o);
+		}
+		else
+		{
+			return super.contains(o);
+		}
+	}
+
 	@Override
 	public boolean add(Value v)
 	{
@@ -110,14 +159,25 @@ public class ValueSet extends Vector<Value>		// NB based on Vector
 		}
 		else
 		{
-			isSorted = false;
-			return super.add(v);
+			return addNoCheck(v);
 		}
 	}
 
 	public boolean addNoCheck(Value v)
 	{
 		isSorted = false;
+		HashSet<Value> idx = index;
+
+		if (indexable && hasEquality(v))
+		{
+			indexable = false;
+			index = null;
+		}
+		else if (idx != null)
+		{
+			idx.add(v);
+		}
+
 		return super.add(v);	// Used by power set function
 	}
 
@@ -132,6 +192,151 @@ public class ValueSet extends Vector<Value>		// NB based on Vector
 		return true;
 	}
 
+	@Override
+	public boolean remove(Object o)
+	{
+		HashSet<Value> idx = getIndex();
+
+		if (idx != null)
+		{
+			if (!idx.remove(o))
+			{
+				return false;
+			}
+		}
+
+		return super.remove(o);
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c)
+	{
+		boolean changed = false;
+
+		for (Object o: c)
+		{
+			changed = remove(o) || changed;
+		}
+
+		return changed;
+	}
+
+	/**
+	 * The remaining List mutators are rarely used with sets, so they just drop
+	 * the index, which is rebuilt by the next contains() call.
+	 */
+
+	@Override
+	public Value remove(int i)
+	{
+		index = null;
+		return super.remove(i);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c)
+	{
+		index = null;
+		return super.retainAll(c);
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super Value> filter)
+	{
+		index = null;
+		return super.removeIf(filter);
+	}
+
+	@Override
+	protected void removeRange(int from, int to)
+	{
+		index = null;
+		super.removeRange(from, to);
+	}
+
+	@Override
+	public void clear()
+	{
+		index = null;
+		indexable = true;
+		isSorted = true;
+		super.clear();
+	}
+
+	@Override
+	public Value set(int i, Value v)
+	{
+		index = null;
+		return super.set(i, v);
+	}
+
+	@Override
+	public void add(int i, Value v)
+	{
+		index = null;
+		super.add(i, v);
+	}
+
+	@Override
+	public boolean addAll(int i, Collection<? extends Value> c)
+	{
+		index = null;
+		return super.addAll(i, c);
+	}
+
+	@Override
+	public void replaceAll(UnaryOperator<Value> operator)
+	{
+		index = null;
+		super.replaceAll(operator);
+	}
+
+	/**
+	 * Return the index, building it if this set is large enough to use one and it
+	 * does not contain values with "eq" clauses, or null. Sets are only changed by
+	 * one thread, but a shared set may be read by several ParallelEvaluator workers.
+	 * So the index is built under a lock, and only published by the volatile field
+	 * when it is complete.
+	 */
+	private HashSet<Value> getIndex()
+	{
+		HashSet<Value> idx = index;
+
+		if (idx != null || !indexable || size() < INDEX_THRESHOLD)
+		{
+			return idx;
+		}
+
+		synchronized (this)
+		{
+			if (index == null)
+			{
+				index = new HashSet<Value>(this);
+			}
+
+			return index;
+		}
+	}
+
+	/**
+	 * True if the value is a type with an "eq" clause, whose hashCode cannot be
+	 * consistent with its equals method (see ValueMap).
+	 */
+	private static boolean hasEquality(Value v)
+	{
+		while (v instanceof ReferenceValue)
+		{
+			if (v instanceof InvariantValue && ((InvariantValue)v).equality != null)
+			{
+				return true;
+			}
+
+			v = ((ReferenceValue)v).value;
+		}
+
+		return v instanceof RecordValue && ((RecordValue)v).equality != null;
+	}
+
 	@Override
 	public String toString()
 	{
@@ -148,36 +353,61 @@ public class ValueSet extends Vector<Value>		// NB based on Vector
 	}
 
 	public List<ValueSet> permutedSets()
+	{
+		List<ValueSet> results = new Vector<ValueSet>();
+		Iterator<ValueSet> iter = permutations();
+
+		while (iter.hasNext())
+		{
+			results.add(iter.next());
+		}
+
+		return results;
+	}
+
+	/**
+	 * The same sets as permutedSets, in the same order, but each is only created
+	 * when it is needed. Pattern matching usually stops at the first permutation
+	 * that matches, so this avoids creating all n! sets.
+	 */
+	public Iterator<ValueSet> permutations()
 	{
 		// This is a 1st order permutation, which does not take account of the possible
 		// nesting of sets or the presence of other permutable values with them (maps).
 
-		List<ValueSet> results = new Vector<ValueSet>();
 		int size = size();
 
 		if (size == 0)
 		{
-			results.add(new ValueSet());	// Just {}
+			List<ValueSet> empty = new Vector<ValueSet>();
+			empty.add(new ValueSet());	// Just {}
+			return empty.iterator();
 		}
-		else
+
+		PermuteArray p = new PermuteArray(size);
+
+		return new Iterator<ValueSet>()
 		{
-    		PermuteArray p = new PermuteArray(size);
+			@Override
+			public boolean hasNext()
+			{
+				return p.hasNext();
+			}
 
-    		while (p.hasNext())
-    		{
-    			ValueSet m = new ValueSet();
+			@Override
+			public ValueSet next()
+			{
+    			ValueSet m = new ValueSet(size);
     			int[] perm = p.next();
 
     			for (int i=0; i<size; i++)
     			{
-    				m.add(get(perm[i]));
+    				m.addNoCheck(get(perm[i]));	// Already unique
     			}
 
-    			results.add(m);
-    		}
-		}
-
-		return results;
+    			return m;
+			}
+		};
 	}
 
 	public List<ValueSet> powerSet()
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+// This must be in the default package to work with VDMJ's native delegation.
+
+import com.fujitsu.vdmj.values.NaturalValue;
+import com.fujitsu.vdmj.values.Value;
+
+/**
+ * A native delegate for the ParallelCounter class in the evaluate tests, which
+ * is not pure because it returns a different number each time it is called.
+ */
+public class ParallelCounter
+{
+	private static long count = 0;
+
+	public static synchronized Value next(Value arg) throws Exception
+	{
+		return new NaturalValue(count++);
+	}
+}
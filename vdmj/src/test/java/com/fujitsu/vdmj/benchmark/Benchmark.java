@@ -0,0 +1,115 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.benchmark;
+
+import java.io.File;
+import java.net.URL;
+
+import com.fujitsu.vdmj.Settings;
+import com.fujitsu.vdmj.ast.modules.ASTModuleList;
+import com.fujitsu.vdmj.in.INNode;
+import com.fujitsu.vdmj.in.modules.INModuleList;
+import com.fujitsu.vdmj.lex.Dialect;
+import com.fujitsu.vdmj.lex.LexTokenReader;
+import com.fujitsu.vdmj.mapper.ClassMapper;
+import com.fujitsu.vdmj.runtime.ModuleInterpreter;
+import com.fujitsu.vdmj.syntax.ModuleReader;
+import com.fujitsu.vdmj.tc.TCNode;
+import com.fujitsu.vdmj.tc.modules.TCModuleList;
+import com.fujitsu.vdmj.typechecker.ModuleTypeChecker;
+import com.fujitsu.vdmj.typechecker.TypeChecker;
+
+/**
+ * A simple interpreter benchmark, which times the evaluation of some function call
+ * heavy and set heavy expressions. Run it with the test classpath, giving an
+ * optional number of timed runs (default 5), and compare the times between builds.
+ */
+public class Benchmark
+{
+	private static final String[] CALLS =
+	{
+		"fib(22)",
+		"fibs(500)",
+		"sumTo([i | i in set {1, ..., 800}])",
+		"[dist(p) | p in seq mkRecords(5000)](5000)"
+	};
+
+	private static final String[] SETS =
+	{
+		"card evens(50000)",
+		"card pairs(250)",
+		"card unions(20000)",
+		"member(20000)",
+		"card dom index(2000)"
+	};
+
+	public static void main(String[] args) throws Exception
+	{
+		int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+		Settings.dialect = Dialect.VDM_SL;
+
+		long total = run("calls.vdmsl", CALLS, runs) + run("sets.vdmsl", SETS, runs);
+		System.out.println("Total " + total + "ms");
+	}
+
+	private static long run(String resource, String[] expressions, int runs) throws Exception
+	{
+		URL url = Benchmark.class.getResource("/benchmark/" + resource);
+		LexTokenReader ltr = new LexTokenReader(new File(url.getPath()), Dialect.VDM_SL);
+		ModuleReader mr = new ModuleReader(ltr);
+		ASTModuleList parsed = mr.readModules();
+		mr.close();
+
+		TCModuleList checked = ClassMapper.getInstance(TCNode.MAPPINGS).init().convert(parsed);
+		new ModuleTypeChecker(checked).typeCheck();
+
+		if (mr.getErrorCount() > 0 || TypeChecker.getErrorCount() > 0)
+		{
+			throw new Exception("Errors in " + resource);
+		}
+
+		INModuleList runnable = ClassMapper.getInstance(INNode.MAPPINGS).init().convert(checked);
+		ModuleInterpreter interpreter = new ModuleInterpreter(runnable, checked);
+		interpreter.init();
+		long total = 0;
+
+		for (String expression: expressions)
+		{
+			interpreter.execute(expression);	// Warm up
+			long before = System.currentTimeMillis();
+
+			for (int i=0; i<runs; i++)
+			{
+				interpreter.execute(expression);
+			}
+
+			long average = (System.currentTimeMillis() - before) / runs;
+			System.out.println(resource + ": " + expression + " = " + average + "ms");
+			total += average;
+		}
+
+		return total;
+	}
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.junit;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.URL;
+import java.nio.file.Files;
+
+import com.fujitsu.vdmj.Release;
+import com.fujitsu.vdmj.Settings;
+import com.fujitsu.vdmj.ast.modules.ASTModuleList;
+import com.fujitsu.vdmj.config.Properties;
+import com.fujitsu.vdmj.in.INNode;
+import com.fujitsu.vdmj.in.modules.INModuleList;
+import com.fujitsu.vdmj.lex.BinaryCoverage;
+import com.fujitsu.vdmj.lex.Dialect;
+import com.fujitsu.vdmj.lex.LexLocation;
+import com.fujitsu.vdmj.lex.LexTokenReader;
+import com.fujitsu.vdmj.mapper.ClassMapper;
+import com.fujitsu.vdmj.messages.Console;
+import com.fujitsu.vdmj.runtime.ModuleInterpreter;
+import com.fujitsu.vdmj.runtime.SourceFile;
+import com.fujitsu.vdmj.syntax.ModuleReader;
+import com.fujitsu.vdmj.tc.TCNode;
+import com.fujitsu.vdmj.tc.modules.TCModuleList;
+import com.fujitsu.vdmj.typechecker.ModuleTypeChecker;
+import com.fujitsu.vdmj.typechecker.TypeChecker;
+
+import junit.framework.TestCase;
+
+public class CoverageTest extends TestCase
+{
+	private ModuleInterpreter interpreter = null;
+	private File source = null;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		Settings.release = Release.VDM_10;
+		Settings.dialect = Dialect.VDM_SL;
+		LexLocation.resetLocations();		// Just this test's locations
+		interpreter = process("coverage.vdm");
+		LexLocation.clearLocations();
+	}
+
+	private ModuleInterpreter process(String resource) throws Exception
+	{
+		Console.out.println("Processing " + resource + "...");
+
+		URL rurl = getClass().getResource("/coverage/" + resource);
+		source = new File(rurl.getPath());
+
+		LexTokenReader ltr = new LexTokenReader(source, Dialect.VDM_SL);
+		ModuleReader mr = new ModuleReader(ltr);
+		ASTModuleList parsed = new ASTModuleList();
+		parsed.addAll(mr.readModules());
+		mr.close();
+		mr.printErrors(Console.out);
+		assertEquals("Parse errors", 0, mr.getErrorCount());
+
+		TCModuleList checked = ClassMapper.getInstance(TCNode.MAPPINGS).init().convert(parsed);
+		TypeChecker typeChecker = new ModuleTypeChecker(checked);
+		typeChecker.typeCheck();
+		TypeChecker.printErrors(Console.out);
+		assertEquals("Type check errors", 0, TypeChecker.getErrorCount());
+
+		INModuleList runnable = ClassMapper.getInstance(INNode.MAPPINGS).init().convert(checked);
+		ModuleInterpreter interpreter = new ModuleInterpreter(runnable, checked);
+		interpreter.init();
+		return interpreter;
+	}
+
+	/**
+	 * The coverage of the source, as written by "coverage write".
+	 */
+	private String getCoverage() throws Exception
+	{
+		StringWriter sw = new StringWriter();
+		PrintWriter pw = new PrintWriter(sw);
+		new SourceFile(source).writeCoverage(pw);
+		pw.close();
+		return sw.toString().replaceAll("\\R", "\n");
+	}
+
+	private String getExpected(String resource) throws Exception
+	{
+		URL rurl = getClass().getResource("/coverage/" + resource);
+		return new String(Files.readAllBytes(new File(rurl.getPath()).toPath())).replaceAll("\\R", "\n");
+	}
+
+	public void testHits() throws Exception
+	{
+		assertEquals("5100", interpreter.execute("run(100)").toString());
+		assertEquals(getExpected("coverage.cov"), getCoverage());	// Same as the baseline
+	}
+
+	public void testBinary() throws Exception
+	{
+		interpreter.execute("run(100)");
+		String expected = getCoverage();
+
+		File binary = File.createTempFile("coverage", BinaryCoverage.EXTENSION);
+		File text = File.createTempFile("coverage", ".cov");
+
+		try
+		{
+			OutputStream out = new BufferedOutputStream(new FileOutputStream(binary));
+			new SourceFile(source).writeCoverage(out);
+			out.close();
+
+			PrintWriter pw = new PrintWriter(text);
+			new SourceFile(source).writeCoverage(pw);
+			pw.close();
+
+			assertTrue(BinaryCoverage.isBinary(binary));
+			assertFalse(BinaryCoverage.isBinary(text));
+			assertTrue(binary.length() < text.length());
+
+			LexLocation.clearLocations();
+			LexLocation.mergeHits(source, binary);
+			assertEquals(expected, getCoverage());
+
+			LexLocation.mergeHits(source, text);
+			interpreter.execute("run(100)");
+			assertEquals(expected.replace("=1\n", "=3\n").replace("=50\n", "=150\n").replace("=100\n", "=300\n"), getCoverage());
+		}
+		finally
+		{
+			binary.delete();
+			text.delete();
+		}
+	}
+
+	public void testParallel() throws Exception
+	{
+		try
+		{
+			Properties.in_parallel_threads = 4;
+			Properties.in_parallel_minimum = 10;
+			assertEquals("1000", interpreter.execute("card {f(i) | i in set {1, ..., 1000}}").toString());
+
+			for (LexLocation location: LexLocation.getSourceLocations(source))
+			{
+				if (location.startLine == 7)	// The body of f
+				{
+					assertEquals(1000, location.getHits());
+				}
+			}
+		}
+		finally
+		{
+			Properties.in_parallel_threads = 0;
+			Properties.in_parallel_minimum = 100;
+		}
+	}
+}
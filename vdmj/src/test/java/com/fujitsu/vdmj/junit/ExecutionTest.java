@@ -31,6 +31,7 @@ import com.fujitsu.vdmj.Settings;
 import com.fujitsu.vdmj.ast.modules.ASTModuleList;
 import com.fujitsu.vdmj.commands.CommandReader;
 import com.fujitsu.vdmj.commands.ModuleCommandReader;
+import com.fujitsu.vdmj.config.Properties;
 import com.fujitsu.vdmj.in.INNode;
 import com.fujitsu.vdmj.in.modules.INModuleList;
 import com.fujitsu.vdmj.lex.Dialect;
@@ -43,6 +44,7 @@ import com.fujitsu.vdmj.tc.TCNode;
 import com.fujitsu.vdmj.tc.modules.TCModuleList;
 import com.fujitsu.vdmj.typechecker.ModuleTypeChecker;
 import com.fujitsu.vdmj.typechecker.TypeChecker;
+import com.fujitsu.vdmj.values.ValueFactory;
 
 import junit.framework.TestCase;
 
@@ -144,4 +146,78 @@ public class ExecutionTest extends TestCase
 	{
 		process("flat.vdm", "flat.tests");
 	}
+
+	public void testCanonical() throws Exception
+	{
+		process("canonical.vdm", "canonical.tests");
+
+		assertSame(ValueFactory.mkBool(true), ValueFactory.mkBool(1 < 2));
+		assertSame(ValueFactory.mkNil(), ValueFactory.mkNil());
+		assertSame(ValueFactory.mkQuote("A"), ValueFactory.mkQuote("A"));
+		assertSame(ValueFactory.mkNat(1024), ValueFactory.mkNat(1024));
+		assertNotSame(ValueFactory.mkNat(1025), ValueFactory.mkNat(1025));
+		assertEquals(ValueFactory.mkNat(1025), ValueFactory.mkNat(1025));
+	}
+
+	public void testHashes() throws Exception
+	{
+		Settings.release = Release.VDM_10;	// For eq clauses
+		process("hashes.vdm", "hashes.tests");
+	}
+
+	public void testRecords() throws Exception
+	{
+		Settings.release = Release.VDM_10;	// For ord clauses
+		process("records.vdm", "records.tests");
+	}
+
+	public void testTailCalls() throws Exception
+	{
+		Settings.release = Release.VDM_10;	// For measure expressions
+		process("tailcalls.vdm", "tailcalls.tests");
+	}
+
+	public void testPatterns() throws Exception
+	{
+		Settings.release = Release.VDM_10;	// For map patterns
+		process("patterns.vdm", "patterns.tests");
+	}
+
+	public void testInitOrder() throws Exception
+	{
+		process("initorder.vdm", "initorder.tests");
+	}
+
+	public void testParallelInit() throws Exception
+	{
+		try
+		{
+			Properties.in_parallel_threads = 4;
+			Properties.in_parallel_init = true;
+			process("initorder.vdm", "initorder.tests");
+		}
+		finally
+		{
+			Properties.in_parallel_threads = 0;
+			Properties.in_parallel_init = false;
+		}
+	}
+
+	public void testSlots() throws Exception
+	{
+		Settings.release = Release.VDM_10;	// For measure expressions
+		process("slots.vdm", "slots.tests");
+
+		try
+		{
+			Properties.in_parallel_threads = 4;		// Workers add a frame to the chain
+			Properties.in_parallel_minimum = 2;
+			process("slots.vdm", "slots.tests");
+		}
+		finally
+		{
+			Properties.in_parallel_threads = 0;
+			Properties.in_parallel_minimum = 100;
+		}
+	}
 }
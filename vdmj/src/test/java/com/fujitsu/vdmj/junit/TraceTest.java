@@ -0,0 +1,349 @@
+/*******************************************************************************
+ *
+ *	Copyright (c) 2021 Fujitsu Services Ltd.
+ *
+ *	Author: Nick Battle
+ *
+ *	This file is part of VDMJ.
+ *
+ *	VDMJ is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	VDMJ is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with VDMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ ******************************************************************************/
+
+
+package com.fujitsu.vdmj.junit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URL;
+import java.util.List;
+import java.util.Vector;
+
+import com.fujitsu.vdmj.Release;
+import com.fujitsu.vdmj.Settings;
+import com.fujitsu.vdmj.ast.definitions.ASTClassList;
+import com.fujitsu.vdmj.ast.modules.ASTModuleList;
+import com.fujitsu.vdmj.config.Properties;
+import com.fujitsu.vdmj.in.INNode;
+import com.fujitsu.vdmj.in.definitions.INClassList;
+import com.fujitsu.vdmj.in.definitions.INNamedTraceDefinition;
+import com.fujitsu.vdmj.in.modules.INModuleList;
+import com.fujitsu.vdmj.lex.Dialect;
+import com.fujitsu.vdmj.lex.LexLocation;
+import com.fujitsu.vdmj.lex.LexTokenReader;
+import com.fujitsu.vdmj.mapper.ClassMapper;
+import com.fujitsu.vdmj.messages.Console;
+import com.fujitsu.vdmj.messages.ConsolePrintWriter;
+import com.fujitsu.vdmj.runtime.ClassInterpreter;
+import com.fujitsu.vdmj.runtime.Context;
+import com.fujitsu.vdmj.runtime.Interpreter;
+import com.fujitsu.vdmj.runtime.ModuleInterpreter;
+import com.fujitsu.vdmj.syntax.ClassReader;
+import com.fujitsu.vdmj.syntax.ModuleReader;
+import com.fujitsu.vdmj.tc.TCNode;
+import com.fujitsu.vdmj.tc.definitions.TCClassList;
+import com.fujitsu.vdmj.tc.modules.TCModuleList;
+import com.fujitsu.vdmj.traces.TraceIterator;
+import com.fujitsu.vdmj.typechecker.ClassTypeChecker;
+import com.fujitsu.vdmj.typechecker.ModuleTypeChecker;
+import com.fujitsu.vdmj.typechecker.TypeChecker;
+
+import junit.framework.TestCase;
+
+public class TraceTest extends TestCase
+{
+	private Interpreter interpreter = null;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		Settings.release = Release.VDM_10;
+		Settings.dialect = Dialect.VDM_SL;
+		LexLocation.resetLocations();		// Just this test's locations
+		interpreter = process("traces.vdm");
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		super.tearDown();
+		Interpreter.setTraceOutput(null);
+	}
+
+	private ModuleInterpreter process(String resource) throws Exception
+	{
+		Console.out.println("Processing " + resource + "...");
+
+		URL rurl = getClass().getResource("/tracetest/" + resource);
+		String file = rurl.getPath();
+
+		LexTokenReader ltr = new LexTokenReader(new File(file), Dialect.VDM_SL);
+		ModuleReader mr = new ModuleReader(ltr);
+		ASTModuleList parsed = new ASTModuleList();
+		parsed.addAll(mr.readModules());
+		mr.close();
+		mr.printErrors(Console.out);
+		assertEquals("Parse errors", 0, mr.getErrorCount());
+
+		TCModuleList checked = ClassMapper.getInstance(TCNode.MAPPINGS).init().convert(parsed);
+		TypeChecker typeChecker = new ModuleTypeChecker(checked);
+		typeChecker.typeCheck();
+		TypeChecker.printErrors(Console.out);
+		assertEquals("Type check errors", 0, TypeChecker.getErrorCount());
+
+		INModuleList runnable = ClassMapper.getInstance(INNode.MAPPINGS).init().convert(checked);
+		ModuleInterpreter interpreter = new ModuleInterpreter(runnable, checked);
+		interpreter.init();
+		return interpreter;
+	}
+
+	private ClassInterpreter processClasses(String resource) throws Exception
+	{
+		Console.out.println("Processing " + resource + "...");
+		Settings.dialect = Dialect.VDM_PP;
+
+		URL rurl = getClass().getResource("/tracetest/" + resource);
+		String file = rurl.getPath();
+
+		LexTokenReader ltr = new LexTokenReader(new File(file), Dialect.VDM_PP);
+		ClassReader cr = new ClassReader(ltr);
+		ASTClassList parsed = new ASTClassList();
+		parsed.addAll(cr.readClasses());
+		cr.close();
+		cr.printErrors(Console.out);
+		assertEquals("Parse errors", 0, cr.getErrorCount());
+
+		TCClassList checked = ClassMapper.getInstance(TCNode.MAPPINGS).init().convert(parsed);
+		TypeChecker typeChecker = new ClassTypeChecker(checked);
+		typeChecker.typeCheck();
+		TypeChecker.printErrors(Console.out);
+		assertEquals("Type check errors", 0, TypeChecker.getErrorCount());
+
+		INClassList runnable = ClassMapper.getInstance(INNode.MAPPINGS).init().convert(checked);
+		ClassInterpreter interpreter = new ClassInterpreter(runnable, checked);
+		interpreter.init();
+		return interpreter;
+	}
+
+	/**
+	 * The tests produced by getNextTest, in order.
+	 */
+	private List<String> expand(String name) throws Exception
+	{
+		INNamedTraceDefinition tracedef = interpreter.lookupTrace(name);
+		Context ctxt = interpreter.getTraceContext(tracedef.classDefinition);
+		TraceIterator tests = tracedef.getIterator(ctxt);
+		List<String> result = new Vector<String>();
+
+		while (tests.hasMoreTests())
+		{
+			result.add(tests.getNextTest().getCallString(ctxt));
+		}
+
+		return result;
+	}
+
+	private void checkIndexed(String name) throws Exception
+	{
+		List<String> expected = expand(name);
+		INNamedTraceDefinition tracedef = interpreter.lookupTrace(name);
+		Context ctxt = interpreter.getTraceContext(tracedef.classDefinition);
+		TraceIterator tests = tracedef.getIterator(ctxt);
+
+		assertEquals("Count of " + name, expected.size(), tests.count());
+
+		for (int i=expected.size() - 1; i >= 0; i--)	// Reverse, to avoid any state
+		{
+			assertEquals(name + " test " + (i + 1), expected.get(i), tests.getTest(i).getCallString(ctxt));
+		}
+	}
+
+	private String runtrace(String name, long start, long end) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ConsolePrintWriter pw = new ConsolePrintWriter(out);
+		Interpreter.setTraceOutput(pw);
+		interpreter.runtrace(name, start, end, false);
+		pw.close();
+		return out.toString();
+	}
+
+	public void testAlternatives() throws Exception
+	{
+		checkIndexed("Alternatives");
+	}
+
+	public void testSequences() throws Exception
+	{
+		checkIndexed("Sequences");
+	}
+
+	public void testLets() throws Exception
+	{
+		checkIndexed("Lets");
+	}
+
+	public void testConcurrent() throws Exception
+	{
+		checkIndexed("Concurrent");
+	}
+
+	public void testRepeats() throws Exception
+	{
+		checkIndexed("Repeats");
+		assertEquals(28, expand("Repeats").size());
+	}
+
+	public void testNestedRepeats() throws Exception
+	{
+		checkIndexed("NestedRepeats");
+		assertEquals(36, expand("NestedRepeats").size());
+	}
+
+	public void testRange() throws Exception
+	{
+		List<String> expected = expand("Alternatives");
+		String output = runtrace("Alternatives", 2000, 2002);
+
+		assertFalse(output.contains("Test 1999 "));
+		assertTrue(output.contains("Test 2000 = " + expected.get(1999) + "\n"));
+		assertTrue(output.contains("Test 2002 = " + expected.get(2001) + "\n"));
+		assertFalse(output.contains("Test 2003 "));
+		assertTrue(output.contains("Excluded " + (expected.size() - 3) + " tests"));
+	}
+
+	public void testFiltered() throws Exception
+	{
+		String output = runtrace("Failing", 0, 0);
+
+		assertTrue(output.contains("Test 3 FILTERED by test 1\n"));
+		assertTrue(output.contains("Excluded 5 tests\n"));	// 3, 5, 7, 9 and 11
+	}
+
+	public void testFilteredLets() throws Exception
+	{
+		String output = runtrace("FailingLets", 0, 0);
+		int filtered = 0;
+
+		for (String line: output.split("\\R"))
+		{
+			if (line.contains(" FILTERED by "))
+			{
+				filtered++;
+			}
+		}
+
+		// Tests are filtered by the earliest failure, with the same let bindings
+
+		assertTrue(output.contains("Test 5 FILTERED by test 1\n"));
+		assertTrue(output.contains("Test 7 FILTERED by test 3\n"));
+		assertTrue(output.contains("Test 14 FILTERED by test 6\n"));
+		assertTrue(output.contains("Test 42 FILTERED by test 18\n"));
+		assertTrue(output.contains("Test 44 FILTERED by test 20\n"));
+		assertTrue(output.contains("Test 48 FILTERED by test 8\n"));
+		assertFalse(output.contains("Test 18 FILTERED"));
+		assertEquals(34, filtered);
+		assertTrue(output.contains("Excluded 34 tests\n"));
+	}
+
+	public void testWorkers() throws Exception
+	{
+		LexLocation.clearLocations();
+		String serial = runtrace("Failing", 0, 0);
+		List<Long> serialHits = getHits();
+
+		try
+		{
+			LexLocation.clearLocations();
+			Properties.traces_workers = 2;
+			String pooled = runtrace("Failing", 0, 0);
+
+			assertEquals(getResults(serial), getResults(pooled));
+			assertEquals(serialHits, getHits());	// Filtered tests are not counted
+		}
+		finally
+		{
+			Properties.traces_workers = 0;
+		}
+	}
+
+	public void testRestore() throws Exception
+	{
+		interpreter = process("restore.vdm");
+		String output = runtrace("Pushes", 0, 0);
+
+		// Each test starts with the initial state, restored from a snapshot
+
+		assertTrue(output.contains("Test 1 = push(1); push(2); pos(1)\nResult = [mk_(1, 1, 1), mk_(2, 2, 2), 1, PASSED]\n"));
+		assertTrue(output.contains("Test 2 = push(1); push(1); pos(1)\nResult = [mk_(1, 1, 1), mk_(2, 1, 1), 2, PASSED]\n"));
+		assertTrue(output.contains("Test 4 = push(1); push(1); pos(2)\nResult = [mk_(1, 1, 1), mk_(2, 1, 1), Error 4071"));
+		assertTrue(output.contains("Test 5 = push(1); push(2); push(3)\nResult = [mk_(1, 1, 1), mk_(2, 2, 2), mk_(3, 3, 3), PASSED]\n"));
+		assertTrue(output.contains("Test 6 = push(1); push(1); push(3)\nResult = [mk_(1, 1, 1), mk_(2, 1, 1), mk_(3, 2, 2), PASSED]\n"));
+		assertEquals("mk_(1, 1, 1)", interpreter.execute("push(7)").toString());
+	}
+
+	public void testRestoreObjects() throws Exception
+	{
+		interpreter = processClasses("restore.vpp");
+		String output = runtrace("Store`Cells", 0, 0);
+
+		// Objects and static variables are restored, as well as the next object reference
+
+		assertTrue(output.contains("Test 1 = add(); bump(1); add()\nResult = [mk_(2, 1), 1, mk_(3, 2), PASSED]\n"));
+		assertTrue(output.contains("Test 2 = add(); bump(2); add()\nResult = [mk_(2, 1), 2, mk_(3, 2), PASSED]\n"));
+		assertTrue(output.contains("Test 3 = add(); bump(3); add()\nResult = [mk_(2, 1), Error 4071"));
+		assertTrue(output.contains("Test 4 = add(); bump(1); bump(1); add()\nResult = [mk_(2, 1), 1, 2, mk_(3, 2), PASSED]\n"));
+		assertTrue(output.contains("Test 8 = add(); bump(2); bump(2); add()\nResult = [mk_(2, 1), 2, 4, mk_(3, 2), PASSED]\n"));
+		assertTrue(output.contains("Excluded 3 tests\n"));
+	}
+
+	private String getResults(String output)
+	{
+		StringBuilder sb = new StringBuilder();
+
+		for (String line: output.split("\\R"))
+		{
+			if (line.startsWith("Test ") || line.startsWith("Result ") || line.startsWith("Excluded "))
+			{
+				sb.append(line);
+				sb.append("\n");
+			}
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * The hits of the operation bodies. The state is initialized once per worker,
+	 * so its hits are not compared.
+	 */
+	private List<Long> getHits()
+	{
+		List<Long> hits = new Vector<Long>();
+
+		for (File file: interpreter.getSourceFiles())
+		{
+			for (LexLocation location: LexLocation.getSourceLocations(file))
+			{
+				if (location.startLine > 9)
+				{
+					hits.add(location.getHits());
+				}
+			}
+		}
+
+		return hits;
+	}
+}
@@ -26,11 +26,17 @@ package com.fujitsu.vdmj.junit.overture;
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileReader;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.URL;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import com.fujitsu.vdmj.Release;
 import com.fujitsu.vdmj.Settings;
@@ -45,8 +51,10 @@ import com.fujitsu.vdmj.lex.LexTokenReader;
 import com.fujitsu.vdmj.mapper.ClassMapper;
 import com.fujitsu.vdmj.messages.Console;
 import com.fujitsu.vdmj.messages.ConsolePrintWriter;
+import com.fujitsu.vdmj.messages.RTLogger;
 import com.fujitsu.vdmj.messages.VDMError;
 import com.fujitsu.vdmj.messages.VDMMessage;
+import com.fujitsu.vdmj.messages.rtlog.RTLogConverter;
 import com.fujitsu.vdmj.runtime.ClassInterpreter;
 import com.fujitsu.vdmj.runtime.ContextException;
 import com.fujitsu.vdmj.runtime.Interpreter;
@@ -291,6 +299,119 @@ abstract public class OvertureTest extends TestCase
 		}
 	}
 
+	/**
+	 * Evaluate an RT specification, and compare its RT log with the expected ".log"
+	 * resource. Thread ids are renumbered in order of appearance, since they depend
+	 * on how many Java threads have been created before the test. A binary log is
+	 * converted to text before the comparison.
+	 */
+	protected void rtlog(String rpath, Release release, boolean binary)
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		File binfile = null;
+
+		try
+		{
+			if (binary)
+			{
+				binfile = File.createTempFile(rpath, RTLogger.BINARY_EXTENSION);
+				RTLogger.openLogfile(binfile);
+			}
+			else
+			{
+				RTLogger.setLogfile(new PrintWriter(out));
+			}
+
+			Settings.dialect = Dialect.VDM_RT;
+			evaluate(rpath, ResultType.VOID, 0, release);
+			RTLogger.enable(false);
+
+			if (binary)
+			{
+				PrintWriter pw = new PrintWriter(out);
+				new RTLogConverter(new FileInputStream(binfile)).convert(pw);
+				pw.close();
+			}
+		}
+		catch (IOException e)
+		{
+			fail("Caught: " + e + " in " + rpath);
+		}
+		finally
+		{
+			RTLogger.enable(false);
+
+			if (binfile != null)
+			{
+				binfile.delete();
+			}
+		}
+
+		URL rurl = getClass().getResource("/Overture/evaluate/" + rpath + ".log");
+
+		if (rurl == null)
+		{
+			fail("Cannot find resource: /Overture/evaluate/" + rpath + ".log");
+		}
+
+		try
+		{
+			String expected = readFile(new File(rurl.getPath()));
+			String result = renumberThreads(out.toString());
+
+			if (!result.equals(expected))
+			{
+				Console.out.println(rpath + " actual RT log:\n" + result);
+			}
+
+			assertEquals("RT log differs", expected, result);
+		}
+		catch (Exception e)
+		{
+			fail("Caught: " + e + " in " + rpath);
+		}
+	}
+
+	private String renumberThreads(String log)
+	{
+		Pattern pattern = Pattern.compile("\\b(id|callthr|calleethr): (\\d+)");
+		Map<String, Integer> ids = new HashMap<String, Integer>();
+		StringBuilder sb = new StringBuilder();
+
+		for (String line: log.split("\\R"))
+		{
+			if (line.startsWith("CPUdecl") || line.startsWith("BUSdecl"))
+			{
+				sb.append(line);	// CPU and BUS ids are fixed
+			}
+			else
+			{
+				Matcher m = pattern.matcher(line);
+				StringBuffer renumbered = new StringBuffer();
+
+				while (m.find())
+				{
+					Integer id = ids.get(m.group(2));
+
+					if (id == null)
+					{
+						id = ids.size() + 1;
+						ids.put(m.group(2), id);
+					}
+
+					m.appendReplacement(renumbered, m.group(1) + ": " + id);
+				}
+
+				m.appendTail(renumbered);
+				sb.append(renumbered);
+			}
+
+			sb.append(System.lineSeparator());	// As readFile
+		}
+
+		return sb.toString();
+	}
+
 	protected void combtest(String rpath, String testExp)
 	{
 		combtest(rpath, rpath, testExp, 0);	// No expected error
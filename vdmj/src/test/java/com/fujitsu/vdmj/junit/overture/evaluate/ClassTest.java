@@ -25,8 +25,10 @@ package com.fujitsu.vdmj.junit.overture.evaluate;
 
 import com.fujitsu.vdmj.Release;
 import com.fujitsu.vdmj.Settings;
+import com.fujitsu.vdmj.config.Properties;
 import com.fujitsu.vdmj.junit.overture.OvertureTest;
 import com.fujitsu.vdmj.lex.Dialect;
+import com.fujitsu.vdmj.scheduler.Lock;
 
 public class ClassTest extends OvertureTest
 {
@@ -102,6 +104,35 @@ public class ClassTest extends OvertureTest
 		evaluate("sporadic", ResultType.VOID, 0, Release.VDM_10);
 	}
 
+	public void test_RTLog()
+	{
+		rtlog("rtlog", Release.VDM_10, false);
+	}
+
+	public void test_RTLogBinary()
+	{
+		rtlog("rtlog", Release.VDM_10, true);
+	}
+
+	public void test_RTLogPooled()
+	{
+		Properties.scheduler_threads = "pooled";	// Reset by setUp
+		rtlog("rtlog", Release.VDM_10, false);
+	}
+
+	public void test_RTLogVirtual()
+	{
+		Properties.scheduler_threads = "virtual";	// Pooled before Java 21
+		rtlog("rtlog", Release.VDM_10, false);
+	}
+
+	public void test_SporadicPooled()
+	{
+		Properties.scheduler_threads = "pooled";
+		Settings.dialect = Dialect.VDM_RT;
+		evaluate("sporadic", ResultType.VOID, 0, Release.VDM_10);
+	}
+
 	public void test_Set1()
 	{
 		evaluate("set1", ResultType.TRUE, 0, Release.VDM_10);
@@ -122,4 +153,160 @@ public class ClassTest extends OvertureTest
 	{
 		evaluate("ordering2", ResultType.TRUE, 0, Release.VDM_10);
 	}
+	
+	public void test_ValueSet()
+	{
+		evaluate("valueset", ResultType.TRUE, 0, Release.VDM_10);
+	}
+	
+	public void test_RangeSet()
+	{
+		evaluate("rangeset", ResultType.TRUE, 0, Release.VDM_10);
+	}
+	
+	public void test_Contexts()
+	{
+		evaluate("contexts", ResultType.TRUE, 0, Release.VDM_10);
+	}
+	
+	public void test_SeqSlice()
+	{
+		evaluate("seqslice", ResultType.TRUE, 0, Release.VDM_10);
+	}
+	
+	public void test_SeqSliceConversion()
+	{
+		evaluate("seqslice2", ResultType.ERROR, 4060, Release.VDM_10);
+	}
+	
+	public void test_SeqSliceAppend()
+	{
+		evaluate("seqslice3", ResultType.ERROR, 4060, Release.VDM_10);
+	}
+	
+	public void test_StringSeq()
+	{
+		evaluate("strseq", ResultType.TRUE, 0, Release.VDM_10);
+	}
+	
+	public void test_Memo()
+	{
+		Properties.in_function_cache = 100;		// Reset by setUp
+		evaluate("memo", ResultType.TRUE, 0, Release.VDM_10);
+	}
+	
+	public void test_Parallel()
+	{
+		Properties.in_parallel_threads = 4;		// Limited by the processors available
+		Properties.in_parallel_minimum = 10;
+		evaluate("parallel", ResultType.TRUE, 0, Release.VDM_10);
+	}
+	
+	public void test_QFilter()
+	{
+		evaluate("qfilter", ResultType.TRUE, 0, Release.VDM_10);
+	}
+	
+	public void test_QFilterExists()
+	{
+		evaluate("qfilterexists", ResultType.ERROR, 4134, Release.VDM_10);
+	}
+	
+	public void test_QFilterSetcomp()
+	{
+		evaluate("qfiltersetcomp", ResultType.ERROR, 4134, Release.VDM_10);
+	}
+	
+	public void test_QFilterForall()
+	{
+		evaluate("qfilterforall", ResultType.ERROR, 4134, Release.VDM_10);
+	}
+	
+	public void test_FastMode()
+	{
+		Properties.in_fast_mode = true;		// Read when the IN tree is created
+		evaluate("qfilter", ResultType.TRUE, 0, Release.VDM_10);
+	}
+	
+	public void test_FastParallel()
+	{
+		Properties.in_fast_mode = true;
+		Properties.in_parallel_threads = 4;
+		Properties.in_parallel_minimum = 10;
+		evaluate("parallel", ResultType.TRUE, 0, Release.VDM_10);
+	}
+	
+	public void test_FastRTLog()
+	{
+		Properties.in_fast_mode = true;		// Threads are still rescheduled
+		rtlog("rtlog", Release.VDM_10, false);
+	}
+	
+	public void test_GuardFields()
+	{
+		evaluate("guardfield", ResultType.TRUE, 0, Release.VDM_10);
+	}
+	
+	public void test_TailPre()
+	{
+		evaluate("tailpre", ResultType.ERROR, 4055, Release.VDM_10);
+	}
+	
+	public void test_TailMeasure()
+	{
+		evaluate("tailmeasure", ResultType.ERROR, 4146, Release.VDM_10);
+	}
+	
+	public void test_TailPost()
+	{
+		evaluate("tailpost", ResultType.ERROR, 4056, Release.VDM_10);
+	}
+	
+	public void test_SetPattern()
+	{
+		evaluate("setpattern", ResultType.ERROR, 4121, Release.VDM_10);
+	}
+	
+	public void test_InitOrder()
+	{
+		evaluate("initorder", ResultType.TRUE, 0, Release.VDM_10);
+	}
+	
+	public void test_ParallelSets()
+	{
+		Properties.in_parallel_threads = 4;		// Workers share the membership index of t
+		Properties.in_parallel_minimum = 2;
+		evaluate("parallelsets", ResultType.TRUE, 0, Release.VDM_10);
+	}
+	
+	public void test_MapShare()
+	{
+		evaluate("mapshare", ResultType.TRUE, 0, Release.VDM_10);
+	}
+	
+	public void test_MapShareUnion()
+	{
+		evaluate("mapshare2", ResultType.ERROR, 4021, Release.VDM_10);
+	}
+	
+	public void test_MapShareConversion()
+	{
+		evaluate("mapshare3", ResultType.ERROR, 4060, Release.VDM_10);
+	}
+	
+	public void test_GuardWakeups()
+	{
+		Properties.diags_guards = true;		// Reset by setUp
+		Lock.resetAvoidedWakeups();
+		evaluate("guardwakeups", ResultType.TRUE, 0, Release.VDM_10);
+		assertTrue("Expecting avoided wake-ups", Lock.getAvoidedWakeups() > 0);
+	}
+	
+	public void test_GuardWakeupsUnknown()
+	{
+		Properties.diags_guards = true;
+		Lock.resetAvoidedWakeups();
+		evaluate("guardwakeups2", ResultType.TRUE, 0, Release.VDM_10);
+		assertEquals("Expecting no avoided wake-ups", 0, Lock.getAvoidedWakeups());
+	}
 }
@@ -156,7 +156,7 @@ public abstract class VDMJUnitTest
 	 * @return True, if the test passes.
 	 * @throws Exception
 	 */
-	protected boolean runTrace(String name, int startTest, int endTest) throws Exception
+	protected boolean runTrace(String name, long startTest, long endTest) throws Exception
 	{
 		return interpreter.runtrace(name, startTest, endTest, false, 0, TraceReductionType.NONE, 0);
 	}